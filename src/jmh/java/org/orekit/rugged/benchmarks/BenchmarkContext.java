@@ -0,0 +1,125 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.benchmarks;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.geometry.euclidean.threed.RotationConvention;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.orekit.bodies.BodyShape;
+import org.orekit.data.DataContext;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.orbits.Orbit;
+import org.orekit.rugged.TestUtils;
+import org.orekit.rugged.api.AlgorithmId;
+import org.orekit.rugged.api.BodyRotatingFrameId;
+import org.orekit.rugged.api.EllipsoidId;
+import org.orekit.rugged.api.InertialFrameId;
+import org.orekit.rugged.api.RuggedBuilder;
+import org.orekit.rugged.linesensor.LineDatation;
+import org.orekit.rugged.linesensor.LineSensor;
+import org.orekit.rugged.linesensor.LinearLineDatation;
+import org.orekit.rugged.los.TimeDependentLOS;
+import org.orekit.rugged.raster.TileUpdater;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.AngularDerivativesFilter;
+import org.orekit.utils.CartesianDerivativesFilter;
+import org.orekit.utils.Constants;
+
+/** Shared setup for the benchmarks.
+ * <p>
+ * The benchmarks reuse the synthetic terrains and the orbit helpers from the
+ * unit tests, so the measured configurations are the ones validated by the tests.
+ * </p>
+ * @since 4.1
+ */
+final class BenchmarkContext {
+
+    /** Name of the line sensor. */
+    static final String SENSOR_NAME = "line";
+
+    /** Private constructor for utility class. */
+    private BenchmarkContext() {
+    }
+
+    /** Register the Orekit data from the test resources.
+     */
+    static void initOrekitData() {
+        try {
+            final URL url = BenchmarkContext.class.getClassLoader().getResource("orekit-data");
+            DataContext.getDefault().getDataProvidersManager().addProvider(new DirectoryCrawler(new File(url.toURI().getPath())));
+        } catch (URISyntaxException use) {
+            throw new IllegalStateException(use);
+        }
+    }
+
+    /** Create a builder with one push-broom sensor looking at 50° roll.
+     * <p>
+     * The sensor and trajectory are the ones used in the direct location unit tests.
+     * </p>
+     * @param updater tiles updater (may be null if algorithm does not use a DEM)
+     * @param algorithm intersection algorithm
+     * @param nbLines number of lines of the sensor
+     * @param nbPixels number of pixels of the sensor
+     * @return configured builder
+     */
+    static RuggedBuilder createBuilder(final TileUpdater updater, final AlgorithmId algorithm,
+                                       final int nbLines, final int nbPixels) {
+
+        final BodyShape earth = TestUtils.createEarth();
+        final Orbit     orbit = TestUtils.createOrbit(Constants.EIGEN5C_EARTH_MU);
+
+        final AbsoluteDate crossing = new AbsoluteDate("2012-01-01T12:30:00.000", TimeScalesFactory.getUTC());
+
+        // position: 1.5m in front (+X) and 20 cm above (-Z) of the S/C center of mass
+        // los: swath in the (YZ) plane, looking at 50° roll, ±1° aperture
+        final Vector3D position = new Vector3D(1.5, 0, -0.2);
+        final TimeDependentLOS los =
+                TestUtils.createLOSPerfectLine(new Rotation(Vector3D.PLUS_I,
+                                                            FastMath.toRadians(50.0),
+                                                            RotationConvention.VECTOR_OPERATOR).applyTo(Vector3D.PLUS_K),
+                                               Vector3D.PLUS_I, FastMath.toRadians(1.0), nbPixels).build();
+
+        // linear datation model: at reference time we get the middle line, and the rate is one line every 1.5ms
+        final LineDatation lineDatation = new LinearLineDatation(crossing, nbLines / 2, 1.0 / 1.5e-3);
+        final LineSensor   lineSensor   = new LineSensor(SENSOR_NAME, lineDatation, position, los);
+        final AbsoluteDate minDate      = lineSensor.getDate(0);
+        final AbsoluteDate maxDate      = lineSensor.getDate(nbLines);
+
+        final RuggedBuilder builder = new RuggedBuilder().
+                setAlgorithm(algorithm).
+                setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                setTimeSpan(minDate, maxDate, 0.001, 5.0).
+                setTrajectory(InertialFrameId.EME2000,
+                              TestUtils.orbitToPV(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              8, CartesianDerivativesFilter.USE_PV,
+                              TestUtils.orbitToQ(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              2, AngularDerivativesFilter.USE_R).
+                addLineSensor(lineSensor);
+        if (updater != null) {
+            builder.setDigitalElevationModel(updater, 8);
+        }
+        return builder;
+
+    }
+
+}
@@ -0,0 +1,73 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.benchmarks;
+
+import org.orekit.rugged.api.RuggedBuilder;
+import org.orekit.rugged.refraction.MultiLayerModel;
+
+/** Corrections applied in the location benchmarks.
+ * @since 4.1
+ */
+public enum Corrections {
+
+    /** No correction. */
+    NONE(false, false, false),
+
+    /** Light time correction only. */
+    LIGHT_TIME(true, false, false),
+
+    /** Aberration of light correction only. */
+    ABERRATION(false, true, false),
+
+    /** Atmospheric refraction with {@link MultiLayerModel} only. */
+    REFRACTION(false, false, true),
+
+    /** All corrections. */
+    ALL(true, true, true);
+
+    /** Flag for light time correction. */
+    private final boolean lightTime;
+
+    /** Flag for aberration of light correction. */
+    private final boolean aberration;
+
+    /** Flag for atmospheric refraction. */
+    private final boolean refraction;
+
+    /** Simple constructor.
+     * @param lightTime flag for light time correction
+     * @param aberration flag for aberration of light correction
+     * @param refraction flag for atmospheric refraction
+     */
+    Corrections(final boolean lightTime, final boolean aberration, final boolean refraction) {
+        this.lightTime  = lightTime;
+        this.aberration = aberration;
+        this.refraction = refraction;
+    }
+
+    /** Configure a builder with the corrections.
+     * @param builder builder to configure (ellipsoid must already be set)
+     */
+    void configure(final RuggedBuilder builder) {
+        builder.setLightTimeCorrection(lightTime);
+        builder.setAberrationOfLightCorrection(aberration);
+        if (refraction) {
+            builder.setRefractionCorrection(new MultiLayerModel(builder.getEllipsoid()));
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.frames.FramesFactory;
+import org.orekit.rugged.utils.ExtendedEllipsoid;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+/** Benchmark for single point and batch {@link ExtendedEllipsoid} kernels.
+ * <p>
+ * Each benchmark processes one line of pixels, seen from a point 700 km above
+ * the ellipsoid.
+ * </p>
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EllipsoidBenchmark {
+
+    /** Number of pixels in the line. */
+    private static final int NB_PIXELS = 2000;
+
+    /** Reference ellipsoid. */
+    private ExtendedEllipsoid ellipsoid;
+
+    /** Position of the observer (body frame). */
+    private Vector3D position;
+
+    /** Lines of sight (body frame). */
+    private Vector3D[] los;
+
+    /** Positions coordinates. */
+    private double[] px;
+
+    /** Positions coordinates. */
+    private double[] py;
+
+    /** Positions coordinates. */
+    private double[] pz;
+
+    /** Lines of sight coordinates. */
+    private double[] lx;
+
+    /** Lines of sight coordinates. */
+    private double[] ly;
+
+    /** Lines of sight coordinates. */
+    private double[] lz;
+
+    /** Placeholder for latitudes. */
+    private double[] latitudes;
+
+    /** Placeholder for longitudes. */
+    private double[] longitudes;
+
+    /** Placeholder for altitudes. */
+    private double[] altitudes;
+
+    /** Set up the line of pixels.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkContext.initOrekitData();
+        ellipsoid = new ExtendedEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                          Constants.WGS84_EARTH_FLATTENING,
+                                          FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+
+        position = ellipsoid.transform(new GeodeticPoint(0.7, 0.3, 700000.0));
+        final RandomGenerator random = new Well19937a(0x6f2a91d4c85e3b07L);
+        los        = new Vector3D[NB_PIXELS];
+        px         = new double[NB_PIXELS];
+        py         = new double[NB_PIXELS];
+        pz         = new double[NB_PIXELS];
+        lx         = new double[NB_PIXELS];
+        ly         = new double[NB_PIXELS];
+        lz         = new double[NB_PIXELS];
+        latitudes  = new double[NB_PIXELS];
+        longitudes = new double[NB_PIXELS];
+        altitudes  = new double[NB_PIXELS];
+        for (int i = 0; i < NB_PIXELS; ++i) {
+            final GeodeticPoint target = new GeodeticPoint(0.7 + 0.002 * (2 * random.nextDouble() - 1),
+                                                           0.3 + 0.002 * (2 * random.nextDouble() - 1),
+                                                           0.0);
+            los[i] = ellipsoid.transform(target).subtract(position).normalize();
+            px[i]  = position.getX();
+            py[i]  = position.getY();
+            pz[i]  = position.getZ();
+            lx[i]  = los[i].getX();
+            ly[i]  = los[i].getY();
+            lz[i]  = los[i].getZ();
+        }
+
+    }
+
+    /** Compute points on ground one pixel at a time.
+     * @param blackhole sink for results
+     */
+    @Benchmark
+    public void pointOnGroundSingle(final Blackhole blackhole) {
+        for (final Vector3D l : los) {
+            blackhole.consume(ellipsoid.pointOnGround(position, l, 0.0));
+        }
+    }
+
+    /** Compute points on ground for the whole line at once.
+     * @return latitudes of points on ground
+     */
+    @Benchmark
+    public double[] pointOnGroundBatch() {
+        ellipsoid.pointOnGround(px, py, pz, lx, ly, lz, 0.0, latitudes, longitudes, altitudes);
+        return latitudes;
+    }
+
+}
@@ -0,0 +1,152 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.frames.FramesFactory;
+import org.orekit.rugged.api.AlgorithmId;
+import org.orekit.rugged.intersection.BasicScanAlgorithm;
+import org.orekit.rugged.intersection.IntersectionAlgorithm;
+import org.orekit.rugged.intersection.duvenhage.DuvenhageAlgorithm;
+import org.orekit.rugged.raster.TileUpdater;
+import org.orekit.rugged.utils.ExtendedEllipsoid;
+import org.orekit.rugged.utils.NormalizedGeodeticPoint;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+/** Benchmark for {@link IntersectionAlgorithm Digital Elevation Model intersection} algorithms.
+ * <p>
+ * Lines of sight start from a point 700 km above the terrain center and aim at
+ * random points around it. Tiles are loaded during setup, so only the
+ * intersection itself is measured.
+ * </p>
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntersectionBenchmark {
+
+    /** Number of lines of sight. */
+    private static final int NB_LOS = 256;
+
+    /** Angular radius of the targeted area around terrain center (rad). */
+    private static final double RADIUS = 2.0e-3;
+
+    /** Intersection algorithm. */
+    @Param({ "DUVENHAGE", "DUVENHAGE_FLAT_BODY", "BASIC_SLOW_EXHAUSTIVE_SCAN_FOR_TESTS_ONLY" })
+    private AlgorithmId algorithmId;
+
+    /** Synthetic terrain. */
+    @Param({ "VOLCANO", "CLIFFS", "RANDOM" })
+    private Terrain terrain;
+
+    /** Reference ellipsoid. */
+    private ExtendedEllipsoid ellipsoid;
+
+    /** Intersection algorithm. */
+    private IntersectionAlgorithm algorithm;
+
+    /** Position of the observer (body frame). */
+    private Vector3D position;
+
+    /** Lines of sight (body frame). */
+    private Vector3D[] los;
+
+    /** Index of current line of sight. */
+    private int index;
+
+    /** Set up the algorithm and lines of sight.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkContext.initOrekitData();
+        ellipsoid = new ExtendedEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                          Constants.WGS84_EARTH_FLATTENING,
+                                          FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+
+        final TileUpdater updater = terrain.createUpdater();
+        switch (algorithmId) {
+            case DUVENHAGE :
+                algorithm = new DuvenhageAlgorithm(updater, 8, false, false);
+                break;
+            case DUVENHAGE_FLAT_BODY :
+                algorithm = new DuvenhageAlgorithm(updater, 8, true, false);
+                break;
+            case BASIC_SLOW_EXHAUSTIVE_SCAN_FOR_TESTS_ONLY :
+                algorithm = new BasicScanAlgorithm(updater, 8, false);
+                break;
+            default :
+                throw new IllegalArgumentException(algorithmId.name());
+        }
+
+        position = ellipsoid.transform(new GeodeticPoint(terrain.getLatitude(), terrain.getLongitude(), 700000.0));
+        final RandomGenerator random = new Well19937a(0x2b5e8c1f07d9a463L);
+        los = new Vector3D[NB_LOS];
+        for (int i = 0; i < los.length; ++i) {
+            final GeodeticPoint target =
+                    new GeodeticPoint(terrain.getLatitude()  + RADIUS * (2 * random.nextDouble() - 1),
+                                      terrain.getLongitude() + RADIUS * (2 * random.nextDouble() - 1),
+                                      0.0);
+            los[i] = ellipsoid.transform(target).subtract(position).normalize();
+            // warm up tiles cache
+            intersection(los[i]);
+        }
+        index = 0;
+
+    }
+
+    /** Intersect one line of sight with the Digital Elevation Model.
+     * @return intersection point
+     */
+    @Benchmark
+    public NormalizedGeodeticPoint intersection() {
+        index = (index + 1) % los.length;
+        return intersection(los[index]);
+    }
+
+    /** Intersect one line of sight with the Digital Elevation Model.
+     * @param l line of sight
+     * @return intersection point
+     */
+    private NormalizedGeodeticPoint intersection(final Vector3D l) {
+        return algorithm.refineIntersection(ellipsoid, position, l,
+                                            algorithm.intersection(ellipsoid, position, l));
+    }
+
+}
@@ -0,0 +1,112 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.rugged.api.AlgorithmId;
+import org.orekit.rugged.api.Rugged;
+import org.orekit.rugged.api.RuggedBuilder;
+import org.orekit.rugged.linesensor.SensorPixel;
+
+/** Benchmark for {@link Rugged#inverseLocation(String, GeodeticPoint, int, int) inverse location}.
+ * <p>
+ * The ground points are computed once by direct location on a sub-grid of the
+ * sensor, then each invocation inverse locates one of them, cycling over the grid.
+ * </p>
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InverseLocationBenchmark {
+
+    /** Number of sensor lines. */
+    private static final int NB_LINES = 200;
+
+    /** Number of sensor pixels. */
+    private static final int NB_PIXELS = 200;
+
+    /** Step between lines and pixels of the ground points grid. */
+    private static final int GRID_STEP = 10;
+
+    /** Synthetic terrain. */
+    @Param({ "RANDOM" })
+    private Terrain terrain;
+
+    /** Corrections applied. */
+    @Param({ "NONE", "LIGHT_TIME", "ABERRATION", "REFRACTION", "ALL" })
+    private Corrections corrections;
+
+    /** Rugged instance. */
+    private Rugged rugged;
+
+    /** Ground points to inverse locate. */
+    private GeodeticPoint[] points;
+
+    /** Index of current ground point. */
+    private int index;
+
+    /** Set up the Rugged instance and the ground points.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkContext.initOrekitData();
+        final RuggedBuilder builder = BenchmarkContext.createBuilder(terrain.createUpdater(), AlgorithmId.DUVENHAGE,
+                                                                     NB_LINES, NB_PIXELS);
+        corrections.configure(builder);
+        rugged = builder.build();
+
+        final List<GeodeticPoint> list = new ArrayList<>();
+        for (int line = GRID_STEP / 2; line < NB_LINES; line += GRID_STEP) {
+            final GeodeticPoint[] gp = rugged.directLocation(BenchmarkContext.SENSOR_NAME, line);
+            for (int pixel = GRID_STEP / 2; pixel < NB_PIXELS; pixel += GRID_STEP) {
+                list.add(gp[pixel]);
+            }
+        }
+        points = list.toArray(new GeodeticPoint[list.size()]);
+        index  = 0;
+    }
+
+    /** Inverse locate one ground point.
+     * @return sensor pixel
+     */
+    @Benchmark
+    public SensorPixel inverseLocation() {
+        index = (index + 1) % points.length;
+        return rugged.inverseLocation(BenchmarkContext.SENSOR_NAME, points[index], 0, NB_LINES);
+    }
+
+}
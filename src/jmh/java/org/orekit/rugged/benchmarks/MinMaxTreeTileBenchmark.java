@@ -0,0 +1,88 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.rugged.intersection.duvenhage.MinMaxTreeTile;
+import org.orekit.rugged.intersection.duvenhage.MinMaxTreeTileFactory;
+import org.orekit.rugged.raster.TileUpdater;
+import org.orekit.rugged.raster.VolcanicConeElevationUpdater;
+
+/** Benchmark for {@link MinMaxTreeTile} construction.
+ * <p>
+ * Each invocation fills a new tile from a synthetic volcano and builds its min/max kd-tree,
+ * as done by the tiles cache when a tile is loaded.
+ * </p>
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinMaxTreeTileBenchmark {
+
+    /** Number of rows and columns of the tile. */
+    @Param({ "257", "1201", "3601" })
+    private int size;
+
+    /** Tile factory. */
+    private MinMaxTreeTileFactory factory;
+
+    /** Tile updater. */
+    private TileUpdater updater;
+
+    /** Set up the tile updater.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = new MinMaxTreeTileFactory();
+        updater = new VolcanicConeElevationUpdater(new GeodeticPoint(FastMath.toRadians(13.25667),
+                                                                     FastMath.toRadians(123.685),
+                                                                     2463.0),
+                                                   FastMath.toRadians(30.0), 16.0,
+                                                   FastMath.toRadians(1.0), size);
+    }
+
+    /** Load one tile.
+     * @return loaded tile
+     */
+    @Benchmark
+    public MinMaxTreeTile loadTile() {
+        final MinMaxTreeTile tile = factory.createTile();
+        updater.updateTile(FastMath.toRadians(13.5), FastMath.toRadians(123.5), tile);
+        tile.tileUpdateCompleted();
+        return tile;
+    }
+
+}
@@ -0,0 +1,104 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.benchmarks;
+
+import org.hipparchus.util.FastMath;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.rugged.raster.CliffsElevationUpdater;
+import org.orekit.rugged.raster.RandomLandscapeUpdater;
+import org.orekit.rugged.raster.TileUpdater;
+import org.orekit.rugged.raster.VolcanicConeElevationUpdater;
+
+/** Synthetic terrains used by the benchmarks.
+ * @since 4.1
+ */
+public enum Terrain {
+
+    /** Mayon volcano cone, 1201x1201 cells per tile. */
+    VOLCANO(13.25667, 123.685) {
+        /** {@inheritDoc} */
+        @Override
+        TileUpdater createUpdater() {
+            return new VolcanicConeElevationUpdater(new GeodeticPoint(FastMath.toRadians(13.25667),
+                                                                      FastMath.toRadians(123.685),
+                                                                      2463.0),
+                                                    FastMath.toRadians(30.0), 16.0,
+                                                    FastMath.toRadians(1.0), 1201);
+        }
+    },
+
+    /** Cliffs of Moher, 101x101 cells per tile. */
+    CLIFFS(52.98, -9.42) {
+        /** {@inheritDoc} */
+        @Override
+        TileUpdater createUpdater() {
+            return new CliffsElevationUpdater(new GeodeticPoint(FastMath.toRadians(52.9984),
+                                                                FastMath.toRadians(-9.4072),
+                                                                120.0),
+                                              new GeodeticPoint(FastMath.toRadians(52.9625),
+                                                                FastMath.toRadians(-9.4369),
+                                                                120.0),
+                                              120.0, 0.0,
+                                              FastMath.toRadians(0.015), 101);
+        }
+    },
+
+    /** Random fractal landscape, 257x257 cells per tile, with elevations between 0 and 18000m. */
+    RANDOM(0.5, 0.5) {
+        /** {@inheritDoc} */
+        @Override
+        TileUpdater createUpdater() {
+            return new RandomLandscapeUpdater(9000.0, 9000.0, 0.5, 0xf0a401650191f9f6L,
+                                              FastMath.toRadians(1.0), 257);
+        }
+    };
+
+    /** Latitude of terrain center (rad). */
+    private final double latitude;
+
+    /** Longitude of terrain center (rad). */
+    private final double longitude;
+
+    /** Simple constructor.
+     * @param latitude latitude of terrain center (degrees)
+     * @param longitude longitude of terrain center (degrees)
+     */
+    Terrain(final double latitude, final double longitude) {
+        this.latitude  = FastMath.toRadians(latitude);
+        this.longitude = FastMath.toRadians(longitude);
+    }
+
+    /** Create the tiles updater for the terrain.
+     * @return tiles updater
+     */
+    abstract TileUpdater createUpdater();
+
+    /** Get the latitude of terrain center.
+     * @return latitude of terrain center (rad)
+     */
+    double getLatitude() {
+        return latitude;
+    }
+
+    /** Get the longitude of terrain center.
+     * @return longitude of terrain center (rad)
+     */
+    double getLongitude() {
+        return longitude;
+    }
+
+}
@@ -0,0 +1,137 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.orekit.rugged.raster.CheckedPatternElevationUpdater;
+import org.orekit.rugged.raster.ConcurrentTilesCache;
+import org.orekit.rugged.raster.SimpleTile;
+import org.orekit.rugged.raster.SimpleTileFactory;
+import org.orekit.rugged.raster.TileUpdater;
+import org.orekit.rugged.raster.TilesCache;
+
+/** Benchmark for {@link TilesCache} lookups.
+ * <p>
+ * Each invocation looks up one random point. In the {@link Pattern#HIT HIT} pattern,
+ * all points lie in tiles that fit in the cache, in the {@link Pattern#MISS MISS}
+ * pattern the points are spread over twice as many tiles as the cache can hold.
+ * </p>
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TilesCacheBenchmark {
+
+    /** Number of tiles in the cache. */
+    private static final int MAX_TILES = 8;
+
+    /** Number of points looked up. */
+    private static final int NB_POINTS = 4096;
+
+    /** Lookup patterns. */
+    public enum Pattern {
+
+        /** All points in cached tiles. */
+        HIT(MAX_TILES),
+
+        /** Points spread over more tiles than the cache can hold. */
+        MISS(2 * MAX_TILES);
+
+        /** Number of tiles covered by the points. */
+        private final int nbTiles;
+
+        /** Simple constructor.
+         * @param nbTiles number of tiles covered by the points
+         */
+        Pattern(final int nbTiles) {
+            this.nbTiles = nbTiles;
+        }
+
+    }
+
+    /** Lookup pattern. */
+    @Param({ "HIT", "MISS" })
+    private Pattern pattern;
+
+    /** Flag for thread-safe cache. */
+    @Param({ "false", "true" })
+    private boolean concurrent;
+
+    /** Tiles cache. */
+    private TilesCache<SimpleTile> cache;
+
+    /** Points latitudes (rad). */
+    private double[] latitudes;
+
+    /** Points longitudes (rad). */
+    private double[] longitudes;
+
+    /** Index of current point. */
+    private int index;
+
+    /** Set up the cache and points.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        final TileUpdater updater = new CheckedPatternElevationUpdater(FastMath.toRadians(1.0), 101, 10.0, 20.0);
+        cache = concurrent ?
+                new ConcurrentTilesCache<>(new SimpleTileFactory(), updater, MAX_TILES, true) :
+                new TilesCache<>(new SimpleTileFactory(), updater, MAX_TILES, true);
+
+        // points in a band of 1° tiles, well inside each tile
+        final RandomGenerator random = new Well19937a(0x46e1b7d03a95c28fL);
+        latitudes  = new double[NB_POINTS];
+        longitudes = new double[NB_POINTS];
+        for (int i = 0; i < NB_POINTS; ++i) {
+            latitudes[i]  = FastMath.toRadians(0.1 + 0.8 * random.nextDouble());
+            longitudes[i] = FastMath.toRadians(random.nextInt(pattern.nbTiles) + 0.1 + 0.8 * random.nextDouble());
+        }
+        index = 0;
+
+    }
+
+    /** Look up one point.
+     * @return tile covering the point
+     */
+    @Benchmark
+    public SimpleTile getTile() {
+        index = (index + 1) % NB_POINTS;
+        return cache.getTile(latitudes[index], longitudes[index]);
+    }
+
+}
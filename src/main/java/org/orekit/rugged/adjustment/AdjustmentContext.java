@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hipparchus.optim.nonlinear.vector.leastsquares.LeastSquaresOptimizer.Optimum;
 import org.hipparchus.optim.nonlinear.vector.leastsquares.LeastSquaresProblem;
@@ -49,6 +50,11 @@ public class AdjustmentContext {
     /** Least square optimizer choice.*/
     private OptimizerId optimizerID;
 
+    /** Pool of threads for measurements evaluation (null for sequential evaluation).
+     * @since 4.1
+     */
+    private ForkJoinPool pool;
+
 
     /** Build a new instance.
      * The default optimizer is Gauss Newton with QR decomposition.
@@ -73,6 +79,21 @@ public class AdjustmentContext {
         this.optimizerID = optimizerId;
     }
 
+    /** Setter for the pool of threads used for measurements evaluation.
+     * <p>
+     * By default, measurements are evaluated sequentially. If a pool is set,
+     * measurements are evaluated in parallel at each iteration of the optimizer.
+     * As Rugged instances are then used from several threads, their Digital Elevation
+     * Model intersection algorithm must be thread-safe, see
+     * {@link org.orekit.rugged.api.RuggedBuilder#setConcurrentTilesCache(boolean)}.
+     * </p>
+     * @param pool pool of threads for measurements evaluation (null for sequential evaluation)
+     * @since 4.1
+     */
+    public void setPool(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     /**
      * Estimate the free parameters in viewing model to match specified sensor
      * to ground mappings.
@@ -138,11 +159,11 @@ public class AdjustmentContext {
         switch (ruggedList.size()) {
             case 1:
                 final Rugged rugged = ruggedList.get(0);
-                final GroundOptimizationProblemBuilder groundOptimizationProblem = new GroundOptimizationProblemBuilder(selectedSensors, measurements, rugged);
+                final GroundOptimizationProblemBuilder groundOptimizationProblem = new GroundOptimizationProblemBuilder(selectedSensors, measurements, rugged, pool);
                 theProblem = groundOptimizationProblem.build(maxEvaluations, parametersConvergenceThreshold);
                 break;
             case 2:
-                final InterSensorsOptimizationProblemBuilder interSensorsOptimizationProblem = new InterSensorsOptimizationProblemBuilder(selectedSensors, measurements, ruggedList);
+                final InterSensorsOptimizationProblemBuilder interSensorsOptimizationProblem = new InterSensorsOptimizationProblemBuilder(selectedSensors, measurements, ruggedList, pool);
                 theProblem = interSensorsOptimizationProblem.build(maxEvaluations, parametersConvergenceThreshold);
                 break;
             default :
@@ -20,9 +20,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hipparchus.analysis.differentiation.Gradient;
-import org.hipparchus.linear.Array2DRowRealMatrix;
 import org.hipparchus.linear.ArrayRealVector;
 import org.hipparchus.linear.RealMatrix;
 import org.hipparchus.linear.RealVector;
@@ -40,6 +40,7 @@ import org.orekit.rugged.api.Rugged;
 import org.orekit.rugged.errors.RuggedException;
 import org.orekit.rugged.errors.RuggedMessages;
 import org.orekit.rugged.linesensor.LineSensor;
+import org.orekit.rugged.linesensor.SensorMeanPlaneCrossing;
 import org.orekit.rugged.linesensor.SensorPixel;
 import org.orekit.utils.ParameterDriver;
 
@@ -74,6 +75,21 @@ public class GroundOptimizationProblemBuilder extends OptimizationProblemBuilder
     /** Target and weight (the solution of the optimization problem).*/
     private HashMap<String, double[] > targetAndWeight;
 
+    /** Sensors names for all measurements, in target order.
+     * @since 4.1
+     */
+    private String[] measurementsSensors;
+
+    /** Ground points for all measurements, in target order.
+     * @since 4.1
+     */
+    private GeodeticPoint[] measurementsPoints;
+
+    /** Structural columns of the Jacobian rows, in target order.
+     * @since 4.1
+     */
+    private int[][] rowsColumns;
+
 
     /** Build a new instance of the optimization problem.
      * @param sensors list of sensors to refine
@@ -83,7 +99,27 @@ public class GroundOptimizationProblemBuilder extends OptimizationProblemBuilder
     public GroundOptimizationProblemBuilder(final List<LineSensor> sensors,
                                             final Observables measurements, final Rugged rugged) {
 
-        super(sensors, measurements);
+        this(sensors, measurements, rugged, null);
+    }
+
+    /** Build a new instance of the optimization problem.
+     * <p>
+     * If a pool of threads is specified, the measurements are evaluated in parallel
+     * at each iteration. As the same Rugged instance is used from several threads,
+     * its Digital Elevation Model intersection algorithm must be thread-safe, see
+     * {@link org.orekit.rugged.api.RuggedBuilder#setConcurrentTilesCache(boolean)}.
+     * </p>
+     * @param sensors list of sensors to refine
+     * @param measurements set of observables
+     * @param rugged name of rugged to refine
+     * @param pool pool of threads for measurements evaluation (null for sequential evaluation)
+     * @since 4.1
+     */
+    public GroundOptimizationProblemBuilder(final List<LineSensor> sensors,
+                                            final Observables measurements, final Rugged rugged,
+                                            final ForkJoinPool pool) {
+
+        super(sensors, measurements, pool);
         this.rugged = rugged;
         this.initMapping();
     }
@@ -116,6 +152,9 @@ public class GroundOptimizationProblemBuilder extends OptimizationProblemBuilder
         }
         final double[] target = new double[2 * n];
         final double[] weight = new double[2 * n];
+        this.measurementsSensors = new String[n];
+        this.measurementsPoints  = new GeodeticPoint[n];
+        this.rowsColumns         = new int[2 * n][];
 
         double min = Double.POSITIVE_INFINITY;
         double max = Double.NEGATIVE_INFINITY;
@@ -123,6 +162,10 @@ public class GroundOptimizationProblemBuilder extends OptimizationProblemBuilder
 
         for (final SensorToGroundMapping reference : this.sensorToGroundMappings) {
             for (final Map.Entry<SensorPixel, GeodeticPoint> mapping : reference.getMapping()) {
+                this.measurementsSensors[k / 2] = reference.getSensorName();
+                this.measurementsPoints[k / 2]  = mapping.getValue();
+                this.rowsColumns[k]     = getStructuralColumns(reference.getSensorName());
+                this.rowsColumns[k + 1] = this.rowsColumns[k];
                 final SensorPixel sp = mapping.getKey();
                 weight[k] = 1.0;
                 target[k++] = sp.getLineNumber();
@@ -155,51 +198,48 @@ public class GroundOptimizationProblemBuilder extends OptimizationProblemBuilder
 
             final double[] target = this.targetAndWeight.get(TARGET);
 
-            // compute inverse loc and its partial derivatives
-            final RealVector value = new ArrayRealVector(target.length);
-            final RealMatrix jacobian = new Array2DRowRealMatrix(target.length, this.getNbParams());
-            int l = 0;
+            // the mean plane crossing finders are retrieved here, in the calling thread,
+            // as the Rugged instance creates them on the fly when needed
+            final Map<String, SensorMeanPlaneCrossing> crossings = new HashMap<>();
             for (final SensorToGroundMapping reference : this.sensorToGroundMappings) {
-                for (final Map.Entry<SensorPixel, GeodeticPoint> mapping : reference.getMapping()) {
-                    final GeodeticPoint gp = mapping.getValue();
-                    final Gradient[] ilResult = this.rugged.inverseLocationDerivatives(reference.getSensorName(), gp, minLine, maxLine, this.getGenerator());
+                final String sensorName = reference.getSensorName();
+                crossings.put(sensorName, this.rugged.getPlaneCrossing(sensorName, minLine, maxLine));
+            }
 
+            // compute inverse loc and its partial derivatives
+            final double[]   value    = new double[target.length];
+            final SparseJacobian jacobian = new SparseJacobian(this.getNbParams(), rowsColumns);
+            evaluateMeasurements(measurementsPoints.length, (start, end) -> {
+
+                // finders cache their last results, so parallel batches need their own copies
+                final Map<String, SensorMeanPlaneCrossing> localCrossings;
+                if (getPool() == null) {
+                    localCrossings = crossings;
+                } else {
+                    localCrossings = new HashMap<>();
+                    crossings.forEach((name, crossing) -> localCrossings.put(name, crossing.copy()));
+                }
+
+                for (int k = start; k < end; ++k) {
+                    final int l = 2 * k;
+                    final Gradient[] ilResult =
+                            this.rugged.inverseLocationDerivatives(localCrossings.get(measurementsSensors[k]),
+                                                                   measurementsPoints[k], this.getGenerator());
                     if (ilResult == null) {
-                        value.setEntry(l, minLine - 100.0); // arbitrary
-                        // line far
-                        // away
-                        value.setEntry(l + 1, -100.0); // arbitrary
-                        // pixel far away
+                        value[l]     = minLine - 100.0; // arbitrary line far away
+                        value[l + 1] = -100.0;          // arbitrary pixel far away
                     } else {
-                        // extract the value
-                        value.setEntry(l, ilResult[0].getValue());
-                        value.setEntry(l + 1, ilResult[1].getValue());
-
-                        // extract the Jacobian
-                        final int[] orders = new int[this.getNbParams()];
-                        int m = 0;
-                        for (final ParameterDriver driver : this.getDrivers()) {
-                            final double scale = driver.getScale();
-                            orders[m] = 1;
-                            jacobian.setEntry(l, m,
-                                    ilResult[0]
-                                            .getPartialDerivative(orders) *
-                                            scale);
-                            jacobian.setEntry(l + 1, m,
-                                    ilResult[1]
-                                            .getPartialDerivative(orders) *
-                                            scale);
-                            orders[m] = 0;
-                            m++;
-                        }
+                        // extract the value and the Jacobian
+                        storeComponent(ilResult[0], l,     value, jacobian);
+                        storeComponent(ilResult[1], l + 1, value, jacobian);
                     }
-
-                    l += 2;
                 }
-            }
+
+            });
 
             // inverse loc result with Jacobian for all reference points
-            return new Pair<RealVector, RealMatrix>(value, jacobian);
+            return new Pair<RealVector, RealMatrix>(new ArrayRealVector(value, false),
+                                                    jacobian);
         };
 
         return model;
@@ -23,9 +23,9 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hipparchus.analysis.differentiation.Gradient;
-import org.hipparchus.linear.Array2DRowRealMatrix;
 import org.hipparchus.linear.ArrayRealVector;
 import org.hipparchus.linear.RealMatrix;
 import org.hipparchus.linear.RealVector;
@@ -70,6 +70,21 @@ public class InterSensorsOptimizationProblemBuilder extends OptimizationProblemB
     /** Targets and weights of optimization problem. */
     private HashMap<String, double[] > targetAndWeight;
 
+    /** Sensor to sensor mappings for all measurements, in target order.
+     * @since 4.1
+     */
+    private SensorToSensorMapping[] measurementsReferences;
+
+    /** Sensors pixels pairs for all measurements, in target order.
+     * @since 4.1
+     */
+    private List<Map.Entry<SensorPixel, SensorPixel>> measurementsPixels;
+
+    /** Structural columns of the Jacobian rows, in target order.
+     * @since 4.1
+     */
+    private int[][] rowsColumns;
+
     /** Constructor.
      * @param sensors list of sensors to refine
      * @param measurements set of observables
@@ -78,7 +93,25 @@ public class InterSensorsOptimizationProblemBuilder extends OptimizationProblemB
     public InterSensorsOptimizationProblemBuilder(final List<LineSensor> sensors,
                                                   final Observables measurements, final Collection<Rugged> ruggedList) {
 
-        super(sensors, measurements);
+        this(sensors, measurements, ruggedList, null);
+    }
+
+    /** Constructor.
+     * <p>
+     * If a pool of threads is specified, the measurements are evaluated in parallel
+     * at each iteration.
+     * </p>
+     * @param sensors list of sensors to refine
+     * @param measurements set of observables
+     * @param ruggedList names of rugged to refine
+     * @param pool pool of threads for measurements evaluation (null for sequential evaluation)
+     * @since 4.1
+     */
+    public InterSensorsOptimizationProblemBuilder(final List<LineSensor> sensors,
+                                                  final Observables measurements, final Collection<Rugged> ruggedList,
+                                                  final ForkJoinPool pool) {
+
+        super(sensors, measurements, pool);
         this.ruggedMap = new LinkedHashMap<String, Rugged>();
         for (final Rugged rugged : ruggedList) {
             this.ruggedMap.put(rugged.getName(), rugged);
@@ -127,10 +160,22 @@ public class InterSensorsOptimizationProblemBuilder extends OptimizationProblemB
 
         final double[] target = new double[n];
         final double[] weight = new double[n];
+        this.measurementsReferences = new SensorToSensorMapping[n / 2];
+        this.measurementsPixels     = new ArrayList<>(n / 2);
+        this.rowsColumns            = new int[n][];
 
         int k = 0;
         for (final SensorToSensorMapping reference : this.sensorToSensorMappings) {
 
+            // measurements depend only on the drivers of the two sensors
+            final int[] columns = getStructuralColumns(reference.getSensorNameA(), reference.getSensorNameB());
+            for (final Map.Entry<SensorPixel, SensorPixel> mapping : reference.getMapping()) {
+                this.rowsColumns[2 * this.measurementsPixels.size()]     = columns;
+                this.rowsColumns[2 * this.measurementsPixels.size() + 1] = columns;
+                this.measurementsReferences[this.measurementsPixels.size()] = reference;
+                this.measurementsPixels.add(mapping);
+            }
+
             // Get central body constraint weight
             final double bodyConstraintWeight = reference.getBodyConstraintWeight();
 
@@ -174,29 +219,26 @@ public class InterSensorsOptimizationProblemBuilder extends OptimizationProblemB
 
             final double[] target = this.targetAndWeight.get(TARGET);
 
-            // compute distance and its partial derivatives
-            final RealVector value = new ArrayRealVector(target.length);
-            final RealMatrix jacobian = new Array2DRowRealMatrix(target.length, this.getNbParams());
-
-            int l = 0;
+            // check all Rugged instances are known before starting evaluation
             for (final SensorToSensorMapping reference : this.sensorToSensorMappings) {
-
-                final String ruggedNameA = reference.getRuggedNameA();
-                final String ruggedNameB = reference.getRuggedNameB();
-                final Rugged ruggedA = this.ruggedMap.get(ruggedNameA);
-                if (ruggedA == null) {
+                if (this.ruggedMap.get(reference.getRuggedNameA()) == null ||
+                    this.ruggedMap.get(reference.getRuggedNameB()) == null) {
                     throw new RuggedException(RuggedMessages.INVALID_RUGGED_NAME);
                 }
+            }
 
-                final Rugged ruggedB = this.ruggedMap.get(ruggedNameB);
-                if (ruggedB == null) {
-                    throw new RuggedException(RuggedMessages.INVALID_RUGGED_NAME);
-                }
+            // compute distance and its partial derivatives
+            final double[]   value    = new double[target.length];
+            final SparseJacobian jacobian = new SparseJacobian(this.getNbParams(), rowsColumns);
+            evaluateMeasurements(measurementsPixels.size(), (start, end) -> {
+                for (int k = start; k < end; ++k) {
 
-                for (final Map.Entry<SensorPixel, SensorPixel> mapping : reference.getMapping()) {
+                    final SensorToSensorMapping reference = measurementsReferences[k];
+                    final Rugged ruggedA = this.ruggedMap.get(reference.getRuggedNameA());
+                    final Rugged ruggedB = this.ruggedMap.get(reference.getRuggedNameB());
 
-                    final SensorPixel spA = mapping.getKey();
-                    final SensorPixel spB = mapping.getValue();
+                    final SensorPixel spA = measurementsPixels.get(k).getKey();
+                    final SensorPixel spB = measurementsPixels.get(k).getValue();
 
                     final LineSensor lineSensorB = ruggedB.getLineSensor(reference.getSensorNameB());
                     final LineSensor lineSensorA = ruggedA.getLineSensor(reference.getSensorNameA());
@@ -213,29 +255,16 @@ public class InterSensorsOptimizationProblemBuilder extends OptimizationProblemB
                             ruggedB.distanceBetweenLOSderivatives(lineSensorA, dateA, pixelA, scToBodyA,
                                     lineSensorB, dateB, pixelB, this.getGenerator());
 
-                    // extract the value
-                    value.setEntry(l, ilResult[0].getValue());
-                    value.setEntry(l + 1, ilResult[1].getValue());
-
-                    // extract the Jacobian
-                    final int[] orders = new int[this.getNbParams()];
-                    int m = 0;
-
-                    for (final ParameterDriver driver : this.getDrivers()) {
-                        final double scale = driver.getScale();
-                        orders[m] = 1;
-                        jacobian.setEntry(l, m, ilResult[0].getPartialDerivative(orders) * scale);
-                        jacobian.setEntry(l + 1, m, ilResult[1].getPartialDerivative(orders) * scale);
-                        orders[m] = 0;
-                        m++;
-                    }
+                    // extract the value and the Jacobian
+                    storeComponent(ilResult[0], 2 * k,     value, jacobian);
+                    storeComponent(ilResult[1], 2 * k + 1, value, jacobian);
 
-                    l += 2; // pass to the next evaluation
                 }
-            }
+            });
 
             // distance result with Jacobian for all reference points
-            return new Pair<RealVector, RealMatrix>(value, jacobian);
+            return new Pair<RealVector, RealMatrix>(new ArrayRealVector(value, false),
+                                                    jacobian);
         };
 
         return model;
@@ -82,6 +82,9 @@ public class LeastSquareAdjuster {
             case GAUSS_NEWTON_QR :
                 return new GaussNewtonOptimizer(new QRDecomposer(1e-11), false);
 
+            case GAUSS_NEWTON_SPARSE :
+                return new SparseGaussNewtonOptimizer(1e-11);
+
             default :
                 // this should never happen
                 throw new RuggedInternalError(null);
@@ -18,11 +18,15 @@
 package org.orekit.rugged.adjustment;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.hipparchus.Field;
 import org.hipparchus.analysis.differentiation.Gradient;
@@ -52,6 +56,11 @@ abstract class OptimizationProblemBuilder {
     /** Margin used in parameters estimation for the inverse location lines range. */
     protected static final int ESTIMATION_LINE_RANGE_MARGIN = 100;
 
+    /** Maximum number of measurements evaluated in one parallel batch.
+     * @since 4.1
+     */
+    private static final int MEASUREMENTS_BATCH_SIZE = 32;
+
     /** Gradient generator.*/
     private final DerivativeGenerator<Gradient> generator;
 
@@ -67,11 +76,32 @@ abstract class OptimizationProblemBuilder {
     /** Sensors list. */
     private final List<LineSensor> sensors;
 
+    /** Pool of threads for measurements evaluation (null for sequential evaluation).
+     * @since 4.1
+     */
+    private final ForkJoinPool pool;
+
+    /** Structural columns of Jacobian rows, keyed by sensors names.
+     * @since 4.1
+     */
+    private final Map<List<String>, int[]> structuralColumns;
+
     /** Constructor.
      * @param sensors list of sensors to refine
      * @param measurements set of observables
      */
     OptimizationProblemBuilder(final List<LineSensor> sensors, final Observables measurements) {
+        this(sensors, measurements, null);
+    }
+
+    /** Constructor.
+     * @param sensors list of sensors to refine
+     * @param measurements set of observables
+     * @param pool pool of threads for measurements evaluation (null for sequential evaluation)
+     * @since 4.1
+     */
+    OptimizationProblemBuilder(final List<LineSensor> sensors, final Observables measurements,
+                               final ForkJoinPool pool) {
 
         this.generator = this.createGenerator(sensors);
         this.drivers = this.generator.getSelected();
@@ -81,6 +111,8 @@ abstract class OptimizationProblemBuilder {
         }
         this.measurements = measurements;
         this.sensors = sensors;
+        this.pool = pool;
+        this.structuralColumns = new HashMap<>();
     }
 
     /** Least squares problem builder.
@@ -261,4 +293,151 @@ abstract class OptimizationProblemBuilder {
     protected Observables getMeasurements() {
         return measurements;
     }
+
+    /** Get the pool of threads for measurements evaluation.
+     * @return pool of threads for measurements evaluation (null for sequential evaluation)
+     * @since 4.1
+     */
+    protected ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /** Evaluate measurements, in parallel if a pool of threads has been set.
+     * <p>
+     * Measurements are split in batches of consecutive indices, and each batch
+     * is evaluated by one thread. The evaluator must therefore only write the
+     * results associated with the indices of its batch, and must use its own
+     * instances of any object that is not thread-safe.
+     * </p>
+     * @param nbMeasurements number of measurements
+     * @param evaluator evaluator for batches of measurements
+     * @since 4.1
+     */
+    protected void evaluateMeasurements(final int nbMeasurements, final BatchEvaluator evaluator) {
+        if (pool == null || nbMeasurements <= MEASUREMENTS_BATCH_SIZE) {
+            evaluator.evaluate(0, nbMeasurements);
+        } else {
+            pool.invoke(new EvaluationTask(evaluator, 0, nbMeasurements));
+        }
+    }
+
+    /** Get the structural columns of the Jacobian rows for measurements involving some sensors.
+     * <p>
+     * The columns are the indices of the selected drivers that belong to the
+     * sensors, as the measurements do not depend on the other drivers. The same
+     * array instance is returned for all calls with the same sensors names, so
+     * Jacobian rows can share it.
+     * </p>
+     * @param sensorsNames names of the sensors involved in the measurements
+     * @return sorted indices of the selected drivers the measurements depend on
+     * @since 4.1
+     */
+    protected int[] getStructuralColumns(final String... sensorsNames) {
+        return structuralColumns.computeIfAbsent(Arrays.asList(sensorsNames), key -> {
+
+            // names of the drivers the measurements depend on
+            final Set<String> names = new HashSet<>();
+            for (final String sensorName : sensorsNames) {
+                final LineSensor sensor = sensors.stream().
+                                          filter(s -> s.getName().equals(sensorName)).
+                                          findFirst().orElse(null);
+                if (sensor == null) {
+                    // unknown sensor, we cannot assume any sparsity
+                    final int[] all = new int[nbParams];
+                    Arrays.setAll(all, i -> i);
+                    return all;
+                }
+                sensor.getParametersDrivers().forEach(driver -> names.add(driver.getName()));
+            }
+
+            // corresponding columns
+            final Set<Integer> columns = new TreeSet<>();
+            for (int m = 0; m < nbParams; ++m) {
+                if (names.contains(drivers.get(m).getName())) {
+                    columns.add(m);
+                }
+            }
+            return columns.stream().mapToInt(Integer::intValue).toArray();
+
+        });
+    }
+
+    /** Store the value and the Jacobian row of one measurement component.
+     * <p>
+     * Only the structural entries of the Jacobian row are set, the partial
+     * derivatives with respect to other drivers are known to be zero.
+     * </p>
+     * @param component measurement component with derivatives with respect to selected drivers
+     * @param row row index
+     * @param value placeholder for the values
+     * @param jacobian placeholder for the Jacobian
+     * @since 4.1
+     */
+    protected void storeComponent(final Gradient component, final int row,
+                                  final double[] value, final SparseJacobian jacobian) {
+        value[row] = component.getValue();
+        final int[]    columns     = jacobian.getRowColumns(row);
+        final double[] jacobianRow = jacobian.getRowValues(row);
+        for (int k = 0; k < columns.length; ++k) {
+            final int m = columns[k];
+            jacobianRow[k] = component.getPartialDerivative(m) * drivers.get(m).getScale();
+        }
+    }
+
+    /** Evaluator for a batch of measurements.
+     * @since 4.1
+     */
+    @FunctionalInterface
+    protected interface BatchEvaluator {
+
+        /** Evaluate a batch of measurements.
+         * @param start index of the first measurement of the batch (included)
+         * @param end index of the last measurement of the batch (excluded)
+         */
+        void evaluate(int start, int end);
+
+    }
+
+    /** Task for parallel evaluation of measurements.
+     * @since 4.1
+     */
+    private static class EvaluationTask extends RecursiveAction {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20261016L;
+
+        /** Evaluator for batches of measurements. */
+        private final BatchEvaluator evaluator;
+
+        /** Index of the first measurement (included). */
+        private final int start;
+
+        /** Index of the last measurement (excluded). */
+        private final int end;
+
+        /** Simple constructor.
+         * @param evaluator evaluator for batches of measurements
+         * @param start index of the first measurement (included)
+         * @param end index of the last measurement (excluded)
+         */
+        EvaluationTask(final BatchEvaluator evaluator, final int start, final int end) {
+            this.evaluator = evaluator;
+            this.start     = start;
+            this.end       = end;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (end - start <= MEASUREMENTS_BATCH_SIZE) {
+                evaluator.evaluate(start, end);
+            } else {
+                final int middle = (start + end) / 2;
+                invokeAll(new EvaluationTask(evaluator, start, middle),
+                          new EvaluationTask(evaluator, middle, end));
+            }
+        }
+
+    }
+
 }
@@ -30,6 +30,16 @@ public enum OptimizerId {
     GAUSS_NEWTON_LU,
 
     /** Gauss Newton with QR decomposition. */
-    GAUSS_NEWTON_QR
+    GAUSS_NEWTON_QR,
+
+    /** Gauss Newton with normal equations built from sparse Jacobian rows.
+     * <p>
+     * This optimizer is intended for block adjustments involving many sensors,
+     * where each measurement depends only on a few parameters.
+     * </p>
+     * @see SparseJacobian
+     * @since 4.1
+     */
+    GAUSS_NEWTON_SPARSE
 
 }
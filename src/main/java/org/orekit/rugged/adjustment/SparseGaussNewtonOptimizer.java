@@ -0,0 +1,182 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.adjustment;
+
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.exception.NullArgumentException;
+import org.hipparchus.linear.Array2DRowRealMatrix;
+import org.hipparchus.linear.ArrayRealVector;
+import org.hipparchus.linear.LUDecomposer;
+import org.hipparchus.linear.MatrixDecomposer;
+import org.hipparchus.linear.RealMatrix;
+import org.hipparchus.linear.RealVector;
+import org.hipparchus.optim.ConvergenceChecker;
+import org.hipparchus.optim.LocalizedOptimFormats;
+import org.hipparchus.optim.nonlinear.vector.leastsquares.LeastSquaresOptimizer;
+import org.hipparchus.optim.nonlinear.vector.leastsquares.LeastSquaresProblem;
+import org.hipparchus.optim.nonlinear.vector.leastsquares.LeastSquaresProblem.Evaluation;
+import org.hipparchus.util.Incrementor;
+
+/** Gauss-Newton optimizer taking advantage of {@link SparseJacobian sparse Jacobians}.
+ * <p>
+ * This optimizer solves the normal equations, as the Gauss-Newton optimizer
+ * with LU decomposition does, but it builds J<sup>T</sup>J and J<sup>T</sup>r
+ * using only the structural entries of each Jacobian row. The cost of one
+ * iteration is therefore proportional to the number of measurements times the
+ * square of the number of parameters <em>per measurement</em>, instead of the
+ * square of the total number of parameters, and the dense Jacobian is never
+ * built. Only the normal matrix, whose size depends on the number of parameters
+ * but not on the number of measurements, is dense.
+ * </p>
+ * <p>
+ * Jacobians that are not {@link SparseJacobian} instances are also supported,
+ * they are processed as dense matrices.
+ * </p>
+ * @see OptimizerId#GAUSS_NEWTON_SPARSE
+ * @since 4.1
+ */
+class SparseGaussNewtonOptimizer implements LeastSquaresOptimizer {
+
+    /** Decomposer for the normal matrix. */
+    private final MatrixDecomposer decomposer;
+
+    /** Simple constructor.
+     * @param singularityThreshold singularity threshold for the normal matrix LU decomposition
+     */
+    SparseGaussNewtonOptimizer(final double singularityThreshold) {
+        this.decomposer = new LUDecomposer(singularityThreshold);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optimum optimize(final LeastSquaresProblem lsp) {
+
+        final Incrementor evaluationCounter = lsp.getEvaluationCounter();
+        final Incrementor iterationCounter  = lsp.getIterationCounter();
+        final ConvergenceChecker<Evaluation> checker = lsp.getConvergenceChecker();
+        if (checker == null) {
+            throw new NullArgumentException();
+        }
+
+        RealVector currentPoint = lsp.getStart();
+        Evaluation current      = null;
+        while (true) {
+
+            iterationCounter.increment();
+
+            // evaluate the objective function and its Jacobian
+            final Evaluation previous = current;
+            evaluationCounter.increment();
+            current = lsp.evaluate(currentPoint);
+            currentPoint = current.getPoint();
+
+            // check convergence
+            if (previous != null &&
+                checker.converged(iterationCounter.getCount(), previous, current)) {
+                return Optimum.of(current, evaluationCounter.getCount(), iterationCounter.getCount());
+            }
+
+            // solve the normal equations
+            try {
+                final RealVector dX = solveNormalEquations(current.getJacobian(), current.getResiduals());
+                currentPoint = currentPoint.add(dX);
+            } catch (MathIllegalArgumentException e) {
+                throw new MathIllegalStateException(LocalizedOptimFormats.UNABLE_TO_SOLVE_SINGULAR_PROBLEM);
+            }
+
+        }
+
+    }
+
+    /** Solve the normal equations J<sup>T</sup>J dX = J<sup>T</sup>r.
+     * @param jacobian Jacobian matrix
+     * @param residuals residuals
+     * @return parameters increment
+     */
+    private RealVector solveNormalEquations(final RealMatrix jacobian, final RealVector residuals) {
+
+        final int nC = jacobian.getColumnDimension();
+        final double[][] normal = new double[nC][nC];
+        final double[]   jTr    = new double[nC];
+
+        if (jacobian instanceof SparseJacobian) {
+            accumulateSparse((SparseJacobian) jacobian, residuals, normal, jTr);
+        } else {
+            accumulateDense(jacobian, residuals, normal, jTr);
+        }
+
+        // only the upper triangular part has been computed
+        for (int k = 0; k < nC; ++k) {
+            for (int l = 0; l < k; ++l) {
+                normal[k][l] = normal[l][k];
+            }
+        }
+
+        return decomposer.decompose(new Array2DRowRealMatrix(normal, false)).
+               solve(new ArrayRealVector(jTr, false));
+
+    }
+
+    /** Accumulate the upper triangular part of the normal equations using structural entries only.
+     * @param jacobian Jacobian matrix
+     * @param residuals residuals
+     * @param normal placeholder for J<sup>T</sup>J
+     * @param jTr placeholder for J<sup>T</sup>r
+     */
+    private static void accumulateSparse(final SparseJacobian jacobian, final RealVector residuals,
+                                         final double[][] normal, final double[] jTr) {
+        for (int i = 0; i < jacobian.getRowDimension(); ++i) {
+            final double   residual = residuals.getEntry(i);
+            final int[]    columns  = jacobian.getRowColumns(i);
+            final double[] values   = jacobian.getRowValues(i);
+            for (int k = 0; k < columns.length; ++k) {
+                final double   jK        = values[k];
+                final double[] normalRow = normal[columns[k]];
+                jTr[columns[k]] += residual * jK;
+                // columns are sorted, so we stay in the upper triangular part
+                for (int l = k; l < columns.length; ++l) {
+                    normalRow[columns[l]] += jK * values[l];
+                }
+            }
+        }
+    }
+
+    /** Accumulate the upper triangular part of the normal equations for a dense Jacobian.
+     * @param jacobian Jacobian matrix
+     * @param residuals residuals
+     * @param normal placeholder for J<sup>T</sup>J
+     * @param jTr placeholder for J<sup>T</sup>r
+     */
+    private static void accumulateDense(final RealMatrix jacobian, final RealVector residuals,
+                                        final double[][] normal, final double[] jTr) {
+        final int nC = jacobian.getColumnDimension();
+        for (int i = 0; i < jacobian.getRowDimension(); ++i) {
+            final double   residual = residuals.getEntry(i);
+            final double[] row      = jacobian.getRow(i);
+            for (int k = 0; k < nC; ++k) {
+                final double   jK        = row[k];
+                final double[] normalRow = normal[k];
+                jTr[k] += residual * jK;
+                for (int l = k; l < nC; ++l) {
+                    normalRow[l] += jK * row[l];
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,233 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.adjustment;
+
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.linear.AbstractRealMatrix;
+import org.hipparchus.linear.Array2DRowRealMatrix;
+import org.hipparchus.linear.MatrixUtils;
+import org.hipparchus.linear.RealMatrix;
+import org.orekit.rugged.errors.RuggedException;
+import org.orekit.rugged.errors.RuggedMessages;
+
+/** Row-compressed Jacobian matrix for refining problems.
+ * <p>
+ * Each measurement depends only on the parameters drivers of the sensors that
+ * acquired it, so in adjustments involving many sensors most Jacobian entries
+ * are structurally zero. This matrix stores for each row only the entries
+ * associated with a sorted set of structural columns. Rows having the same
+ * structure (i.e. measurements from the same sensors) share the same columns
+ * array, so the memory footprint is essentially the number of non-zero entries.
+ * </p>
+ * <p>
+ * The structure is fixed at construction: {@link #setEntry(int, int, double)
+ * setting} a non-zero value outside of it triggers an error.
+ * </p>
+ * @see OptimizerId#GAUSS_NEWTON_SPARSE
+ * @since 4.1
+ */
+public class SparseJacobian extends AbstractRealMatrix {
+
+    /** Number of columns. */
+    private final int columnDimension;
+
+    /** Sorted structural columns for each row. */
+    private final int[][] columns;
+
+    /** Values of the structural entries for each row. */
+    private final double[][] values;
+
+    /** Simple constructor.
+     * <p>
+     * All structural entries are initialized to zero.
+     * </p>
+     * @param columnDimension number of columns
+     * @param columns sorted structural columns for each row (the arrays are
+     * not copied and may be shared between rows)
+     */
+    public SparseJacobian(final int columnDimension, final int[][] columns) {
+        super(columns.length, columnDimension);
+        this.columnDimension = columnDimension;
+        this.columns         = columns.clone();
+        this.values          = new double[columns.length][];
+        for (int i = 0; i < columns.length; ++i) {
+            values[i] = new double[columns[i].length];
+        }
+    }
+
+    /** Copy constructor.
+     * @param jacobian Jacobian to copy
+     */
+    private SparseJacobian(final SparseJacobian jacobian) {
+        super(jacobian.getRowDimension(), jacobian.getColumnDimension());
+        this.columnDimension = jacobian.columnDimension;
+        this.columns         = jacobian.columns;
+        this.values          = new double[jacobian.values.length][];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = jacobian.values[i].clone();
+        }
+    }
+
+    /** Get the number of structural entries.
+     * @return number of structural entries
+     */
+    public int getStructuralEntries() {
+        int n = 0;
+        for (final double[] row : values) {
+            n += row.length;
+        }
+        return n;
+    }
+
+    /** Get the structural columns of one row.
+     * @param row row index
+     * @return sorted structural columns of the row (reference to internal array)
+     */
+    int[] getRowColumns(final int row) {
+        return columns[row];
+    }
+
+    /** Get the values of the structural entries of one row.
+     * @param row row index
+     * @return values of the structural entries of the row (reference to internal array)
+     */
+    double[] getRowValues(final int row) {
+        return values[row];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return values.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return columnDimension;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * The created matrix is a dense matrix, as it has no structure.
+     * </p>
+     */
+    @Override
+    public RealMatrix createMatrix(final int rowDimension, final int colDimension) {
+        return new Array2DRowRealMatrix(rowDimension, colDimension);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SparseJacobian copy() {
+        return new SparseJacobian(this);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column) {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        final int index = Arrays.binarySearch(columns[row], column);
+        return index < 0 ? 0.0 : values[row][index];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setEntry(final int row, final int column, final double value) {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        final int index = Arrays.binarySearch(columns[row], column);
+        if (index >= 0) {
+            values[row][index] = value;
+        } else if (value != 0.0) {
+            throw new RuggedException(RuggedMessages.OUT_OF_SPARSE_STRUCTURE, row, column);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[][] getData() {
+        final double[][] data = new double[values.length][columnDimension];
+        for (int i = 0; i < values.length; ++i) {
+            final int[]    rowColumns = columns[i];
+            final double[] rowValues  = values[i];
+            for (int k = 0; k < rowColumns.length; ++k) {
+                data[i][rowColumns[k]] = rowValues[k];
+            }
+        }
+        return data;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix transpose() {
+        final double[][] data = new double[columnDimension][values.length];
+        for (int i = 0; i < values.length; ++i) {
+            final int[]    rowColumns = columns[i];
+            final double[] rowValues  = values[i];
+            for (int k = 0; k < rowColumns.length; ++k) {
+                data[rowColumns[k]][i] = rowValues[k];
+            }
+        }
+        return new Array2DRowRealMatrix(data, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] operate(final double[] v) {
+        checkVectorDimensions(v.length, columnDimension);
+        final double[] out = new double[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            final int[]    rowColumns = columns[i];
+            final double[] rowValues  = values[i];
+            double sum = 0;
+            for (int k = 0; k < rowColumns.length; ++k) {
+                sum += rowValues[k] * v[rowColumns[k]];
+            }
+            out[i] = sum;
+        }
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v) {
+        checkVectorDimensions(v.length, values.length);
+        final double[] out = new double[columnDimension];
+        for (int i = 0; i < values.length; ++i) {
+            final int[]    rowColumns = columns[i];
+            final double[] rowValues  = values[i];
+            for (int k = 0; k < rowColumns.length; ++k) {
+                out[rowColumns[k]] += rowValues[k] * v[i];
+            }
+        }
+        return out;
+    }
+
+    /** Check vector dimension.
+     * @param actual actual dimension
+     * @param expected expected dimension
+     */
+    private static void checkVectorDimensions(final int actual, final int expected) {
+        if (actual != expected) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH, actual, expected);
+        }
+    }
+
+}
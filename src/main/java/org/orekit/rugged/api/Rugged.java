@@ -16,16 +16,23 @@
  */
 package org.orekit.rugged.api;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 
 import org.hipparchus.analysis.differentiation.Derivative;
 import org.hipparchus.analysis.differentiation.DerivativeStructure;
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
 import org.hipparchus.util.MathArrays;
+import org.hipparchus.util.Precision;
 import org.orekit.bodies.GeodeticPoint;
 import org.orekit.frames.Transform;
 import org.orekit.rugged.errors.DumpManager;
@@ -38,6 +45,7 @@ import org.orekit.rugged.linesensor.SensorMeanPlaneCrossing;
 import org.orekit.rugged.linesensor.SensorPixel;
 import org.orekit.rugged.linesensor.SensorPixelCrossing;
 import org.orekit.rugged.refraction.AtmosphericRefraction;
+import org.orekit.rugged.refraction.DirectLocationGrid;
 import org.orekit.rugged.utils.DerivativeGenerator;
 import org.orekit.rugged.utils.ExtendedEllipsoid;
 import org.orekit.rugged.utils.NormalizedGeodeticPoint;
@@ -66,6 +74,15 @@ public class Rugged {
     /** Maximum number of evaluations for crossing algorithms. */
     private static final int MAX_EVAL = 50;
 
+    /** Number of cells along each axis of the Z-order curve used to sort points. */
+    private static final long Z_ORDER_CELLS = 1L << 15;
+
+    /** Number of points located by each task in batched inverse location. */
+    private static final int INVERSE_LOCATION_BATCH_SIZE = 512;
+
+    /** Minimum number of pixels located by each task in parallel direct location. */
+    private static final int DIRECT_LOCATION_BATCH_SIZE = 16384;
+
     /** Threshold for pixel convergence in fixed point method
      * (for inverse location with atmospheric refraction correction). */
     private static final double PIXEL_CV_THRESHOLD = 1.e-4;
@@ -252,180 +269,502 @@ public class Rugged {
         final Vector3D sensorPosition   = sensor.getPosition();
         final AbsoluteDate date   = sensor.getDate(lineNumber);
 
-        // Compute the transform for the date
-        // from spacecraft to inertial
-        final Transform    scToInert   = scToBody.getScToInertial(date);
-        // from inertial to body
-        final Transform    inertToBody = scToBody.getInertialToBody(date);
+        // Compute the transforms and sensor position for the date, only once for all pixels
+        final LineContext context = new LineContext(date, sensorPosition);
 
-        // Compute spacecraft velocity in inertial frame
-        final Vector3D spacecraftVelocity = scToInert.transformPVCoordinates(PVCoordinates.ZERO).getVelocity();
-        // Compute sensor position in inertial frame
-        // TBN: for simplicity, due to the size of sensor, we consider each pixel to be at sensor position
-        final Vector3D pInert = scToInert.transformPosition(sensorPosition);
+        // Compute the lines-of-sight of all pixels at once
+        final double[] coordinates = new double[3 * sensor.getNbPixels()];
+        sensor.getLOSCoordinates(date, coordinates);
+
+        // Atmospheric refraction correction may be interpolated
+        final DirectLocationGrid grid = getDirectLocationGrid(sensor);
+        final DirectLocationGrid.NodeLocator locator = grid == null ? null : (p, l) -> locateGridNode(sensor, p, l);
 
         // Compute location of each pixel
         final GeodeticPoint[] gp = new GeodeticPoint[sensor.getNbPixels()];
         for (int i = 0; i < sensor.getNbPixels(); ++i) {
 
-            final Vector3D los = sensor.getLOS(date, i);
+            final Vector3D los = new Vector3D(coordinates[3 * i], coordinates[3 * i + 1], coordinates[3 * i + 2]);
             DumpManager.dumpDirectLocation(date, sensorPosition, los, lightTimeCorrection,
                     aberrationOfLightCorrection, atmosphericRefraction != null);
 
-            // compute the line of sight in inertial frame (without correction)
-            final Vector3D obsLInert = scToInert.transformVector(los);
-            final Vector3D lInert;
+            gp[i] = locatePixel(context, los, grid, locator, i, lineNumber);
 
-            if (aberrationOfLightCorrection) {
-                // apply aberration of light correction on LOS
-                lInert = applyAberrationOfLightCorrection(obsLInert, spacecraftVelocity);
-            } else {
-                // don't apply aberration of light correction on LOS
-                lInert = obsLInert;
-            }
+            DumpManager.dumpDirectLocationResult(gp[i]);
+        }
+        return gp;
+    }
+
+    /** Direct location of a single line-of-sight.
+     * @param date date of the location
+     * @param sensorPosition sensor position in spacecraft frame. For simplicity, due to the size of sensor,
+     * we consider each pixel to be at sensor position
+     * @param los normalized line-of-sight in spacecraft frame
+     * @return ground position of intersection point between specified los and ground
+     */
+    public GeodeticPoint directLocation(final AbsoluteDate date, final Vector3D sensorPosition, final Vector3D los) {
+
+        DumpManager.dumpDirectLocation(date, sensorPosition, los, lightTimeCorrection, aberrationOfLightCorrection,
+                                       atmosphericRefraction != null);
 
-            if (lightTimeCorrection) {
-                // compute DEM intersection with light time correction
-                // TBN: for simplicity, due to the size of sensor, we consider each pixel to be at sensor position
-                gp[i] = computeWithLightTimeCorrection(date, sensorPosition, los, scToInert, inertToBody, pInert, lInert);
+        // Compute ground location of specified pixel
+        final NormalizedGeodeticPoint result = locateLOS(new LineContext(date, sensorPosition), los);
 
-            } else {
-                // compute DEM intersection without light time correction
-                final Vector3D pBody = inertToBody.transformPosition(pInert);
-                final Vector3D lBody = inertToBody.transformVector(lInert);
-                gp[i] = algorithm.refineIntersection(ellipsoid, pBody, lBody,
-                                                     algorithm.intersection(ellipsoid, pBody, lBody));
+        DumpManager.dumpDirectLocationResult(result);
+        return result;
+    }
+
+    /** Direct location of a grid of sensor pixels, using several threads.
+     * <p>
+     * This method locates {@code nbLines} lines starting at line {@code firstLine}
+     * with a step {@code lineStep} between lines, and in each line {@code nbPixels}
+     * pixels starting at pixel {@code firstPixel} with a step {@code pixelStep}
+     * between pixels. Using {@code lineStep = 1} and {@code pixelStep = 1} allows
+     * to locate a full image, using larger steps allows to locate a sparse grid.
+     * </p>
+     * <p>
+     * The results are stored in the caller-supplied arrays, in line major order: the
+     * ground point for line index {@code l} and pixel index {@code p} (both counted
+     * from 0 in the located grid) is stored at index {@code l * nbPixels + p}. Lines
+     * are distributed among the threads of the pool, the transforms being computed
+     * only once for each line.
+     * </p>
+     * <p>
+     * As the same instance is used from several threads, the Digital Elevation Model
+     * intersection algorithm must be thread-safe. This implies that the {@link
+     * AlgorithmId#DUVENHAGE DUVENHAGE} and {@link AlgorithmId#DUVENHAGE_FLAT_BODY
+     * DUVENHAGE_FLAT_BODY} algorithms must be used with a concurrent tiles cache (see
+     * {@link RuggedBuilder#setConcurrentTilesCache(boolean)}), and that the {@link
+     * AlgorithmId#BASIC_SLOW_EXHAUSTIVE_SCAN_FOR_TESTS_ONLY
+     * BASIC_SLOW_EXHAUSTIVE_SCAN_FOR_TESTS_ONLY} algorithm cannot be used with a pool
+     * having more than one thread.
+     * </p>
+     * <p>
+     * Debug dump is not performed by this method.
+     * </p>
+     * @param sensorName name of the line sensor
+     * @param firstLine number of the first line to localize on ground
+     * @param lineStep step between localized lines
+     * @param nbLines number of lines to localize on ground
+     * @param firstPixel index of the first pixel to localize in each line
+     * @param pixelStep step between localized pixels
+     * @param nbPixels number of pixels to localize in each line, all localized pixels
+     * (from {@code firstPixel} to {@code firstPixel + (nbPixels - 1) * pixelStep}) must
+     * be within the sensor
+     * @param latitudes placeholder for the latitudes of the ground points (rad),
+     * must have at least {@code nbLines * nbPixels} elements
+     * @param longitudes placeholder for the longitudes of the ground points (rad),
+     * must have at least {@code nbLines * nbPixels} elements
+     * @param altitudes placeholder for the altitudes of the ground points (m),
+     * must have at least {@code nbLines * nbPixels} elements
+     * @param pool pool of threads to use for the computation
+     * @see #directLocation(String, double)
+     * @since 4.1
+     */
+    public void directLocation(final String sensorName,
+                               final double firstLine, final double lineStep, final int nbLines,
+                               final int firstPixel, final int pixelStep, final int nbPixels,
+                               final double[] latitudes, final double[] longitudes, final double[] altitudes,
+                               final ForkJoinPool pool) {
+
+        final LineSensor sensor = getLineSensor(sensorName);
+
+        // check the grid before any computation, so errors are not raised within pool workers
+        if (nbLines < 0) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL, nbLines, 0);
+        }
+        if (nbPixels < 0) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL, nbPixels, 0);
+        }
+        if (nbPixels > 0) {
+            final long lastPixel = firstPixel + (long) (nbPixels - 1) * pixelStep;
+            checkPixelIndex(firstPixel, sensor);
+            checkPixelIndex(lastPixel,  sensor);
+        }
+        final long size = (long) nbLines * nbPixels;
+        if (size > Integer.MAX_VALUE) {
+            // the grid is too large to be stored in arrays
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_LARGE, size, Integer.MAX_VALUE);
+        }
+        checkBufferSize(latitudes,  (int) size);
+        checkBufferSize(longitudes, (int) size);
+        checkBufferSize(altitudes,  (int) size);
+
+        pool.invoke(new DirectLocationTask(sensor, firstLine, lineStep, 0, nbLines,
+                                           firstPixel, pixelStep, nbPixels,
+                                           latitudes, longitudes, altitudes));
+
+    }
+
+    /** Load in advance the Digital Elevation Model tiles under a sensor footprint.
+     * <p>
+     * The footprint of lines {@code firstLine} to {@code lastLine} is projected
+     * on the ellipsoid on a coarse grid, with at most {@code lineStep} lines between
+     * grid rows and at most {@code pixelStep} pixels between grid columns, and all
+     * tiles crossed by the grid rows and columns, including zipper tiles, are loaded
+     * into the tiles cache. Intersections computed later in this area therefore
+     * normally find their tiles directly in the cache, without waiting for the
+     * {@link org.orekit.rugged.raster.TileUpdater TileUpdater}. The grid steps
+     * should be significantly smaller than the tiles size.
+     * </p>
+     * <p>
+     * The projection ignores the terrain elevation, light time correction, aberration
+     * of light correction and atmospheric refraction, so tiles very close to the
+     * footprint edges may be missed. This only implies they will be loaded on the
+     * fly when needed, as when no prefetching is done at all.
+     * </p>
+     * @param sensorName name of the line sensor
+     * @param firstLine number of the first line of the footprint
+     * @param lastLine number of the last line of the footprint
+     * @param lineStep maximum step between footprint grid rows (lines, must be strictly positive)
+     * @param pixelStep maximum step between footprint grid columns (pixels, must be strictly positive)
+     * @see #prefetchTiles(String, double, double, double, int, ExecutorService)
+     * @see org.orekit.rugged.raster.TilesCache#prefetchTiles(double, double, double, double)
+     * @since 4.1
+     */
+    public void prefetchTiles(final String sensorName, final double firstLine, final double lastLine,
+                              final double lineStep, final int pixelStep) {
+
+        final LineSensor sensor = getLineSensor(sensorName);
+        checkPrefetchSteps(lineStep, pixelStep);
+        final Vector3D sensorPosition = sensor.getPosition();
+        final int nbRows    = FastMath.max(1, (int) FastMath.ceil(FastMath.abs(lastLine - firstLine) / lineStep));
+        final int nbColumns = FastMath.max(1, (sensor.getNbPixels() + pixelStep - 2) / pixelStep);
+
+        // project the footprint grid on the ellipsoid
+        final double[][] latitudes  = new double[nbRows + 1][nbColumns + 1];
+        final double[][] longitudes = new double[nbRows + 1][nbColumns + 1];
+        double centralLongitude = 0.0;
+        for (int i = 0; i <= nbRows; ++i) {
+            final AbsoluteDate date        = sensor.getDate(firstLine + (i * (lastLine - firstLine)) / nbRows);
+            final Transform    scToInert   = scToBody.getScToInertial(date);
+            final Transform    inertToBody = scToBody.getInertialToBody(date);
+            final Vector3D     pBody       = inertToBody.transformPosition(scToInert.transformPosition(sensorPosition));
+            for (int j = 0; j <= nbColumns; ++j) {
+                final int pixel = (j * (sensor.getNbPixels() - 1)) / nbColumns;
+                final Vector3D lBody = inertToBody.transformVector(scToInert.transformVector(sensor.getLOS(date, pixel)));
+                final NormalizedGeodeticPoint gp = ellipsoid.pointOnGround(pBody, lBody, centralLongitude);
+                latitudes[i][j]  = gp.getLatitude();
+                longitudes[i][j] = gp.getLongitude();
+                centralLongitude = gp.getLongitude();
             }
+        }
 
-            // compute with atmospheric refraction correction if necessary
-            if (atmosphericRefraction != null && atmosphericRefraction.mustBeComputed()) {
+        // load the tiles along grid rows, in chronological order
+        for (int i = 0; i <= nbRows; ++i) {
+            for (int j = 0; j < nbColumns; ++j) {
+                algorithm.prefetchTiles(latitudes[i][j],     longitudes[i][j],
+                                        latitudes[i][j + 1], longitudes[i][j + 1]);
+            }
+            if (i < nbRows) {
+                // load the tiles along grid columns, up to next row
+                for (int j = 0; j <= nbColumns; ++j) {
+                    algorithm.prefetchTiles(latitudes[i][j],     longitudes[i][j],
+                                            latitudes[i + 1][j], longitudes[i + 1][j]);
+                }
+            }
+        }
 
-                final Vector3D pBody;
-                final Vector3D lBody;
+    }
 
-                // Take into account the light time correction
-                // @since 3.1
-                if (lightTimeCorrection) {
-                    // Transform sensor position in inertial frame to observed body
-                    final Vector3D sP = inertToBody.transformPosition(pInert);
-                    // Convert ground location of the pixel in cartesian coordinates
-                    final Vector3D eP = ellipsoid.transform(gp[i]);
-                    // Compute the light time correction (s)
-                    final double deltaT = eP.distance(sP) / Constants.SPEED_OF_LIGHT;
+    /** Load in advance the Digital Elevation Model tiles under a sensor footprint, in background.
+     * <p>
+     * This method submits to the executor a task calling {@link #prefetchTiles(String,
+     * double, double, double, int)} and returns immediately, so the tiles are loaded while
+     * the caller processes other lines. As the Digital Elevation Model intersection
+     * algorithm is then used from several threads, it must be thread-safe, which implies
+     * that the {@link AlgorithmId#DUVENHAGE DUVENHAGE} and {@link AlgorithmId#DUVENHAGE_FLAT_BODY
+     * DUVENHAGE_FLAT_BODY} algorithms must be used with a concurrent tiles cache (see
+     * {@link RuggedBuilder#setConcurrentTilesCache(boolean)}). A typical use is to prefetch
+     * the tiles for the next block of lines while locating the current block.
+     * </p>
+     * @param sensorName name of the line sensor
+     * @param firstLine number of the first line of the footprint
+     * @param lastLine number of the last line of the footprint
+     * @param lineStep maximum step between footprint grid rows (lines, must be strictly positive)
+     * @param pixelStep maximum step between footprint grid columns (pixels, must be strictly positive)
+     * @param executor executor in which tiles loading should be performed
+     * @return future completed when all tiles have been loaded, which can be used
+     * to wait for completion or to retrieve errors that occurred during loading
+     * @since 4.1
+     */
+    public Future<?> prefetchTiles(final String sensorName, final double firstLine, final double lastLine,
+                                   final double lineStep, final int pixelStep, final ExecutorService executor) {
+        // check sensor and steps immediately, so errors are reported to caller rather than in the future
+        getLineSensor(sensorName);
+        checkPrefetchSteps(lineStep, pixelStep);
+        return executor.submit(() -> prefetchTiles(sensorName, firstLine, lastLine, lineStep, pixelStep));
+    }
 
-                    // Apply shift due to light time correction
-                    final Transform shiftedInertToBody = inertToBody.shiftedBy(-deltaT);
+    /** Check the size of a caller-supplied buffer.
+     * @param buffer buffer to check
+     * @param size minimum expected size
+     * @since 4.1
+     */
+    private static void checkBufferSize(final double[] buffer, final int size) {
+        if (buffer.length < size) {
+            throw new RuggedException(LocalizedCoreFormats.DIMENSIONS_MISMATCH, buffer.length, size);
+        }
+    }
 
-                    pBody = shiftedInertToBody.transformPosition(pInert);
-                    lBody = shiftedInertToBody.transformVector(lInert);
+    /** Check the steps of a prefetching footprint grid.
+     * @param lineStep maximum step between footprint grid rows (lines)
+     * @param pixelStep maximum step between footprint grid columns (pixels)
+     * @since 4.1
+     */
+    private static void checkPrefetchSteps(final double lineStep, final int pixelStep) {
+        if (!(lineStep > 0)) {
+            throw new RuggedException(RuggedMessages.INVALID_STEP, lineStep, " lineStep <= 0");
+        }
+        if (pixelStep <= 0) {
+            throw new RuggedException(RuggedMessages.INVALID_STEP, pixelStep, " pixelStep <= 0");
+        }
+    }
+
+    /** Check a pixel index is within a sensor.
+     * @param pixel pixel index to check
+     * @param sensor line sensor
+     * @since 4.1
+     */
+    private static void checkPixelIndex(final long pixel, final LineSensor sensor) {
+        if (pixel < 0 || pixel >= sensor.getNbPixels()) {
+            throw new RuggedException(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE,
+                                      pixel, 0, sensor.getNbPixels() - 1);
+        }
+    }
+
+    /** Direct location of lines, storing results in primitive arrays.
+     * @param sensor line sensor
+     * @param firstLine number of the first line of the grid
+     * @param lineStep step between grid lines
+     * @param startIndex index of the first line to localize in the grid (included)
+     * @param endIndex index of the last line to localize in the grid (excluded)
+     * @param firstPixel index of the first pixel of the grid
+     * @param pixelStep step between grid pixels
+     * @param nbPixels number of pixels to localize in each line
+     * @param latitudes placeholder for the latitudes of the ground points (rad)
+     * @param longitudes placeholder for the longitudes of the ground points (rad)
+     * @param altitudes placeholder for the altitudes of the ground points (m)
+     * @since 4.1
+     */
+    private void directLocation(final LineSensor sensor,
+                                final double firstLine, final double lineStep,
+                                final int startIndex, final int endIndex,
+                                final int firstPixel, final int pixelStep, final int nbPixels,
+                                final double[] latitudes, final double[] longitudes, final double[] altitudes) {
 
-                } else { // Light time correction NOT to be taken into account
+        final Vector3D sensorPosition = sensor.getPosition();
 
-                    pBody = inertToBody.transformPosition(pInert);
-                    lBody = inertToBody.transformVector(lInert);
+        // when most pixels are located, it is faster to get all lines-of-sight at once
+        final double[] coordinates = 2 * nbPixels >= sensor.getNbPixels() ? new double[3 * sensor.getNbPixels()] : null;
 
-                } // end test on lightTimeCorrection
+        // Atmospheric refraction correction may be interpolated
+        final DirectLocationGrid grid = getDirectLocationGrid(sensor);
+        final DirectLocationGrid.NodeLocator locator = grid == null ? null : (p, l) -> locateGridNode(sensor, p, l);
 
-                // apply atmospheric refraction correction
-                gp[i] = atmosphericRefraction.applyCorrection(pBody, lBody, (NormalizedGeodeticPoint) gp[i], algorithm);
+        for (int lineIndex = startIndex; lineIndex < endIndex; ++lineIndex) {
 
+            // Compute the transforms and sensor position for the line date, only once for all pixels
+            final double       line    = firstLine + lineIndex * lineStep;
+            final AbsoluteDate date    = sensor.getDate(line);
+            final LineContext  context = new LineContext(date, sensorPosition);
+            if (coordinates != null) {
+                sensor.getLOSCoordinates(date, coordinates);
             }
-            DumpManager.dumpDirectLocationResult(gp[i]);
+
+            int k = lineIndex * nbPixels;
+            for (int pixelIndex = 0; pixelIndex < nbPixels; ++pixelIndex) {
+                final int      pixel = firstPixel + pixelIndex * pixelStep;
+                final Vector3D los   = coordinates == null ?
+                                       sensor.getLOS(date, pixel) :
+                                       new Vector3D(coordinates[3 * pixel], coordinates[3 * pixel + 1], coordinates[3 * pixel + 2]);
+                final NormalizedGeodeticPoint gp = locatePixel(context, los, grid, locator, pixel, line);
+                latitudes[k]  = gp.getLatitude();
+                longitudes[k] = gp.getLongitude();
+                altitudes[k]  = gp.getAltitude();
+                ++k;
+            }
+
         }
-        return gp;
+
     }
 
-    /** Direct location of a single line-of-sight.
-     * @param date date of the location
-     * @param sensorPosition sensor position in spacecraft frame. For simplicity, due to the size of sensor,
-     * we consider each pixel to be at sensor position
+    /** Direct location of a line-of-sight, once the transforms at its date are known.
+     * @param context transforms and sensor position at line-of-sight date
      * @param los normalized line-of-sight in spacecraft frame
      * @return ground position of intersection point between specified los and ground
+     * @since 4.1
      */
-    public GeodeticPoint directLocation(final AbsoluteDate date, final Vector3D sensorPosition, final Vector3D los) {
+    private NormalizedGeodeticPoint locateLOS(final LineContext context, final Vector3D los) {
 
-        DumpManager.dumpDirectLocation(date, sensorPosition, los, lightTimeCorrection, aberrationOfLightCorrection,
-                                       atmosphericRefraction != null);
+        // Compute the line of sight in inertial frame
+        final Vector3D lInert = getInertialLOS(context, los);
+
+        // Compute ground location of specified pixel according to light time correction flag
+        final NormalizedGeodeticPoint gp = intersectLOS(context, los, lInert);
+
+        // compute the ground location with atmospheric correction if asked for
+        if (atmosphericRefraction != null && atmosphericRefraction.mustBeComputed()) {
+            return applyRefractionCorrection(context, lInert, gp);
+        } else {
+            return gp;
+        }
+
+    }
+
+    /** Direct location of a sensor pixel, once the transforms at its date are known.
+     * <p>
+     * If the atmospheric refraction direct location grid is enabled, the atmospheric
+     * refraction correction is interpolated, otherwise this method is equivalent to
+     * {@link #locateLOS(LineContext, Vector3D)}.
+     * </p>
+     * @param context transforms and sensor position at line-of-sight date
+     * @param los normalized line-of-sight in spacecraft frame
+     * @param grid atmospheric refraction direct location grid (null if disabled)
+     * @param locator locator for the grid nodes (null if grid is disabled)
+     * @param pixel pixel number
+     * @param line line number
+     * @return ground position of intersection point between specified los and ground
+     * @since 4.1
+     */
+    private NormalizedGeodeticPoint locatePixel(final LineContext context, final Vector3D los,
+                                                final DirectLocationGrid grid,
+                                                final DirectLocationGrid.NodeLocator locator,
+                                                final double pixel, final double line) {
+
+        if (grid == null) {
+            return locateLOS(context, los);
+        }
 
-        // Compute the transforms for the date
-        // from spacecraft to inertial
-        final Transform    scToInert   = scToBody.getScToInertial(date);
-        // from inertial to body
-        final Transform    inertToBody = scToBody.getInertialToBody(date);
+        final Vector3D                lInert = getInertialLOS(context, los);
+        final NormalizedGeodeticPoint gp     = intersectLOS(context, los, lInert);
+        final NormalizedGeodeticPoint result = grid.applyCorrection(pixel, line, gp, ellipsoid, algorithm, locator);
 
-        // Compute spacecraft velocity in inertial frame
-        final Vector3D spacecraftVelocity = scToInert.transformPVCoordinates(PVCoordinates.ZERO).getVelocity();
-        // Compute sensor position in inertial frame
-        // TBN: for simplicity, due to the size of sensor, we consider each pixel to be at sensor position
-        final Vector3D pInert    = scToInert.transformPosition(sensorPosition);
+        // fall back to exact correction where interpolation is not accurate enough
+        return result != null ? result : applyRefractionCorrection(context, lInert, gp);
+
+    }
+
+    /** Get the atmospheric refraction direct location grid, if enabled.
+     * <p>
+     * The grid is bypassed when debug dump is active, as dumped direct locations
+     * are replayed with the exact correction, and the grid nodes computation
+     * would pollute the dump.
+     * </p>
+     * @param sensor line sensor
+     * @return atmospheric refraction direct location grid, or null if
+     * there is no atmospheric refraction, if the grid is disabled or if
+     * debug dump is active
+     * @since 4.1
+     */
+    private DirectLocationGrid getDirectLocationGrid(final LineSensor sensor) {
+        return (atmosphericRefraction != null && atmosphericRefraction.mustBeComputed() && !DumpManager.isActive()) ?
+               atmosphericRefraction.getDirectLocationGrid(sensor) : null;
+    }
+
+    /** Exact direct location of a grid node, with and without atmospheric refraction.
+     * @param sensor line sensor
+     * @param pixel pixel number
+     * @param line line number
+     * @return ground positions without and with atmospheric refraction correction
+     * @since 4.1
+     */
+    private NormalizedGeodeticPoint[] locateGridNode(final LineSensor sensor, final double pixel, final double line) {
+        final AbsoluteDate            date    = sensor.getDate(line);
+        final LineContext             context = new LineContext(date, sensor.getPosition());
+        final Vector3D                los     = sensor.getLOS(date, pixel);
+        final Vector3D                lInert  = getInertialLOS(context, los);
+        final NormalizedGeodeticPoint gp      = intersectLOS(context, los, lInert);
+        return new NormalizedGeodeticPoint[] {
+            gp, applyRefractionCorrection(context, lInert, gp)
+        };
+    }
+
+    /** Compute the line-of-sight in inertial frame.
+     * @param context transforms and sensor position at line-of-sight date
+     * @param los normalized line-of-sight in spacecraft frame
+     * @return line-of-sight in inertial frame, with aberration of light correction if needed
+     * @since 4.1
+     */
+    private Vector3D getInertialLOS(final LineContext context, final Vector3D los) {
 
         // Compute the line of sight in inertial frame (without correction)
-        final Vector3D obsLInert = scToInert.transformVector(los);
+        final Vector3D obsLInert = context.scToInert.transformVector(los);
 
-        final Vector3D lInert;
         if (aberrationOfLightCorrection) {
             // apply aberration of light correction on LOS
-            lInert = applyAberrationOfLightCorrection(obsLInert, spacecraftVelocity);
+            return applyAberrationOfLightCorrection(obsLInert, context.spacecraftVelocity);
         } else {
             // don't apply aberration of light correction on LOS
-            lInert = obsLInert;
+            return obsLInert;
         }
 
-        // Compute ground location of specified pixel according to light time correction flag
-        final NormalizedGeodeticPoint gp;
+    }
+
+    /** Intersect a line-of-sight with the ground, without atmospheric refraction correction.
+     * @param context transforms and sensor position at line-of-sight date
+     * @param los normalized line-of-sight in spacecraft frame
+     * @param lInert line-of-sight in inertial frame
+     * @return ground position of intersection point between specified los and ground
+     * @since 4.1
+     */
+    private NormalizedGeodeticPoint intersectLOS(final LineContext context, final Vector3D los, final Vector3D lInert) {
 
         if (lightTimeCorrection) {
             // compute DEM intersection with light time correction
             // TBN: for simplicity, due to the size of sensor, we consider each pixel to be at sensor position
-            gp = computeWithLightTimeCorrection(date, sensorPosition, los, scToInert, inertToBody, pInert, lInert);
+            return computeWithLightTimeCorrection(context, los, lInert);
 
         } else {
             // compute DEM intersection without light time correction
-            final Vector3D pBody = inertToBody.transformPosition(pInert);
-            final Vector3D lBody = inertToBody.transformVector(lInert);
-            gp = algorithm.refineIntersection(ellipsoid, pBody, lBody,
-                                              algorithm.intersection(ellipsoid, pBody, lBody));
+            final Vector3D pBody = context.pBody;
+            final Vector3D lBody = context.inertToBody.transformVector(lInert);
+            return algorithm.refineIntersection(ellipsoid, pBody, lBody,
+                                                algorithm.intersection(ellipsoid, pBody, lBody));
         }
 
-        // Compute ground location of specified pixel according to atmospheric refraction correction flag
-        NormalizedGeodeticPoint result = gp;
-
-        // compute the ground location with atmospheric correction if asked for
-        if (atmosphericRefraction != null && atmosphericRefraction.mustBeComputed()) {
+    }
 
-            final Vector3D pBody;
-            final Vector3D lBody;
+    /** Apply atmospheric refraction correction to a ground point.
+     * @param context transforms and sensor position at line-of-sight date
+     * @param lInert line-of-sight in inertial frame
+     * @param gp ground point before atmospheric refraction correction
+     * @return ground point with atmospheric refraction correction
+     * @since 4.1
+     */
+    private NormalizedGeodeticPoint applyRefractionCorrection(final LineContext context, final Vector3D lInert,
+                                                              final NormalizedGeodeticPoint gp) {
 
-            // Take into account the light time correction
-            // @since 3.1
-            if (lightTimeCorrection) {
-                // Transform sensor position in inertial frame to observed body
-                final Vector3D sP = inertToBody.transformPosition(pInert);
-                // Convert ground location of the pixel in cartesian coordinates
-                final Vector3D eP = ellipsoid.transform(gp);
-                // Compute the light time correction (s)
-                final double deltaT = eP.distance(sP) / Constants.SPEED_OF_LIGHT;
+        final Transform inertToBody = context.inertToBody;
+        final Vector3D pBody;
+        final Vector3D lBody;
 
-                // Apply shift due to light time correction
-                final Transform shiftedInertToBody = inertToBody.shiftedBy(-deltaT);
+        // Take into account the light time correction
+        // @since 3.1
+        if (lightTimeCorrection) {
+            // Sensor position in observed body
+            final Vector3D sP = context.pBody;
+            // Convert ground location of the pixel in cartesian coordinates
+            final Vector3D eP = ellipsoid.transform(gp);
+            // Compute the light time correction (s)
+            final double deltaT = eP.distance(sP) / Constants.SPEED_OF_LIGHT;
 
-                pBody = shiftedInertToBody.transformPosition(pInert);
-                lBody = shiftedInertToBody.transformVector(lInert);
+            // Apply shift due to light time correction
+            final Transform shiftedInertToBody = inertToBody.shiftedBy(-deltaT);
 
-            } else { // Light time correction NOT to be taken into account
+            pBody = shiftedInertToBody.transformPosition(context.pInert);
+            lBody = shiftedInertToBody.transformVector(lInert);
 
-                pBody = inertToBody.transformPosition(pInert);
-                lBody = inertToBody.transformVector(lInert);
+        } else { // Light time correction NOT to be taken into account
 
-            } // end test on lightTimeCorrection
+            pBody = context.pBody;
+            lBody = inertToBody.transformVector(lInert);
 
-            // apply atmospheric refraction correction
-            result = atmosphericRefraction.applyCorrection(pBody, lBody, gp, algorithm);
+        } // end test on lightTimeCorrection
 
-        } // end test on atmosphericRefraction != null
+        // apply atmospheric refraction correction
+        return atmosphericRefraction.applyCorrection(pBody, lBody, gp, algorithm);
 
-        DumpManager.dumpDirectLocationResult(result);
-        return result;
     }
 
     /** Find the date at which sensor sees a ground point.
@@ -587,6 +926,148 @@ public class Rugged {
         }
     }
 
+    /** Inverse location of a set of points, storing results in primitive arrays.
+     * <p>
+     * This method is intended for locating large sets of ground points, like
+     * the nodes of a Digital Elevation Model grid when resampling an image. The
+     * points are first sorted along a Z-order curve, so consecutive points are
+     * close to each other on ground and the mean plane crossing finder can reuse
+     * the previous results to guess a start line. The sorted points are then
+     * split in batches that are located in parallel using the specified pool,
+     * each batch using its own mean plane crossing finder. The results are stored
+     * in the caller-provided arrays at the same index as the corresponding point,
+     * points that cannot be seen between the prescribed line numbers are marked
+     * with {@code Double.NaN} values.
+     * </p>
+     * <p>
+     * As the same instance is used from several threads, the Digital Elevation Model
+     * intersection algorithm must be thread-safe, see {@link #directLocation(String,
+     * double, double, int, int, int, int, double[], double[], double[], ForkJoinPool)}.
+     * If atmospheric refraction correction is activated, the correction grid is shared
+     * between all points, so the pool is only used to compute the grid nodes (if the grid
+     * is not already cached), and the points are then located sequentially in the calling
+     * thread.
+     * </p>
+     * <p>
+     * Debug dump is not performed by this method.
+     * </p>
+     * @param sensorName name of the line sensor
+     * @param latitudes latitudes of the points to localize (rad)
+     * @param longitudes longitudes of the points to localize (rad),
+     * must have at least as many elements as {@code latitudes}
+     * @param altitudes altitudes of the points to localize (m),
+     * must have at least as many elements as {@code latitudes}
+     * @param minLine minimum line number where the search will be performed
+     * @param maxLine maximum line number where the search will be performed
+     * @param lines placeholder for the line numbers of the sensor pixels,
+     * must have at least as many elements as {@code latitudes}
+     * @param pixels placeholder for the pixel numbers of the sensor pixels,
+     * must have at least as many elements as {@code latitudes}
+     * @param pool pool of threads to use for the computation
+     * @see #inverseLocation(String, GeodeticPoint, int, int)
+     * @since 4.1
+     */
+    public void inverseLocation(final String sensorName,
+                                final double[] latitudes, final double[] longitudes, final double[] altitudes,
+                                final int minLine, final int maxLine,
+                                final double[] lines, final double[] pixels,
+                                final ForkJoinPool pool) {
+
+        final LineSensor sensor = getLineSensor(sensorName);
+        final int size = latitudes.length;
+        checkBufferSize(longitudes, size);
+        checkBufferSize(altitudes,  size);
+        checkBufferSize(lines,      size);
+        checkBufferSize(pixels,     size);
+
+        if (atmosphericRefraction != null && atmosphericRefraction.mustBeComputed()) {
+            // the correction grid is not thread-safe, we locate points one at a time
+            // once the grid has been computed
+            final Boolean wasSuspended = DumpManager.suspend();
+            try {
+                computeCorrectionGridIfNeeded(sensor, minLine, maxLine, pool);
+                final SensorMeanPlaneCrossing planeCrossing = getPlaneCrossing(sensorName, minLine, maxLine);
+                for (int i = 0; i < size; ++i) {
+                    final Vector3D target = ellipsoid.transform(new GeodeticPoint(latitudes[i], longitudes[i], altitudes[i]));
+                    final SensorPixel sp0 = target.isNaN() ? null : locateSensorPixel(target, sensor, planeCrossing);
+                    final SensorPixel sp  = sp0 == null ? null : applyRefractionCorrection(sp0);
+                    lines[i]  = sp == null ? Double.NaN : sp.getLineNumber();
+                    pixels[i] = sp == null ? Double.NaN : sp.getPixelNumber();
+                }
+            } finally {
+                DumpManager.resume(wasSuspended);
+            }
+        } else {
+            // the shared finder holds the mean plane, which is computed only once
+            final SensorMeanPlaneCrossing planeCrossing = getPlaneCrossing(sensorName, minLine, maxLine);
+            final int[] order = sortAlongZOrderCurve(latitudes, longitudes, size);
+            pool.invoke(new InverseLocationTask(sensor, planeCrossing, order, 0, size,
+                                                latitudes, longitudes, altitudes, lines, pixels));
+        }
+
+    }
+
+    /** Sort points along a Z-order curve.
+     * <p>
+     * The Z-order (or Morton order) curve is built on a 2<sup>15</sup> &times;
+     * 2<sup>15</sup> grid covering the bounding box of the points. Points that
+     * are consecutive along the curve are close to each other on ground.
+     * </p>
+     * @param latitudes latitudes of the points (rad)
+     * @param longitudes longitudes of the points (rad)
+     * @param size number of points
+     * @return indices of the points, sorted along the curve
+     * @since 4.1
+     */
+    private static int[] sortAlongZOrderCurve(final double[] latitudes, final double[] longitudes, final int size) {
+
+        // bounding box of the points
+        double minLatitude  = Double.POSITIVE_INFINITY;
+        double maxLatitude  = Double.NEGATIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY;
+        double maxLongitude = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; ++i) {
+            if (!(Double.isNaN(latitudes[i]) || Double.isNaN(longitudes[i]))) {
+                minLatitude  = FastMath.min(minLatitude,  latitudes[i]);
+                maxLatitude  = FastMath.max(maxLatitude,  latitudes[i]);
+                minLongitude = FastMath.min(minLongitude, longitudes[i]);
+                maxLongitude = FastMath.max(maxLongitude, longitudes[i]);
+            }
+        }
+        final double latitudeScale  = Z_ORDER_CELLS / FastMath.max(maxLatitude  - minLatitude,  Precision.SAFE_MIN);
+        final double longitudeScale = Z_ORDER_CELLS / FastMath.max(maxLongitude - minLongitude, Precision.SAFE_MIN);
+
+        // the key holds the cell position along the curve in the high bits and the point index in the low bits
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; ++i) {
+            final long latitudeCell  = (long) ((latitudes[i]  - minLatitude)  * latitudeScale);
+            final long longitudeCell = (long) ((longitudes[i] - minLongitude) * longitudeScale);
+            keys[i] = ((interleaveBits(latitudeCell) << 1 | interleaveBits(longitudeCell)) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        final int[] order = new int[size];
+        for (int i = 0; i < size; ++i) {
+            order[i] = (int) (keys[i] & 0xFFFFFFFFL);
+        }
+        return order;
+
+    }
+
+    /** Spread the 15 lowest bits of a cell index, inserting a zero bit between each bit.
+     * @param cell cell index
+     * @return spread bits
+     * @since 4.1
+     */
+    private static long interleaveBits(final long cell) {
+        long bits = FastMath.max(0L, FastMath.min(Z_ORDER_CELLS - 1, cell));
+        bits = (bits | bits << 8) & 0x00FF00FFL;
+        bits = (bits | bits << 4) & 0x0F0F0F0FL;
+        bits = (bits | bits << 2) & 0x33333333L;
+        bits = (bits | bits << 1) & 0x55555555L;
+        return bits;
+    }
+
     /** Apply aberration of light correction (for direct location).
      * @param spacecraftVelocity spacecraft velocity in inertial frame
      * @param obsLInert line of sight in inertial frame
@@ -613,33 +1094,25 @@ public class Rugged {
     }
 
     /** Compute the DEM intersection with light time correction.
-     * @param date date of the los
-     * @param sensorPosition sensor position in spacecraft frame
+     * @param context transforms and sensor position at line-of-sight date
      * @param los los in spacecraft frame
-     * @param scToInert transform for the date from spacecraft to inertial
-     * @param inertToBody transform for the date from inertial to body
-     * @param pInert sensor position in inertial frame
      * @param lInert line of sight in inertial frame (with light time correction if asked for)
      * @return geodetic point with light time correction
      */
-    private NormalizedGeodeticPoint computeWithLightTimeCorrection(final AbsoluteDate date,
-                                                                   final Vector3D sensorPosition, final Vector3D los,
-                                                                   final Transform scToInert, final Transform inertToBody,
-                                                                   final Vector3D pInert, final Vector3D lInert) {
+    private NormalizedGeodeticPoint computeWithLightTimeCorrection(final LineContext context,
+                                                                   final Vector3D los, final Vector3D lInert) {
 
-        // Compute the transform between spacecraft and observed body
-        final Transform approximate = new Transform(date, scToInert, inertToBody);
+        final Transform inertToBody = context.inertToBody;
+        final Vector3D  pInert      = context.pInert;
 
         // Transform LOS in spacecraft frame to observed body
-        final Vector3D  sL       = approximate.transformVector(los);
-        // Transform sensor position in spacecraft frame to observed body
-        final Vector3D  sP       = approximate.transformPosition(sensorPosition);
-
-        // Compute point intersecting ground (= the ellipsoid) along the pixel LOS
-        final Vector3D  eP1      = ellipsoid.transform(ellipsoid.pointOnGround(sP, sL, 0.0));
+        final Vector3D  sL       = context.getScToBody().transformVector(los);
+        // Sensor position in observed body
+        final Vector3D  sP       = context.getSensorPositionInBody();
 
-        // Compute light time time correction (vs the ellipsoid) (s)
-        final double    deltaT1  = eP1.distance(sP) / Constants.SPEED_OF_LIGHT;
+        // Compute light time time correction (vs the ellipsoid) (s),
+        // using the point intersecting ground (= the ellipsoid) along the pixel LOS
+        final double    deltaT1  = ellipsoid.distanceToGround(sP, sL) / Constants.SPEED_OF_LIGHT;
 
         // Apply shift due to light time correction (vs the ellipsoid)
         final Transform shifted1 = inertToBody.shiftedBy(-deltaT1);
@@ -675,8 +1148,29 @@ public class Rugged {
     private SensorPixel findSensorPixelWithoutAtmosphere(final GeodeticPoint point,
                                                          final LineSensor sensor, final SensorMeanPlaneCrossing planeCrossing) {
 
+        final SensorPixel result = locateSensorPixel(ellipsoid.transform(point), sensor, planeCrossing);
+        if (result != null) {
+            DumpManager.dumpInverseLocationResult(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Locate the sensor pixel seeing a target, WITHOUT atmospheric refraction correction.
+     * <p>
+     * This method does not perform any debug dump.
+     * </p>
+     * @param target target point in body frame
+     * @param sensor the line sensor
+     * @param planeCrossing the sensor mean plane crossing
+     * @return the sensor pixel crossing or null if cannot be found
+     * @since 4.1
+     */
+    private SensorPixel locateSensorPixel(final Vector3D target,
+                                          final LineSensor sensor, final SensorMeanPlaneCrossing planeCrossing) {
+
         // find approximately the sensor line at which ground point crosses sensor mean plane
-        final Vector3D target = ellipsoid.transform(point);
         final SensorMeanPlaneCrossing.CrossingResult crossingResult = planeCrossing.find(target);
         if (crossingResult == null) {
             // target is out of search interval
@@ -721,10 +1215,7 @@ public class Rugged {
                                                  Vector3D.dotProduct(fixedDirection, fixedX));
         final double fixedPixel = lowIndex + alpha / pixelWidth;
 
-        final SensorPixel result = new SensorPixel(fixedLine, fixedPixel);
-        DumpManager.dumpInverseLocationResult(result);
-
-        return result;
+        return new SensorPixel(fixedLine, fixedPixel);
     }
 
     /**
@@ -747,33 +1238,7 @@ public class Rugged {
         // Compute a correction grid (at sensor level)
         // ===========================================
         // Need to be computed only once for a given sensor (with the same minLine and maxLine)
-        if (atmosphericRefraction.getBifPixel() == null || atmosphericRefraction.getBifLine() == null || // lazy evaluation
-            !atmosphericRefraction.isSameContext(sensorName, minLine, maxLine)) { // Must be recomputed if the context changed
-
-            // Definition of a regular grid (at sensor level)
-            atmosphericRefraction.configureCorrectionGrid(sensor, minLine, maxLine);
-
-            // Get the grid nodes
-            final int nbPixelGrid = atmosphericRefraction.getComputationParameters().getNbPixelGrid();
-            final int nbLineGrid = atmosphericRefraction.getComputationParameters().getNbLineGrid();
-            final double[] pixelGrid = atmosphericRefraction.getComputationParameters().getUgrid();
-            final double[] lineGrid = atmosphericRefraction.getComputationParameters().getVgrid();
-
-            // Computation, for the sensor grid, of the direct location WITH atmospheric refraction
-            // (full computation)
-            atmosphericRefraction.reactivateComputation();
-            final GeodeticPoint[][] geodeticGridWithAtmosphere = computeDirectLocOnGridWithAtmosphere(pixelGrid, lineGrid, sensor);
-            // pixelGrid and lineGrid are the nodes where the direct loc is computed WITH atmosphere
-
-            // Computation of the inverse location WITHOUT atmospheric refraction for the grid nodes
-            atmosphericRefraction.deactivateComputation();
-            final SensorPixel[][] sensorPixelGridInverseWithout = computeInverseLocOnGridWithoutAtmosphere(geodeticGridWithAtmosphere,
-                                                            nbPixelGrid, nbLineGrid, sensor, minLine, maxLine);
-            atmosphericRefraction.reactivateComputation();
-
-            // Compute the grid correction functions (for pixel and line)
-            atmosphericRefraction.computeGridCorrectionFunctions(sensorPixelGridInverseWithout);
-        }
+        computeCorrectionGridIfNeeded(sensor, minLine, maxLine, null);
 
         // Fixed point method
         // ==================
@@ -797,11 +1262,32 @@ public class Rugged {
             throw new RuggedException(RuggedMessages.SENSOR_PIXEL_NOT_FOUND_IN_RANGE_LINES, minLine, maxLine);
         }
 
+        // Needed data for the dump
+        sensor.dumpRate(sp0.getLineNumber());
+
+        // The sensor pixel is found !
+        final SensorPixel sensorPixelWithAtmosphere = applyRefractionCorrection(sp0);
+
+        // Dump the found sensorPixel
+        DumpManager.dumpInverseLocationResult(sensorPixelWithAtmosphere);
+
+        return sensorPixelWithAtmosphere;
+    }
+
+    /** Apply the atmospheric refraction correction to a sensor pixel found WITHOUT atmosphere.
+     * <p>
+     * The correction grid must have been computed beforehand. This method does not
+     * perform any debug dump.
+     * </p>
+     * @param sp0 sensor pixel seeing the ground point, computed without atmosphere
+     * @return sensor pixel seeing the ground point, computed with atmosphere
+     * @since 4.1
+     */
+    private SensorPixel applyRefractionCorrection(final SensorPixel sp0) {
+
         // set up the starting point of the fixed point method
         final double pixel0 = sp0.getPixelNumber();
         final double line0 = sp0.getLineNumber();
-        // Needed data for the dump
-        sensor.dumpRate(line0);
 
         // Apply fixed point method until convergence in pixel and line
         // ------------------------------------------------------------
@@ -827,13 +1313,72 @@ public class Rugged {
             corrPixelPrevious = corrPixelCurrent;
             corrLinePrevious = corrLineCurrent;
         }
-        // The sensor pixel is found !
-        final SensorPixel sensorPixelWithAtmosphere = new SensorPixel(corrLinePrevious, corrPixelPrevious);
 
-        // Dump the found sensorPixel
-        DumpManager.dumpInverseLocationResult(sensorPixelWithAtmosphere);
+        return new SensorPixel(corrLinePrevious, corrPixelPrevious);
+
+    }
+
+    /** Compute the correction grid for a sensor and a range of lines, if it is not already cached.
+     * @param sensor the line sensor
+     * @param minLine minimum line number where the search will be performed
+     * @param maxLine maximum line number where the search will be performed
+     * @param pool pool of threads to use for computing the grid nodes (null for sequential computation)
+     * @since 4.1
+     */
+    private void computeCorrectionGridIfNeeded(final LineSensor sensor, final int minLine, final int maxLine,
+                                               final ForkJoinPool pool) {
+
+        if (atmosphericRefraction.selectCorrectionGrid(sensor.getName(), minLine, maxLine)) {
+            // the grid has already been computed for this context
+            return;
+        }
+
+        // Definition of a regular grid (at sensor level)
+        atmosphericRefraction.configureCorrectionGrid(sensor, minLine, maxLine);
+
+        // Get the grid nodes
+        final int nbPixelGrid = atmosphericRefraction.getComputationParameters().getNbPixelGrid();
+        final int nbLineGrid = atmosphericRefraction.getComputationParameters().getNbLineGrid();
+        final double[] pixelGrid = atmosphericRefraction.getComputationParameters().getUgrid();
+        final double[] lineGrid = atmosphericRefraction.getComputationParameters().getVgrid();
+
+        final SensorPixel[][] sensorPixelGridInverseWithout;
+        if (pool == null) {
+
+            // Computation, for the sensor grid, of the direct location WITH atmospheric refraction
+            // (full computation)
+            atmosphericRefraction.reactivateComputation();
+            final GeodeticPoint[][] geodeticGridWithAtmosphere = computeDirectLocOnGridWithAtmosphere(pixelGrid, lineGrid, sensor);
+            // pixelGrid and lineGrid are the nodes where the direct loc is computed WITH atmosphere
+
+            // Computation of the inverse location WITHOUT atmospheric refraction for the grid nodes
+            atmosphericRefraction.deactivateComputation();
+            sensorPixelGridInverseWithout = computeInverseLocOnGridWithoutAtmosphere(geodeticGridWithAtmosphere,
+                                                                                     nbPixelGrid, nbLineGrid, sensor, minLine, maxLine);
+            atmosphericRefraction.reactivateComputation();
+
+        } else {
+
+            // Deactivate the dump because no need to keep intermediate computations (can be regenerate)
+            final Boolean wasSuspended = DumpManager.suspend();
+
+            // Both computations are performed by the same task for each column of the grid,
+            // the inverse location WITHOUT atmospheric refraction does not depend on the activation flag
+            atmosphericRefraction.reactivateComputation();
+            final GeodeticPoint[][] geodeticGridWithAtmosphere = new GeodeticPoint[nbPixelGrid][nbLineGrid];
+            sensorPixelGridInverseWithout = new SensorPixel[nbPixelGrid][nbLineGrid];
+            pool.invoke(new CorrectionGridTask(sensor, getPlaneCrossing(sensor.getName(), minLine, maxLine),
+                                               pixelGrid, lineGrid, 0, nbPixelGrid,
+                                               geodeticGridWithAtmosphere, sensorPixelGridInverseWithout));
+
+            // Reactivate the dump
+            DumpManager.resume(wasSuspended);
+
+        }
+
+        // Compute the grid correction functions (for pixel and line)
+        atmosphericRefraction.computeGridCorrectionFunctions(sensorPixelGridInverseWithout);
 
-        return sensorPixelWithAtmosphere;
     }
 
     /** Compute the inverse location WITHOUT atmospheric refraction for the geodetic points
@@ -855,10 +1400,39 @@ public class Rugged {
         final Boolean wasSuspended = DumpManager.suspend();
 
         final SensorPixel[][] sensorPixelGrid = new SensorPixel[nbPixelGrid][nbLineGrid];
-        final String sensorName = sensor.getName();
+        computeInverseLocOnGridWithoutAtmosphere(groundGridWithAtmosphere, sensor,
+                                                 getPlaneCrossing(sensor.getName(), minLine, maxLine),
+                                                 0, nbPixelGrid, sensorPixelGrid);
 
-        for (int uIndex = 0; uIndex < nbPixelGrid; uIndex++) {
-            for (int vIndex = 0; vIndex < nbLineGrid; vIndex++) {
+        // Reactivate the dump
+        DumpManager.resume(wasSuspended);
+
+        // The sensor grid computed WITHOUT atmospheric refraction correction
+        return sensorPixelGrid;
+    }
+
+    /** Compute the inverse location WITHOUT atmospheric refraction for the geodetic points
+     * associated to a range of sensor grid nodes.
+     * <p>
+     * This method does not perform any debug dump, and does not depend on the
+     * atmospheric refraction computation flag.
+     * </p>
+     * @param groundGridWithAtmosphere ground grid found for sensor grid nodes with atmosphere
+     * @param sensor the line sensor
+     * @param planeCrossing the sensor mean plane crossing
+     * @param startIndex index of the first pixel grid node to compute (included)
+     * @param endIndex index of the last pixel grid node to compute (excluded)
+     * @param sensorPixelGrid placeholder for the sensor pixel grid computed without atmosphere
+     * @since 4.1
+     */
+    private void computeInverseLocOnGridWithoutAtmosphere(final GeodeticPoint[][] groundGridWithAtmosphere,
+                                                          final LineSensor sensor,
+                                                          final SensorMeanPlaneCrossing planeCrossing,
+                                                          final int startIndex, final int endIndex,
+                                                          final SensorPixel[][] sensorPixelGrid) {
+
+        for (int uIndex = startIndex; uIndex < endIndex; uIndex++) {
+            for (int vIndex = 0; vIndex < sensorPixelGrid[uIndex].length; vIndex++) {
 
                 // Check if the geodetic point exists
                 if (groundGridWithAtmosphere[uIndex][vIndex] != null) {
@@ -867,8 +1441,10 @@ public class Rugged {
                     final double currentLon = groundPoint.getLongitude();
 
                     try {
-                        // Compute the inverse location for the current node
-                        sensorPixelGrid[uIndex][vIndex] = inverseLocation(sensorName, currentLat, currentLon, minLine, maxLine);
+                        // Compute the inverse location for the current node, at Digital Elevation Model elevation
+                        final GeodeticPoint point = new GeodeticPoint(currentLat, currentLon,
+                                                                      algorithm.getElevation(currentLat, currentLon));
+                        sensorPixelGrid[uIndex][vIndex] = locateSensorPixel(ellipsoid.transform(point), sensor, planeCrossing);
 
                     } catch (RuggedException re) { // This should never happen
                         // In order for the dump to end nicely
@@ -884,7 +1460,8 @@ public class Rugged {
 
                         if (sensorPixelGrid[uIndex][vIndex] == null) {
                             // Impossible to find the sensor pixel in the given range lines
-                            throw new RuggedException(RuggedMessages.SENSOR_PIXEL_NOT_FOUND_IN_RANGE_LINES, minLine, maxLine);
+                            throw new RuggedException(RuggedMessages.SENSOR_PIXEL_NOT_FOUND_IN_RANGE_LINES,
+                                                      planeCrossing.getMinLine(), planeCrossing.getMaxLine());
                         } else {
                             // Impossible to find the sensor pixel
                             final double invLocationMargin = atmosphericRefraction.getComputationParameters().getInverseLocMargin();
@@ -901,11 +1478,6 @@ public class Rugged {
             } // end loop vIndex
         } // end loop uIndex
 
-        // Reactivate the dump
-        DumpManager.resume(wasSuspended);
-
-        // The sensor grid computed WITHOUT atmospheric refraction correction
-        return sensorPixelGrid;
     }
 
     /** Check if pixel is inside the sensor with a margin.
@@ -934,14 +1506,39 @@ public class Rugged {
         // Deactivate the dump because no need to keep intermediate computations of direct loc (can be regenerate)
         final Boolean wasSuspended = DumpManager.suspend();
 
-        final int nbPixelGrid = pixelGrid.length;
-        final int nbLineGrid = lineGrid.length;
-        final GeodeticPoint[][] groundGridWithAtmosphere = new GeodeticPoint[nbPixelGrid][nbLineGrid];
+        final GeodeticPoint[][] groundGridWithAtmosphere = new GeodeticPoint[pixelGrid.length][lineGrid.length];
+        computeDirectLocOnGridWithAtmosphere(pixelGrid, lineGrid, sensor, 0, pixelGrid.length, groundGridWithAtmosphere);
+
+        // Reactivate the dump
+        DumpManager.resume(wasSuspended);
+
+        // The ground grid computed WITH atmospheric refraction correction
+        return groundGridWithAtmosphere;
+    }
+
+    /** Computation, for a range of the sensor pixels grid, of the direct location WITH atmospheric refraction.
+     * (full computation)
+     * <p>
+     * This method does not perform any debug dump.
+     * </p>
+     * @param pixelGrid the pixel grid
+     * @param lineGrid the line grid
+     * @param sensor the line sensor
+     * @param startIndex index of the first pixel grid node to compute (included)
+     * @param endIndex index of the last pixel grid node to compute (excluded)
+     * @param groundGridWithAtmosphere placeholder for the ground grid computed with atmosphere
+     * @since 4.1
+     */
+    private void computeDirectLocOnGridWithAtmosphere(final double[] pixelGrid, final double[] lineGrid,
+                                                      final LineSensor sensor,
+                                                      final int startIndex, final int endIndex,
+                                                      final GeodeticPoint[][] groundGridWithAtmosphere) {
+
         final Vector3D sensorPosition = sensor.getPosition();
 
-        for (int uIndex = 0; uIndex < nbPixelGrid; uIndex++) {
+        for (int uIndex = startIndex; uIndex < endIndex; uIndex++) {
             final double pixelNumber = pixelGrid[uIndex];
-            for (int vIndex = 0; vIndex < nbLineGrid; vIndex++) {
+            for (int vIndex = 0; vIndex < lineGrid.length; vIndex++) {
                 final double lineNumber = lineGrid[vIndex];
                 final AbsoluteDate date = sensor.getDate(lineNumber);
                 final Vector3D los = sensor.getLOS(date, pixelNumber);
@@ -957,11 +1554,6 @@ public class Rugged {
             } // end loop vIndex
         } // end loop uIndex
 
-        // Reactivate the dump
-        DumpManager.resume(wasSuspended);
-
-        // The ground grid computed WITH atmospheric refraction correction
-        return groundGridWithAtmosphere;
     }
 
     /** Compute distances between two line sensors.
@@ -1126,12 +1718,20 @@ public class Rugged {
 
 
     /** Get the mean plane crossing finder for a sensor.
+     * <p>
+     * The finder is cached in this instance and reused as long as the lines range
+     * does not change. As finders cache their last results, the returned finder
+     * must not be used by several threads at once, {@link SensorMeanPlaneCrossing#copy()}
+     * can be used to create one finder for each thread.
+     * </p>
      * @param sensorName name of the line sensor
      * @param minLine minimum line number
      * @param maxLine maximum line number
      * @return mean plane crossing finder
+     * @see #inverseLocationDerivatives(SensorMeanPlaneCrossing, GeodeticPoint, DerivativeGenerator)
+     * @since 4.1
      */
-    private SensorMeanPlaneCrossing getPlaneCrossing(final String sensorName,
+    public SensorMeanPlaneCrossing getPlaneCrossing(final String sensorName,
                                                      final int minLine, final int maxLine) {
 
         final LineSensor sensor = getLineSensor(sensorName);
@@ -1178,10 +1778,30 @@ public class Rugged {
                                                                     final int minLine,
                                                                     final int maxLine,
                                                                     final DerivativeGenerator<T> generator) {
+        return inverseLocationDerivatives(getPlaneCrossing(sensorName, minLine, maxLine), point, generator);
+    }
 
-        final LineSensor sensor = getLineSensor(sensorName);
+    /** Inverse location of a point with derivatives, using a specified mean plane crossing finder.
+     * <p>
+     * As the mean plane crossing finder is provided by the caller, this method can
+     * be called by several threads at once, provided each thread uses its own finder
+     * (see {@link SensorMeanPlaneCrossing#copy()}) and parameters drivers are not
+     * changed during the computation.
+     * </p>
+     * @param <T> derivative type
+     * @param planeCrossing mean plane crossing finder for the sensor and lines range
+     * @param point point to localize
+     * @param generator generator to use for building {@link Derivative} instances
+     * @return sensor pixel seeing point with derivatives, or null if point cannot be seen between the
+     * prescribed line numbers
+     * @see #getPlaneCrossing(String, int, int)
+     * @since 4.1
+     */
+    public <T extends Derivative<T>> T[] inverseLocationDerivatives(final SensorMeanPlaneCrossing planeCrossing,
+                                                                    final GeodeticPoint point,
+                                                                    final DerivativeGenerator<T> generator) {
 
-        final SensorMeanPlaneCrossing planeCrossing = getPlaneCrossing(sensorName, minLine, maxLine);
+        final LineSensor sensor = planeCrossing.getSensor();
 
         // find approximately the sensor line at which ground point crosses sensor mean plane
         final Vector3D   target = ellipsoid.transform(point);
@@ -1284,4 +1904,358 @@ public class Rugged {
     public SpacecraftToObservedBody getScToBody() {
         return scToBody;
     }
+
+    /** Container for the quantities shared by all pixels of a line.
+     * <p>
+     * Computing these quantities only once per line avoids recomputing and
+     * reallocating them for each pixel.
+     * </p>
+     * @since 4.1
+     */
+    private class LineContext {
+
+        /** Transform from spacecraft to inertial frame. */
+        private final Transform scToInert;
+
+        /** Transform from inertial frame to observed body frame. */
+        private final Transform inertToBody;
+
+        /** Spacecraft velocity in inertial frame. */
+        private final Vector3D spacecraftVelocity;
+
+        /** Sensor position in inertial frame. */
+        private final Vector3D pInert;
+
+        /** Sensor position in body frame. */
+        private final Vector3D pBody;
+
+        /** Date of the line. */
+        private final AbsoluteDate date;
+
+        /** Sensor position in spacecraft frame. */
+        private final Vector3D sensorPosition;
+
+        /** Transform from spacecraft to observed body frame (lazily built). */
+        private Transform scToBodyTransform;
+
+        /** Sensor position in body frame, using {@link #scToBodyTransform} (lazily built). */
+        private Vector3D sP;
+
+        /** Simple constructor.
+         * @param date date of the line
+         * @param sensorPosition sensor position in spacecraft frame. For simplicity, due to the size of sensor,
+         * we consider each pixel to be at sensor position
+         */
+        LineContext(final AbsoluteDate date, final Vector3D sensorPosition) {
+            this.date               = date;
+            this.sensorPosition     = sensorPosition;
+            this.scToInert          = scToBody.getScToInertial(date);
+            this.inertToBody        = scToBody.getInertialToBody(date);
+            this.spacecraftVelocity = scToInert.transformPVCoordinates(PVCoordinates.ZERO).getVelocity();
+            this.pInert             = scToInert.transformPosition(sensorPosition);
+            this.pBody              = inertToBody.transformPosition(pInert);
+        }
+
+        /** Get the transform from spacecraft to observed body frame.
+         * @return transform from spacecraft to observed body frame
+         */
+        Transform getScToBody() {
+            if (scToBodyTransform == null) {
+                scToBodyTransform = new Transform(date, scToInert, inertToBody);
+            }
+            return scToBodyTransform;
+        }
+
+        /** Get the sensor position in body frame, using the combined transform.
+         * @return sensor position in body frame
+         */
+        Vector3D getSensorPositionInBody() {
+            if (sP == null) {
+                sP = getScToBody().transformPosition(sensorPosition);
+            }
+            return sP;
+        }
+
+    }
+
+    /** Task for parallel direct location of a grid of sensor pixels.
+     * <p>
+     * The task splits its range of lines in halves until each half
+     * contains a single line or at most {@link #DIRECT_LOCATION_BATCH_SIZE}
+     * pixels, so the lines-of-sight buffer is shared by all lines of a batch.
+     * </p>
+     * @since 4.1
+     */
+    private class DirectLocationTask extends RecursiveAction {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20261016L;
+
+        /** Line sensor. */
+        private final LineSensor sensor;
+
+        /** Number of the first line of the grid. */
+        private final double firstLine;
+
+        /** Step between grid lines. */
+        private final double lineStep;
+
+        /** Index of the first line to localize in the grid (included). */
+        private final int startIndex;
+
+        /** Index of the last line to localize in the grid (excluded). */
+        private final int endIndex;
+
+        /** Index of the first pixel of the grid. */
+        private final int firstPixel;
+
+        /** Step between grid pixels. */
+        private final int pixelStep;
+
+        /** Number of pixels to localize in each line. */
+        private final int nbPixels;
+
+        /** Placeholder for the latitudes of the ground points (rad). */
+        private final double[] latitudes;
+
+        /** Placeholder for the longitudes of the ground points (rad). */
+        private final double[] longitudes;
+
+        /** Placeholder for the altitudes of the ground points (m). */
+        private final double[] altitudes;
+
+        /** Simple constructor.
+         * @param sensor line sensor
+         * @param firstLine number of the first line of the grid
+         * @param lineStep step between grid lines
+         * @param startIndex index of the first line to localize in the grid (included)
+         * @param endIndex index of the last line to localize in the grid (excluded)
+         * @param firstPixel index of the first pixel of the grid
+         * @param pixelStep step between grid pixels
+         * @param nbPixels number of pixels to localize in each line
+         * @param latitudes placeholder for the latitudes of the ground points (rad)
+         * @param longitudes placeholder for the longitudes of the ground points (rad)
+         * @param altitudes placeholder for the altitudes of the ground points (m)
+         */
+        DirectLocationTask(final LineSensor sensor,
+                           final double firstLine, final double lineStep,
+                           final int startIndex, final int endIndex,
+                           final int firstPixel, final int pixelStep, final int nbPixels,
+                           final double[] latitudes, final double[] longitudes, final double[] altitudes) {
+            this.sensor     = sensor;
+            this.firstLine  = firstLine;
+            this.lineStep   = lineStep;
+            this.startIndex = startIndex;
+            this.endIndex   = endIndex;
+            this.firstPixel = firstPixel;
+            this.pixelStep  = pixelStep;
+            this.nbPixels   = nbPixels;
+            this.latitudes  = latitudes;
+            this.longitudes = longitudes;
+            this.altitudes  = altitudes;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (endIndex - startIndex <= 1 ||
+                (long) (endIndex - startIndex) * nbPixels <= DIRECT_LOCATION_BATCH_SIZE) {
+                directLocation(sensor, firstLine, lineStep, startIndex, endIndex,
+                               firstPixel, pixelStep, nbPixels,
+                               latitudes, longitudes, altitudes);
+            } else {
+                final int middleIndex = (startIndex + endIndex) / 2;
+                invokeAll(new DirectLocationTask(sensor, firstLine, lineStep, startIndex, middleIndex,
+                                                 firstPixel, pixelStep, nbPixels,
+                                                 latitudes, longitudes, altitudes),
+                          new DirectLocationTask(sensor, firstLine, lineStep, middleIndex, endIndex,
+                                                 firstPixel, pixelStep, nbPixels,
+                                                 latitudes, longitudes, altitudes));
+            }
+        }
+
+    }
+
+    /** Task for batched inverse location.
+     * <p>
+     * The task splits its range of sorted points in halves until each
+     * part contains at most {@link #INVERSE_LOCATION_BATCH_SIZE} points.
+     * </p>
+     * @since 4.1
+     */
+    private class InverseLocationTask extends RecursiveAction {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20261016L;
+
+        /** Line sensor. */
+        private final LineSensor sensor;
+
+        /** Shared mean plane crossing finder (only read). */
+        private final SensorMeanPlaneCrossing planeCrossing;
+
+        /** Indices of the points, sorted along the Z-order curve. */
+        private final int[] order;
+
+        /** Index of the first sorted point to localize (included). */
+        private final int startIndex;
+
+        /** Index of the last sorted point to localize (excluded). */
+        private final int endIndex;
+
+        /** Latitudes of the points to localize (rad). */
+        private final double[] latitudes;
+
+        /** Longitudes of the points to localize (rad). */
+        private final double[] longitudes;
+
+        /** Altitudes of the points to localize (m). */
+        private final double[] altitudes;
+
+        /** Placeholder for the line numbers of the sensor pixels. */
+        private final double[] lines;
+
+        /** Placeholder for the pixel numbers of the sensor pixels. */
+        private final double[] pixels;
+
+        /** Simple constructor.
+         * @param sensor line sensor
+         * @param planeCrossing shared mean plane crossing finder (only read)
+         * @param order indices of the points, sorted along the Z-order curve
+         * @param startIndex index of the first sorted point to localize (included)
+         * @param endIndex index of the last sorted point to localize (excluded)
+         * @param latitudes latitudes of the points to localize (rad)
+         * @param longitudes longitudes of the points to localize (rad)
+         * @param altitudes altitudes of the points to localize (m)
+         * @param lines placeholder for the line numbers of the sensor pixels
+         * @param pixels placeholder for the pixel numbers of the sensor pixels
+         */
+        InverseLocationTask(final LineSensor sensor, final SensorMeanPlaneCrossing planeCrossing,
+                            final int[] order, final int startIndex, final int endIndex,
+                            final double[] latitudes, final double[] longitudes, final double[] altitudes,
+                            final double[] lines, final double[] pixels) {
+            this.sensor        = sensor;
+            this.planeCrossing = planeCrossing;
+            this.order         = order;
+            this.startIndex    = startIndex;
+            this.endIndex      = endIndex;
+            this.latitudes     = latitudes;
+            this.longitudes    = longitudes;
+            this.altitudes     = altitudes;
+            this.lines         = lines;
+            this.pixels        = pixels;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (endIndex - startIndex <= INVERSE_LOCATION_BATCH_SIZE) {
+
+                // the finder caches its last results, so each batch needs its own copy
+                // (with the same accuracy as single point inverse location)
+                final SensorMeanPlaneCrossing localCrossing = planeCrossing.copy();
+
+                for (int k = startIndex; k < endIndex; ++k) {
+                    final int i = order[k];
+                    final Vector3D target = ellipsoid.transform(new GeodeticPoint(latitudes[i], longitudes[i], altitudes[i]));
+                    final SensorPixel sp = target.isNaN() ? null : locateSensorPixel(target, sensor, localCrossing);
+                    lines[i]  = sp == null ? Double.NaN : sp.getLineNumber();
+                    pixels[i] = sp == null ? Double.NaN : sp.getPixelNumber();
+                }
+
+            } else {
+                final int middleIndex = (startIndex + endIndex) / 2;
+                invokeAll(new InverseLocationTask(sensor, planeCrossing, order, startIndex, middleIndex,
+                                                  latitudes, longitudes, altitudes, lines, pixels),
+                          new InverseLocationTask(sensor, planeCrossing, order, middleIndex, endIndex,
+                                                  latitudes, longitudes, altitudes, lines, pixels));
+            }
+        }
+
+    }
+
+    /** Task for parallel computation of the atmospheric refraction correction grid.
+     * <p>
+     * The task splits its range of pixel grid nodes in halves until each half
+     * contains a single pixel grid node (i.e. a full column of the grid).
+     * </p>
+     * @since 4.1
+     */
+    private class CorrectionGridTask extends RecursiveAction {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20261016L;
+
+        /** Line sensor. */
+        private final LineSensor sensor;
+
+        /** Shared mean plane crossing finder (only read). */
+        private final SensorMeanPlaneCrossing planeCrossing;
+
+        /** Pixel grid. */
+        private final double[] pixelGrid;
+
+        /** Line grid. */
+        private final double[] lineGrid;
+
+        /** Index of the first pixel grid node to compute (included). */
+        private final int startIndex;
+
+        /** Index of the last pixel grid node to compute (excluded). */
+        private final int endIndex;
+
+        /** Placeholder for the ground grid computed with atmosphere. */
+        private final GeodeticPoint[][] groundGrid;
+
+        /** Placeholder for the sensor pixel grid computed without atmosphere. */
+        private final SensorPixel[][] sensorPixelGrid;
+
+        /** Simple constructor.
+         * @param sensor line sensor
+         * @param planeCrossing shared mean plane crossing finder (only read)
+         * @param pixelGrid pixel grid
+         * @param lineGrid line grid
+         * @param startIndex index of the first pixel grid node to compute (included)
+         * @param endIndex index of the last pixel grid node to compute (excluded)
+         * @param groundGrid placeholder for the ground grid computed with atmosphere
+         * @param sensorPixelGrid placeholder for the sensor pixel grid computed without atmosphere
+         */
+        CorrectionGridTask(final LineSensor sensor, final SensorMeanPlaneCrossing planeCrossing,
+                           final double[] pixelGrid, final double[] lineGrid,
+                           final int startIndex, final int endIndex,
+                           final GeodeticPoint[][] groundGrid, final SensorPixel[][] sensorPixelGrid) {
+            this.sensor          = sensor;
+            this.planeCrossing   = planeCrossing;
+            this.pixelGrid       = pixelGrid;
+            this.lineGrid        = lineGrid;
+            this.startIndex      = startIndex;
+            this.endIndex        = endIndex;
+            this.groundGrid      = groundGrid;
+            this.sensorPixelGrid = sensorPixelGrid;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (endIndex - startIndex <= 1) {
+
+                // the finder caches its last results, so each column needs its own copy
+                final SensorMeanPlaneCrossing localCrossing = planeCrossing.copy();
+
+                computeDirectLocOnGridWithAtmosphere(pixelGrid, lineGrid, sensor,
+                                                     startIndex, endIndex, groundGrid);
+                computeInverseLocOnGridWithoutAtmosphere(groundGrid, sensor, localCrossing,
+                                                         startIndex, endIndex, sensorPixelGrid);
+
+            } else {
+                final int middleIndex = (startIndex + endIndex) / 2;
+                invokeAll(new CorrectionGridTask(sensor, planeCrossing, pixelGrid, lineGrid,
+                                                 startIndex, middleIndex, groundGrid, sensorPixelGrid),
+                          new CorrectionGridTask(sensor, planeCrossing, pixelGrid, lineGrid,
+                                                 middleIndex, endIndex, groundGrid, sensorPixelGrid));
+            }
+        }
+
+    }
+
 }
@@ -24,6 +24,7 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Rotation;
@@ -40,8 +41,16 @@ import org.orekit.rugged.intersection.ConstantElevationAlgorithm;
 import org.orekit.rugged.intersection.IgnoreDEMAlgorithm;
 import org.orekit.rugged.intersection.IntersectionAlgorithm;
 import org.orekit.rugged.intersection.duvenhage.DuvenhageAlgorithm;
+import org.orekit.rugged.intersection.duvenhage.MinMaxTreeTile;
+import org.orekit.rugged.intersection.duvenhage.MinMaxTreeCache;
+import org.orekit.rugged.intersection.duvenhage.MinMaxTreeTileFactory;
 import org.orekit.rugged.linesensor.LineSensor;
+import org.orekit.rugged.raster.BufferElevationStorageFactory;
+import org.orekit.rugged.raster.ConcurrentTilesCache;
+import org.orekit.rugged.raster.ElevationStorageFactory;
+import org.orekit.rugged.raster.OverviewTileUpdater;
 import org.orekit.rugged.raster.TileUpdater;
+import org.orekit.rugged.raster.TilesCache;
 import org.orekit.rugged.refraction.AtmosphericRefraction;
 import org.orekit.rugged.utils.ExtendedEllipsoid;
 import org.orekit.rugged.utils.SpacecraftToObservedBody;
@@ -100,6 +109,38 @@ public class RuggedBuilder {
      * @since 4.0 */
     private boolean isOverlappingTiles = true;
 
+    /** Flag to tell if the Digital Elevation Model tiles cache must be shareable between threads.
+     * @since 4.1 */
+    private boolean isConcurrentTilesCache;
+
+    /** Factory for Digital Elevation Model tiles elevations storage (null for default storage).
+     * @since 4.1 */
+    private ElevationStorageFactory elevationStorageFactory;
+
+    /** Persistent cache for min/max kd-trees (null if trees are always built).
+     * @since 4.1 */
+    private MinMaxTreeCache minMaxTreeCache;
+
+    /** Pool of threads for min/max kd-trees construction (null for sequential construction).
+     * @since 4.1 */
+    private ForkJoinPool minMaxTreePool;
+
+    /** Pool of threads for transforms interpolator construction (null for sequential construction).
+     * @since 4.1 */
+    private ForkJoinPool interpolatorPool;
+
+    /** Number of samples used for transforms interpolation (1 if only the closest sample is used).
+     * @since 4.1 */
+    private int transformsInterpolationNumber;
+
+    /** Updater used to load Digital Elevation Model overview tiles (null if no overview is used).
+     * @since 4.1 */
+    private TileUpdater overviewUpdater;
+
+    /** Maximum number of overview tiles stored in the cache.
+     * @since 4.1 */
+    private int maxCachedOverviewTiles;
+
     /** Constant elevation over ellipsoid (m).
      * used only with {@link AlgorithmId#CONSTANT_ELEVATION_OVER_ELLIPSOID. */
     private double constantElevation;
@@ -180,6 +221,7 @@ public class RuggedBuilder {
         lightTimeCorrection         = true;
         aberrationOfLightCorrection = true;
         name                        = "Rugged";
+        transformsInterpolationNumber = 1;
     }
 
     /** Set the reference ellipsoid.
@@ -327,6 +369,53 @@ public class RuggedBuilder {
         return this;
     }
 
+    /** Set the user-provided {@link TileUpdater tile updater} for Digital Elevation Model overview.
+     * <p>
+     * The overview is used only by the {@link AlgorithmId#DUVENHAGE DUVENHAGE} and
+     * {@link AlgorithmId#DUVENHAGE_FLAT_BODY DUVENHAGE_FLAT_BODY} algorithms. It is
+     * a low resolution version of the Digital Elevation Model, that must be everywhere
+     * above (or at) the full resolution surface. Intersections are first searched in
+     * the overview, and the full resolution tiles are cached and get their min/max kd-trees
+     * only where the line-of-sight comes close to terrain. Overview tiles can be computed
+     * on the fly from the full resolution tiles by an {@link OverviewTileUpdater}, which
+     * still reads the full resolution elevations of each overview tile, or provided by a
+     * user-defined updater reading precomputed overviews, which avoids reading full
+     * resolution data far from the terrain. Overview tiles must be overlapping. The default
+     * value is null, which corresponds to full resolution search only.
+     * </p>
+     * @param newOverviewUpdater updater used to load Digital Elevation Model overview tiles
+     * (null if no overview is used)
+     * @param newMaxCachedOverviewTiles maximum number of overview tiles stored in the cache
+     * @return the builder instance
+     * @see #getOverviewUpdater()
+     * @see #getMaxCachedOverviewTiles()
+     * @since 4.1
+     */
+    public RuggedBuilder setDigitalElevationModelOverview(final TileUpdater newOverviewUpdater,
+                                                          final int newMaxCachedOverviewTiles) {
+        this.overviewUpdater        = newOverviewUpdater;
+        this.maxCachedOverviewTiles = newMaxCachedOverviewTiles;
+        return this;
+    }
+
+    /** Get the updater used to load Digital Elevation Model overview tiles.
+     * @return updater used to load Digital Elevation Model overview tiles (null if no overview is used)
+     * @see #setDigitalElevationModelOverview(TileUpdater, int)
+     * @since 4.1
+     */
+    public TileUpdater getOverviewUpdater() {
+        return overviewUpdater;
+    }
+
+    /** Get the maximum number of overview tiles stored in the cache.
+     * @return maximum number of overview tiles stored in the cache
+     * @see #setDigitalElevationModelOverview(TileUpdater, int)
+     * @since 4.1
+     */
+    public int getMaxCachedOverviewTiles() {
+        return maxCachedOverviewTiles;
+    }
+
     /** Get the updater used to load Digital Elevation Model tiles.
      * @return updater used to load Digital Elevation Model tiles
      * @see #setDigitalElevationModel(TileUpdater, int, boolean)
@@ -357,6 +446,155 @@ public class RuggedBuilder {
         this.isOverlappingTiles = newIsOverlappingTiles;
     }
 
+    /** Set the DEM concurrent tiles cache flag.
+     * <p>
+     * When this flag is set to true, the tiles cache used by the {@link
+     * AlgorithmId#DUVENHAGE DUVENHAGE} and {@link AlgorithmId#DUVENHAGE_FLAT_BODY
+     * DUVENHAGE_FLAT_BODY} algorithms is a {@link ConcurrentTilesCache}, which
+     * can be shared between threads. The default value is false, which corresponds
+     * to the regular non thread-safe {@link TilesCache}.
+     * </p>
+     * @param newIsConcurrentTilesCache flag to tell if the Digital Elevation Model
+     * tiles cache must be shareable between threads
+     * @return the builder instance
+     * @see #isConcurrentTilesCache()
+     * @since 4.1
+     */
+    public RuggedBuilder setConcurrentTilesCache(final boolean newIsConcurrentTilesCache) {
+        this.isConcurrentTilesCache = newIsConcurrentTilesCache;
+        return this;
+    }
+
+    /** Get the DEM concurrent tiles cache flag.
+     * @return true if the Digital Elevation Model tiles cache is shareable between threads;
+     *         false otherwise. Default = false.
+     * @see #setConcurrentTilesCache(boolean)
+     * @since 4.1
+     */
+    public boolean isConcurrentTilesCache() {
+        return isConcurrentTilesCache;
+    }
+
+    /** Set the DEM tiles elevations storage.
+     * <p>
+     * The storage is used by the tiles of the {@link AlgorithmId#DUVENHAGE
+     * DUVENHAGE} and {@link AlgorithmId#DUVENHAGE_FLAT_BODY DUVENHAGE_FLAT_BODY}
+     * algorithms. It allows for example to store the elevations outside of the
+     * Java heap using a {@link BufferElevationStorageFactory}. The default value
+     * is null, which corresponds to Java heap arrays.
+     * </p>
+     * @param newElevationStorageFactory factory for Digital Elevation Model tiles
+     * elevations storage (null for default Java heap arrays)
+     * @return the builder instance
+     * @see #getElevationStorageFactory()
+     * @since 4.1
+     */
+    public RuggedBuilder setElevationStorageFactory(final ElevationStorageFactory newElevationStorageFactory) {
+        this.elevationStorageFactory = newElevationStorageFactory;
+        return this;
+    }
+
+    /** Get the DEM tiles elevations storage.
+     * @return factory for Digital Elevation Model tiles elevations storage
+     * (null for default Java heap arrays)
+     * @see #setElevationStorageFactory(ElevationStorageFactory)
+     * @since 4.1
+     */
+    public ElevationStorageFactory getElevationStorageFactory() {
+        return elevationStorageFactory;
+    }
+
+    /** Set the persistent cache for DEM tiles min/max kd-trees.
+     * <p>
+     * The cache is used by the tiles of the {@link AlgorithmId#DUVENHAGE
+     * DUVENHAGE} and {@link AlgorithmId#DUVENHAGE_FLAT_BODY DUVENHAGE_FLAT_BODY}
+     * algorithms. It allows to reuse the min/max kd-trees built for a tile
+     * when the same tile is loaded again, after eviction or in another run.
+     * The default value is null, which corresponds to trees built each time
+     * a tile is loaded.
+     * </p>
+     * @param newMinMaxTreeCache persistent cache for min/max kd-trees
+     * (null if trees must always be built)
+     * @return the builder instance
+     * @see #getMinMaxTreeCache()
+     * @since 4.1
+     */
+    public RuggedBuilder setMinMaxTreeCache(final MinMaxTreeCache newMinMaxTreeCache) {
+        this.minMaxTreeCache = newMinMaxTreeCache;
+        return this;
+    }
+
+    /** Get the persistent cache for DEM tiles min/max kd-trees.
+     * @return persistent cache for min/max kd-trees (null if trees are always built)
+     * @see #setMinMaxTreeCache(MinMaxTreeCache)
+     * @since 4.1
+     */
+    public MinMaxTreeCache getMinMaxTreeCache() {
+        return minMaxTreeCache;
+    }
+
+    /** Set the pool of threads for DEM tiles min/max kd-trees construction.
+     * <p>
+     * The pool is used by the tiles of the {@link AlgorithmId#DUVENHAGE
+     * DUVENHAGE} and {@link AlgorithmId#DUVENHAGE_FLAT_BODY DUVENHAGE_FLAT_BODY}
+     * algorithms. When a tile is loaded, its min/max kd-trees are built by
+     * splitting each level in blocks of rows processed in parallel, which
+     * reduces the loading latency of large tiles. The default value is null,
+     * which corresponds to sequential construction.
+     * </p>
+     * @param newMinMaxTreePool pool of threads for min/max kd-trees construction
+     * (null for sequential construction)
+     * @return the builder instance
+     * @see #getMinMaxTreePool()
+     * @since 4.1
+     */
+    public RuggedBuilder setMinMaxTreePool(final ForkJoinPool newMinMaxTreePool) {
+        this.minMaxTreePool = newMinMaxTreePool;
+        return this;
+    }
+
+    /** Get the pool of threads for DEM tiles min/max kd-trees construction.
+     * @return pool of threads for min/max kd-trees construction (null for sequential construction)
+     * @see #setMinMaxTreePool(ForkJoinPool)
+     * @since 4.1
+     */
+    public ForkJoinPool getMinMaxTreePool() {
+        return minMaxTreePool;
+    }
+
+    /** Set the pool of threads for transforms interpolator construction.
+     * <p>
+     * The pool is used when the spacecraft to observed body transforms sample
+     * is built from the trajectory. The time span is then split in chunks of
+     * consecutive samples evaluated in parallel, which reduces the setup time
+     * for long acquisitions with small time steps. The transforms computed are
+     * exactly the same as with sequential construction. The default value is
+     * null, which corresponds to sequential construction.
+     * </p>
+     * <p>
+     * The pool must be set before the trajectory is used, i.e. before
+     * {@link #build()} is called.
+     * </p>
+     * @param newInterpolatorPool pool of threads for transforms interpolator construction
+     * (null for sequential construction)
+     * @return the builder instance
+     * @see #getInterpolatorPool()
+     * @since 4.1
+     */
+    public RuggedBuilder setInterpolatorPool(final ForkJoinPool newInterpolatorPool) {
+        this.interpolatorPool = newInterpolatorPool;
+        return this;
+    }
+
+    /** Get the pool of threads for transforms interpolator construction.
+     * @return pool of threads for transforms interpolator construction (null for sequential construction)
+     * @see #setInterpolatorPool(ForkJoinPool)
+     * @since 4.1
+     */
+    public ForkJoinPool getInterpolatorPool() {
+        return interpolatorPool;
+    }
+
     /** Set the user-provided constant elevation model.
      * <p>
      * Note that this method is relevant <em>only</em> if the algorithm specified
@@ -392,6 +630,49 @@ public class RuggedBuilder {
         return maxCachedTiles;
     }
 
+    /** Set the number of samples used for spacecraft to observed body transforms interpolation.
+     * <p>
+     * With the default value 1, transforms are computed by shifting the sample
+     * closest to the date, which is accurate only if the time step set by
+     * {@link #setTimeSpan(AbsoluteDate, AbsoluteDate, double, double) setTimeSpan}
+     * is small. With larger values, transforms are computed by Hermite interpolation
+     * of translations and rotations using the neighboring samples, which allows
+     * the time step to be increased by one or two orders of magnitude for the same
+     * accuracy, thus reducing the construction time and the memory consumption
+     * of the transforms sample, at the expense of a higher cost per location call.
+     * A value of 4 is a good trade-off.
+     * </p>
+     * <p>
+     * The number of samples is stored together with the transforms sample by
+     * {@link #storeInterpolator(OutputStream)}.
+     * </p>
+     * @param newTransformsInterpolationNumber number of samples used for transforms interpolation
+     * (1 if only the closest sample is used)
+     * @return the builder instance
+     * @see #getTransformsInterpolationNumber()
+     * @see SpacecraftToObservedBody#withInterpolationNumber(int)
+     * @since 4.1
+     */
+    public RuggedBuilder setTransformsInterpolationNumber(final int newTransformsInterpolationNumber) {
+        if (newTransformsInterpolationNumber < 1) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL, newTransformsInterpolationNumber, 1);
+        }
+        this.transformsInterpolationNumber = newTransformsInterpolationNumber;
+        if (scToBody != null) {
+            scToBody = scToBody.withInterpolationNumber(newTransformsInterpolationNumber);
+        }
+        return this;
+    }
+
+    /** Get the number of samples used for spacecraft to observed body transforms interpolation.
+     * @return number of samples used for transforms interpolation (1 if only the closest sample is used)
+     * @see #setTransformsInterpolationNumber(int)
+     * @since 4.1
+     */
+    public int getTransformsInterpolationNumber() {
+        return transformsInterpolationNumber;
+    }
+
     /** Set the time span to be covered for direct and inverse location calls.
      * <p>
      * This method set only the time span and not the trajectory, therefore it
@@ -657,6 +938,7 @@ public class RuggedBuilder {
             this.maxDate            = scToBody.getMaxDate();
             this.tStep              = scToBody.getTStep();
             this.overshootTolerance = scToBody.getOvershootTolerance();
+            this.transformsInterpolationNumber = scToBody.getInterpolationNumber();
             checkFramesConsistency();
             return this;
 
@@ -722,11 +1004,13 @@ public class RuggedBuilder {
                 scToBody = createInterpolator(inertial, ellipsoid.getBodyFrame(),
                                               minDate, maxDate, tStep, overshootTolerance,
                                               pvSample, pvNeighborsSize, pvDerivatives,
-                                              aSample, aNeighborsSize, aDerivatives);
+                                              aSample, aNeighborsSize, aDerivatives,
+                                              interpolatorPool).withInterpolationNumber(transformsInterpolationNumber);
             } else if (pvaPropagator != null) {
                 scToBody = createInterpolator(inertial, ellipsoid.getBodyFrame(),
                                               minDate, maxDate, tStep, overshootTolerance,
-                                              iStep, iN, pvDerivatives, aDerivatives, pvaPropagator);
+                                              iStep, iN, pvDerivatives, aDerivatives, pvaPropagator,
+                                              interpolatorPool).withInterpolationNumber(transformsInterpolationNumber);
             } else {
                 throw new RuggedException(RuggedMessages.UNINITIALIZED_CONTEXT, "RuggedBuilder.setTrajectory()");
             }
@@ -746,6 +1030,7 @@ public class RuggedBuilder {
      * @param quaternions satellite quaternions
      * @param aInterpolationNumber number of points to use for attitude interpolation
      * @param aFilter filter for derivatives from the sample to use in attitude interpolation
+     * @param pool pool of threads for transforms sample computation (null for sequential computation)
      * @return transforms interpolator
      */
     private static SpacecraftToObservedBody createInterpolator(final Frame inertialFrame, final Frame bodyFrame,
@@ -756,13 +1041,14 @@ public class RuggedBuilder {
                                                                final CartesianDerivativesFilter pvFilter,
                                                                final List<TimeStampedAngularCoordinates> quaternions,
                                                                final int aInterpolationNumber,
-                                                               final AngularDerivativesFilter aFilter) {
+                                                               final AngularDerivativesFilter aFilter,
+                                                               final ForkJoinPool pool) {
 
         return new SpacecraftToObservedBody(inertialFrame, bodyFrame,
                                             minDate, maxDate, tStep, overshootTolerance,
                                             positionsVelocities, pvInterpolationNumber,
                                             pvFilter, quaternions, aInterpolationNumber,
-                                            aFilter);
+                                            aFilter, pool);
     }
 
     /** Create a transform interpolator from a propagator.
@@ -777,6 +1063,7 @@ public class RuggedBuilder {
      * @param pvFilter filter for derivatives from the sample to use in position/velocity interpolation
      * @param aFilter filter for derivatives from the sample to use in attitude interpolation
      * @param propagator global propagator
+     * @param pool pool of threads for transforms sample computation (null for sequential computation)
      * @return transforms interpolator
      */
     private static SpacecraftToObservedBody createInterpolator(final Frame inertialFrame, final Frame bodyFrame,
@@ -785,7 +1072,8 @@ public class RuggedBuilder {
                                                                final double interpolationStep, final int interpolationNumber,
                                                                final CartesianDerivativesFilter pvFilter,
                                                                final AngularDerivativesFilter aFilter,
-                                                               final Propagator propagator) {
+                                                               final Propagator propagator,
+                                                               final ForkJoinPool pool) {
 
         // extract position/attitude samples from propagator
         final List<TimeStampedPVCoordinates> positionsVelocities =
@@ -807,7 +1095,7 @@ public class RuggedBuilder {
                 minDate, maxDate, tStep, overshootTolerance,
                 positionsVelocities, interpolationNumber,
                 pvFilter, quaternions, interpolationNumber,
-                aFilter);
+                aFilter, pool);
     }
 
     /** Set flag for light time correction.
@@ -1001,17 +1289,48 @@ public class RuggedBuilder {
      * @param constantElevation constant elevation over ellipsoid
      * @param isOverlappingTiles flag to tell if the DEM tiles are overlapping:
      *                           true if overlapping; false otherwise.
+     * @param isConcurrentTilesCache flag to tell if the DEM tiles cache must be shareable between threads
+     * @param elevationStorageFactory factory for DEM tiles elevations storage (null for default storage)
+     * @param minMaxTreeCache persistent cache for min/max kd-trees (null if trees are always built)
+     * @param minMaxTreePool pool of threads for min/max kd-trees construction (null for sequential construction)
+     * @param overviewUpdater updater used to load Digital Elevation Model overview tiles (null if no overview is used)
+     * @param maxCachedOverviewTiles maximum number of overview tiles stored in the cache
      * @return selected algorithm
      */
     private static IntersectionAlgorithm createAlgorithm(final AlgorithmId algorithmID,
                                                          final TileUpdater updater, final int maxCachedTiles,
-                                                         final double constantElevation, final boolean isOverlappingTiles) {
+                                                         final double constantElevation, final boolean isOverlappingTiles,
+                                                         final boolean isConcurrentTilesCache,
+                                                         final ElevationStorageFactory elevationStorageFactory,
+                                                         final MinMaxTreeCache minMaxTreeCache,
+                                                         final ForkJoinPool minMaxTreePool,
+                                                         final TileUpdater overviewUpdater,
+                                                         final int maxCachedOverviewTiles) {
+
+        // overview tiles are never zipped, a line-of-sight crossing an area
+        // not covered by overview tiles is simply searched at full resolution
+        final TilesCache<MinMaxTreeTile> overviewCache =
+                        (overviewUpdater == null) ?
+                        null :
+                        createMinMaxTreeTilesCache(overviewUpdater, maxCachedOverviewTiles,
+                                                   true, isConcurrentTilesCache,
+                                                   elevationStorageFactory, minMaxTreeCache,
+                                                   minMaxTreePool);
+
         // set up the algorithm
         switch (algorithmID) {
             case DUVENHAGE :
-                return new DuvenhageAlgorithm(updater, maxCachedTiles, false, isOverlappingTiles);
+                return new DuvenhageAlgorithm(createMinMaxTreeTilesCache(updater, maxCachedTiles,
+                                                                         isOverlappingTiles, isConcurrentTilesCache,
+                                                                         elevationStorageFactory, minMaxTreeCache,
+                                                                         minMaxTreePool),
+                                              overviewCache, false);
             case DUVENHAGE_FLAT_BODY :
-                return new DuvenhageAlgorithm(updater, maxCachedTiles, true, isOverlappingTiles);
+                return new DuvenhageAlgorithm(createMinMaxTreeTilesCache(updater, maxCachedTiles,
+                                                                         isOverlappingTiles, isConcurrentTilesCache,
+                                                                         elevationStorageFactory, minMaxTreeCache,
+                                                                         minMaxTreePool),
+                                              overviewCache, true);
             case BASIC_SLOW_EXHAUSTIVE_SCAN_FOR_TESTS_ONLY :
                 return new BasicScanAlgorithm(updater, maxCachedTiles, isOverlappingTiles);
             case CONSTANT_ELEVATION_OVER_ELLIPSOID :
@@ -1024,6 +1343,31 @@ public class RuggedBuilder {
         }
     }
 
+    /** Create tiles cache for Duvenhage algorithm.
+     * @param updater updater used to load Digital Elevation Model tiles
+     * @param maxCachedTiles maximum number of tiles stored in the cache
+     * @param isOverlappingTiles flag to tell if the DEM tiles are overlapping:
+     *                           true if overlapping; false otherwise.
+     * @param isConcurrentTilesCache flag to tell if the DEM tiles cache must be shareable between threads
+     * @param elevationStorageFactory factory for DEM tiles elevations storage (null for default storage)
+     * @param minMaxTreeCache persistent cache for min/max kd-trees (null if trees are always built)
+     * @param minMaxTreePool pool of threads for min/max kd-trees construction (null for sequential construction)
+     * @return tiles cache
+     * @since 4.1
+     */
+    private static TilesCache<MinMaxTreeTile> createMinMaxTreeTilesCache(final TileUpdater updater, final int maxCachedTiles,
+                                                                         final boolean isOverlappingTiles,
+                                                                         final boolean isConcurrentTilesCache,
+                                                                         final ElevationStorageFactory elevationStorageFactory,
+                                                                         final MinMaxTreeCache minMaxTreeCache,
+                                                                         final ForkJoinPool minMaxTreePool) {
+        final MinMaxTreeTileFactory factory = new MinMaxTreeTileFactory(elevationStorageFactory, minMaxTreeCache,
+                                                                        minMaxTreePool);
+        return isConcurrentTilesCache ?
+               new ConcurrentTilesCache<>(factory, updater, maxCachedTiles, isOverlappingTiles) :
+               new TilesCache<>(factory, updater, maxCachedTiles, isOverlappingTiles);
+    }
+
     /** Build a {@link Rugged} instance.
      * @return built instance
      */
@@ -1042,7 +1386,10 @@ public class RuggedBuilder {
             }
         }
         createInterpolatorIfNeeded();
-        return new Rugged(createAlgorithm(algorithmID, tileUpdater, maxCachedTiles, constantElevation, isOverlappingTiles), ellipsoid,
+        return new Rugged(createAlgorithm(algorithmID, tileUpdater, maxCachedTiles, constantElevation,
+                                          isOverlappingTiles, isConcurrentTilesCache, elevationStorageFactory,
+                                          minMaxTreeCache, minMaxTreePool,
+                                          overviewUpdater, maxCachedOverviewTiles), ellipsoid,
                           lightTimeCorrection, aberrationOfLightCorrection, atmosphericRefraction, scToBody, sensors, name);
     }
 }
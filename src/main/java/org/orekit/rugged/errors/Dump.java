@@ -224,10 +224,17 @@ class Dump {
             final double       tStep     = scToBody.getTStep();
             final double       tolerance = scToBody.getOvershootTolerance();
             final int          n         = (int) FastMath.ceil(maxDate.durationFrom(minDate) / tStep);
-            writer.format(Locale.US,
-                          "span: minDate %s maxDate %s tStep %22.15e tolerance %22.15e inertialFrame %s%n",
-                          convertDate(minDate), convertDate(maxDate), tStep, tolerance,
-                          getKeyOrName(scToBody.getInertialFrame()));
+            if (scToBody.getInterpolationNumber() > 1) {
+                writer.format(Locale.US,
+                              "span: minDate %s maxDate %s tStep %22.15e tolerance %22.15e inertialFrame %s interpolation %d%n",
+                              convertDate(minDate), convertDate(maxDate), tStep, tolerance,
+                              getKeyOrName(scToBody.getInertialFrame()), scToBody.getInterpolationNumber());
+            } else {
+                writer.format(Locale.US,
+                              "span: minDate %s maxDate %s tStep %22.15e tolerance %22.15e inertialFrame %s%n",
+                              convertDate(minDate), convertDate(maxDate), tStep, tolerance,
+                              getKeyOrName(scToBody.getInertialFrame()));
+            }
             tranformsDumped = new boolean[n];
         }
         if (!tranformsDumped[index]) {
@@ -132,6 +132,11 @@ public class DumpReplayer {
     /** Keyword for inertial frames fields. */
     private static final String INERTIAL_FRAME = "inertialFrame";
 
+    /** Keyword for transforms interpolation number fields.
+     * @since 4.1
+     */
+    private static final String INTERPOLATION = "interpolation";
+
     /** Keyword for observation transform index fields. */
     private static final String INDEX = "index";
 
@@ -258,6 +263,11 @@ public class DumpReplayer {
     /** Interpolator overshoot tolerance. */
     private double tolerance;
 
+    /** Number of samples used for transforms interpolation.
+     * @since 4.1
+     */
+    private int interpolationNumber;
+
     /** Inertial frame. */
     private Frame inertialFrame;
 
@@ -382,7 +392,7 @@ public class DumpReplayer {
             final SpacecraftToObservedBody scToBody =
                     new SpacecraftToObservedBody(inertialFrame, ellipsoid.getBodyFrame(),
                                                  minDate, maxDate, tStep, tolerance,
-                                                 b2iList, s2iList);
+                                                 b2iList, s2iList).withInterpolationNumber(interpolationNumber);
             final ByteArrayOutputStream bos = new ByteArrayOutputStream();
             new ObjectOutputStream(bos).writeObject(scToBody);
             final ByteArrayInputStream  bis = new ByteArrayInputStream(bos.toByteArray());
@@ -632,6 +642,11 @@ public class DumpReplayer {
                 global.maxDate        = new AbsoluteDate(fields[3], TimeScalesFactory.getUTC());
                 global.tStep          = Double.parseDouble(fields[5]);
                 global.tolerance      = Double.parseDouble(fields[7]);
+                if (fields.length >= 12 && fields[10].equals(INTERPOLATION)) {
+                    global.interpolationNumber = Integer.parseInt(fields[11]);
+                } else {
+                    global.interpolationNumber = 1;
+                }
                 global.bodyToInertial = new TreeMap<Integer, Transform>();
                 global.scToInertial   = new TreeMap<Integer, Transform>();
                 try {
@@ -120,7 +120,15 @@ public enum RuggedMessages implements Localizable {
     /** SENSOR_PIXEL_NOT_FOUND_IN_RANGE_LINES. */
     SENSOR_PIXEL_NOT_FOUND_IN_RANGE_LINES("impossible to find sensor pixel in given range lines (with atmospheric refraction) between lines {0} and {1}"),
     /** SENSOR_PIXEL_NOT_FOUND_IN_PIXELS_LINE. */
-    SENSOR_PIXEL_NOT_FOUND_IN_PIXELS_LINE("impossible to find sensor pixel: pixel {0} outside interval [ {1} , {2} [ (with atmospheric refraction margin = {3})");
+    SENSOR_PIXEL_NOT_FOUND_IN_PIXELS_LINE("impossible to find sensor pixel: pixel {0} outside interval [ {1} , {2} [ (with atmospheric refraction margin = {3})"),
+    /** ELEVATION_STORAGE_ERROR. */
+    ELEVATION_STORAGE_ERROR("unable to create elevation storage in {0}: {1}"),
+    /** OUT_OF_SPARSE_STRUCTURE. */
+    OUT_OF_SPARSE_STRUCTURE("entry ({0}, {1}) is not part of the sparse matrix structure"),
+    /** MIN_MAX_TREE_CACHE_ERROR. */
+    MIN_MAX_TREE_CACHE_ERROR("unable to use min/max tree cache in {0}: {1}"),
+    /** REFRACTION_LOOKUP_TABLE_INACCURATE. */
+    REFRACTION_LOOKUP_TABLE_INACCURATE("atmospheric refraction lookup table error {0} m exceeds tolerance {1} m");
 
     /** Base name of the resource bundle in classpath. */
     private static final String RESOURCE_BASE_NAME = "assets/org/orekit/rugged/RuggedMessages";
@@ -195,6 +195,13 @@ public class BasicScanAlgorithm implements IntersectionAlgorithm {
         return tile.interpolateElevation(latitude, longitude);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void prefetchTiles(final double latitude0, final double longitude0,
+                              final double latitude1, final double longitude1) {
+        cache.prefetchTiles(latitude0, longitude0, latitude1, longitude1);
+    }
+
     /** {@inheritDoc} */
     @Override
     public AlgorithmId getAlgorithmId() {
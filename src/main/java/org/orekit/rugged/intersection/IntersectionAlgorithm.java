@@ -59,6 +59,25 @@ public interface IntersectionAlgorithm {
      */
     double getElevation(double latitude, double longitude);
 
+    /** Load in advance the Digital Elevation Model tiles crossed by a ground segment.
+     * <p>
+     * This method is a hint allowing algorithms that rely on a tiles cache to
+     * load tiles before they are needed, see {@link
+     * org.orekit.rugged.raster.TilesCache#prefetchTiles(double, double, double, double)}.
+     * The default implementation does nothing, which is appropriate for algorithms
+     * that do not use Digital Elevation Model tiles.
+     * </p>
+     * @param latitude0 latitude of the first end point of the segment (rad)
+     * @param longitude0 longitude of the first end point of the segment (rad)
+     * @param latitude1 latitude of the second end point of the segment (rad)
+     * @param longitude1 longitude of the second end point of the segment (rad)
+     * @since 4.1
+     */
+    default void prefetchTiles(final double latitude0, final double longitude0,
+                               final double latitude1, final double longitude1) {
+        // nothing to prefetch by default
+    }
+
     /** Get the algorithmId.
      * @return the algorithmId
      * @since 2.2
@@ -52,6 +52,10 @@ public class DuvenhageAlgorithm implements IntersectionAlgorithm {
      * @since 2.1 */
     private static final int MAX_REFINING_ATTEMPTS = 100;
 
+    /** Distance between overview surface crossing and full resolution search start, in meters.
+     * @since 4.1 */
+    private static final double OVERVIEW_MARGIN = 1.0;
+
     /** Cache for DEM tiles. */
     private final TilesCache<MinMaxTreeTile> cache;
 
@@ -62,6 +66,10 @@ public class DuvenhageAlgorithm implements IntersectionAlgorithm {
      * @since 2.2 */
     private final AlgorithmId algorithmId;
 
+    /** Algorithm working on overview tiles (null if no overview is used).
+     * @since 4.1 */
+    private final DuvenhageAlgorithm overview;
+
     /** Simple constructor.
      * @param updater updater used to load Digital Elevation Model tiles
      * @param maxCachedTiles maximum number of tiles stored in the cache
@@ -76,10 +84,65 @@ public class DuvenhageAlgorithm implements IntersectionAlgorithm {
      */
     public DuvenhageAlgorithm(final TileUpdater updater, final int maxCachedTiles,
                               final boolean flatBody, final boolean isOverlappingTiles) {
-        this.cache = new TilesCache<MinMaxTreeTile>(new MinMaxTreeTileFactory(), updater,
-                                                    maxCachedTiles, isOverlappingTiles);
-        this.flatBody = flatBody;
+        this(new TilesCache<MinMaxTreeTile>(new MinMaxTreeTileFactory(), updater,
+                                            maxCachedTiles, isOverlappingTiles),
+             flatBody);
+    }
+
+    /** Constructor with user-provided tiles cache.
+     * <p>
+     * This constructor is mainly intended to use a {@link
+     * org.orekit.rugged.raster.ConcurrentTilesCache ConcurrentTilesCache}, so
+     * that the algorithm can be used from several threads sharing the same tiles.
+     * </p>
+     * @param cache cache for DEM tiles
+     * @param flatBody if true, the body is considered flat, i.e. lines computed
+     * from entry/exit points in the DEM are considered to be straight lines also
+     * in geodetic coordinates. The sagitta resulting from real ellipsoid curvature
+     * is therefore <em>not</em> corrected in this case. As this computation is not
+     * costly (a few percents overhead), it is highly recommended to set this parameter
+     * to {@code false}. This flag is mainly intended for comparison purposes with other systems
+     * @since 4.1
+     */
+    public DuvenhageAlgorithm(final TilesCache<MinMaxTreeTile> cache, final boolean flatBody) {
+        this(cache, null, flatBody);
+    }
+
+    /** Constructor with user-provided tiles cache and overview tiles cache.
+     * <p>
+     * The overview tiles must be low resolution versions of the Digital Elevation
+     * Model that are everywhere above (or at) the full resolution surface, as computed
+     * for example by {@link org.orekit.rugged.raster.OverviewTileUpdater OverviewTileUpdater}.
+     * Intersections are first searched in the overview tiles. As the line-of-sight
+     * cannot reach the terrain before it reaches the overview surface, the full
+     * resolution search starts only where the line-of-sight comes close to the
+     * terrain, so full resolution tiles crossed high above terrain are neither stored
+     * in the tiles cache nor have their min/max kd-trees built. Whether their raw
+     * elevations are read at all depends on the overview updater: an {@link
+     * org.orekit.rugged.raster.OverviewTileUpdater OverviewTileUpdater} reads them to
+     * compute the overview, whereas an updater reading precomputed overviews does not.
+     * If the overview cannot be used for some line-of-sight (for example because
+     * some overview tile does not cover the line-of-sight path), the search
+     * silently falls back to full resolution only. Overviews are never used
+     * when {@link DumpManager dump} is active.
+     * </p>
+     * @param cache cache for DEM tiles
+     * @param overviewCache cache for DEM overview tiles (null if no overview is used)
+     * @param flatBody if true, the body is considered flat, i.e. lines computed
+     * from entry/exit points in the DEM are considered to be straight lines also
+     * in geodetic coordinates. The sagitta resulting from real ellipsoid curvature
+     * is therefore <em>not</em> corrected in this case. As this computation is not
+     * costly (a few percents overhead), it is highly recommended to set this parameter
+     * to {@code false}. This flag is mainly intended for comparison purposes with other systems
+     * @since 4.1
+     */
+    public DuvenhageAlgorithm(final TilesCache<MinMaxTreeTile> cache,
+                              final TilesCache<MinMaxTreeTile> overviewCache,
+                              final boolean flatBody) {
+        this.cache       = cache;
+        this.flatBody    = flatBody;
         this.algorithmId = flatBody ? AlgorithmId.DUVENHAGE_FLAT_BODY : AlgorithmId.DUVENHAGE;
+        this.overview    = (overviewCache == null) ? null : new DuvenhageAlgorithm(overviewCache, null, flatBody);
     }
 
     /** {@inheritDoc} */
@@ -89,6 +152,62 @@ public class DuvenhageAlgorithm implements IntersectionAlgorithm {
 
         DumpManager.dumpAlgorithm(this.algorithmId);
 
+        if (overview != null && !DumpManager.isActive()) {
+            final Vector3D start = overviewStart(ellipsoid, position, los);
+            if (start != null) {
+                try {
+                    return searchIntersection(ellipsoid, start, los);
+                } catch (RuggedException re) {
+                    if (re.getSpecifier() != RuggedMessages.DEM_ENTRY_POINT_IS_BEHIND_SPACECRAFT) {
+                        throw re;
+                    }
+                    // the start point was not above full resolution terrain,
+                    // we fall back to full resolution search from the beginning
+                }
+            }
+        }
+
+        return searchIntersection(ellipsoid, position, los);
+
+    }
+
+    /** Find the start point for full resolution search, using overview tiles.
+     * @param ellipsoid reference ellipsoid
+     * @param position pixel position in ellipsoid frame
+     * @param los pixel line-of-sight in ellipsoid frame
+     * @return point on the line-of-sight just before it reaches the overview surface,
+     * or null if overview cannot be used for this line-of-sight
+     * @since 4.1
+     */
+    private Vector3D overviewStart(final ExtendedEllipsoid ellipsoid,
+                                   final Vector3D position, final Vector3D los) {
+
+        final NormalizedGeodeticPoint overviewIntersection;
+        try {
+            overviewIntersection = overview.intersection(ellipsoid, position, los);
+        } catch (RuggedException re) {
+            // the overview cannot be used for this line-of-sight
+            // (missing overview tile, position below overview surface...)
+            return null;
+        }
+
+        // step back a little, so the start point is safely above terrain
+        final Vector3D start = new Vector3D(1, ellipsoid.transform(overviewIntersection),
+                                            -OVERVIEW_MARGIN / los.getNorm(), los);
+        return Vector3D.dotProduct(start.subtract(position), los) > 0 ? start : null;
+
+    }
+
+    /** Compute intersection of line with full resolution Digital Elevation Model.
+     * @param ellipsoid reference ellipsoid
+     * @param position pixel position in ellipsoid frame
+     * @param los pixel line-of-sight in ellipsoid frame
+     * @return point at which the line first enters ground
+     * @since 4.1
+     */
+    private NormalizedGeodeticPoint searchIntersection(final ExtendedEllipsoid ellipsoid,
+                                                       final Vector3D position, final Vector3D los) {
+
         // compute intersection with ellipsoid
         final NormalizedGeodeticPoint gp0 = ellipsoid.pointOnGround(position, los, 0.0);
 
@@ -296,6 +415,13 @@ public class DuvenhageAlgorithm implements IntersectionAlgorithm {
         return tile.interpolateElevation(latitude, longitude);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void prefetchTiles(final double latitude0, final double longitude0,
+                              final double latitude1, final double longitude1) {
+        cache.prefetchTiles(latitude0, longitude0, latitude1, longitude1);
+    }
+
     /** {@inheritDoc} */
     @Override
     public AlgorithmId getAlgorithmId() {
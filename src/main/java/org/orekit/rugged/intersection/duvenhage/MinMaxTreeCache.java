@@ -0,0 +1,435 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.intersection.duvenhage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+
+import org.orekit.rugged.errors.RuggedException;
+import org.orekit.rugged.errors.RuggedMessages;
+import org.orekit.rugged.raster.ElevationEncoding;
+import org.orekit.rugged.raster.ElevationStorage;
+import org.orekit.rugged.raster.SimpleTile;
+
+/** Persistent cache for the min/max kd-trees of {@link MinMaxTreeTile tiles}.
+ * <p>
+ * Building the min/max kd-trees implies scanning all the raw elevations
+ * several times each time a tile is loaded. When the same Digital Elevation
+ * Model tiles are processed over and over again, for example by successive
+ * batch runs, the trees can be stored once in a directory and retrieved
+ * afterwards, even by another JVM.
+ * </p>
+ * <p>
+ * Each tile is stored in a separate binary file, identified by a key computed
+ * from the tile geometry, the elevations encoding and a hash of the raw
+ * elevations, so a tile whose content has changed is never matched with
+ * stale trees. The files contain the trees with the same encoding as the raw
+ * elevations and are memory-mapped when read, so a warm start neither builds
+ * the trees nor copies them in the Java heap.
+ * </p>
+ * <p>
+ * Files are written to a temporary file first and moved atomically to their
+ * final name, so the same directory can be shared by several threads or
+ * processes. Files that do not match the tile (collision, truncated file,
+ * different format version) are silently replaced. As the cache is only an
+ * optimization, failing to write a file (read-only or full file system, missing
+ * permissions...) is silently ignored too, the trees are simply not cached.
+ * </p>
+ * <p>
+ * Buffers positions are changed through the {@link Buffer} base class, so
+ * code compiled with recent JDKs still runs on Java 8.
+ * </p>
+ * @see MinMaxTreeTileFactory
+ * @since 4.1
+ */
+public class MinMaxTreeCache {
+
+    /** Magic number at start of cache files. */
+    private static final int MAGIC = 0x524d4d54;
+
+    /** Format version. */
+    private static final int VERSION = 1;
+
+    /** Size of the fixed part of the header. */
+    private static final int HEADER_SIZE = 5 * Integer.BYTES + 6 * Double.BYTES + Long.BYTES + 2 * Integer.BYTES;
+
+    /** Bytes order in cache files. */
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /** Prefix for temporary files names. */
+    private static final String PREFIX = "rugged-min-max-";
+
+    /** Suffix for cache files names. */
+    private static final String SUFFIX = ".tree";
+
+    /** Multiplier for the hash mixing (64 bits FNV prime). */
+    private static final long PRIME = 0x100000001b3L;
+
+    /** Initial hash value (64 bits FNV offset basis). */
+    private static final long BASIS = 0xcbf29ce484222325L;
+
+    /** Directory where trees are stored. */
+    private final File directory;
+
+    /** Simple constructor.
+     * @param directory directory where trees are stored (it will be created if needed)
+     */
+    public MinMaxTreeCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /** Get the directory where trees are stored.
+     * @return directory where trees are stored
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /** Create the key identifying a tile.
+     * @param tile tile to identify (its geometry must already be set)
+     * @param raw raw elevations of the tile
+     * @return key identifying the tile
+     */
+    Key createKey(final SimpleTile tile, final ElevationStorage raw) {
+
+        // hash of the raw elevations
+        long contentHash = BASIS;
+        for (int i = 0; i < raw.getSize(); ++i) {
+            contentHash = (contentHash ^ Double.doubleToLongBits(raw.getElevation(i))) * PRIME;
+        }
+
+        return new Key(tile.getLatitudeRows(), tile.getLongitudeColumns(),
+                       tile.getMinimumLatitude(), tile.getMinimumLongitude(),
+                       tile.getLatitudeStep(), tile.getLongitudeStep(),
+                       raw.getEncoding(), raw.getScale(), raw.getOffset(),
+                       mix(contentHash));
+
+    }
+
+    /** Load trees from the cache.
+     * @param key key identifying the tile
+     * @return trees, or null if they are not available in the cache
+     */
+    Trees load(final Key key) {
+
+        final File file = key.getFile();
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+
+            if (raf.length() < HEADER_SIZE) {
+                return null;
+            }
+
+            // the mapping remains valid after the file has been closed
+            final MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            buffer.order(ORDER);
+            if (!key.matches(buffer)) {
+                return null;
+            }
+            final int levels = buffer.getInt();
+            final int size   = buffer.getInt();
+            final int bytes  = size * key.encoding.getBytes();
+            if (buffer.remaining() != levels * Integer.BYTES + 2 * bytes) {
+                return null;
+            }
+
+            final int[] start = new int[levels];
+            buffer.asIntBuffer().get(start);
+            ((Buffer) buffer).position(buffer.position() + levels * Integer.BYTES);
+
+            final ByteBuffer minBuffer = buffer.slice();
+            ((Buffer) minBuffer).limit(bytes);
+            ((Buffer) buffer).position(buffer.position() + bytes);
+            final ByteBuffer maxBuffer = buffer.slice();
+
+            return new Trees(start,
+                             MinMaxTreeValues.map(minBuffer.order(ORDER), size, key.encoding, key.scale, key.offset),
+                             MinMaxTreeValues.map(maxBuffer.order(ORDER), size, key.encoding, key.scale, key.offset));
+
+        } catch (IOException ioe) {
+            throw new RuggedException(ioe, RuggedMessages.MIN_MAX_TREE_CACHE_ERROR,
+                                      directory.getAbsolutePath(), ioe.getLocalizedMessage());
+        }
+
+    }
+
+    /** Store trees in the cache.
+     * <p>
+     * If the trees cannot be written, they are simply not cached.
+     * </p>
+     * @param key key identifying the tile
+     * @param start start indices of tree levels
+     * @param minTree min kd-tree
+     * @param maxTree max kd-tree
+     */
+    void store(final Key key, final int[] start,
+               final MinMaxTreeValues minTree, final MinMaxTreeValues maxTree) {
+
+        final int size  = minTree.size();
+        final int bytes = size * key.encoding.getBytes();
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + start.length * Integer.BYTES + 2 * bytes);
+        buffer.order(ORDER);
+
+        // header
+        key.write(buffer);
+        buffer.putInt(start.length);
+        buffer.putInt(size);
+        for (final int s : start) {
+            buffer.putInt(s);
+        }
+
+        // trees
+        final ByteBuffer minBuffer = buffer.slice().order(ORDER);
+        ((Buffer) buffer).position(buffer.position() + bytes);
+        final ByteBuffer maxBuffer = buffer.slice().order(ORDER);
+        for (int i = 0; i < size; ++i) {
+            key.encoding.encode(minBuffer, i, minTree.get(i), key.scale, key.offset);
+            key.encoding.encode(maxBuffer, i, maxTree.get(i), key.scale, key.offset);
+        }
+        ((Buffer) buffer).rewind();
+
+        try {
+
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                // the directory cannot be created, the trees will not be cached
+                return;
+            }
+
+            // write a temporary file first, so other threads or processes never see partial files
+            final File tmp = File.createTempFile(PREFIX, SUFFIX, directory);
+            try {
+                try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+                    final FileChannel channel = raf.getChannel();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                try {
+                    Files.move(tmp.toPath(), key.getFile().toPath(),
+                               StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException amnse) {
+                    Files.move(tmp.toPath(), key.getFile().toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp.toPath());
+            }
+
+        } catch (IOException | SecurityException e) {
+            // the cache is only an optimization, the trees will not be cached
+            // (the temporary file, if any, has already been deleted)
+        }
+
+    }
+
+    /** Final mixing of a 64 bits hash.
+     * @param h hash to mix
+     * @return mixed hash
+     */
+    private static long mix(final long h) {
+        long z = h;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Key identifying a tile in the cache. */
+    class Key {
+
+        /** Number of latitude rows. */
+        private final int rows;
+
+        /** Number of longitude columns. */
+        private final int columns;
+
+        /** Minimum latitude. */
+        private final double minLatitude;
+
+        /** Minimum longitude. */
+        private final double minLongitude;
+
+        /** Latitude step. */
+        private final double latitudeStep;
+
+        /** Longitude step. */
+        private final double longitudeStep;
+
+        /** Encoding of the elevations. */
+        private final ElevationEncoding encoding;
+
+        /** Scale factor between stored values and elevations. */
+        private final double scale;
+
+        /** Offset between stored values and elevations. */
+        private final double offset;
+
+        /** Hash of the raw elevations. */
+        private final long contentHash;
+
+        /** Simple constructor.
+         * @param rows number of latitude rows
+         * @param columns number of longitude columns
+         * @param minLatitude minimum latitude
+         * @param minLongitude minimum longitude
+         * @param latitudeStep latitude step
+         * @param longitudeStep longitude step
+         * @param encoding encoding of the elevations
+         * @param scale scale factor between stored values and elevations
+         * @param offset offset between stored values and elevations
+         * @param contentHash hash of the raw elevations
+         */
+        Key(final int rows, final int columns,
+            final double minLatitude, final double minLongitude,
+            final double latitudeStep, final double longitudeStep,
+            final ElevationEncoding encoding, final double scale, final double offset,
+            final long contentHash) {
+            this.rows          = rows;
+            this.columns       = columns;
+            this.minLatitude   = minLatitude;
+            this.minLongitude  = minLongitude;
+            this.latitudeStep  = latitudeStep;
+            this.longitudeStep = longitudeStep;
+            this.encoding      = encoding;
+            this.scale         = scale;
+            this.offset        = offset;
+            this.contentHash   = contentHash;
+        }
+
+        /** Get the file associated with the key.
+         * @return file associated with the key
+         */
+        File getFile() {
+            long h = contentHash;
+            h = (h ^ rows)                                         * PRIME;
+            h = (h ^ columns)                                      * PRIME;
+            h = (h ^ Double.doubleToLongBits(minLatitude))         * PRIME;
+            h = (h ^ Double.doubleToLongBits(minLongitude))        * PRIME;
+            h = (h ^ Double.doubleToLongBits(latitudeStep))        * PRIME;
+            h = (h ^ Double.doubleToLongBits(longitudeStep))       * PRIME;
+            h = (h ^ encoding.ordinal())                           * PRIME;
+            h = (h ^ Double.doubleToLongBits(scale))               * PRIME;
+            h = (h ^ Double.doubleToLongBits(offset))              * PRIME;
+            return new File(directory, String.format(Locale.US, "%016x%s", mix(h), SUFFIX));
+        }
+
+        /** Write the key as a file header.
+         * @param buffer buffer where to write the header
+         */
+        void write(final ByteBuffer buffer) {
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(rows);
+            buffer.putInt(columns);
+            buffer.putDouble(minLatitude);
+            buffer.putDouble(minLongitude);
+            buffer.putDouble(latitudeStep);
+            buffer.putDouble(longitudeStep);
+            buffer.putInt(encoding.ordinal());
+            buffer.putDouble(scale);
+            buffer.putDouble(offset);
+            buffer.putLong(contentHash);
+        }
+
+        /** Check if a file header matches the key.
+         * @param buffer buffer where to read the header
+         * @return true if the header matches the key
+         */
+        boolean matches(final ByteBuffer buffer) {
+            return buffer.getInt()    == MAGIC                                         &&
+                   buffer.getInt()    == VERSION                                       &&
+                   buffer.getInt()    == rows                                          &&
+                   buffer.getInt()    == columns                                       &&
+                   sameBits(buffer.getDouble(), minLatitude)                           &&
+                   sameBits(buffer.getDouble(), minLongitude)                          &&
+                   sameBits(buffer.getDouble(), latitudeStep)                          &&
+                   sameBits(buffer.getDouble(), longitudeStep)                         &&
+                   buffer.getInt()    == encoding.ordinal()                            &&
+                   sameBits(buffer.getDouble(), scale)                                 &&
+                   sameBits(buffer.getDouble(), offset)                                &&
+                   buffer.getLong()   == contentHash;
+        }
+
+        /** Check if two doubles are bitwise identical.
+         * @param d1 first double
+         * @param d2 second double
+         * @return true if the doubles are bitwise identical
+         */
+        private boolean sameBits(final double d1, final double d2) {
+            return Double.doubleToLongBits(d1) == Double.doubleToLongBits(d2);
+        }
+
+    }
+
+    /** Container for min/max kd-trees. */
+    static class Trees {
+
+        /** Start indices of tree levels. */
+        private final int[] start;
+
+        /** Min kd-tree. */
+        private final MinMaxTreeValues minTree;
+
+        /** Max kd-tree. */
+        private final MinMaxTreeValues maxTree;
+
+        /** Simple constructor.
+         * @param start start indices of tree levels
+         * @param minTree min kd-tree
+         * @param maxTree max kd-tree
+         */
+        Trees(final int[] start, final MinMaxTreeValues minTree, final MinMaxTreeValues maxTree) {
+            this.start   = start;
+            this.minTree = minTree;
+            this.maxTree = maxTree;
+        }
+
+        /** Get the start indices of tree levels.
+         * @return start indices of tree levels
+         */
+        int[] getStart() {
+            return start;
+        }
+
+        /** Get the min kd-tree.
+         * @return min kd-tree
+         */
+        MinMaxTreeValues getMinTree() {
+            return minTree;
+        }
+
+        /** Get the max kd-tree.
+         * @return max kd-tree
+         */
+        MinMaxTreeValues getMaxTree() {
+            return maxTree;
+        }
+
+    }
+
+}
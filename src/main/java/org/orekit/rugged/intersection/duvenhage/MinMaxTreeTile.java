@@ -16,8 +16,14 @@
  */
 package org.orekit.rugged.intersection.duvenhage;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import org.hipparchus.util.FastMath;
 import org.orekit.rugged.errors.DumpManager;
+import org.orekit.rugged.raster.ElevationEncoding;
+import org.orekit.rugged.raster.ElevationStorage;
+import org.orekit.rugged.raster.ElevationStorageFactory;
 import org.orekit.rugged.raster.SimpleTile;
 import org.orekit.rugged.utils.MaxSelector;
 import org.orekit.rugged.utils.MinSelector;
@@ -111,57 +117,154 @@ import org.orekit.rugged.utils.Selector;
  *       </tr>
  *   </tbody>
  *</table>
+ * <p>
+ * The min/max kd-trees are stored with the same {@link ElevationEncoding} as
+ * the raw elevations. Compact encodings reduce the memory footprint, the min
+ * values being rounded down and the max values being rounded up.
+ * </p>
+ * <p>
+ * If a {@link MinMaxTreeCache} is provided, the min/max kd-trees are stored
+ * in it once built, and retrieved from it instead of being built again when
+ * the same tile is loaded later on.
+ * </p>
  *
  * @see MinMaxTreeTileFactory
  * @author Luc Maisonobe
  */
 public class MinMaxTreeTile extends SimpleTile {
 
+    /** Minimum number of elements processed by each parallel task.
+     * @since 4.1
+     */
+    private static final int ELEMENTS_BATCH_SIZE = 1 << 16;
+
     /** Raw elevations. */
-    private double[] raw;
+    private ElevationStorage raw;
 
     /** Min kd-tree. */
-    private double[] minTree;
+    private MinMaxTreeValues minTree;
 
     /** Max kd-tree. */
-    private double[] maxTree;
+    private MinMaxTreeValues maxTree;
 
     /** Start indices of tree levels. */
     private int[] start;
 
+    /** Persistent cache for the trees (null if trees are always built).
+     * @since 4.1
+     */
+    private final MinMaxTreeCache cache;
+
+    /** Pool of threads for trees construction (null for sequential construction).
+     * @since 4.1
+     */
+    private final ForkJoinPool pool;
+
     /** Simple constructor.
      * <p>
      * Creates an empty tile.
      * </p>
      */
     protected MinMaxTreeTile() {
+        this.cache = null;
+        this.pool  = null;
+    }
+
+    /** Simple constructor.
+     * <p>
+     * Creates an empty tile.
+     * </p>
+     * @param storageFactory factory for raw elevations storage
+     * @since 4.1
+     */
+    protected MinMaxTreeTile(final ElevationStorageFactory storageFactory) {
+        this(storageFactory, null);
+    }
+
+    /** Simple constructor.
+     * <p>
+     * Creates an empty tile.
+     * </p>
+     * @param storageFactory factory for raw elevations storage
+     * @param cache persistent cache for the min/max kd-trees
+     * (null if trees must always be built)
+     * @since 4.1
+     */
+    protected MinMaxTreeTile(final ElevationStorageFactory storageFactory, final MinMaxTreeCache cache) {
+        this(storageFactory, cache, null);
+    }
+
+    /** Simple constructor.
+     * <p>
+     * Creates an empty tile.
+     * </p>
+     * <p>
+     * If a pool is provided, the preprocessing of raw elevations and each
+     * level of the min/max kd-trees are split in blocks of rows processed
+     * in parallel. The trees are exactly the same as the ones built
+     * sequentially.
+     * </p>
+     * @param storageFactory factory for raw elevations storage
+     * @param cache persistent cache for the min/max kd-trees
+     * (null if trees must always be built)
+     * @param pool pool of threads for trees construction
+     * (null for sequential construction)
+     * @since 4.1
+     */
+    protected MinMaxTreeTile(final ElevationStorageFactory storageFactory, final MinMaxTreeCache cache,
+                             final ForkJoinPool pool) {
+        super(storageFactory);
+        this.cache = cache;
+        this.pool  = pool;
     }
 
     /** {@inheritDoc} */
     @Override
-    protected void processUpdatedElevation(final double[] elevations) {
+    protected void processUpdatedElevation(final ElevationStorage elevations) {
 
         raw = elevations;
 
+        // retrieve already built trees if possible
+        final MinMaxTreeCache.Key key = (cache == null) ? null : cache.createKey(this, raw);
+        if (key != null) {
+            final MinMaxTreeCache.Trees trees = cache.load(key);
+            if (trees != null) {
+                start   = trees.getStart();
+                minTree = trees.getMinTree();
+                maxTree = trees.getMaxTree();
+                return;
+            }
+        }
+
         final int nbRows = getLatitudeRows();
         final int nbCols = getLongitudeColumns();
 
         // set up the levels
         final int size = setLevels(0, nbRows, nbCols);
-        minTree = new double[size];
-        maxTree = new double[size];
+        final double[] exactMinTree = new double[size];
+        final double[] exactMaxTree = new double[size];
 
         // compute min/max trees
         if (start.length > 0) {
 
-            final double[] preprocessed = new double[raw.length];
+            final double[] preprocessed = new double[raw.getSize()];
 
             preprocess(preprocessed, raw, nbRows, nbCols, MinSelector.getInstance());
-            applyRecursively(minTree, start.length - 1, nbRows, nbCols, MinSelector.getInstance(), preprocessed, 0);
+            applyRecursively(exactMinTree, start.length - 1, nbRows, nbCols, MinSelector.getInstance(), preprocessed, 0);
 
             preprocess(preprocessed, raw, nbRows, nbCols, MaxSelector.getInstance());
-            applyRecursively(maxTree, start.length - 1, nbRows, nbCols, MaxSelector.getInstance(), preprocessed, 0);
+            applyRecursively(exactMaxTree, start.length - 1, nbRows, nbCols, MaxSelector.getInstance(), preprocessed, 0);
+
+        }
+
+        // store the trees with the same encoding as the raw elevations
+        minTree = MinMaxTreeValues.create(exactMinTree, true,
+                                          raw.getEncoding(), raw.getScale(), raw.getOffset());
+        maxTree = MinMaxTreeValues.create(exactMaxTree, false,
+                                          raw.getEncoding(), raw.getScale(), raw.getOffset());
 
+        if (key != null) {
+            cache.store(key, start, minTree, maxTree);
         }
 
     }
@@ -203,6 +306,12 @@ public class MinMaxTreeTile extends SimpleTile {
      * tree level l includes cell (i,j) but not cell (i+1, j+1). In other words,
      * interpolation implies sub-tile boundaries are overshoot by one column to
      * the East and one row to the North when computing min.
+     * </p>
+     * <p>
+     * If the raw elevations are stored with a compact {@link ElevationEncoding},
+     * the tree is stored with the same encoding and the value is rounded down,
+     * so it remains a valid bound.
+     * </p>
      *
      * @param i row index of the cell
      * @param j column index of the cell
@@ -226,19 +335,19 @@ public class MinMaxTreeTile extends SimpleTile {
         if (DumpManager.isActive()) {
             final int[] min = locateMin(i, j, level);
             final int index = min[0] * getLongitudeColumns() + min[1];
-            DumpManager.dumpTileCell(this, min[0],     min[1],     raw[index]);
-            if (index + getLongitudeColumns() < raw.length) {
-                DumpManager.dumpTileCell(this, min[0] + 1, min[1],     raw[index + getLongitudeColumns()]);
+            DumpManager.dumpTileCell(this, min[0],     min[1],     raw.getElevation(index));
+            if (index + getLongitudeColumns() < raw.getSize()) {
+                DumpManager.dumpTileCell(this, min[0] + 1, min[1],     raw.getElevation(index + getLongitudeColumns()));
             }
-            if (index + 1 < raw.length) {
-                DumpManager.dumpTileCell(this, min[0],     min[1] + 1, raw[index + 1]);
+            if (index + 1 < raw.getSize()) {
+                DumpManager.dumpTileCell(this, min[0],     min[1] + 1, raw.getElevation(index + 1));
             }
-            if (index + getLongitudeColumns() + 1 < raw.length) {
-                DumpManager.dumpTileCell(this, min[0] + 1, min[1] + 1, raw[index + getLongitudeColumns() + 1]);
+            if (index + getLongitudeColumns() + 1 < raw.getSize()) {
+                DumpManager.dumpTileCell(this, min[0] + 1, min[1] + 1, raw.getElevation(index + getLongitudeColumns() + 1));
             }
         }
 
-        return minTree[start[level] + levelI * levelC + levelJ];
+        return minTree.get(start[level] + levelI * levelC + levelJ);
 
     }
 
@@ -268,6 +377,12 @@ public class MinMaxTreeTile extends SimpleTile {
      * tree level l includes cell (i,j) but not cell (i+1, j+1). In other words,
      * interpolation implies sub-tile boundaries are overshoot by one column to
      * the East and one row to the North when computing max.
+     * </p>
+     * <p>
+     * If the raw elevations are stored with a compact {@link ElevationEncoding},
+     * the tree is stored with the same encoding and the value is rounded up,
+     * so it remains a valid bound.
+     * </p>
      *
      * @param i row index of the cell
      * @param j column index of the cell
@@ -291,19 +406,19 @@ public class MinMaxTreeTile extends SimpleTile {
         if (DumpManager.isActive()) {
             final int[] max = locateMax(i, j, level);
             final int index = max[0] * getLongitudeColumns() + max[1];
-            DumpManager.dumpTileCell(this, max[0],     max[1],     raw[index]);
-            if (index + getLongitudeColumns() < raw.length) {
-                DumpManager.dumpTileCell(this, max[0] + 1, max[1],     raw[index + getLongitudeColumns()]);
+            DumpManager.dumpTileCell(this, max[0],     max[1],     raw.getElevation(index));
+            if (index + getLongitudeColumns() < raw.getSize()) {
+                DumpManager.dumpTileCell(this, max[0] + 1, max[1],     raw.getElevation(index + getLongitudeColumns()));
             }
-            if (index + 1 < raw.length) {
-                DumpManager.dumpTileCell(this, max[0],     max[1] + 1, raw[index + 1]);
+            if (index + 1 < raw.getSize()) {
+                DumpManager.dumpTileCell(this, max[0],     max[1] + 1, raw.getElevation(index + 1));
             }
-            if (index + getLongitudeColumns() + 1 < raw.length) {
-                DumpManager.dumpTileCell(this, max[0] + 1, max[1] + 1, raw[index + getLongitudeColumns() + 1]);
+            if (index + getLongitudeColumns() + 1 < raw.getSize()) {
+                DumpManager.dumpTileCell(this, max[0] + 1, max[1] + 1, raw.getElevation(index + getLongitudeColumns() + 1));
             }
         }
 
-        return maxTree[start[level] + levelI * levelC + levelJ];
+        return maxTree.get(start[level] + levelI * levelC + levelJ);
 
     }
 
@@ -350,7 +465,7 @@ public class MinMaxTreeTile extends SimpleTile {
      * @return row/column indices of the cell at which min/max elevation is reached
      */
     private int[] locateMinMax(final int i, final int j, final int level,
-                               final Selector selector, final double[] tree) {
+                               final Selector selector, final MinMaxTreeValues tree) {
 
         final int k  = start.length - level;
         int rowShift = k / 2;
@@ -371,8 +486,8 @@ public class MinMaxTreeTile extends SimpleTile {
 
                 if (levelJ + 1 < levelC) {
                     // the cell results from a regular merging of two columns
-                    if (selector.selectFirst(tree[start[l] + levelI * levelC + levelJ + 1],
-                                             tree[start[l] + levelI * levelC + levelJ])) {
+                    if (selector.selectFirst(tree.get(start[l] + levelI * levelC + levelJ + 1),
+                                             tree.get(start[l] + levelI * levelC + levelJ))) {
                         levelJ++;
                     }
                 }
@@ -385,8 +500,8 @@ public class MinMaxTreeTile extends SimpleTile {
 
                 if (levelI + 1 < levelR) {
                     // the cell results from a regular merging of two rows
-                    if (selector.selectFirst(tree[start[l] + (levelI + 1) * levelC + levelJ],
-                                             tree[start[l] + levelI       * levelC + levelJ])) {
+                    if (selector.selectFirst(tree.get(start[l] + (levelI + 1) * levelC + levelJ),
+                                             tree.get(start[l] + levelI       * levelC + levelJ))) {
                         levelI++;
                     }
                 }
@@ -407,7 +522,7 @@ public class MinMaxTreeTile extends SimpleTile {
             if (n < getLongitudeColumns()) {
                 for (int m = levelI; m < levelI + 2; ++m) {
                     if (m < getLatitudeRows()) {
-                        final double elevation = raw[m * getLongitudeColumns() + n];
+                        final double elevation = raw.getElevation(m * getLongitudeColumns() + n);
                         if (selector.selectFirst(elevation, selectedElevation)) {
                             selectedI         = m;
                             selectedJ         = n;
@@ -620,35 +735,58 @@ public class MinMaxTreeTile extends SimpleTile {
      * @param nbCols number of columns
      * @param selector selector to use
      */
-    private void preprocess(final double[] preprocessed, final double[] elevations,
+    private void preprocess(final double[] preprocessed, final ElevationStorage elevations,
                             final int nbRows, final int nbCols,
                             final Selector selector) {
+        processRowsBlocks(nbRows, nbCols,
+            (rowStart, rowEnd) -> preprocess(preprocessed, elevations, nbRows, nbCols, selector, rowStart, rowEnd));
+    }
 
-        int k = 0;
+    /** Preprocess recursive application of a function on a block of rows.
+     * @param preprocessed preprocessed array to fill up
+     * @param elevations raw elevations te preprocess
+     * @param nbRows number of rows
+     * @param nbCols number of columns
+     * @param selector selector to use
+     * @param rowStart index of the first row of the block (included)
+     * @param rowEnd index of the last row of the block (excluded)
+     * @since 4.1
+     */
+    private void preprocess(final double[] preprocessed, final ElevationStorage elevations,
+                            final int nbRows, final int nbCols,
+                            final Selector selector, final int rowStart, final int rowEnd) {
 
-        for (int i = 0; i < nbRows - 1; ++i) {
+        int k = rowStart * nbCols;
+
+        for (int i = rowStart; i < FastMath.min(rowEnd, nbRows - 1); ++i) {
 
             // regular elements with both a column at right and a row below
             for (int j = 0; j < nbCols - 1; ++j) {
-                preprocessed[k] = selector.select(selector.select(elevations[k],          elevations[k + 1]),
-                                                  selector.select(elevations[k + nbCols], elevations[k + nbCols + 1]));
+                preprocessed[k] = selector.select(selector.select(elevations.getElevation(k),
+                                                                  elevations.getElevation(k + 1)),
+                                                  selector.select(elevations.getElevation(k + nbCols),
+                                                                  elevations.getElevation(k + nbCols + 1)));
                 k++;
             }
 
             // last column elements, lacking a right column
-            preprocessed[k] = selector.select(elevations[k], elevations[k + nbCols]);
+            preprocessed[k] = selector.select(elevations.getElevation(k), elevations.getElevation(k + nbCols));
             k++;
 
         }
 
-        // last row elements, lacking a below row
-        for (int j = 0; j < nbCols - 1; ++j) {
-            preprocessed[k] = selector.select(elevations[k], elevations[k + 1]);
-            k++;
-        }
+        if (rowEnd == nbRows) {
 
-        // last element
-        preprocessed[k] = elevations[k];
+            // last row elements, lacking a below row
+            for (int j = 0; j < nbCols - 1; ++j) {
+                preprocessed[k] = selector.select(elevations.getElevation(k), elevations.getElevation(k + 1));
+                k++;
+            }
+
+            // last element
+            preprocessed[k] = elevations.getElevation(k);
+
+        }
 
     }
 
@@ -669,26 +807,9 @@ public class MinMaxTreeTile extends SimpleTile {
         if (isColumnMerging(level + 1)) {
 
             // merge columns pairs
-            int           iTree       = start[level];
-            int           iBase       = first;
-            final int     nextColumns = (levelColumns + 1) / 2;
-            final boolean odd         = (levelColumns & 0x1) != 0;
-            final int     jEnd        = odd ? nextColumns - 1 : nextColumns;
-            for (int i = 0; i < levelRows; ++i) {
-
-                // regular pairs
-                for (int j = 0; j < jEnd; ++j) {
-                    tree[iTree++] = selector.select(base[iBase], base[iBase + 1]);
-                    iBase += 2;
-                }
-
-                if (odd) {
-                    // last column
-                    tree[iTree++] = base[iBase++];
-                }
-
-
-            }
+            final int nextColumns = (levelColumns + 1) / 2;
+            processRowsBlocks(levelRows, levelColumns,
+                (rowStart, rowEnd) -> mergeColumns(tree, level, levelColumns, selector, base, first, rowStart, rowEnd));
 
             if (level > 0) {
                 applyRecursively(tree, level - 1, levelRows, nextColumns, selector, tree, start[level]);
@@ -697,33 +818,175 @@ public class MinMaxTreeTile extends SimpleTile {
         } else {
 
             // merge rows pairs
-            int           iTree    = start[level];
-            int           iBase    = first;
-            final int     nextRows = (levelRows + 1) / 2;
-            final boolean odd      = (levelRows & 0x1) != 0;
-            final int     iEnd     = odd ? nextRows - 1 : nextRows;
+            final int nextRows = (levelRows + 1) / 2;
+            processRowsBlocks(nextRows, 2 * levelColumns,
+                (rowStart, rowEnd) -> mergeRows(tree, level, levelRows, levelColumns, selector, base, first, rowStart, rowEnd));
 
-            // regular pairs
-            for (int i = 0; i < iEnd; ++i) {
+            if (level > 0) {
+                applyRecursively(tree, level - 1, nextRows, levelColumns, selector, tree, start[level]);
+            }
 
-                for (int j = 0; j < levelColumns; ++j) {
-                    tree[iTree++] = selector.select(base[iBase], base[iBase + levelColumns]);
-                    iBase++;
-                }
-                iBase += levelColumns;
+        }
+    }
 
+    /** Merge columns pairs for a block of rows.
+     * @param tree tree to fill-up
+     * @param level current level
+     * @param levelColumns number of columns at current level
+     * @param selector to apply
+     * @param base base array from which function arguments are drawn
+     * @param first index of the first element to consider in base array
+     * @param rowStart index of the first row of the block (included)
+     * @param rowEnd index of the last row of the block (excluded)
+     * @since 4.1
+     */
+    private void mergeColumns(final double[] tree, final int level, final int levelColumns,
+                              final Selector selector, final double[] base, final int first,
+                              final int rowStart, final int rowEnd) {
+
+        final int     nextColumns = (levelColumns + 1) / 2;
+        final boolean odd         = (levelColumns & 0x1) != 0;
+        final int     jEnd        = odd ? nextColumns - 1 : nextColumns;
+        int           iTree       = start[level] + rowStart * nextColumns;
+        int           iBase       = first + rowStart * levelColumns;
+        for (int i = rowStart; i < rowEnd; ++i) {
+
+            // regular pairs
+            for (int j = 0; j < jEnd; ++j) {
+                tree[iTree++] = selector.select(base[iBase], base[iBase + 1]);
+                iBase += 2;
             }
 
             if (odd) {
-                // last row
-                System.arraycopy(base, iBase, tree, iTree, levelColumns);
+                // last column
+                tree[iTree++] = base[iBase++];
             }
 
-            if (level > 0) {
-                applyRecursively(tree, level - 1, nextRows, levelColumns, selector, tree, start[level]);
+        }
+
+    }
+
+    /** Merge rows pairs for a block of merged rows.
+     * @param tree tree to fill-up
+     * @param level current level
+     * @param levelRows number of rows at current level
+     * @param levelColumns number of columns at current level
+     * @param selector to apply
+     * @param base base array from which function arguments are drawn
+     * @param first index of the first element to consider in base array
+     * @param rowStart index of the first merged row of the block (included)
+     * @param rowEnd index of the last merged row of the block (excluded)
+     * @since 4.1
+     */
+    private void mergeRows(final double[] tree, final int level, final int levelRows, final int levelColumns,
+                           final Selector selector, final double[] base, final int first,
+                           final int rowStart, final int rowEnd) {
+
+        final int     nextRows = (levelRows + 1) / 2;
+        final boolean odd      = (levelRows & 0x1) != 0;
+        final int     iEnd     = FastMath.min(rowEnd, odd ? nextRows - 1 : nextRows);
+        int           iTree    = start[level] + rowStart * levelColumns;
+        int           iBase    = first + 2 * rowStart * levelColumns;
+
+        // regular pairs
+        for (int i = rowStart; i < iEnd; ++i) {
+
+            for (int j = 0; j < levelColumns; ++j) {
+                tree[iTree++] = selector.select(base[iBase], base[iBase + levelColumns]);
+                iBase++;
             }
+            iBase += levelColumns;
+
+        }
+
+        if (odd && rowEnd == nextRows) {
+            // last row
+            System.arraycopy(base, iBase, tree, iTree, levelColumns);
+        }
 
+    }
+
+    /** Process all rows, splitting them in blocks processed in parallel if possible.
+     * <p>
+     * Blocks are processed sequentially if no pool is available or if
+     * there are too few elements to process.
+     * </p>
+     * @param nbRows number of rows
+     * @param elementsPerRow number of elements read for each row
+     * @param processor processor for blocks of rows
+     * @since 4.1
+     */
+    private void processRowsBlocks(final int nbRows, final int elementsPerRow, final RowsBlockProcessor processor) {
+        if (pool == null || (long) nbRows * elementsPerRow <= ELEMENTS_BATCH_SIZE) {
+            processor.process(0, nbRows);
+        } else {
+            pool.invoke(new RowsBlockTask(processor, elementsPerRow, 0, nbRows));
         }
     }
 
+    /** Interface for processing blocks of rows.
+     * @since 4.1
+     */
+    private interface RowsBlockProcessor {
+
+        /** Process a block of rows.
+         * @param rowStart index of the first row of the block (included)
+         * @param rowEnd index of the last row of the block (excluded)
+         */
+        void process(int rowStart, int rowEnd);
+
+    }
+
+    /** Task for parallel processing of rows.
+     * <p>
+     * The task splits its range of rows in halves until each half
+     * contains few enough elements.
+     * </p>
+     * @since 4.1
+     */
+    private static class RowsBlockTask extends RecursiveAction {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20261016L;
+
+        /** Processor for blocks of rows. */
+        private final RowsBlockProcessor processor;
+
+        /** Number of elements read for each row. */
+        private final int elementsPerRow;
+
+        /** Index of the first row (included). */
+        private final int rowStart;
+
+        /** Index of the last row (excluded). */
+        private final int rowEnd;
+
+        /** Simple constructor.
+         * @param processor processor for blocks of rows
+         * @param elementsPerRow number of elements read for each row
+         * @param rowStart index of the first row (included)
+         * @param rowEnd index of the last row (excluded)
+         */
+        RowsBlockTask(final RowsBlockProcessor processor, final int elementsPerRow,
+                      final int rowStart, final int rowEnd) {
+            this.processor      = processor;
+            this.elementsPerRow = elementsPerRow;
+            this.rowStart       = rowStart;
+            this.rowEnd         = rowEnd;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (rowEnd - rowStart < 2 || (long) (rowEnd - rowStart) * elementsPerRow <= ELEMENTS_BATCH_SIZE) {
+                processor.process(rowStart, rowEnd);
+            } else {
+                final int middle = (rowStart + rowEnd) / 2;
+                invokeAll(new RowsBlockTask(processor, elementsPerRow, rowStart, middle),
+                          new RowsBlockTask(processor, elementsPerRow, middle, rowEnd));
+            }
+        }
+
+    }
+
 }
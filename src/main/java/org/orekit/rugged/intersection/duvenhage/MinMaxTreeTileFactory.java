@@ -16,6 +16,10 @@
  */
 package org.orekit.rugged.intersection.duvenhage;
 
+import java.util.concurrent.ForkJoinPool;
+
+import org.orekit.rugged.raster.ArrayElevationStorage;
+import org.orekit.rugged.raster.ElevationStorageFactory;
 import org.orekit.rugged.raster.TileFactory;
 
 /** Simple implementation of a {@link TileFactory} for {@link MinMaxTreeTile}.
@@ -23,10 +27,75 @@ import org.orekit.rugged.raster.TileFactory;
  */
 public class MinMaxTreeTileFactory implements TileFactory<MinMaxTreeTile> {
 
+    /** Factory for raw elevations storage (null for the default heap storage).
+     * @since 4.1
+     */
+    private final ElevationStorageFactory storageFactory;
+
+    /** Persistent cache for the min/max kd-trees (null if trees are always built).
+     * @since 4.1
+     */
+    private final MinMaxTreeCache cache;
+
+    /** Pool of threads for trees construction (null for sequential construction).
+     * @since 4.1
+     */
+    private final ForkJoinPool pool;
+
+    /** Simple constructor.
+     * <p>
+     * The raw elevations of the tiles created are stored in Java heap arrays.
+     * </p>
+     */
+    public MinMaxTreeTileFactory() {
+        this(null);
+    }
+
+    /** Simple constructor.
+     * @param storageFactory factory for raw elevations storage
+     * (null for the default Java heap arrays)
+     * @since 4.1
+     */
+    public MinMaxTreeTileFactory(final ElevationStorageFactory storageFactory) {
+        this(storageFactory, null);
+    }
+
+    /** Simple constructor.
+     * @param storageFactory factory for raw elevations storage
+     * (null for the default Java heap arrays)
+     * @param cache persistent cache for the min/max kd-trees
+     * (null if trees must always be built)
+     * @since 4.1
+     */
+    public MinMaxTreeTileFactory(final ElevationStorageFactory storageFactory, final MinMaxTreeCache cache) {
+        this(storageFactory, cache, null);
+    }
+
+    /** Simple constructor.
+     * @param storageFactory factory for raw elevations storage
+     * (null for the default Java heap arrays)
+     * @param cache persistent cache for the min/max kd-trees
+     * (null if trees must always be built)
+     * @param pool pool of threads for trees construction
+     * (null for sequential construction)
+     * @since 4.1
+     */
+    public MinMaxTreeTileFactory(final ElevationStorageFactory storageFactory, final MinMaxTreeCache cache,
+                                 final ForkJoinPool pool) {
+        this.storageFactory = storageFactory;
+        this.cache          = cache;
+        this.pool           = pool;
+    }
+
     /** {@inheritDoc} */
     @Override
     public MinMaxTreeTile createTile() {
-        return new MinMaxTreeTile();
+        if (cache == null && pool == null) {
+            return storageFactory == null ? new MinMaxTreeTile() : new MinMaxTreeTile(storageFactory);
+        } else {
+            return new MinMaxTreeTile(storageFactory == null ? ArrayElevationStorage::new : storageFactory,
+                                      cache, pool);
+        }
     }
 
 }
@@ -0,0 +1,259 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.intersection.duvenhage;
+
+import java.nio.ByteBuffer;
+
+import org.hipparchus.util.FastMath;
+import org.orekit.rugged.errors.RuggedInternalError;
+import org.orekit.rugged.raster.ElevationEncoding;
+
+/** Storage for the values of a min or max kd-tree.
+ * <p>
+ * The values may be stored with a compact encoding. In this case, they are
+ * rounded conservatively: min values are rounded down and max values are
+ * rounded up, so the Duvenhage algorithm bounds remain valid.
+ * </p>
+ * @see MinMaxTreeTile
+ * @since 4.1
+ */
+abstract class MinMaxTreeValues {
+
+    /** Get one value.
+     * @param index index of the value
+     * @return value at index (may be rounded with respect to the exact value)
+     */
+    abstract double get(int index);
+
+    /** Get the number of values.
+     * @return number of values
+     */
+    abstract int size();
+
+    /** Create a storage for tree values.
+     * @param values exact tree values
+     * @param lowerBounds if true, values are rounded down, otherwise they are rounded up
+     * @param encoding encoding of the values
+     * @param scale scale factor between stored values and elevations
+     * (only used by {@link ElevationEncoding#SHORT})
+     * @param offset offset between stored values and elevations
+     * (only used by {@link ElevationEncoding#SHORT})
+     * @return storage for tree values
+     */
+    static MinMaxTreeValues create(final double[] values, final boolean lowerBounds,
+                                   final ElevationEncoding encoding, final double scale, final double offset) {
+        switch (encoding) {
+            case DOUBLE :
+                return new DoubleValues(values);
+            case FLOAT :
+                return new FloatValues(values, lowerBounds);
+            case SHORT :
+                return new ShortValues(values, lowerBounds, scale, offset);
+            default :
+                // this should never happen
+                throw new RuggedInternalError(null);
+        }
+    }
+
+    /** Create a view of already encoded tree values.
+     * <p>
+     * The values are not copied, they are decoded each time they are accessed.
+     * </p>
+     * @param buffer buffer containing the encoded values
+     * @param size number of values
+     * @param encoding encoding of the values
+     * @param scale scale factor between stored values and elevations
+     * (only used by {@link ElevationEncoding#SHORT})
+     * @param offset offset between stored values and elevations
+     * (only used by {@link ElevationEncoding#SHORT})
+     * @return storage for tree values
+     * @see MinMaxTreeCache
+     */
+    static MinMaxTreeValues map(final ByteBuffer buffer, final int size,
+                                final ElevationEncoding encoding, final double scale, final double offset) {
+        return new BufferValues(buffer, size, encoding, scale, offset);
+    }
+
+    /** Values stored as 64 bits floating point numbers. */
+    private static class DoubleValues extends MinMaxTreeValues {
+
+        /** Tree values. */
+        private final double[] values;
+
+        /** Simple constructor.
+         * @param values exact tree values (the array is used directly, not copied)
+         */
+        DoubleValues(final double[] values) {
+            this.values = values;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int size() {
+            return values.length;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        double get(final int index) {
+            return values[index];
+        }
+
+    }
+
+    /** Values stored as 32 bits floating point numbers. */
+    private static class FloatValues extends MinMaxTreeValues {
+
+        /** Tree values. */
+        private final float[] values;
+
+        /** Simple constructor.
+         * @param values exact tree values
+         * @param lowerBounds if true, values are rounded down, otherwise they are rounded up
+         */
+        FloatValues(final double[] values, final boolean lowerBounds) {
+            this.values = new float[values.length];
+            for (int i = 0; i < values.length; ++i) {
+                float rounded = (float) values[i];
+                if (lowerBounds && rounded > values[i]) {
+                    rounded = FastMath.nextDown(rounded);
+                } else if (!lowerBounds && rounded < values[i]) {
+                    rounded = FastMath.nextUp(rounded);
+                }
+                this.values[i] = rounded;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int size() {
+            return values.length;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        double get(final int index) {
+            return values[index];
+        }
+
+    }
+
+    /** Values stored as 16 bits integers, with scale and offset. */
+    private static class ShortValues extends MinMaxTreeValues {
+
+        /** Tree values. */
+        private final short[] values;
+
+        /** Scale factor between stored values and elevations. */
+        private final double scale;
+
+        /** Offset between stored values and elevations. */
+        private final double offset;
+
+        /** Simple constructor.
+         * @param values exact tree values
+         * @param lowerBounds if true, values are rounded down, otherwise they are rounded up
+         * @param scale scale factor between stored values and elevations
+         * @param offset offset between stored values and elevations
+         */
+        ShortValues(final double[] values, final boolean lowerBounds,
+                    final double scale, final double offset) {
+            this.values = new short[values.length];
+            this.scale  = scale;
+            this.offset = offset;
+            for (int i = 0; i < values.length; ++i) {
+                if (Double.isNaN(values[i])) {
+                    this.values[i] = Short.MIN_VALUE;
+                } else {
+                    final double scaled = (values[i] - offset) / scale;
+                    long n = (long) (lowerBounds ? FastMath.floor(scaled) : FastMath.ceil(scaled));
+                    // protect against rounding errors in the scaling
+                    while (lowerBounds && offset + scale * n > values[i]) {
+                        --n;
+                    }
+                    while (!lowerBounds && offset + scale * n < values[i]) {
+                        ++n;
+                    }
+                    this.values[i] = (short) FastMath.max(Short.MIN_VALUE + 1, FastMath.min(Short.MAX_VALUE, n));
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int size() {
+            return values.length;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        double get(final int index) {
+            final short n = values[index];
+            return n == Short.MIN_VALUE ? Double.NaN : offset + scale * n;
+        }
+
+    }
+
+    /** Values already encoded in a buffer. */
+    private static class BufferValues extends MinMaxTreeValues {
+
+        /** Buffer containing the encoded values. */
+        private final ByteBuffer buffer;
+
+        /** Number of values. */
+        private final int size;
+
+        /** Encoding of the values. */
+        private final ElevationEncoding encoding;
+
+        /** Scale factor between stored values and elevations. */
+        private final double scale;
+
+        /** Offset between stored values and elevations. */
+        private final double offset;
+
+        /** Simple constructor.
+         * @param buffer buffer containing the encoded values
+         * @param size number of values
+         * @param encoding encoding of the values
+         * @param scale scale factor between stored values and elevations
+         * @param offset offset between stored values and elevations
+         */
+        BufferValues(final ByteBuffer buffer, final int size,
+                     final ElevationEncoding encoding, final double scale, final double offset) {
+            this.buffer   = buffer;
+            this.size     = size;
+            this.encoding = encoding;
+            this.scale    = scale;
+            this.offset   = offset;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int size() {
+            return size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        double get(final int index) {
+            return encoding.decode(buffer, index, scale, offset);
+        }
+
+    }
+
+}
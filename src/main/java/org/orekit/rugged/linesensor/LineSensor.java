@@ -96,6 +96,29 @@ public class LineSensor {
         return l;
     }
 
+    /** Get the normalized lines-of-sight of all pixels at some date.
+     * <p>
+     * This method is equivalent to calling {@link #getLOS(AbsoluteDate, int)}
+     * for all pixels, but time-dependent transforms are evaluated only once
+     * for the date and no intermediate objects are created. The coordinates
+     * are stored interleaved: x, y and z of pixel i are stored at indices 3i,
+     * 3i+1 and 3i+2.
+     * </p>
+     * @param date current date
+     * @param coordinates placeholder for the lines-of-sight coordinates,
+     * must have exactly 3 {@link #getNbPixels()} elements
+     * @since 4.1
+     */
+    public void getLOSCoordinates(final AbsoluteDate date, final double[] coordinates) {
+        los.getLOSCoordinates(date, coordinates);
+        if (DumpManager.isActive()) {
+            for (int i = 0; i < getNbPixels(); ++i) {
+                DumpManager.dumpSensorLOS(this, date, i,
+                                          new Vector3D(coordinates[3 * i], coordinates[3 * i + 1], coordinates[3 * i + 2]));
+            }
+        }
+    }
+
     /** Get the pixel normalized interpolated line-of-sight at some date.
      * @param date current date
      * @param i pixel index (must be between 0 and {@link #getNbPixels()} - 1
@@ -161,6 +161,22 @@ public class SensorMeanPlaneCrossing {
 
     }
 
+    /** Create a copy of this finder, with its own cache.
+     * <p>
+     * The copy shares the mean plane with this finder, so it is not recomputed, and
+     * starts with the results already cached by this finder. As finders cache their
+     * last results, one finder cannot be used by several threads at once, so each
+     * thread should use its own copy.
+     * </p>
+     * @return copy of this finder
+     * @since 4.1
+     */
+    public SensorMeanPlaneCrossing copy() {
+        return new SensorMeanPlaneCrossing(sensor, scToBody, minLine, maxLine,
+                                           lightTimeCorrection, aberrationOfLightCorrection,
+                                           maxEval, accuracy, meanPlaneNormal, getCachedResults());
+    }
+
     /** Compute the plane containing origin that best fits viewing directions point cloud.
      * @param sensor line sensor
      * @param minLine minimum line number
@@ -49,10 +49,10 @@ public class FixedRotation implements TimeIndependentLOSTransform {
     private final Vector3D axis;
 
     /** Underlying rotation. */
-    private Rotation rotation;
+    private volatile Rotation rotation;
 
     /** Underlying rotation with derivatives. */
-    private FieldRotation<?> rDS;
+    private volatile FieldRotation<?> rDS;
 
     /** Driver for rotation angle. */
     private final ParameterDriver angleDriver;
@@ -97,11 +97,29 @@ public class FixedRotation implements TimeIndependentLOSTransform {
     /** {@inheritDoc} */
     @Override
     public Vector3D transformLOS(final int i, final Vector3D los) {
-        if (rotation == null) {
+        return getRotation().applyTo(los);
+    }
+
+    /** {@inheritDoc}
+     * @since 4.1
+     */
+    @Override
+    public void transformLOS(final double[] coordinates) {
+        LOSCoordinates.rotate(getRotation(), coordinates);
+    }
+
+    /** Get the underlying rotation.
+     * @return underlying rotation
+     * @since 4.1
+     */
+    private Rotation getRotation() {
+        Rotation r = rotation;
+        if (r == null) {
             // lazy evaluation of the rotation
-            rotation = new Rotation(axis, angleDriver.getValue(), RotationConvention.VECTOR_OPERATOR);
+            r = new Rotation(axis, angleDriver.getValue(), RotationConvention.VECTOR_OPERATOR);
+            rotation = r;
         }
-        return rotation.applyTo(los);
+        return r;
     }
 
     /** {@inheritDoc} */
@@ -109,8 +127,8 @@ public class FixedRotation implements TimeIndependentLOSTransform {
     @Override
     public <T extends Derivative<T>> FieldVector3D<T> transformLOS(final int i, final FieldVector3D<T> los,
                                                                    final DerivativeGenerator<T> generator) {
-        final FieldRotation<T> rD;
-        if (rDS == null || !rDS.getQ0().getField().equals(generator.getField())) {
+        FieldRotation<T> rD = (FieldRotation<T>) rDS;
+        if (rD == null || !rD.getQ0().getField().equals(generator.getField())) {
 
             // lazy evaluation of the rotation
             final FieldVector3D<T> axisDS =
@@ -123,9 +141,6 @@ public class FixedRotation implements TimeIndependentLOSTransform {
             // cache evaluated rotation
             rDS = rD;
 
-        } else {
-            // reuse cached value
-            rD  = (FieldRotation<T>) rDS;
         }
 
         return rD.applyTo(los);
@@ -45,10 +45,10 @@ public class FixedZHomothety implements TimeIndependentLOSTransform {
     private final double SCALE = FastMath.scalb(1.0, 0);
 
     /** Homothety factor. */
-    private double factor;
+    private volatile double factor;
 
     /** Underlying homothety with derivatives. */
-    private Derivative<?> factorDS;
+    private volatile Derivative<?> factorDS;
 
     /** Driver for homothety factor. */
     private final ParameterDriver factorDriver;
@@ -91,12 +91,32 @@ public class FixedZHomothety implements TimeIndependentLOSTransform {
     /** {@inheritDoc} */
     @Override
     public Vector3D transformLOS(final int i, final Vector3D los) {
+        return new Vector3D(los.getX(), los.getY(), getFactor() * los.getZ());
+    }
 
-        if (factor == 0.0) {
+    /** {@inheritDoc}
+     * @since 4.1
+     */
+    @Override
+    public void transformLOS(final double[] coordinates) {
+        final double f = getFactor();
+        for (int k = 2; k < coordinates.length; k += 3) {
+            coordinates[k] *= f;
+        }
+    }
+
+    /** Get the homothety factor.
+     * @return homothety factor
+     * @since 4.1
+     */
+    private double getFactor() {
+        double f = factor;
+        if (f == 0.0) {
             // lazy evaluation of the homothety
-            factor = factorDriver.getValue();
+            f = factorDriver.getValue();
+            factor = f;
         }
-        return new Vector3D(los.getX(), los.getY(), factor * los.getZ());
+        return f;
     }
 
     /** {@inheritDoc} */
@@ -104,8 +124,8 @@ public class FixedZHomothety implements TimeIndependentLOSTransform {
     @Override
     public <T extends Derivative<T>> FieldVector3D<T> transformLOS(final int i, final FieldVector3D<T> los,
                                                                    final DerivativeGenerator<T> generator) {
-        final T factorD;
-        if (factorDS == null || !factorDS.getField().equals(generator.getField())) {
+        T factorD = (T) factorDS;
+        if (factorD == null || !factorD.getField().equals(generator.getField())) {
 
             // lazy evaluation of the homothety
             factorD = generator.variable(factorDriver);
@@ -113,9 +133,6 @@ public class FixedZHomothety implements TimeIndependentLOSTransform {
             // cache evaluated homothety
             factorDS = factorD;
 
-        } else {
-            // reuse cached value
-            factorD  = (T) factorDS;
         }
 
         return new FieldVector3D<>(los.getX(), los.getY(), factorD.multiply(los.getZ()));
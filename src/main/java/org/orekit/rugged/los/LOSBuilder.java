@@ -17,11 +17,12 @@
 package org.orekit.rugged.los;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
 
 import org.hipparchus.analysis.differentiation.Derivative;
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.orekit.rugged.utils.DerivativeGenerator;
@@ -121,6 +122,12 @@ public class LOSBuilder {
             return transform.transformLOS(i, los);
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public void transformLOS(final double[] coordinates, final AbsoluteDate date) {
+            transform.transformLOS(coordinates);
+        }
+
         /** {@inheritDoc} */
         @Override
         public <T extends Derivative<T>> FieldVector3D<T> transformLOS(final int i, final FieldVector3D<T> los,
@@ -142,6 +149,11 @@ public class LOSBuilder {
         /** Raw direction. */
         private final Vector3D[] raw;
 
+        /** Raw directions coordinates, interleaved.
+         * @since 4.1
+         */
+        private final double[] rawCoordinates;
+
         /** Transforms to be applied. */
         private final List<LOSTransform> transforms;
 
@@ -154,9 +166,13 @@ public class LOSBuilder {
             // copy the lists, to ensure immutability of the built object,
             // in case addTransform is called again after build
             // or the raw LOS list is changed by caller
-            this.raw = new Vector3D[raw.size()];
+            this.raw            = new Vector3D[raw.size()];
+            this.rawCoordinates = new double[3 * raw.size()];
             for (int i = 0; i < raw.size(); ++i) {
                 this.raw[i] = raw.get(i);
+                this.rawCoordinates[3 * i]     = this.raw[i].getX();
+                this.rawCoordinates[3 * i + 1] = this.raw[i].getY();
+                this.rawCoordinates[3 * i + 2] = this.raw[i].getZ();
             }
 
             this.transforms = new ArrayList<>(transforms);
@@ -178,6 +194,20 @@ public class LOSBuilder {
             return los.normalize();
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public void getLOSCoordinates(final AbsoluteDate date, final double[] coordinates) {
+            if (coordinates.length != rawCoordinates.length) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       coordinates.length, rawCoordinates.length);
+            }
+            System.arraycopy(rawCoordinates, 0, coordinates, 0, rawCoordinates.length);
+            for (final LOSTransform transform : transforms) {
+                transform.transformLOS(coordinates, date);
+            }
+            LOSCoordinates.normalize(coordinates);
+        }
+
         /** {@inheritDoc} */
         @Override
         public <T extends Derivative<T>> FieldVector3D<T> getLOSDerivatives(final int index, final AbsoluteDate date,
@@ -211,8 +241,8 @@ public class LOSBuilder {
     /** Implement time-independent LOS by computing directions only when parameters are changed. */
     private static class FixedLOS extends TransformsSequenceLOS {
 
-        /** transformed direction for los. */
-        private final Vector3D[] transformed;
+        /** Transformed directions (null if they must be recomputed). */
+        private volatile LOSTable table;
 
         /** Simple constructor.
          * @param raw raw directions
@@ -221,20 +251,20 @@ public class LOSBuilder {
         FixedLOS(final List<Vector3D> raw, final List<LOSTransform> transforms) {
 
             super(raw, transforms);
-            transformed = new Vector3D[raw.size()];
+            table = null;
 
             // we will reset the transforms to null when parameters are changed
             final ParameterObserver resettingObserver = new ParameterObserver() {
                 /** {@inheritDoc} */
                 @Override
                 public void valueChanged(final double previousValue, final ParameterDriver driver, final AbsoluteDate date) {
-                    Arrays.fill(transformed, null);
+                    table = null;
                 }
 
                 /** {@inheritDoc} */
                 @Override
                 public void valueSpanMapChanged(final TimeSpanMap<Double> previousValueSpanMap, final ParameterDriver driver) {
-                    Arrays.fill(transformed, null);
+                    table = null;
                 }
             };
             getParametersDrivers().forEach(driver -> {
@@ -245,11 +275,59 @@ public class LOSBuilder {
         /** {@inheritDoc} */
         @Override
         public Vector3D getLOS(final int index, final AbsoluteDate date) {
-            if (transformed[index] == null) {
-                // recompute the transformed los direction only if needed
-                transformed[index] = super.getLOS(index, date);
+            return getTable(date).directions[index];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void getLOSCoordinates(final AbsoluteDate date, final double[] coordinates) {
+            final double[] transformed = getTable(date).coordinates;
+            if (coordinates.length != transformed.length) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       coordinates.length, transformed.length);
+            }
+            System.arraycopy(transformed, 0, coordinates, 0, transformed.length);
+        }
+
+        /** Get the transformed directions table.
+         * @param date date (ignored as transforms are time-independent)
+         * @return transformed directions table
+         * @since 4.1
+         */
+        private LOSTable getTable(final AbsoluteDate date) {
+            LOSTable current = table;
+            if (current == null) {
+                // recompute the transformed los directions only if needed
+                final double[] coordinates = new double[3 * getNbPixels()];
+                super.getLOSCoordinates(date, coordinates);
+                current = new LOSTable(coordinates);
+                table   = current;
+            }
+            return current;
+        }
+
+    }
+
+    /** Table of transformed directions.
+     * @since 4.1
+     */
+    private static class LOSTable {
+
+        /** Transformed directions coordinates, interleaved. */
+        private final double[] coordinates;
+
+        /** Transformed directions. */
+        private final Vector3D[] directions;
+
+        /** Simple constructor.
+         * @param coordinates transformed directions coordinates, interleaved
+         */
+        LOSTable(final double[] coordinates) {
+            this.coordinates = coordinates;
+            this.directions  = new Vector3D[coordinates.length / 3];
+            for (int i = 0; i < directions.length; ++i) {
+                directions[i] = new Vector3D(coordinates[3 * i], coordinates[3 * i + 1], coordinates[3 * i + 2]);
             }
-            return transformed[index];
         }
 
     }
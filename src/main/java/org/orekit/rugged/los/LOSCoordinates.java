@@ -0,0 +1,81 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.los;
+
+import org.hipparchus.exception.MathRuntimeException;
+import org.hipparchus.geometry.LocalizedGeometryFormats;
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.util.FastMath;
+
+/** Utility for in place processing of interleaved lines-of-sight coordinates.
+ * <p>
+ * The coordinates are stored interleaved: x, y and z of pixel i are
+ * stored at indices 3i, 3i+1 and 3i+2. The computations are the same
+ * as the ones of {@link Rotation#applyTo(org.hipparchus.geometry.euclidean.threed.Vector3D)}
+ * and {@link org.hipparchus.geometry.euclidean.threed.Vector3D#normalize()},
+ * so the results are identical to the ones obtained pixel by pixel.
+ * </p>
+ * @since 4.1
+ */
+final class LOSCoordinates {
+
+    /** Private constructor for utility class.
+     */
+    private LOSCoordinates() {
+        // nothing to do
+    }
+
+    /** Apply a rotation to all lines-of-sight.
+     * @param rotation rotation to apply
+     * @param coordinates lines-of-sight coordinates to rotate in place
+     */
+    static void rotate(final Rotation rotation, final double[] coordinates) {
+        final double q0 = rotation.getQ0();
+        final double q1 = rotation.getQ1();
+        final double q2 = rotation.getQ2();
+        final double q3 = rotation.getQ3();
+        for (int k = 0; k < coordinates.length; k += 3) {
+            final double x = coordinates[k];
+            final double y = coordinates[k + 1];
+            final double z = coordinates[k + 2];
+            final double s = q1 * x + q2 * y + q3 * z;
+            coordinates[k]     = 2 * (q0 * (x * q0 - (q2 * z - q3 * y)) + s * q1) - x;
+            coordinates[k + 1] = 2 * (q0 * (y * q0 - (q3 * x - q1 * z)) + s * q2) - y;
+            coordinates[k + 2] = 2 * (q0 * (z * q0 - (q1 * y - q2 * x)) + s * q3) - z;
+        }
+    }
+
+    /** Normalize all lines-of-sight.
+     * @param coordinates lines-of-sight coordinates to normalize in place
+     */
+    static void normalize(final double[] coordinates) {
+        for (int k = 0; k < coordinates.length; k += 3) {
+            final double x = coordinates[k];
+            final double y = coordinates[k + 1];
+            final double z = coordinates[k + 2];
+            final double norm = FastMath.sqrt(x * x + y * y + z * z);
+            if (norm == 0) {
+                throw new MathRuntimeException(LocalizedGeometryFormats.CANNOT_NORMALIZE_A_ZERO_NORM_VECTOR);
+            }
+            final double inv = 1 / norm;
+            coordinates[k]     = inv * x;
+            coordinates[k + 1] = inv * y;
+            coordinates[k + 2] = inv * z;
+        }
+    }
+
+}
@@ -52,13 +52,16 @@ public class PolynomialRotation implements LOSTransform {
     private final Vector3D axis;
 
     /** Rotation angle polynomial. */
-    private PolynomialFunction angle;
+    private volatile PolynomialFunction angle;
 
-    /** Rotation axis and derivatives. */
-    private FieldVector3D<?> axisDS;
-
-    /** Rotation angle polynomial and derivatives. */
-    private Derivative<?>[] angleDS;
+    /** Rotation axis and angle polynomial with derivatives.
+     * <p>
+     * Axis and angle are published together as a single immutable
+     * holder, so threads evaluating measurements in parallel never see
+     * one without the other.
+     * </p>
+     */
+    private volatile RotationDS<?> rotationDS;
 
     /** Reference date for polynomial evaluation. */
     private final AbsoluteDate referenceDate;
@@ -90,17 +93,15 @@ public class PolynomialRotation implements LOSTransform {
             @Override
             public void valueChanged(final double previousValue, final ParameterDriver driver, final AbsoluteDate date) {
                 // reset rotations to null, they will be evaluated lazily if needed
-                angle   = null;
-                axisDS  = null;
-                angleDS = null;
+                angle      = null;
+                rotationDS = null;
             }
 
             @Override
             public void valueSpanMapChanged(final TimeSpanMap<Double> previousValueSpanMap, final ParameterDriver driver) {
                 // reset rotations to null, they will be evaluated lazily if needed
-                angle   = null;
-                axisDS  = null;
-                angleDS = null;
+                angle      = null;
+                rotationDS = null;
             }
         };
         for (int i = 0; i < angleCoeffs.length; ++i) {
@@ -140,17 +141,39 @@ public class PolynomialRotation implements LOSTransform {
     /** {@inheritDoc} */
     @Override
     public Vector3D transformLOS(final int i, final Vector3D los, final AbsoluteDate date) {
-        if (angle == null) {
+        return getRotation(date).applyTo(los);
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * The rotation is evaluated only once for all pixels.
+     * </p>
+     * @since 4.1
+     */
+    @Override
+    public void transformLOS(final double[] coordinates, final AbsoluteDate date) {
+        LOSCoordinates.rotate(getRotation(date), coordinates);
+    }
+
+    /** Get the rotation at a given date.
+     * @param date current date
+     * @return rotation at date
+     * @since 4.1
+     */
+    private Rotation getRotation(final AbsoluteDate date) {
+        PolynomialFunction polynomial = angle;
+        if (polynomial == null) {
             // lazy evaluation of the rotation
             final double[] coefficients = new double[coefficientsDrivers.length];
             for (int k = 0; k < coefficients.length; ++k) {
                 coefficients[k] = coefficientsDrivers[k].getValue();
             }
-            angle = new PolynomialFunction(coefficients);
+            polynomial = new PolynomialFunction(coefficients);
+            angle      = polynomial;
         }
         return new Rotation(axis,
-                            angle.value(date.durationFrom(referenceDate)),
-                            RotationConvention.VECTOR_OPERATOR).applyTo(los);
+                            polynomial.value(date.durationFrom(referenceDate)),
+                            RotationConvention.VECTOR_OPERATOR);
     }
 
     /** {@inheritDoc} */
@@ -161,37 +184,55 @@ public class PolynomialRotation implements LOSTransform {
                                                                    final DerivativeGenerator<T> generator) {
 
         final Field<T> field = generator.getField();
-        final FieldVector3D<T> axisD;
-        final T[] angleD;
-        if (axisDS == null || !axisDS.getX().getField().equals(field)) {
+        RotationDS<T> rD = (RotationDS<T>) rotationDS;
+        if (rD == null || !rD.axis.getX().getField().equals(field)) {
 
             // lazy evaluation of the rotation
-            axisD = new FieldVector3D<>(generator.constant(axis.getX()),
-                                        generator.constant(axis.getY()),
-                                        generator.constant(axis.getZ()));
-            angleD = MathArrays.buildArray(field, coefficientsDrivers.length);
+            final FieldVector3D<T> axisD = new FieldVector3D<>(generator.constant(axis.getX()),
+                                                               generator.constant(axis.getY()),
+                                                               generator.constant(axis.getZ()));
+            final T[] angleD = MathArrays.buildArray(field, coefficientsDrivers.length);
             for (int k = 0; k < angleD.length; ++k) {
                 angleD[k] = generator.variable(coefficientsDrivers[k]);
             }
 
             // cache evaluated rotation parameters
-            axisDS  = axisD;
-            angleDS = angleD;
+            rD         = new RotationDS<>(axisD, angleD);
+            rotationDS = rD;
 
-        } else {
-            // reuse cached values
-            axisD  = (FieldVector3D<T>) axisDS;
-            angleD = (T[]) angleDS;
         }
 
         // evaluate polynomial, with all its partial derivatives
         final double t = date.durationFrom(referenceDate);
         T alpha = field.getZero();
-        for (int k = angleDS.length - 1; k >= 0; --k) {
-            alpha = alpha.multiply(t).add(angleD[k]);
+        for (int k = rD.angle.length - 1; k >= 0; --k) {
+            alpha = alpha.multiply(t).add(rD.angle[k]);
         }
 
-        return new FieldRotation<>(axisD, alpha, RotationConvention.VECTOR_OPERATOR).applyTo(los);
+        return new FieldRotation<>(rD.axis, alpha, RotationConvention.VECTOR_OPERATOR).applyTo(los);
+
+    }
+
+    /** Container for rotation axis and angle polynomial with derivatives.
+     * @param <T> type of the field elements
+     * @since 4.1
+     */
+    private static class RotationDS<T extends Derivative<T>> {
+
+        /** Rotation axis and derivatives. */
+        private final FieldVector3D<T> axis;
+
+        /** Rotation angle polynomial and derivatives. */
+        private final T[] angle;
+
+        /** Simple constructor.
+         * @param axis rotation axis and derivatives
+         * @param angle rotation angle polynomial and derivatives
+         */
+        RotationDS(final FieldVector3D<T> axis, final T[] angle) {
+            this.axis  = axis;
+            this.angle = angle;
+        }
 
     }
 
@@ -43,6 +43,28 @@ public interface TimeDependentLOS {
      */
     Vector3D getLOS(int index, AbsoluteDate date);
 
+    /** Get the lines of sight of all pixels for a given date.
+     * <p>
+     * The coordinates are stored interleaved: x, y and z of pixel i are
+     * stored at indices 3i, 3i+1 and 3i+2. Implementations that depend on
+     * time should evaluate their time-dependent parts only once for all pixels.
+     * The default implementation simply calls {@link #getLOS(int, AbsoluteDate)}
+     * for each pixel.
+     * </p>
+     * @param date date
+     * @param coordinates placeholder for the lines of sight coordinates,
+     * must have exactly 3 {@link #getNbPixels()} elements
+     * @since 4.1
+     */
+    default void getLOSCoordinates(final AbsoluteDate date, final double[] coordinates) {
+        for (int i = 0; i < getNbPixels(); ++i) {
+            final Vector3D los = getLOS(i, date);
+            coordinates[3 * i]     = los.getX();
+            coordinates[3 * i + 1] = los.getY();
+            coordinates[3 * i + 2] = los.getZ();
+        }
+    }
+
     /** Get the line of sight and its partial derivatives for a given date.
      * <p>
      * This method is used for LOS calibration purposes. It allows to compute
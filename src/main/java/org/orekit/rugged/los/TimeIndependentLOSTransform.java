@@ -37,6 +37,26 @@ public interface TimeIndependentLOSTransform {
      */
     Vector3D transformLOS(int i, Vector3D los);
 
+    /** Transform the lines-of-sight of all pixels in place.
+     * <p>
+     * The coordinates are stored interleaved: x, y and z of pixel i are
+     * stored at indices 3i, 3i+1 and 3i+2. The default implementation
+     * simply calls {@link #transformLOS(int, Vector3D)} for each pixel.
+     * </p>
+     * @param coordinates lines-of-sight coordinates to transform
+     * @since 4.1
+     */
+    default void transformLOS(final double[] coordinates) {
+        for (int i = 0; 3 * i < coordinates.length; ++i) {
+            final Vector3D los = transformLOS(i, new Vector3D(coordinates[3 * i],
+                                                              coordinates[3 * i + 1],
+                                                              coordinates[3 * i + 2]));
+            coordinates[3 * i]     = los.getX();
+            coordinates[3 * i + 1] = los.getY();
+            coordinates[3 * i + 2] = los.getZ();
+        }
+    }
+
     /** Transform a line-of-sight and its partial derivatives.
      * <p>
      * This method is used for LOS calibration purposes. It allows to compute
@@ -0,0 +1,71 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import java.util.Arrays;
+
+/** Storage of elevations in a Java heap array.
+ * <p>
+ * This is the default storage used by {@link SimpleTile}.
+ * </p>
+ * @since 4.1
+ */
+public class ArrayElevationStorage implements ElevationStorage {
+
+    /** Elevations array. */
+    private final double[] elevations;
+
+    /** Simple constructor.
+     * @param size number of elevations to store
+     */
+    public ArrayElevationStorage(final int size) {
+        this.elevations = new double[size];
+        Arrays.fill(elevations, Double.NaN);
+    }
+
+    /** Get the underlying elevations array.
+     * @return underlying elevations array (a reference, not a copy)
+     */
+    public double[] getElevations() {
+        return elevations;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getSize() {
+        return elevations.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getElevation(final int index) {
+        return elevations[index];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setElevation(final int index, final double elevation) {
+        elevations[index] = elevation;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setElevations(final int index, final double[] source, final int offset, final int length) {
+        System.arraycopy(source, offset, elevations, index, length);
+    }
+
+}
@@ -0,0 +1,114 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import java.nio.ByteBuffer;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.orekit.rugged.errors.RuggedException;
+
+/** Storage of elevations in a byte buffer.
+ * <p>
+ * The buffer may be a direct buffer allocated outside of the Java heap or a
+ * memory-mapped file, so large Digital Elevation Models do not increase the
+ * heap size nor the garbage collection pauses. The elevations may also be
+ * encoded in a compact way, see {@link ElevationEncoding}.
+ * </p>
+ * @see BufferElevationStorageFactory
+ * @since 4.1
+ */
+public class BufferElevationStorage implements ElevationStorage {
+
+    /** Buffer containing the encoded elevations. */
+    private final ByteBuffer buffer;
+
+    /** Encoding of the elevations. */
+    private final ElevationEncoding encoding;
+
+    /** Scale factor between stored values and elevations. */
+    private final double scale;
+
+    /** Offset between stored values and elevations. */
+    private final double offset;
+
+    /** Number of elevations stored. */
+    private final int size;
+
+    /** Simple constructor.
+     * <p>
+     * All elevations are initialized to {@code Double.NaN}.
+     * </p>
+     * @param buffer buffer for the encoded elevations, its capacity must be
+     * at least {@code size * encoding.getBytes()}
+     * @param encoding encoding of the elevations
+     * @param scale scale factor between stored values and elevations
+     * @param offset offset between stored values and elevations
+     * @param size number of elevations to store
+     */
+    public BufferElevationStorage(final ByteBuffer buffer, final ElevationEncoding encoding,
+                                  final double scale, final double offset, final int size) {
+        if (buffer.capacity() < (long) size * encoding.getBytes()) {
+            throw new RuggedException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                      buffer.capacity(), (long) size * encoding.getBytes());
+        }
+        this.buffer   = buffer;
+        this.encoding = encoding;
+        this.scale    = scale;
+        this.offset   = offset;
+        this.size     = size;
+        for (int i = 0; i < size; ++i) {
+            encoding.encode(buffer, i, Double.NaN, scale, offset);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ElevationEncoding getEncoding() {
+        return encoding;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getScale() {
+        return scale;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getOffset() {
+        return offset;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getElevation(final int index) {
+        return encoding.decode(buffer, index, scale, offset);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setElevation(final int index, final double elevation) {
+        encoding.encode(buffer, index, elevation, scale, offset);
+    }
+
+}
@@ -0,0 +1,132 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.orekit.rugged.errors.RuggedException;
+import org.orekit.rugged.errors.RuggedMessages;
+
+/** Factory for elevations storages outside of the Java heap.
+ * <p>
+ * Depending on the constructor used, the storages are either direct buffers
+ * or memory-mapped temporary files. Memory-mapped files are backed by disk,
+ * so the operating system can reclaim their memory when needed and reload
+ * them transparently afterwards. The temporary files are deleted as soon as
+ * they are mapped if the operating system allows it, or at JVM exit otherwise.
+ * </p>
+ * @see BufferElevationStorage
+ * @since 4.1
+ */
+public class BufferElevationStorageFactory implements ElevationStorageFactory {
+
+    /** Prefix for temporary files names. */
+    private static final String PREFIX = "rugged-tile-";
+
+    /** Suffix for temporary files names. */
+    private static final String SUFFIX = ".elevations";
+
+    /** Encoding of the elevations. */
+    private final ElevationEncoding encoding;
+
+    /** Scale factor between stored values and elevations. */
+    private final double scale;
+
+    /** Offset between stored values and elevations. */
+    private final double offset;
+
+    /** Directory for memory-mapped files (null for direct buffers). */
+    private final File directory;
+
+    /** Create a factory for direct buffers storages.
+     * @param encoding encoding of the elevations
+     * @param scale scale factor between stored values and elevations
+     * (only used by {@link ElevationEncoding#SHORT})
+     * @param offset offset between stored values and elevations
+     * (only used by {@link ElevationEncoding#SHORT})
+     */
+    public BufferElevationStorageFactory(final ElevationEncoding encoding,
+                                         final double scale, final double offset) {
+        this(encoding, scale, offset, null);
+    }
+
+    /** Create a factory for memory-mapped files storages.
+     * @param encoding encoding of the elevations
+     * @param scale scale factor between stored values and elevations
+     * (only used by {@link ElevationEncoding#SHORT})
+     * @param offset offset between stored values and elevations
+     * (only used by {@link ElevationEncoding#SHORT})
+     * @param directory directory where temporary files should be created
+     * (if null, direct buffers are used instead of memory-mapped files)
+     */
+    public BufferElevationStorageFactory(final ElevationEncoding encoding,
+                                         final double scale, final double offset,
+                                         final File directory) {
+        this.encoding  = encoding;
+        this.scale     = scale;
+        this.offset    = offset;
+        this.directory = directory;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public BufferElevationStorage createStorage(final int size) {
+
+        final long bytes = (long) size * encoding.getBytes();
+        if (bytes > Integer.MAX_VALUE) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_LARGE, bytes, Integer.MAX_VALUE);
+        }
+
+        final ByteBuffer buffer = directory == null ?
+                                  ByteBuffer.allocateDirect((int) bytes) :
+                                  mapTemporaryFile((int) bytes);
+        buffer.order(ByteOrder.nativeOrder());
+
+        return new BufferElevationStorage(buffer, encoding, scale, offset, size);
+
+    }
+
+    /** Map a new temporary file in memory.
+     * @param bytes size of the file
+     * @return buffer mapped to the temporary file
+     */
+    private ByteBuffer mapTemporaryFile(final int bytes) {
+        try {
+            final File file = File.createTempFile(PREFIX, SUFFIX, directory);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(bytes);
+                // the mapping remains valid after the file has been closed
+                return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            } finally {
+                if (!file.delete()) {
+                    // some operating systems do not allow deleting mapped files
+                    file.deleteOnExit();
+                }
+            }
+        } catch (IOException ioe) {
+            throw new RuggedException(ioe, RuggedMessages.ELEVATION_STORAGE_ERROR,
+                                      directory.getAbsolutePath(), ioe.getLocalizedMessage());
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import java.util.Arrays;
+
+/** Thread-safe cache for Digital Elevation Model {@link Tile tiles}.
+ * <p>
+ * This cache can be shared between several threads, so all threads use the
+ * same set of loaded tiles instead of each thread holding its own copy of
+ * the elevations.
+ * </p>
+ * <p>
+ * Lookups do not take any lock: they use an immutable snapshot of the cached
+ * tiles and of their spatial index, which is replaced as a whole each time a
+ * tile is added or evicted.
+ * Tiles loading is serialized: when several threads miss the same tile at the
+ * same time, only the first one calls the {@link TileUpdater}, the other ones
+ * find the loaded tile when they are allowed to proceed. As a side effect, the
+ * {@link TileUpdater} is never called concurrently and does not need to be
+ * thread-safe itself.
+ * </p>
+ * <p>
+ * Eviction uses the clock algorithm, which is an approximation of the least
+ * recently used policy: each lookup merely sets a reference flag on the tile
+ * found, and eviction sweeps the tiles, clearing the flags until it finds a
+ * tile that has not been referenced since the previous sweep. Zipper tiles
+ * are managed the same way, in a separate set of cached tiles.
+ * </p>
+ * @param <T> Type of tiles.
+ * @see TilesCache
+ * @since 4.1
+ */
+public class ConcurrentTilesCache<T extends Tile> extends TilesCache<T> {
+
+    /** Lock for tiles loading. */
+    private final Object loadingLock;
+
+    /** Regular tiles. */
+    private final CachedTiles regularTiles;
+
+    /** Zipper tiles.
+     * @since 4.1
+     */
+    private final CachedTiles zipperTiles;
+
+    /** Simple constructor.
+     * <p>
+     * The zipper tiles cache has the same size as the regular tiles cache.
+     * </p>
+     * @param factory factory for creating empty tiles
+     * @param updater updater for retrieving tiles data
+     * @param maxTiles maximum number of tiles stored simultaneously in the cache
+     * @param isOverlappingTiles flag to tell if the DEM tiles are overlapping:
+     *                          true if overlapping; false otherwise.
+     */
+    public ConcurrentTilesCache(final TileFactory<T> factory, final TileUpdater updater,
+                                final int maxTiles, final boolean isOverlappingTiles) {
+        this(factory, updater, maxTiles, maxTiles, isOverlappingTiles);
+    }
+
+    /** Simple constructor.
+     * @param factory factory for creating empty tiles
+     * @param updater updater for retrieving tiles data
+     * @param maxTiles maximum number of tiles stored simultaneously in the cache
+     * @param maxZipperTiles maximum number of zipper tiles stored simultaneously in the cache
+     * (only used for Digital Elevation Models with seamless tiles)
+     * @param isOverlappingTiles flag to tell if the DEM tiles are overlapping:
+     *                          true if overlapping; false otherwise.
+     */
+    public ConcurrentTilesCache(final TileFactory<T> factory, final TileUpdater updater,
+                                final int maxTiles, final int maxZipperTiles,
+                                final boolean isOverlappingTiles) {
+        super(factory, updater, isOverlappingTiles);
+        this.loadingLock  = new Object();
+        this.regularTiles = new CachedTiles(maxTiles);
+        this.zipperTiles  = new CachedTiles(maxZipperTiles);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public T getTile(final double latitude, final double longitude) {
+
+        // lock-free search in the current snapshots
+        final T cachedTile = searchAnyTile(latitude, longitude);
+        if (cachedTile != null) {
+            return cachedTile;
+        }
+
+        synchronized (loadingLock) {
+
+            // another thread may have loaded the tile while we were waiting for the lock
+            final T loadedTile = searchAnyTile(latitude, longitude);
+            if (loadedTile != null) {
+                return loadedTile;
+            }
+
+            return loadTile(latitude, longitude);
+
+        }
+
+    }
+
+    /** Search both regular and zipper tiles.
+     * @param latitude ground point latitude (rad)
+     * @param longitude ground point longitude (rad)
+     * @return cached tile covering the ground point, or null if no cached tile covers it
+     * @since 4.1
+     */
+    private T searchAnyTile(final double latitude, final double longitude) {
+        final T cachedTile = searchTile(latitude, longitude);
+        return (cachedTile != null) ? cachedTile : searchZipperTile(latitude, longitude);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected T searchTile(final double latitude, final double longitude) {
+        return regularTiles.search(latitude, longitude);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected T searchZipperTile(final double latitude, final double longitude) {
+        return zipperTiles.search(latitude, longitude);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected T findContainingTile(final double latitude, final double longitude) {
+        return regularTiles.findContaining(latitude, longitude);
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This method must be called only while holding the loading lock.
+     * </p>
+     */
+    @Override
+    protected void storeTile(final T tile) {
+        regularTiles.store(tile);
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This method must be called only while holding the loading lock.
+     * </p>
+     */
+    @Override
+    protected void storeZipperTile(final T zipperTile) {
+        zipperTiles.store(zipperTile);
+    }
+
+    /** Set of cached tiles with clock eviction.
+     * @since 4.1
+     */
+    private class CachedTiles {
+
+        /** Maximum number of tiles stored simultaneously. */
+        private final int maxTiles;
+
+        /** Snapshot of the cached tiles (never modified once published). */
+        private volatile Snapshot<T> snapshot;
+
+        /** Position of the clock hand for eviction (guarded by {@link #loadingLock}). */
+        private int hand;
+
+        /** Simple constructor.
+         * @param maxTiles maximum number of tiles stored simultaneously
+         */
+        CachedTiles(final int maxTiles) {
+            this.maxTiles = maxTiles;
+            @SuppressWarnings("unchecked")
+            final CachedTile<T>[] empty = (CachedTile<T>[]) new CachedTile<?>[0];
+            this.snapshot = new Snapshot<>(empty);
+            this.hand     = 0;
+        }
+
+        /** Lock-free search of a tile covering a ground point.
+         * @param latitude ground point latitude (rad)
+         * @param longitude ground point longitude (rad)
+         * @return cached tile covering the ground point, or null if no cached tile covers it
+         */
+        T search(final double latitude, final double longitude) {
+            final Snapshot<T> current = snapshot;
+            CachedTile<T> cached = search(current.tiles, current.index.getCandidates(latitude, longitude),
+                                          latitude, longitude, false);
+            if (cached == null) {
+                cached = search(current.tiles, current.index.getOversized(), latitude, longitude, false);
+            }
+            if (cached == null) {
+                return null;
+            }
+            cached.markReferenced();
+            return cached.tile;
+        }
+
+        /** Lock-free search of a tile containing a ground point, including its last row and column.
+         * <p>
+         * The reference flag of the tile found is not changed.
+         * </p>
+         * @param latitude ground point latitude (rad)
+         * @param longitude ground point longitude (rad)
+         * @return cached tile containing the ground point, or null if no cached tile contains it
+         */
+        T findContaining(final double latitude, final double longitude) {
+            final Snapshot<T> current = snapshot;
+            CachedTile<T> cached = search(current.tiles, current.index.getCandidates(latitude, longitude),
+                                          latitude, longitude, true);
+            if (cached == null) {
+                cached = search(current.tiles, current.index.getOversized(), latitude, longitude, true);
+            }
+            return (cached == null) ? null : cached.tile;
+        }
+
+        /** Search a tile matching a ground point among candidates.
+         * @param cachedTiles cached tiles
+         * @param candidates slots of the candidate tiles
+         * @param latitude ground point latitude (rad)
+         * @param longitude ground point longitude (rad)
+         * @param containment if true, look for a tile {@link TilesCache#contains(Tile, double, double)
+         * containing} the point, otherwise look for a tile covering it
+         * @return first matching tile, or null if no tile matches
+         */
+        private CachedTile<T> search(final CachedTile<T>[] cachedTiles, final int[] candidates,
+                                     final double latitude, final double longitude,
+                                     final boolean containment) {
+            for (final int slot : candidates) {
+                final CachedTile<T> cached = cachedTiles[slot];
+                if (containment ?
+                    contains(cached.tile, latitude, longitude) :
+                    cached.tile.getLocation(latitude, longitude) == Tile.Location.HAS_INTERPOLATION_NEIGHBORS) {
+                    return cached;
+                }
+            }
+            return null;
+        }
+
+        /** Store a tile.
+         * <p>
+         * This method must be called only while holding the loading lock.
+         * </p>
+         * @param tile tile to store
+         */
+        void store(final T tile) {
+
+            final CachedTile<T>[] current = snapshot.tiles;
+            final CachedTile<T>[] updated;
+            if (current.length < maxTiles) {
+                // there is still room in the cache
+                updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = new CachedTile<>(tile);
+            } else {
+                // evict the first tile not pinned and not referenced since the previous sweep
+                // (pinned tiles are skipped, so at most two sweeps are needed)
+                int remaining = 2 * current.length;
+                while (remaining > 0 && (current[hand].clearReferenced() || isPinned(current[hand].tile))) {
+                    hand = (hand + 1) % current.length;
+                    --remaining;
+                }
+                if (remaining == 0) {
+                    // all tiles are pinned, the new tile cannot be cached
+                    return;
+                }
+                updated = current.clone();
+                updated[hand] = new CachedTile<>(tile);
+                hand = (hand + 1) % current.length;
+            }
+
+            // publish the new snapshot
+            snapshot = new Snapshot<>(updated);
+
+        }
+
+    }
+
+    /** Immutable snapshot of cached tiles, with their spatial index.
+     * @param <T> Type of tiles.
+     * @since 4.1
+     */
+    private static class Snapshot<T extends Tile> {
+
+        /** Cached tiles. */
+        private final CachedTile<T>[] tiles;
+
+        /** Spatial index of the cached tiles. */
+        private final TileGridIndex index;
+
+        /** Simple constructor.
+         * @param tiles cached tiles
+         */
+        Snapshot(final CachedTile<T>[] tiles) {
+            this.tiles = tiles;
+            this.index = new TileGridIndex(tiles.length);
+            final Tile[] all = new Tile[tiles.length];
+            for (int slot = 0; slot < tiles.length; ++slot) {
+                all[slot] = tiles[slot].tile;
+            }
+            index.addAll(all);
+        }
+
+    }
+
+    /** Container for one cached tile.
+     * @param <T> Type of tiles.
+     */
+    private static class CachedTile<T extends Tile> {
+
+        /** Cached tile. */
+        private final T tile;
+
+        /** Reference flag for the clock eviction algorithm. */
+        private volatile boolean referenced;
+
+        /** Simple constructor.
+         * @param tile cached tile
+         */
+        CachedTile(final T tile) {
+            this.tile       = tile;
+            this.referenced = true;
+        }
+
+        /** Mark the tile as referenced.
+         */
+        void markReferenced() {
+            // avoid writing to memory shared with other cores if not needed
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        /** Clear the reference flag.
+         * @return value of the flag before clearing
+         */
+        boolean clearReferenced() {
+            final boolean wasReferenced = referenced;
+            referenced = false;
+            return wasReferenced;
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import java.nio.ByteBuffer;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.util.FastMath;
+import org.orekit.rugged.errors.RuggedException;
+
+/** Enumerate for elevations encodings in byte buffers.
+ * @see BufferElevationStorage
+ * @since 4.1
+ */
+public enum ElevationEncoding {
+
+    /** Elevations stored as 64 bits floating point numbers (no loss of accuracy).
+     * <p>
+     * Scale and offset are ignored by this encoding.
+     * </p>
+     */
+    DOUBLE(Double.BYTES) {
+
+        /** {@inheritDoc} */
+        @Override
+        public double decode(final ByteBuffer buffer, final int index,
+                             final double scale, final double offset) {
+            return buffer.getDouble(index * Double.BYTES);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void encode(final ByteBuffer buffer, final int index, final double elevation,
+                           final double scale, final double offset) {
+            buffer.putDouble(index * Double.BYTES, elevation);
+        }
+
+    },
+
+    /** Elevations stored as 32 bits floating point numbers.
+     * <p>
+     * The accuracy is better than one millimeter for all elevations on Earth.
+     * Scale and offset are ignored by this encoding.
+     * </p>
+     */
+    FLOAT(Float.BYTES) {
+
+        /** {@inheritDoc} */
+        @Override
+        public double decode(final ByteBuffer buffer, final int index,
+                             final double scale, final double offset) {
+            return buffer.getFloat(index * Float.BYTES);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void encode(final ByteBuffer buffer, final int index, final double elevation,
+                           final double scale, final double offset) {
+            buffer.putFloat(index * Float.BYTES, (float) elevation);
+        }
+
+    },
+
+    /** Elevations stored as 16 bits integers, with scale and offset.
+     * <p>
+     * The elevation is {@code offset + scale * n}, where n is the stored
+     * integer. The lowest 16 bits integer is reserved for {@code Double.NaN}.
+     * </p>
+     */
+    SHORT(Short.BYTES) {
+
+        /** {@inheritDoc} */
+        @Override
+        public double decode(final ByteBuffer buffer, final int index,
+                             final double scale, final double offset) {
+            final short n = buffer.getShort(index * Short.BYTES);
+            return n == Short.MIN_VALUE ? Double.NaN : offset + scale * n;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void encode(final ByteBuffer buffer, final int index, final double elevation,
+                           final double scale, final double offset) {
+            final short n;
+            if (Double.isNaN(elevation)) {
+                n = Short.MIN_VALUE;
+            } else {
+                final long rounded = FastMath.round((elevation - offset) / scale);
+                if (rounded <= Short.MIN_VALUE || rounded > Short.MAX_VALUE) {
+                    throw new RuggedException(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, elevation,
+                                              offset + scale * (Short.MIN_VALUE + 1),
+                                              offset + scale * Short.MAX_VALUE);
+                }
+                n = (short) rounded;
+            }
+            buffer.putShort(index * Short.BYTES, n);
+        }
+
+    };
+
+    /** Number of bytes used for each elevation. */
+    private final int bytes;
+
+    /** Simple constructor.
+     * @param bytes number of bytes used for each elevation
+     */
+    ElevationEncoding(final int bytes) {
+        this.bytes = bytes;
+    }
+
+    /** Get the number of bytes used for each elevation.
+     * @return number of bytes used for each elevation
+     */
+    public int getBytes() {
+        return bytes;
+    }
+
+    /** Decode one elevation.
+     * @param buffer buffer containing the encoded elevations
+     * @param index index of the elevation
+     * @param scale scale factor between stored values and elevations
+     * @param offset offset between stored values and elevations
+     * @return decoded elevation (m)
+     */
+    public abstract double decode(ByteBuffer buffer, int index, double scale, double offset);
+
+    /** Encode one elevation.
+     * @param buffer buffer containing the encoded elevations
+     * @param index index of the elevation
+     * @param elevation elevation to encode (m)
+     * @param scale scale factor between stored values and elevations
+     * @param offset offset between stored values and elevations
+     */
+    public abstract void encode(ByteBuffer buffer, int index, double elevation, double scale, double offset);
+
+}
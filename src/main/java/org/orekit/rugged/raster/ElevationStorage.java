@@ -0,0 +1,93 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+/** Interface for storing the elevations of a tile.
+ * <p>
+ * The elevations are stored in a one-dimensional array-like container,
+ * with row-major ordering (i.e. the index of an elevation is
+ * {@code latitudeIndex * longitudeColumns + longitudeIndex}).
+ * </p>
+ * @see ElevationStorageFactory
+ * @since 4.1
+ */
+public interface ElevationStorage {
+
+    /** Get the number of elevations stored.
+     * @return number of elevations stored
+     */
+    int getSize();
+
+    /** Get one elevation.
+     * @param index index of the elevation
+     * @return elevation (m), {@code Double.NaN} if it was never set
+     */
+    double getElevation(int index);
+
+    /** Set one elevation.
+     * @param index index of the elevation
+     * @param elevation elevation (m)
+     */
+    void setElevation(int index, double elevation);
+
+    /** Set several consecutive elevations.
+     * <p>
+     * The default implementation calls {@link #setElevation(int, double)}
+     * for each elevation.
+     * </p>
+     * @param index index of the first elevation to set
+     * @param source source elevations (m)
+     * @param offset index of the first elevation in the source array
+     * @param length number of elevations to set
+     */
+    default void setElevations(final int index, final double[] source, final int offset, final int length) {
+        for (int i = 0; i < length; ++i) {
+            setElevation(index + i, source[offset + i]);
+        }
+    }
+
+    /** Get the encoding of the elevations.
+     * <p>
+     * The default implementation returns {@link ElevationEncoding#DOUBLE}.
+     * </p>
+     * @return encoding of the elevations
+     */
+    default ElevationEncoding getEncoding() {
+        return ElevationEncoding.DOUBLE;
+    }
+
+    /** Get the scale factor between stored values and elevations.
+     * <p>
+     * The default implementation returns 1.0.
+     * </p>
+     * @return scale factor between stored values and elevations
+     */
+    default double getScale() {
+        return 1.0;
+    }
+
+    /** Get the offset between stored values and elevations.
+     * <p>
+     * The default implementation returns 0.0.
+     * </p>
+     * @return offset between stored values and elevations
+     */
+    default double getOffset() {
+        return 0.0;
+    }
+
+}
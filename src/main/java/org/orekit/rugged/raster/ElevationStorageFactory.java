@@ -0,0 +1,34 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+/** Interface representing a factory for tiles elevations storage.
+ * @see ElevationStorage
+ * @since 4.1
+ */
+public interface ElevationStorageFactory {
+
+    /** Create a storage for elevations.
+     * <p>
+     * All elevations in the new storage must be initialized to {@code Double.NaN}.
+     * </p>
+     * @param size number of elevations to store
+     * @return a new storage
+     */
+    ElevationStorage createStorage(int size);
+
+}
@@ -0,0 +1,219 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.util.FastMath;
+import org.orekit.rugged.errors.RuggedException;
+import org.orekit.rugged.errors.RuggedMessages;
+import org.orekit.rugged.utils.MaxSelector;
+
+/** Tile updater computing low resolution overviews of a Digital Elevation Model.
+ * <p>
+ * An overview tile covers exactly the same area as the full resolution tile
+ * it is computed from, with roughly {@code factor} times fewer rows and columns.
+ * Each overview elevation is the maximum of the full resolution elevations in
+ * all the overview cells surrounding it. This implies that in each overview
+ * cell, the four corners are above all the full resolution elevations of the
+ * cell, so the interpolated overview surface is everywhere above (or at) the
+ * interpolated full resolution surface. A line-of-sight cannot reach the full
+ * resolution terrain before it reaches the overview surface, which allows
+ * intersection algorithms to skip full resolution tiles where the line-of-sight
+ * remains above the overview surface.
+ * </p>
+ * <p>
+ * This updater computes overviews on the fly, by loading full resolution tiles
+ * in a temporary raster that is released as soon as the overview has been computed.
+ * Full resolution data is therefore still read in full for each overview tile, only
+ * the full resolution tiles caching and min/max kd-trees construction are restricted
+ * to the areas where lines-of-sight actually come close to the terrain. In order to
+ * avoid reading full resolution data elsewhere, overviews should rather be provided
+ * by user-defined updaters reading precomputed overviews (for example from pyramids
+ * built once for all), as long as they fulfill the same property of being above
+ * the full resolution surface.
+ * </p>
+ * @see org.orekit.rugged.api.RuggedBuilder#setDigitalElevationModelOverview(TileUpdater, int)
+ * @since 4.1
+ */
+public class OverviewTileUpdater implements TileUpdater {
+
+    /** Updater for full resolution tiles. */
+    private final TileUpdater fullResolutionUpdater;
+
+    /** Reduction factor between full resolution and overview. */
+    private final int factor;
+
+    /** Simple constructor.
+     * @param fullResolutionUpdater updater for full resolution tiles
+     * @param factor reduction factor between full resolution and overview
+     * (approximate number of full resolution cells in each overview cell
+     * along latitude and longitude, must be at least 2)
+     */
+    public OverviewTileUpdater(final TileUpdater fullResolutionUpdater, final int factor) {
+        if (factor < 2) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL, factor, 2);
+        }
+        this.fullResolutionUpdater = fullResolutionUpdater;
+        this.factor                = factor;
+    }
+
+    /** Get the reduction factor between full resolution and overview.
+     * @return reduction factor between full resolution and overview
+     */
+    public int getFactor() {
+        return factor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateTile(final double latitude, final double longitude, final UpdatableTile tile) {
+
+        // load full resolution tile
+        final RawTile raw = new RawTile();
+        fullResolutionUpdater.updateTile(latitude, longitude, raw);
+
+        // overview geometry, covering the same area as the full resolution tile
+        final int    rows            = overviewSize(raw.latitudeRows);
+        final int    columns         = overviewSize(raw.longitudeColumns);
+        final double latitudeRatio   = ratio(raw.latitudeRows, rows);
+        final double longitudeRatio  = ratio(raw.longitudeColumns, columns);
+        tile.setGeometry(raw.minLatitude, raw.minLongitude,
+                         raw.latitudeStep * latitudeRatio, raw.longitudeStep * longitudeRatio,
+                         rows, columns);
+
+        // maximum elevations over the surrounding overview columns, for each full resolution row
+        final MaxSelector selector = MaxSelector.getInstance();
+        final double[] rowsMax = new double[raw.latitudeRows * columns];
+        for (int i = 0; i < raw.latitudeRows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                final int jMin = lowerIndex(j, longitudeRatio);
+                final int jMax = upperIndex(j, longitudeRatio, raw.longitudeColumns);
+                double max = Double.NaN;
+                for (int k = jMin; k <= jMax; ++k) {
+                    max = selector.select(max, raw.elevations[i * raw.longitudeColumns + k]);
+                }
+                rowsMax[i * columns + j] = max;
+            }
+        }
+
+        // maximum elevations over the surrounding overview rows
+        for (int i = 0; i < rows; ++i) {
+            final int iMin = lowerIndex(i, latitudeRatio);
+            final int iMax = upperIndex(i, latitudeRatio, raw.latitudeRows);
+            for (int j = 0; j < columns; ++j) {
+                double max = Double.NaN;
+                for (int k = iMin; k <= iMax; ++k) {
+                    max = selector.select(max, rowsMax[k * columns + j]);
+                }
+                tile.setElevation(i, j, max);
+            }
+        }
+
+    }
+
+    /** Compute the overview size along one direction.
+     * @param fullResolutionSize full resolution size
+     * @return overview size
+     */
+    private int overviewSize(final int fullResolutionSize) {
+        return (fullResolutionSize + factor - 2) / factor + 1;
+    }
+
+    /** Compute the ratio between overview step and full resolution step.
+     * @param fullResolutionSize full resolution size
+     * @param overviewSize overview size
+     * @return ratio between overview step and full resolution step
+     */
+    private double ratio(final int fullResolutionSize, final int overviewSize) {
+        return overviewSize < 2 ? 1.0 : ((double) (fullResolutionSize - 1)) / (overviewSize - 1);
+    }
+
+    /** Get the lowest full resolution index surrounding an overview index.
+     * @param index overview index
+     * @param ratio ratio between overview step and full resolution step
+     * @return lowest full resolution index in the overview cells surrounding index
+     */
+    private int lowerIndex(final int index, final double ratio) {
+        return FastMath.max(0, (int) FastMath.floor((index - 1) * ratio));
+    }
+
+    /** Get the highest full resolution index surrounding an overview index.
+     * @param index overview index
+     * @param ratio ratio between overview step and full resolution step
+     * @param fullResolutionSize full resolution size
+     * @return highest full resolution index in the overview cells surrounding index
+     */
+    private int upperIndex(final int index, final double ratio, final int fullResolutionSize) {
+        return FastMath.min(fullResolutionSize - 1, (int) FastMath.ceil((index + 1) * ratio));
+    }
+
+    /** Temporary raster for full resolution elevations. */
+    private static class RawTile implements UpdatableTile {
+
+        /** Minimum latitude. */
+        private double minLatitude;
+
+        /** Minimum longitude. */
+        private double minLongitude;
+
+        /** Step in latitude. */
+        private double latitudeStep;
+
+        /** Step in longitude. */
+        private double longitudeStep;
+
+        /** Number of latitude rows. */
+        private int latitudeRows;
+
+        /** Number of longitude columns. */
+        private int longitudeColumns;
+
+        /** Elevations. */
+        private double[] elevations;
+
+        /** {@inheritDoc} */
+        @Override
+        public void setGeometry(final double newMinLatitude, final double newMinLongitude,
+                                final double newLatitudeStep, final double newLongitudeStep,
+                                final int newLatitudeRows, final int newLongitudeColumns) {
+            if (newLatitudeRows < 1 || newLongitudeColumns < 1) {
+                throw new RuggedException(RuggedMessages.EMPTY_TILE, newLatitudeRows, newLongitudeColumns);
+            }
+            this.minLatitude      = newMinLatitude;
+            this.minLongitude     = newMinLongitude;
+            this.latitudeStep     = newLatitudeStep;
+            this.longitudeStep    = newLongitudeStep;
+            this.latitudeRows     = newLatitudeRows;
+            this.longitudeColumns = newLongitudeColumns;
+            this.elevations       = new double[newLatitudeRows * newLongitudeColumns];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void setElevation(final int latitudeIndex, final int longitudeIndex, final double elevation) {
+            if (latitudeIndex  < 0 || latitudeIndex  > (latitudeRows - 1) ||
+                longitudeIndex < 0 || longitudeIndex > (longitudeColumns - 1)) {
+                throw new RuggedException(RuggedMessages.OUT_OF_TILE_INDICES,
+                                          latitudeIndex, longitudeIndex,
+                                          latitudeRows - 1, longitudeColumns - 1);
+            }
+            elevations[latitudeIndex * longitudeColumns + longitudeIndex] = elevation;
+        }
+
+    }
+
+}
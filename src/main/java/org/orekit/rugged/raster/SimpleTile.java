@@ -16,8 +16,11 @@
  */
 package org.orekit.rugged.raster;
 
-import java.util.Arrays;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
 import org.hipparchus.util.Precision;
@@ -30,6 +33,11 @@ import org.orekit.rugged.utils.NormalizedGeodeticPoint;
 
 
 /** Simple implementation of a {@link Tile}.
+ * <p>
+ * By default, the elevations are stored in a Java heap array. Other
+ * storages can be used by providing an {@link ElevationStorageFactory}
+ * at construction (since 4.1).
+ * </p>
  * @see SimpleTileFactory
  * @author Luc Maisonobe
  * @author Guylaine Prat
@@ -75,15 +83,32 @@ public class SimpleTile implements Tile {
     /** Longitude index of max elevation. */
     private int maxElevationLongitudeIndex;
 
-    /** Elevation array. */
-    private double[] elevations;
+    /** Factory for elevations storage.
+     * @since 4.1
+     */
+    private final ElevationStorageFactory storageFactory;
+
+    /** Elevations storage. */
+    private ElevationStorage elevations;
 
     /** Simple constructor.
      * <p>
-     * Creates an empty tile.
+     * Creates an empty tile, with elevations stored in a Java heap array.
      * </p>
      */
     protected SimpleTile() {
+        this(ArrayElevationStorage::new);
+    }
+
+    /** Simple constructor.
+     * <p>
+     * Creates an empty tile.
+     * </p>
+     * @param storageFactory factory for elevations storage
+     * @since 4.1
+     */
+    protected SimpleTile(final ElevationStorageFactory storageFactory) {
+        this.storageFactory = storageFactory;
     }
 
     /** {@inheritDoc} */
@@ -107,8 +132,7 @@ public class SimpleTile implements Tile {
         if (newLatitudeRows < 1 || newLongitudeColumns < 1) {
             throw new RuggedException(RuggedMessages.EMPTY_TILE, newLatitudeRows, newLongitudeColumns);
         }
-        this.elevations = new double[newLatitudeRows * newLongitudeColumns];
-        Arrays.fill(elevations, Double.NaN);
+        this.elevations = storageFactory.createStorage(newLatitudeRows * newLongitudeColumns);
 
     }
 
@@ -118,13 +142,31 @@ public class SimpleTile implements Tile {
         processUpdatedElevation(elevations);
     }
 
-    /** Process elevation array at completion.
+    /** Process elevation storage at completion.
      * <p>
      * This method is called at tile update completion, it is
      * expected to be overridden by subclasses. The default
-     * implementation does nothing.
+     * implementation calls {@link #processUpdatedElevation(double[])}
+     * if the elevations are stored in a Java heap array, and does
+     * nothing otherwise.
+     * </p>
+     * @param storage elevations storage
+     * @since 4.1
+     */
+    protected void processUpdatedElevation(final ElevationStorage storage) {
+        if (storage instanceof ArrayElevationStorage) {
+            processUpdatedElevation(((ArrayElevationStorage) storage).getElevations());
+        }
+    }
+
+    /** Process elevation array at completion.
+     * <p>
+     * This method is called at tile update completion when elevations
+     * are stored in a Java heap array, it is expected to be overridden
+     * by subclasses. The default implementation does nothing.
      * </p>
      * @param elevationsArray elevations array
+     * @see #processUpdatedElevation(ElevationStorage)
      */
     protected void processUpdatedElevation(final double[] elevationsArray) {
         // do nothing by default
@@ -236,23 +278,224 @@ public class SimpleTile implements Tile {
                                       latitudeIndex, longitudeIndex,
                                       latitudeRows - 1, longitudeColumns - 1);
         }
-        if (MinSelector.getInstance().selectFirst(elevation, minElevation)) {
-            minElevation               = elevation;
+        final int index = latitudeIndex * getLongitudeColumns() + longitudeIndex;
+        elevations.setElevation(index, elevation);
+
+        // extrema are updated from the stored value, which may have been rounded by the storage encoding
+        final double stored = elevations.getElevation(index);
+        if (MinSelector.getInstance().selectFirst(stored, minElevation)) {
+            minElevation               = stored;
             minElevationLatitudeIndex  = latitudeIndex;
             minElevationLongitudeIndex = longitudeIndex;
         }
-        if (MaxSelector.getInstance().selectFirst(elevation, maxElevation)) {
-            maxElevation               = elevation;
+        if (MaxSelector.getInstance().selectFirst(stored, maxElevation)) {
+            maxElevation               = stored;
             maxElevationLatitudeIndex  = latitudeIndex;
             maxElevationLongitudeIndex = longitudeIndex;
         }
-        elevations[latitudeIndex * getLongitudeColumns() + longitudeIndex] = elevation;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This implementation checks the block indices only once, updates
+     * the tile minimum and maximum elevations in a single pass over
+     * each row, and transfers each row as a whole to the elevations storage.
+     * </p>
+     */
+    @Override
+    public void setElevations(final int latitudeIndex, final int longitudeIndex,
+                              final int rows, final int columns,
+                              final double[] source, final int offset) {
+        checkBlock(latitudeIndex, longitudeIndex, rows, columns, source.length - offset);
+        for (int i = 0; i < rows; ++i) {
+            setRow(latitudeIndex + i, longitudeIndex, source, offset + i * columns, columns);
+        }
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This implementation checks the block indices only once, updates
+     * the tile minimum and maximum elevations in a single pass over
+     * each row, and transfers each row as a whole to the elevations storage.
+     * </p>
+     */
+    @Override
+    public void setElevations(final int latitudeIndex, final int longitudeIndex,
+                              final int rows, final int columns,
+                              final float[] source, final int offset) {
+        checkBlock(latitudeIndex, longitudeIndex, rows, columns, source.length - offset);
+        final double[] row = new double[columns];
+        for (int i = 0; i < rows; ++i) {
+            final int start = offset + i * columns;
+            for (int j = 0; j < columns; ++j) {
+                row[j] = source[start + j];
+            }
+            setRow(latitudeIndex + i, longitudeIndex, row, 0, columns);
+        }
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This implementation checks the block indices only once, updates
+     * the tile minimum and maximum elevations in a single pass over
+     * each row, and transfers each row as a whole to the elevations storage.
+     * </p>
+     */
+    @Override
+    public void setElevations(final int latitudeIndex, final int longitudeIndex,
+                              final int rows, final int columns,
+                              final short[] source, final int offset) {
+        checkBlock(latitudeIndex, longitudeIndex, rows, columns, source.length - offset);
+        final double[] row = new double[columns];
+        for (int i = 0; i < rows; ++i) {
+            final int start = offset + i * columns;
+            for (int j = 0; j < columns; ++j) {
+                row[j] = source[start + j];
+            }
+            setRow(latitudeIndex + i, longitudeIndex, row, 0, columns);
+        }
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This implementation checks the block indices only once, updates
+     * the tile minimum and maximum elevations in a single pass over
+     * each row, and transfers each row as a whole to the elevations storage.
+     * </p>
+     */
+    @Override
+    public void setElevations(final int latitudeIndex, final int longitudeIndex,
+                              final int rows, final int columns,
+                              final DoubleBuffer source) {
+        checkBlock(latitudeIndex, longitudeIndex, rows, columns, source.remaining());
+        final double[] row = new double[columns];
+        for (int i = 0; i < rows; ++i) {
+            source.get(row);
+            setRow(latitudeIndex + i, longitudeIndex, row, 0, columns);
+        }
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This implementation checks the block indices only once, updates
+     * the tile minimum and maximum elevations in a single pass over
+     * each row, and transfers each row as a whole to the elevations storage.
+     * </p>
+     */
+    @Override
+    public void setElevations(final int latitudeIndex, final int longitudeIndex,
+                              final int rows, final int columns,
+                              final FloatBuffer source) {
+        checkBlock(latitudeIndex, longitudeIndex, rows, columns, source.remaining());
+        final float[]  raw = new float[columns];
+        final double[] row = new double[columns];
+        for (int i = 0; i < rows; ++i) {
+            source.get(raw);
+            for (int j = 0; j < columns; ++j) {
+                row[j] = raw[j];
+            }
+            setRow(latitudeIndex + i, longitudeIndex, row, 0, columns);
+        }
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * This implementation checks the block indices only once, updates
+     * the tile minimum and maximum elevations in a single pass over
+     * each row, and transfers each row as a whole to the elevations storage.
+     * </p>
+     */
+    @Override
+    public void setElevations(final int latitudeIndex, final int longitudeIndex,
+                              final int rows, final int columns,
+                              final ShortBuffer source) {
+        checkBlock(latitudeIndex, longitudeIndex, rows, columns, source.remaining());
+        final short[]  raw = new short[columns];
+        final double[] row = new double[columns];
+        for (int i = 0; i < rows; ++i) {
+            source.get(raw);
+            for (int j = 0; j < columns; ++j) {
+                row[j] = raw[j];
+            }
+            setRow(latitudeIndex + i, longitudeIndex, row, 0, columns);
+        }
+    }
+
+    /** Check a block of raster elements lies within the tile.
+     * @param latitudeIndex index of latitude of the first row of the block
+     * @param longitudeIndex index of longitude of the first column of the block
+     * @param rows number of rows in the block
+     * @param columns number of columns in the block
+     * @param available number of elevations available in the source
+     * @since 4.1
+     */
+    private void checkBlock(final int latitudeIndex, final int longitudeIndex,
+                            final int rows, final int columns, final int available) {
+        if (rows < 0 || columns < 0 ||
+            latitudeIndex  < 0 || latitudeIndex  + rows    > latitudeRows ||
+            longitudeIndex < 0 || longitudeIndex + columns > longitudeColumns) {
+            throw new RuggedException(RuggedMessages.OUT_OF_TILE_INDICES,
+                                      latitudeIndex + rows - 1, longitudeIndex + columns - 1,
+                                      latitudeRows - 1, longitudeColumns - 1);
+        }
+        if (available < rows * columns) {
+            throw new RuggedException(LocalizedCoreFormats.DIMENSIONS_MISMATCH, available, rows * columns);
+        }
+    }
+
+    /** Set the elevations for one row of a block.
+     * <p>
+     * The indices must have been checked beforehand.
+     * </p>
+     * @param latitudeIndex index of latitude of the row
+     * @param longitudeIndex index of longitude of the first column
+     * @param source source elevations (m)
+     * @param start index of the first elevation in the source array
+     * @param count number of elevations in the row
+     * @since 4.1
+     */
+    private void setRow(final int latitudeIndex, final int longitudeIndex,
+                        final double[] source, final int start, final int count) {
+
+        final int first = latitudeIndex * longitudeColumns + longitudeIndex;
+        elevations.setElevations(first, source, start, count);
+
+        // single pass for row extrema, on the stored values which may have been
+        // rounded by the storage encoding (NaN elevations are ignored as they never compare)
+        double rowMin = Double.POSITIVE_INFINITY;
+        double rowMax = Double.NEGATIVE_INFINITY;
+        int    jMin   = -1;
+        int    jMax   = -1;
+        for (int j = 0; j < count; ++j) {
+            final double elevation = elevations.getElevation(first + j);
+            if (elevation < rowMin) {
+                rowMin = elevation;
+                jMin   = j;
+            }
+            if (elevation > rowMax) {
+                rowMax = elevation;
+                jMax   = j;
+            }
+        }
+
+        // keep the first occurrence of extrema only if they improve the tile ones
+        if (jMin >= 0 && MinSelector.getInstance().selectFirst(rowMin, minElevation)) {
+            minElevation               = rowMin;
+            minElevationLatitudeIndex  = latitudeIndex;
+            minElevationLongitudeIndex = longitudeIndex + jMin;
+        }
+        if (jMax >= 0 && MaxSelector.getInstance().selectFirst(rowMax, maxElevation)) {
+            maxElevation               = rowMax;
+            maxElevationLatitudeIndex  = latitudeIndex;
+            maxElevationLongitudeIndex = longitudeIndex + jMax;
+        }
+
     }
 
     /** {@inheritDoc} */
     @Override
     public double getElevationAtIndices(final int latitudeIndex, final int longitudeIndex) {
-        final double elevation = elevations[latitudeIndex * getLongitudeColumns() + longitudeIndex];
+        final double elevation = elevations.getElevation(latitudeIndex * getLongitudeColumns() + longitudeIndex);
         DumpManager.dumpTileCell(this, latitudeIndex, longitudeIndex, elevation);
         return elevation;
     }
@@ -21,10 +21,33 @@ package org.orekit.rugged.raster;
  */
 public class SimpleTileFactory implements TileFactory<SimpleTile> {
 
+    /** Factory for elevations storage (null for the default heap storage).
+     * @since 4.1
+     */
+    private final ElevationStorageFactory storageFactory;
+
+    /** Simple constructor.
+     * <p>
+     * The elevations of the tiles created are stored in Java heap arrays.
+     * </p>
+     */
+    public SimpleTileFactory() {
+        this(null);
+    }
+
+    /** Simple constructor.
+     * @param storageFactory factory for elevations storage
+     * (null for the default Java heap arrays)
+     * @since 4.1
+     */
+    public SimpleTileFactory(final ElevationStorageFactory storageFactory) {
+        this.storageFactory = storageFactory;
+    }
+
     /** {@inheritDoc} */
     @Override
     public SimpleTile createTile() {
-        return new SimpleTile();
+        return storageFactory == null ? new SimpleTile() : new SimpleTile(storageFactory);
     }
 
 }
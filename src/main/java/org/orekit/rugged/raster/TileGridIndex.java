@@ -0,0 +1,419 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import java.util.Arrays;
+
+import org.hipparchus.util.FastMath;
+
+/** Spatial index of cached {@link Tile tiles}, for constant time lookup.
+ * <p>
+ * The index is a hash table on a regular latitude/longitude grid. Each tile is
+ * registered in all the grid cells it overlaps (with a margin of one tile step),
+ * so looking up a ground point only requires checking the few tiles registered
+ * in the grid cell containing the point, regardless of the number of cached tiles.
+ * The grid cell size is set from the median size of the registered tiles, so it
+ * follows the regular tiles geometry of the Digital Elevation Model even if the
+ * first tiles registered are truncated edge tiles or unusually large tiles. When
+ * tiles are registered one at a time, the median is computed again only when most
+ * registered tiles do not fit the current cell size anymore and their number has
+ * at least doubled since the cells were last sized, so registering a tile has a
+ * constant amortized cost. Tiles that would be registered in too many cells (for
+ * example a single tile much larger than the other ones) are kept aside in a list
+ * that is checked for all ground points.
+ * </p>
+ * <p>
+ * Tiles are identified by their slot in the caller cache, the index does not
+ * manage any recently used status. It does not support removal either, callers
+ * register the remaining tiles again {@link #addAll(Tile[]) all at once} when a
+ * tile is evicted, which occurs only when a new tile is loaded.
+ * </p>
+ * @since 4.1
+ */
+class TileGridIndex {
+
+    /** Maximum number of grid cells in which a tile is registered. */
+    private static final int MAX_CELLS_PER_TILE = 16;
+
+    /** Maximum ratio between tile size and grid cell size for a tile to fit the grid. */
+    private static final double MAX_SIZE_RATIO = 2.0;
+
+    /** Empty set of slots. */
+    private static final int[] NO_SLOTS = new int[0];
+
+    /** Grid cell size in latitude (rad, NaN if not set yet). */
+    private double cellLatitudeSize;
+
+    /** Grid cell size in longitude (rad, NaN if not set yet). */
+    private double cellLongitudeSize;
+
+    /** Hash table keys (grid cells indices). */
+    private long[] keys;
+
+    /** Hash table values (slots of tiles registered in grid cells, null for empty entries). */
+    private int[][] slots;
+
+    /** Number of used hash table entries. */
+    private int used;
+
+    /** Slots of tiles too large to be registered in grid cells. */
+    private int[] oversized;
+
+    /** Registered tiles. */
+    private Tile[] tiles;
+
+    /** Slots of the registered tiles. */
+    private int[] tilesSlots;
+
+    /** Number of registered tiles. */
+    private int nbTiles;
+
+    /** Number of registered tiles that do not fit the grid cell size. */
+    private int misfits;
+
+    /** Number of registered tiles when the grid cell size was last computed. */
+    private int sizedTiles;
+
+    /** Simple constructor.
+     * @param expectedTiles expected number of registered tiles
+     */
+    TileGridIndex(final int expectedTiles) {
+        int size = 16;
+        while (size < 8 * expectedTiles) {
+            size <<= 1;
+        }
+        this.cellLatitudeSize  = Double.NaN;
+        this.cellLongitudeSize = Double.NaN;
+        this.keys              = new long[size];
+        this.slots             = new int[size][];
+        this.used              = 0;
+        this.oversized         = NO_SLOTS;
+        this.tiles             = new Tile[FastMath.max(1, expectedTiles)];
+        this.tilesSlots        = new int[tiles.length];
+        this.nbTiles           = 0;
+        this.misfits           = 0;
+        this.sizedTiles        = 0;
+    }
+
+    /** Remove all tiles from the index.
+     * <p>
+     * The grid cell size is preserved.
+     * </p>
+     */
+    void clear() {
+        clearCells();
+        Arrays.fill(tiles, 0, nbTiles, null);
+        nbTiles    = 0;
+        misfits    = 0;
+        sizedTiles = 0;
+    }
+
+    /** Remove all tiles from the index and register a new set of tiles.
+     * <p>
+     * The grid cell size is computed once from all the tiles before they are
+     * registered, so this is more efficient than calling {@link #clear()} and
+     * then {@link #add(int, Tile)} for each tile.
+     * </p>
+     * @param all tiles to register, indexed by their slot in the caller cache
+     * (null elements correspond to empty slots)
+     */
+    void addAll(final Tile[] all) {
+        clear();
+        for (int slot = 0; slot < all.length; ++slot) {
+            if (all[slot] != null) {
+                remember(slot, all[slot]);
+            }
+        }
+        sizeCells();
+        for (int k = 0; k < nbTiles; ++k) {
+            register(tilesSlots[k], tiles[k]);
+        }
+    }
+
+    /** Register a tile.
+     * @param slot slot of the tile in the caller cache
+     * @param tile tile to register
+     */
+    void add(final int slot, final Tile tile) {
+
+        remember(slot, tile);
+
+        if (hasValidSize(tile)) {
+            if (Double.isNaN(cellLatitudeSize)) {
+                // first tile with a valid size, it sets up the grid
+                cellLatitudeSize  = tile.getLatitudeRows()     * tile.getLatitudeStep();
+                cellLongitudeSize = tile.getLongitudeColumns() * tile.getLongitudeStep();
+                sizedTiles        = nbTiles;
+            } else if (!fitsCells(tile)) {
+                ++misfits;
+                if (2 * misfits > nbTiles && nbTiles >= 2 * sizedTiles) {
+                    // most tiles do not fit the grid anymore, it must be sized again
+                    sizeCells();
+                    clearCells();
+                    for (int k = 0; k < nbTiles; ++k) {
+                        register(tilesSlots[k], tiles[k]);
+                    }
+                    return;
+                }
+            }
+        }
+
+        register(slot, tile);
+
+    }
+
+    /** Remember a registered tile, without registering it in grid cells.
+     * @param slot slot of the tile in the caller cache
+     * @param tile registered tile
+     */
+    private void remember(final int slot, final Tile tile) {
+        if (nbTiles == tiles.length) {
+            tiles      = Arrays.copyOf(tiles,      2 * tiles.length);
+            tilesSlots = Arrays.copyOf(tilesSlots, 2 * tilesSlots.length);
+        }
+        tiles[nbTiles]      = tile;
+        tilesSlots[nbTiles] = slot;
+        ++nbTiles;
+    }
+
+    /** Set the grid cell size from the median size of the registered tiles.
+     * <p>
+     * If no registered tile has a valid size, the grid cell size is not changed.
+     * </p>
+     */
+    private void sizeCells() {
+
+        final double[] latitudeSizes  = new double[nbTiles];
+        final double[] longitudeSizes = new double[nbTiles];
+        int n = 0;
+        for (int k = 0; k < nbTiles; ++k) {
+            if (hasValidSize(tiles[k])) {
+                latitudeSizes[n]  = tiles[k].getLatitudeRows()     * tiles[k].getLatitudeStep();
+                longitudeSizes[n] = tiles[k].getLongitudeColumns() * tiles[k].getLongitudeStep();
+                ++n;
+            }
+        }
+        if (n > 0) {
+            Arrays.sort(latitudeSizes,  0, n);
+            Arrays.sort(longitudeSizes, 0, n);
+            cellLatitudeSize  = latitudeSizes[n / 2];
+            cellLongitudeSize = longitudeSizes[n / 2];
+        }
+
+        // count the tiles that do not fit the new grid
+        misfits = 0;
+        for (int k = 0; k < nbTiles; ++k) {
+            if (hasValidSize(tiles[k]) && !fitsCells(tiles[k])) {
+                ++misfits;
+            }
+        }
+        sizedTiles = nbTiles;
+
+    }
+
+    /** Check if a tile has a size that can be used to set up the grid.
+     * @param tile tile to check
+     * @return true if the tile has a strictly positive and finite size
+     */
+    private static boolean hasValidSize(final Tile tile) {
+        final double latitudeSize  = tile.getLatitudeRows()     * tile.getLatitudeStep();
+        final double longitudeSize = tile.getLongitudeColumns() * tile.getLongitudeStep();
+        return latitudeSize > 0 && longitudeSize > 0 &&
+               !Double.isInfinite(latitudeSize) && !Double.isInfinite(longitudeSize);
+    }
+
+    /** Check if a tile size is close enough to the grid cell size.
+     * @param tile tile to check (its size must be valid)
+     * @return true if the tile size is close enough to the grid cell size
+     */
+    private boolean fitsCells(final Tile tile) {
+        return isClose(tile.getLatitudeRows()     * tile.getLatitudeStep(),  cellLatitudeSize)  &&
+               isClose(tile.getLongitudeColumns() * tile.getLongitudeStep(), cellLongitudeSize);
+    }
+
+    /** Check if a tile size is close enough to a grid cell size.
+     * @param tileSize tile size
+     * @param cellSize grid cell size
+     * @return true if tile size is close enough to grid cell size
+     */
+    private static boolean isClose(final double tileSize, final double cellSize) {
+        return tileSize <= MAX_SIZE_RATIO * cellSize && cellSize <= MAX_SIZE_RATIO * tileSize;
+    }
+
+    /** Remove all tiles from the grid cells, without forgetting them.
+     */
+    private void clearCells() {
+        Arrays.fill(slots, null);
+        used      = 0;
+        oversized = NO_SLOTS;
+    }
+
+    /** Register a tile in the grid cells it overlaps.
+     * @param slot slot of the tile in the caller cache
+     * @param tile tile to register
+     */
+    private void register(final int slot, final Tile tile) {
+
+        final double latitudeStep  = tile.getLatitudeStep();
+        final double longitudeStep = tile.getLongitudeStep();
+        if (!Double.isNaN(cellLatitudeSize)) {
+
+            // grid cells overlapped by the tile, with a margin of one step
+            final double minLatitude  = tile.getMinimumLatitude()  - latitudeStep;
+            final double minLongitude = tile.getMinimumLongitude() - longitudeStep;
+            final int i0 = cellLatitudeIndex(minLatitude);
+            final int i1 = cellLatitudeIndex(minLatitude + (tile.getLatitudeRows() + 1) * latitudeStep);
+            final int j0 = cellLongitudeIndex(minLongitude);
+            final int j1 = cellLongitudeIndex(minLongitude + (tile.getLongitudeColumns() + 1) * longitudeStep);
+
+            if (i1 >= i0 && j1 >= j0 && ((long) (i1 - i0 + 1)) * (j1 - j0 + 1) <= MAX_CELLS_PER_TILE) {
+                for (int i = i0; i <= i1; ++i) {
+                    for (int j = j0; j <= j1; ++j) {
+                        addToCell(key(i, j), slot);
+                    }
+                }
+                return;
+            }
+
+        }
+
+        // the tile cannot be registered in grid cells
+        oversized = append(oversized, slot);
+
+    }
+
+    /** Get the slots of the tiles that may cover a ground point.
+     * @param latitude ground point latitude (rad)
+     * @param longitude ground point longitude (rad)
+     * @return slots of the tiles registered in the grid cell containing the point
+     * (the array must not be modified)
+     */
+    int[] getCandidates(final double latitude, final double longitude) {
+        if (Double.isNaN(cellLatitudeSize)) {
+            return NO_SLOTS;
+        }
+        final long key   = key(cellLatitudeIndex(latitude), cellLongitudeIndex(longitude));
+        final int  mask  = keys.length - 1;
+        for (int index = hash(key) & mask; slots[index] != null; index = (index + 1) & mask) {
+            if (keys[index] == key) {
+                return slots[index];
+            }
+        }
+        return NO_SLOTS;
+    }
+
+    /** Get the slots of the tiles too large to be registered in grid cells.
+     * @return slots of the tiles too large to be registered in grid cells
+     * (the array must not be modified)
+     */
+    int[] getOversized() {
+        return oversized;
+    }
+
+    /** Add a slot in a grid cell.
+     * @param key grid cell key
+     * @param slot slot of the tile in the caller cache
+     */
+    private void addToCell(final long key, final int slot) {
+
+        final int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (slots[index] != null) {
+            if (keys[index] == key) {
+                slots[index] = append(slots[index], slot);
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // new grid cell
+        keys[index]  = key;
+        slots[index] = new int[] {
+            slot
+        };
+        if (2 * ++used > keys.length) {
+            grow();
+        }
+
+    }
+
+    /** Double the hash table size.
+     */
+    private void grow() {
+        final long[]  oldKeys  = keys;
+        final int[][] oldSlots = slots;
+        keys  = new long[2 * oldKeys.length];
+        slots = new int[2 * oldSlots.length][];
+        final int mask = keys.length - 1;
+        for (int k = 0; k < oldKeys.length; ++k) {
+            if (oldSlots[k] != null) {
+                int index = hash(oldKeys[k]) & mask;
+                while (slots[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index]  = oldKeys[k];
+                slots[index] = oldSlots[k];
+            }
+        }
+    }
+
+    /** Get the grid cell index along latitude.
+     * @param latitude latitude (rad)
+     * @return grid cell index along latitude
+     */
+    private int cellLatitudeIndex(final double latitude) {
+        return (int) FastMath.floor(latitude / cellLatitudeSize);
+    }
+
+    /** Get the grid cell index along longitude.
+     * @param longitude longitude (rad)
+     * @return grid cell index along longitude
+     */
+    private int cellLongitudeIndex(final double longitude) {
+        return (int) FastMath.floor(longitude / cellLongitudeSize);
+    }
+
+    /** Build the key of a grid cell.
+     * @param i grid cell index along latitude
+     * @param j grid cell index along longitude
+     * @return grid cell key
+     */
+    private static long key(final int i, final int j) {
+        return (((long) i) << 32) | (j & 0xffffffffL);
+    }
+
+    /** Hash a grid cell key.
+     * @param key grid cell key
+     * @return hash code
+     */
+    private static int hash(final long key) {
+        final long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /** Append a slot to an array.
+     * @param array array of slots
+     * @param slot slot to append
+     * @return new array
+     */
+    private static int[] append(final int[] array, final int slot) {
+        final int[] appended = Arrays.copyOf(array, array.length + 1);
+        appended[array.length] = slot;
+        return appended;
+    }
+
+}
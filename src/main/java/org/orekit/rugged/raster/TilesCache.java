@@ -17,6 +17,8 @@
 package org.orekit.rugged.raster;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.hipparchus.util.FastMath;
 import org.hipparchus.util.MathUtils;
@@ -28,7 +30,21 @@ import org.orekit.rugged.errors.RuggedMessages;
 
 /** Cache for Digital Elevation Model {@link Tile tiles}.
  * <p>
- * Beware, this cache is <em>not</em> thread-safe!
+ * Beware, this cache is <em>not</em> thread-safe! If a cache must be shared
+ * between several threads, use {@link ConcurrentTilesCache} instead.
+ * </p>
+ * <p>
+ * For Digital Elevation Models with seamless tiles, the zipper tiles built
+ * at tiles boundaries are kept in a separate cache (since 4.1), so they
+ * do not evict regular tiles. The regular tiles used to build a zipper tile
+ * are retrieved from the cache when available and are pinned in the cache
+ * while the zipper tile is built.
+ * </p>
+ * <p>
+ * Cached tiles are found using a spatial index (since 4.1), so the lookup cost
+ * does not depend on the number of cached tiles, and large caches can be used
+ * without slowing down elevation queries. The recently used status of the tiles
+ * is tracked separately, and is used only when a tile must be evicted.
  * </p>
  * @param <T> Type of tiles.
  * @author Luc Maisonobe
@@ -39,6 +55,9 @@ public class TilesCache<T extends Tile> {
     /** Epsilon to test step equality in latitude and longitude. */
     private static double STEP_EQUALITY = 5 * Precision.EPSILON;
 
+    /** Margin on indices to check if a point is contained in a tile (in cells). */
+    private static final double CONTAINMENT_MARGIN = 1.0e-3;
+
     /** Factory for empty tiles. */
     private final TileFactory<T> factory;
 
@@ -49,10 +68,23 @@ public class TilesCache<T extends Tile> {
      * @since 4.0 */
     private final boolean isOverlapping;
 
-    /** Cache. */
-    private final T[] tiles;
+    /** Cache (null if storage is managed by a subclass). */
+    private final CachedTiles tiles;
+
+    /** Cache for zipper tiles (null if storage is managed by a subclass).
+     * @since 4.1
+     */
+    private final CachedTiles zipperTiles;
+
+    /** Tiles that must not be evicted.
+     * @since 4.1
+     */
+    private final List<Tile> pinnedTiles;
 
     /** Simple constructor.
+     * <p>
+     * The zipper tiles cache has the same size as the regular tiles cache.
+     * </p>
      * @param factory factory for creating empty tiles
      * @param updater updater for retrieving tiles data
      * @param maxTiles maximum number of tiles stored simultaneously in the cache
@@ -61,12 +93,50 @@ public class TilesCache<T extends Tile> {
      */
     public TilesCache(final TileFactory<T> factory, final TileUpdater updater,
                       final int maxTiles, final boolean isOverlappingTiles) {
+        this(factory, updater, maxTiles, maxTiles, isOverlappingTiles);
+    }
+
+    /** Simple constructor.
+     * @param factory factory for creating empty tiles
+     * @param updater updater for retrieving tiles data
+     * @param maxTiles maximum number of tiles stored simultaneously in the cache
+     * @param maxZipperTiles maximum number of zipper tiles stored simultaneously in the cache
+     * (only used for Digital Elevation Models with seamless tiles)
+     * @param isOverlappingTiles flag to tell if the DEM tiles are overlapping:
+     *                          true if overlapping; false otherwise.
+     * @since 4.1
+     */
+    public TilesCache(final TileFactory<T> factory, final TileUpdater updater,
+                      final int maxTiles, final int maxZipperTiles, final boolean isOverlappingTiles) {
         this.factory       = factory;
         this.updater    = updater;
         this.isOverlapping = isOverlappingTiles;
-        @SuppressWarnings("unchecked")
-        final T[] array = (T[]) Array.newInstance(Tile.class, maxTiles);
-        this.tiles = array;
+        this.tiles         = new CachedTiles(maxTiles);
+        this.zipperTiles   = new CachedTiles(maxZipperTiles);
+        this.pinnedTiles   = new ArrayList<>();
+    }
+
+    /** Constructor for subclasses managing their own tiles storage.
+     * <p>
+     * No tiles storage is allocated by this constructor, so subclasses using it
+     * <em>must</em> override {@link #searchTile(double, double)}, {@link
+     * #searchZipperTile(double, double)}, {@link #findContainingTile(double, double)},
+     * {@link #storeTile(Tile)} and {@link #storeZipperTile(Tile)}.
+     * </p>
+     * @param factory factory for creating empty tiles
+     * @param updater updater for retrieving tiles data
+     * @param isOverlappingTiles flag to tell if the DEM tiles are overlapping:
+     *                          true if overlapping; false otherwise.
+     * @since 4.1
+     */
+    protected TilesCache(final TileFactory<T> factory, final TileUpdater updater,
+                         final boolean isOverlappingTiles) {
+        this.factory       = factory;
+        this.updater       = updater;
+        this.isOverlapping = isOverlappingTiles;
+        this.tiles         = null;
+        this.zipperTiles   = null;
+        this.pinnedTiles   = new ArrayList<>();
     }
 
     /** Get the tile covering a ground point.
@@ -77,41 +147,209 @@ public class TilesCache<T extends Tile> {
     public T getTile(final double latitude, final double longitude) {
 
         // Search the current (latitude, longitude) in the tiles from the cache
-        for (int i = 0; i < tiles.length; ++i) {
-            final T tile = tiles[i];
-            if (tile != null && tile.getLocation(latitude, longitude) == Tile.Location.HAS_INTERPOLATION_NEIGHBORS) {
-                // we have found the tile in the cache
-
-                // put it on the front as it becomes the most recently used
-                while (i > 0) {
-                    tiles[i] = tiles[i - 1];
-                    --i;
-                }
-                tiles[0] = tile;
-                return tile;
-            }
+        final T cachedTile = searchTile(latitude, longitude);
+        if (cachedTile != null) {
+            return cachedTile;
+        }
+
+        // Search the current (latitude, longitude) in the zipper tiles from the cache
+        final T cachedZipperTile = searchZipperTile(latitude, longitude);
+        if (cachedZipperTile != null) {
+            return cachedZipperTile;
         }
 
         // None of the tiles in the cache covers the specified point
+        return loadTile(latitude, longitude);
+
+    }
+
+    /** Load all the tiles crossed by a ground segment.
+     * <p>
+     * The segment is walked from its first end point to its second end
+     * point, by steps of half a cell, and each tile needed along the way
+     * is retrieved as if {@link #getTile(double, double)} were called, so
+     * it is loaded if it is not already in the cache. For Digital Elevation
+     * Models with seamless tiles, this includes the zipper tiles created
+     * when the segment crosses the boundary between two tiles.
+     * </p>
+     * <p>
+     * This method is intended to load tiles in advance, so later calls
+     * to {@link #getTile(double, double)} find them directly in the cache.
+     * The cache must therefore be large enough to hold the tiles along the
+     * segment in addition to the tiles currently used. If the cache is a
+     * {@link ConcurrentTilesCache}, this method can be called from a background
+     * thread while other threads use the cache.
+     * </p>
+     * @param latitude0 latitude of the first end point of the segment (rad)
+     * @param longitude0 longitude of the first end point of the segment (rad)
+     * @param latitude1 latitude of the second end point of the segment (rad)
+     * @param longitude1 longitude of the second end point of the segment (rad)
+     * @since 4.1
+     */
+    public void prefetchTiles(final double latitude0, final double longitude0,
+                              final double latitude1, final double longitude1) {
+
+        if (Double.isNaN(latitude0) || Double.isNaN(longitude0) ||
+            Double.isNaN(latitude1) || Double.isNaN(longitude1)) {
+            // nothing to load
+            return;
+        }
+
+        final double deltaLatitude  = latitude1 - latitude0;
+        final double deltaLongitude = MathUtils.normalizeAngle(longitude1, longitude0) - longitude0;
+
+        double t = 0.0;
+        while (true) {
+
+            final T tile = getTile(latitude0 + t * deltaLatitude, longitude0 + t * deltaLongitude);
+
+            // walk along the segment by steps of half a cell, until we leave the tile
+            final double step = 0.5 / FastMath.max(FastMath.abs(deltaLatitude)  / tile.getLatitudeStep(),
+                                                   FastMath.abs(deltaLongitude) / tile.getLongitudeStep());
+            do {
+                if (t >= 1.0) {
+                    // we have reached the end of the segment
+                    return;
+                }
+                t = FastMath.min(1.0, t + step);
+            } while (tile.getLocation(latitude0 + t * deltaLatitude, longitude0 + t * deltaLongitude) ==
+                     Tile.Location.HAS_INTERPOLATION_NEIGHBORS);
 
-        // Make some room in the cache, possibly evicting the least recently used one
-        // in order to add the new tile
-        for (int i = tiles.length - 1; i > 0; --i) {
-            tiles[i] = tiles[i - 1];
         }
 
-        // Fully create a tile given a latitude and longitude
-        final T tile = createTile(latitude, longitude);
+    }
+
+    /** Search the cache for a tile covering a ground point.
+     * <p>
+     * The tile found, if any, becomes the most recently used one.
+     * </p>
+     * @param latitude ground point latitude (rad)
+     * @param longitude ground point longitude (rad)
+     * @return cached tile covering the ground point, or null if no cached tile covers it
+     * @since 4.1
+     */
+    protected T searchTile(final double latitude, final double longitude) {
+        return tiles.search(latitude, longitude);
+    }
+
+    /** Search the cache for a zipper tile covering a ground point.
+     * <p>
+     * The zipper tile found, if any, becomes the most recently used one.
+     * </p>
+     * @param latitude ground point latitude (rad)
+     * @param longitude ground point longitude (rad)
+     * @return cached zipper tile covering the ground point, or null if no cached zipper tile covers it
+     * @since 4.1
+     */
+    protected T searchZipperTile(final double latitude, final double longitude) {
+        return zipperTiles.search(latitude, longitude);
+    }
+
+    /** Search the cache for a regular tile containing a ground point.
+     * <p>
+     * Contrary to {@link #searchTile(double, double)}, this method also finds
+     * tiles for which the point lies in the last row or column, i.e. where
+     * the tile alone is not sufficient for interpolation. It is used to find
+     * the regular tiles needed to build zipper tiles. It does not change the
+     * recently used status of the tile found.
+     * </p>
+     * @param latitude ground point latitude (rad)
+     * @param longitude ground point longitude (rad)
+     * @return cached tile containing the ground point, or null if no cached tile contains it
+     * @since 4.1
+     */
+    protected T findContainingTile(final double latitude, final double longitude) {
+        return tiles.findContaining(latitude, longitude);
+    }
+
+    /** Check if a tile contains a ground point.
+     * <p>
+     * Tiles of seamless Digital Elevation Models are considered to extend half
+     * a cell beyond the centers of their first and last cells. Points too close
+     * to these limits are considered not to be contained in any tile, so the
+     * {@link TileUpdater} decides which tile they belong to.
+     * </p>
+     * @param tile tile to check
+     * @param latitude ground point latitude (rad)
+     * @param longitude ground point longitude (rad)
+     * @return true if the point lies safely in the tile cells, including its first and last rows and columns
+     * @since 4.1
+     */
+    protected static boolean contains(final Tile tile, final double latitude, final double longitude) {
+        final double latitudeIndex  = (latitude  - tile.getMinimumLatitude())  / tile.getLatitudeStep()  + 0.5;
+        final double longitudeIndex = (longitude - tile.getMinimumLongitude()) / tile.getLongitudeStep() + 0.5;
+        return latitudeIndex  > CONTAINMENT_MARGIN && latitudeIndex  < tile.getLatitudeRows()     - CONTAINMENT_MARGIN &&
+               longitudeIndex > CONTAINMENT_MARGIN && longitudeIndex < tile.getLongitudeColumns() - CONTAINMENT_MARGIN;
+    }
+
+    /** Check if a tile is pinned, i.e. must not be evicted from the cache.
+     * @param tile tile to check
+     * @return true if the tile is pinned
+     * @since 4.1
+     */
+    protected boolean isPinned(final Tile tile) {
+        for (final Tile pinned : pinnedTiles) {
+            if (pinned == tile) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Store a tile in the cache.
+     * <p>
+     * The stored tile becomes the most recently used one, possibly evicting
+     * the least recently used one.
+     * </p>
+     * @param tile tile to store
+     * @since 4.1
+     */
+    protected void storeTile(final T tile) {
+        // Make some room in the cache, possibly evicting the least recently used
+        // tile that is not pinned, in order to add the new tile
+        tiles.store(tile);
+    }
+
+    /** Store a zipper tile in the cache.
+     * <p>
+     * The stored zipper tile becomes the most recently used one, possibly evicting
+     * the least recently used zipper tile. Regular tiles are never evicted by
+     * zipper tiles.
+     * </p>
+     * @param zipperTile zipper tile to store
+     * @since 4.1
+     */
+    protected void storeZipperTile(final T zipperTile) {
+        zipperTiles.store(zipperTile);
+    }
+
+    /** Load a tile covering a ground point and store it in the cache.
+     * <p>
+     * This method is called when none of the cached tiles covers the ground point.
+     * </p>
+     * @param latitude ground point latitude (rad)
+     * @param longitude ground point longitude (rad)
+     * @return tile covering the ground point (may be a zipper tile for seamless DEM)
+     * @since 4.1
+     */
+    protected T loadTile(final double latitude, final double longitude) {
 
         // At this stage the found tile must be checked (HAS_INTERPOLATION_NEIGHBORS ?)
         // taking into account if the DEM tiles are overlapping or not
 
         if ( !isOverlapping ) { // DEM with seamless tiles (no overlapping)
 
+            // The tile may already be in the cache, if the point is on its edge
+            final T cachedTile = findContainingTile(latitude, longitude);
+            final T tile = (cachedTile == null) ? createTile(latitude, longitude) : cachedTile;
+
             // Check if the tile HAS INTERPOLATION NEIGHBORS (the point (latitude, longitude) is inside the tile),
             // otherwise the point (latitude, longitude) is on the edge of the tile:
             // one must create a zipper tile because tiles are not overlapping ...
             final Tile.Location pointLocation = tile.getLocation(latitude, longitude);
+            if (cachedTile == null) {
+                storeTile(tile);
+            }
 
             // We are on the edge of the tile
             if (pointLocation != Tile.Location.HAS_INTERPOLATION_NEIGHBORS) {
@@ -121,13 +359,15 @@ public class TilesCache<T extends Tile> {
 
             } else { // we are NOT on the edge of the tile
 
-                tiles[0] = tile;
                 return tile;
 
             }   // end if (location != Tile.Location.HAS_INTERPOLATION_NEIGHBORS)
 
         } else { // isOverlapping: DEM with overlapping tiles (according to the flag ...)
 
+            // Fully create a tile given a latitude and longitude
+            final T tile = createTile(latitude, longitude);
+
             // Check if the tile HAS INTERPOLATION NEIGHBORS (the (latitude, longitude) is inside the tile)
             if (tile.getLocation(latitude, longitude) != Tile.Location.HAS_INTERPOLATION_NEIGHBORS) {
                 // this should happen only if user set up an inconsistent TileUpdater
@@ -135,7 +375,7 @@ public class TilesCache<T extends Tile> {
                                           FastMath.toDegrees(latitude), FastMath.toDegrees(longitude));
             }
 
-            tiles[0] = tile;
+            storeTile(tile);
             return tile;
 
         } // end if (!isOverlapping)
@@ -179,6 +419,30 @@ public class TilesCache<T extends Tile> {
                                final double latitude, final double longitude,
                                final Tile.Location pointLocation) {
 
+        // the current tile and its neighbors must not be evicted while the zipper tile is built
+        pinnedTiles.add(currentTile);
+        try {
+            final T zipperTile = buildZipperTile(currentTile, latitude, longitude, pointLocation);
+            storeZipperTile(zipperTile);
+            return zipperTile;
+        } finally {
+            pinnedTiles.clear();
+        }
+
+    }
+
+    /** Build a zipper tile for DEM with seamless tiles (no overlapping).
+     * @param currentTile current tile
+     * @param latitude ground point latitude (rad)
+     * @param longitude ground point longitude (rad)
+     * @param pointLocation ground point location with respect to the tile
+     * @return zipper tile covering the ground point
+     * @since 4.1
+     */
+    private T buildZipperTile(final T currentTile,
+                              final double latitude, final double longitude,
+                              final Tile.Location pointLocation) {
+
         T zipperTile = null;
 
         // One must create a zipper tile between this tile and the neighbor tile
@@ -233,15 +497,28 @@ public class TilesCache<T extends Tile> {
 
         } // end switch
 
-        // again make some room in the cache, possibly evicting the 2nd least recently used one
-        for (int i = tiles.length - 1; i > 0; --i) {
-            tiles[i] = tiles[i - 1];
-        }
-
-        tiles[1] = currentTile;
-        tiles[0] = zipperTile;
+        return zipperTile;
+    }
 
-        return (T) zipperTile;
+    /** Get a neighbor tile needed to build a zipper tile.
+     * <p>
+     * The tile is retrieved from the cache if available, otherwise it is
+     * created and stored in the cache. In both cases, it is pinned in the
+     * cache until the zipper tile is built.
+     * </p>
+     * @param latitude latitude of a point in the neighbor tile (rad)
+     * @param longitude longitude of a point in the neighbor tile (rad)
+     * @return neighbor tile
+     * @since 4.1
+     */
+    private T getNeighborTile(final double latitude, final double longitude) {
+        T tile = findContainingTile(latitude, longitude);
+        if (tile == null) {
+            tile = createTile(latitude, longitude);
+            storeTile(tile);
+        }
+        pinnedTiles.add(tile);
+        return tile;
     }
 
     /** Initialize the zipper tile for a given geometry and the full set of elevations.
@@ -1038,7 +1315,7 @@ public class TilesCache<T extends Tile> {
 
         final double latToGetIntercardinalTile = latitudeMin + latHemisphere * latitudeRows * latitudeStep;
         final double lonToGetIntercardinalTile = longitudeMin + lonHemisphere * longitudeCols * longitudeStep;
-        final T intercardinalTile = createTile(latToGetIntercardinalTile, lonToGetIntercardinalTile);
+        final T intercardinalTile = getNeighborTile(latToGetIntercardinalTile, lonToGetIntercardinalTile);
         return intercardinalTile;
     }
 
@@ -1145,7 +1422,7 @@ public class TilesCache<T extends Tile> {
         }
 
         final double latToGetNewTile = latitudeMin + hemisphere * latitudeRows * latitudeStep;
-        return createTile(latToGetNewTile, longitude);
+        return getNeighborTile(latToGetNewTile, longitude);
     }
 
 
@@ -1175,6 +1452,143 @@ public class TilesCache<T extends Tile> {
         }
 
         final double lonToGetNewTile = longitudeMin + hemisphere * longitudeCols * longitudeStep;
-        return createTile(latitude, lonToGetNewTile);
+        return getNeighborTile(latitude, lonToGetNewTile);
     }
+
+    /** Set of cached tiles with least recently used eviction.
+     * <p>
+     * Tiles stay in the same slot as long as they are cached, the spatial index
+     * refers to these slots and the recently used status is a per-slot stamp,
+     * so lookups do not move anything.
+     * </p>
+     * @since 4.1
+     */
+    private class CachedTiles {
+
+        /** Cached tiles. */
+        private final T[] array;
+
+        /** Stamps of last use of the cached tiles. */
+        private final long[] lastUse;
+
+        /** Spatial index of the cached tiles. */
+        private final TileGridIndex index;
+
+        /** Current stamp. */
+        private long clock;
+
+        /** Simple constructor.
+         * @param maxTiles maximum number of tiles stored simultaneously
+         */
+        CachedTiles(final int maxTiles) {
+            @SuppressWarnings("unchecked")
+            final T[] tilesArray = (T[]) Array.newInstance(Tile.class, maxTiles);
+            this.array   = tilesArray;
+            this.lastUse = new long[maxTiles];
+            this.index   = new TileGridIndex(maxTiles);
+            this.clock   = 0L;
+        }
+
+        /** Search a tile covering a ground point.
+         * <p>
+         * The tile found, if any, becomes the most recently used one.
+         * </p>
+         * @param latitude ground point latitude (rad)
+         * @param longitude ground point longitude (rad)
+         * @return tile covering the ground point, or null if no tile covers it
+         */
+        T search(final double latitude, final double longitude) {
+            final int slot = find(latitude, longitude, false);
+            if (slot < 0) {
+                return null;
+            }
+            lastUse[slot] = ++clock;
+            return array[slot];
+        }
+
+        /** Find a tile containing a ground point, including its last row and column.
+         * <p>
+         * The recently used status of the tile found is not changed.
+         * </p>
+         * @param latitude ground point latitude (rad)
+         * @param longitude ground point longitude (rad)
+         * @return tile containing the ground point, or null if no tile contains it
+         */
+        T findContaining(final double latitude, final double longitude) {
+            final int slot = find(latitude, longitude, true);
+            return (slot < 0) ? null : array[slot];
+        }
+
+        /** Find the most recently used tile matching a ground point.
+         * @param latitude ground point latitude (rad)
+         * @param longitude ground point longitude (rad)
+         * @param containment if true, look for a tile {@link TilesCache#contains(Tile, double, double)
+         * containing} the point, otherwise look for a tile covering it
+         * @return slot of the tile found, or -1 if no tile matches
+         */
+        private int find(final double latitude, final double longitude, final boolean containment) {
+            final int best = find(index.getCandidates(latitude, longitude), latitude, longitude, containment, -1);
+            return find(index.getOversized(), latitude, longitude, containment, best);
+        }
+
+        /** Find the most recently used tile matching a ground point among candidates.
+         * @param candidates slots of the candidate tiles
+         * @param latitude ground point latitude (rad)
+         * @param longitude ground point longitude (rad)
+         * @param containment if true, look for a tile {@link TilesCache#contains(Tile, double, double)
+         * containing} the point, otherwise look for a tile covering it
+         * @param previous slot of the best tile found so far (-1 if none)
+         * @return slot of the best tile found, or -1 if no tile matches
+         */
+        private int find(final int[] candidates, final double latitude, final double longitude,
+                         final boolean containment, final int previous) {
+            int best = previous;
+            for (final int slot : candidates) {
+                if (best < 0 || lastUse[slot] > lastUse[best]) {
+                    final T tile = array[slot];
+                    if (containment ?
+                        contains(tile, latitude, longitude) :
+                        tile.getLocation(latitude, longitude) == Tile.Location.HAS_INTERPOLATION_NEIGHBORS) {
+                        best = slot;
+                    }
+                }
+            }
+            return best;
+        }
+
+        /** Store a tile, as the most recently used one.
+         * @param tile tile to store
+         */
+        void store(final T tile) {
+
+            // look for a free slot, or for the least recently used tile that is not pinned
+            int selected = -1;
+            for (int slot = 0; slot < array.length; ++slot) {
+                if (array[slot] == null) {
+                    selected = slot;
+                    break;
+                } else if (!isPinned(array[slot]) && (selected < 0 || lastUse[slot] < lastUse[selected])) {
+                    selected = slot;
+                }
+            }
+            if (selected < 0) {
+                // all tiles are pinned, the new tile cannot be cached
+                return;
+            }
+
+            final boolean evicting = array[selected] != null;
+            array[selected]   = tile;
+            lastUse[selected] = ++clock;
+
+            if (evicting) {
+                // the evicted tile cannot be removed from the index, we rebuild it
+                index.addAll(array);
+            } else {
+                index.add(selected, tile);
+            }
+
+        }
+
+    }
+
 }
@@ -16,6 +16,10 @@
  */
 package org.orekit.rugged.raster;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
 /** Interface representing one tile of a raster Digital Elevation Model.
  * @author Luc Maisonobe
  * @author Guylaine Prat
@@ -51,4 +55,158 @@ public interface UpdatableTile {
      */
     void setElevation(int latitudeIndex, int longitudeIndex, double elevation);
 
+    /** Set the elevations for a rectangular block of raster elements.
+     * <p>
+     * The block covers {@code rows} rows starting at {@code latitudeIndex}
+     * and {@code columns} columns starting at {@code longitudeIndex}. The
+     * source elevations are read in row-major order, i.e. element {@code (i, j)}
+     * of the block is read at {@code offset + i * columns + j}. A single row
+     * is set using {@code rows = 1} and the whole raster is set using a block
+     * starting at indices {@code (0, 0)} and covering the full tile.
+     * </p>
+     * <p>
+     * The order of the indices follows the same geodetic conventions as
+     * {@link #setElevation(int, int, double)}.
+     * </p>
+     * <p>
+     * The default implementation simply calls {@link #setElevation(int, int, double)}
+     * for each element, implementations are expected to override it with
+     * a more efficient bulk transfer.
+     * </p>
+     * @param latitudeIndex index of latitude of the first row of the block
+     * @param longitudeIndex index of longitude of the first column of the block
+     * @param rows number of rows in the block
+     * @param columns number of columns in the block
+     * @param elevations source elevations (m)
+     * @param offset index of the first elevation in the source array
+     * @since 4.1
+     */
+    default void setElevations(final int latitudeIndex, final int longitudeIndex,
+                               final int rows, final int columns,
+                               final double[] elevations, final int offset) {
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                setElevation(latitudeIndex + i, longitudeIndex + j, elevations[offset + i * columns + j]);
+            }
+        }
+    }
+
+    /** Set the elevations for a rectangular block of raster elements.
+     * @param latitudeIndex index of latitude of the first row of the block
+     * @param longitudeIndex index of longitude of the first column of the block
+     * @param rows number of rows in the block
+     * @param columns number of columns in the block
+     * @param elevations source elevations (m)
+     * @param offset index of the first elevation in the source array
+     * @see #setElevations(int, int, int, int, double[], int)
+     * @since 4.1
+     */
+    default void setElevations(final int latitudeIndex, final int longitudeIndex,
+                               final int rows, final int columns,
+                               final float[] elevations, final int offset) {
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                setElevation(latitudeIndex + i, longitudeIndex + j, elevations[offset + i * columns + j]);
+            }
+        }
+    }
+
+    /** Set the elevations for a rectangular block of raster elements.
+     * <p>
+     * The elevations are given as integer meters, as in many Digital
+     * Elevation Models formats. No specific processing is applied to
+     * void markers, they must be replaced by the caller beforehand.
+     * </p>
+     * @param latitudeIndex index of latitude of the first row of the block
+     * @param longitudeIndex index of longitude of the first column of the block
+     * @param rows number of rows in the block
+     * @param columns number of columns in the block
+     * @param elevations source elevations (m)
+     * @param offset index of the first elevation in the source array
+     * @see #setElevations(int, int, int, int, double[], int)
+     * @since 4.1
+     */
+    default void setElevations(final int latitudeIndex, final int longitudeIndex,
+                               final int rows, final int columns,
+                               final short[] elevations, final int offset) {
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                setElevation(latitudeIndex + i, longitudeIndex + j, elevations[offset + i * columns + j]);
+            }
+        }
+    }
+
+    /** Set the elevations for a rectangular block of raster elements.
+     * <p>
+     * The elevations are read in row-major order using relative get
+     * operations, starting at the buffer current position, which is
+     * advanced by {@code rows * columns} elements.
+     * </p>
+     * @param latitudeIndex index of latitude of the first row of the block
+     * @param longitudeIndex index of longitude of the first column of the block
+     * @param rows number of rows in the block
+     * @param columns number of columns in the block
+     * @param elevations source elevations (m)
+     * @see #setElevations(int, int, int, int, double[], int)
+     * @since 4.1
+     */
+    default void setElevations(final int latitudeIndex, final int longitudeIndex,
+                               final int rows, final int columns,
+                               final DoubleBuffer elevations) {
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                setElevation(latitudeIndex + i, longitudeIndex + j, elevations.get());
+            }
+        }
+    }
+
+    /** Set the elevations for a rectangular block of raster elements.
+     * <p>
+     * The elevations are read in row-major order using relative get
+     * operations, starting at the buffer current position, which is
+     * advanced by {@code rows * columns} elements.
+     * </p>
+     * @param latitudeIndex index of latitude of the first row of the block
+     * @param longitudeIndex index of longitude of the first column of the block
+     * @param rows number of rows in the block
+     * @param columns number of columns in the block
+     * @param elevations source elevations (m)
+     * @see #setElevations(int, int, int, int, double[], int)
+     * @since 4.1
+     */
+    default void setElevations(final int latitudeIndex, final int longitudeIndex,
+                               final int rows, final int columns,
+                               final FloatBuffer elevations) {
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                setElevation(latitudeIndex + i, longitudeIndex + j, elevations.get());
+            }
+        }
+    }
+
+    /** Set the elevations for a rectangular block of raster elements.
+     * <p>
+     * The elevations are given as integer meters and read in row-major
+     * order using relative get operations, starting at the buffer current
+     * position, which is advanced by {@code rows * columns} elements. No
+     * specific processing is applied to void markers.
+     * </p>
+     * @param latitudeIndex index of latitude of the first row of the block
+     * @param longitudeIndex index of longitude of the first column of the block
+     * @param rows number of rows in the block
+     * @param columns number of columns in the block
+     * @param elevations source elevations (m)
+     * @see #setElevations(int, int, int, int, double[], int)
+     * @since 4.1
+     */
+    default void setElevations(final int latitudeIndex, final int longitudeIndex,
+                               final int rows, final int columns,
+                               final ShortBuffer elevations) {
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                setElevation(latitudeIndex + i, longitudeIndex + j, elevations.get());
+            }
+        }
+    }
+
 }
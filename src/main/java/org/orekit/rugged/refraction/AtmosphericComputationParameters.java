@@ -112,6 +112,25 @@ public class AtmosphericComputationParameters {
 
     }
 
+    /** Restore the interpolation grid of a previously configured context.
+     * @param name sensor name
+     * @param minLine min line defined for the inverse location
+     * @param maxLine max line defined for the inverse location
+     * @param pixelGrid linear grid in pixel
+     * @param lineGrid linear grid in line
+     * @since 4.1
+     */
+    void restoreCorrectionGrid(final String name, final double minLine, final double maxLine,
+                               final double[] pixelGrid, final double[] lineGrid) {
+        this.minLineSensor = minLine;
+        this.maxLineSensor = maxLine;
+        this.sensorName    = name;
+        this.uGrid         = pixelGrid.clone();
+        this.vGrid         = lineGrid.clone();
+        this.nbPixelGrid   = pixelGrid.length;
+        this.nbLineGrid    = lineGrid.length;
+    }
+
     /**
      * Set the grid steps in pixel and line (used to compute inverse location).
      * Overwrite the default values, for time optimization if necessary.
@@ -16,7 +16,14 @@
  */
 package org.orekit.rugged.refraction;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.hipparchus.analysis.interpolation.BilinearInterpolatingFunction;
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.orekit.rugged.errors.RuggedException;
 import org.orekit.rugged.errors.RuggedMessages;
@@ -24,6 +31,7 @@ import org.orekit.rugged.intersection.IntersectionAlgorithm;
 import org.orekit.rugged.linesensor.LineSensor;
 import org.orekit.rugged.linesensor.SensorPixel;
 import org.orekit.rugged.utils.NormalizedGeodeticPoint;
+import org.orekit.utils.ParameterDriver;
 
 /**
  * Base class for atmospheric refraction model.
@@ -33,6 +41,11 @@ import org.orekit.rugged.utils.NormalizedGeodeticPoint;
  */
 public abstract class AtmosphericRefraction {
 
+    /** Default maximum number of correction grids kept in cache.
+     * @since 4.1
+     */
+    private static final int DEFAULT_MAX_CORRECTION_GRIDS = 8;
+
     /** Flag to tell if we must compute the correction.
      * By default: computation is set up.
      * @since 2.1
@@ -54,6 +67,36 @@ public abstract class AtmosphericRefraction {
     */
     private BilinearInterpolatingFunction bifLine;
 
+    /** Cached correction grids, most recently used first.
+     * @since 4.1
+     */
+    private final List<CorrectionGrid> correctionGrids;
+
+    /** Maximum number of correction grids kept in cache.
+     * @since 4.1
+     */
+    private int maxCorrectionGrids;
+
+    /** Pixel step for direct location grid (0 if direct location grid is disabled).
+     * @since 4.1
+     */
+    private int directLocationPixelStep;
+
+    /** Line step for direct location grid (0 if direct location grid is disabled).
+     * @since 4.1
+     */
+    private int directLocationLineStep;
+
+    /** Tolerance for direct location grid (m).
+     * @since 4.1
+     */
+    private double directLocationTolerance;
+
+    /** Direct location grids, per sensor name.
+     * @since 4.1
+     */
+    private final Map<String, SensorGrid> directLocationGrids;
+
     /**
      * Default constructor.
      */
@@ -63,6 +106,12 @@ public abstract class AtmosphericRefraction {
         this.mustBeComputed    = true;
         this.bifPixel          = null;
         this.bifLine           = null;
+        this.correctionGrids    = new ArrayList<>();
+        this.maxCorrectionGrids = DEFAULT_MAX_CORRECTION_GRIDS;
+        this.directLocationPixelStep = 0;
+        this.directLocationLineStep  = 0;
+        this.directLocationTolerance = Double.NaN;
+        this.directLocationGrids     = new HashMap<>();
     }
 
     /** Apply correction to the intersected point with an atmospheric refraction model.
@@ -141,6 +190,153 @@ public abstract class AtmosphericRefraction {
      */
     public void setGridSteps(final int pixelStep, final int lineStep) {
         atmosphericParams.setGridSteps(pixelStep, lineStep);
+        // grids computed with the previous steps cannot be reused
+        correctionGrids.clear();
+    }
+
+    /** Set the maximum number of correction grids kept in cache.
+     * <p>
+     * Correction grids are computed for one sensor and one range of lines. When inverse
+     * locations alternate between several sensors or several ranges of lines, keeping
+     * several grids avoids recomputing them each time the context changes. When the cache
+     * is full, the least recently used grid is evicted. The default value is 8.
+     * </p>
+     * @param maxGrids maximum number of correction grids kept in cache (must be at least 1)
+     * @since 4.1
+     */
+    public void setMaxCorrectionGrids(final int maxGrids) {
+        if (maxGrids < 1) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL, maxGrids, 1);
+        }
+        this.maxCorrectionGrids = maxGrids;
+        while (correctionGrids.size() > maxGrids) {
+            correctionGrids.remove(correctionGrids.size() - 1);
+        }
+    }
+
+    /** Get the maximum number of correction grids kept in cache.
+     * @return maximum number of correction grids kept in cache
+     * @since 4.1
+     */
+    public int getMaxCorrectionGrids() {
+        return maxCorrectionGrids;
+    }
+
+    /** Select a cached correction grid.
+     * <p>
+     * If a grid has already been computed for the given sensor and range of lines,
+     * and is still in cache, its interpolating functions become the ones returned by
+     * {@link #getBifPixel()} and {@link #getBifLine()}, the {@link #getComputationParameters()
+     * computation parameters} are restored to its context, and it becomes the most recently
+     * used grid.
+     * </p>
+     * @param sensorName the asked sensor name
+     * @param minLine the asked min line
+     * @param maxLine the asked max line
+     * @return true if a grid was found in cache; false if it must be computed
+     * @since 4.1
+     */
+    public boolean selectCorrectionGrid(final String sensorName, final int minLine, final int maxLine) {
+        for (int i = 0; i < correctionGrids.size(); ++i) {
+            final CorrectionGrid grid = correctionGrids.get(i);
+            if (grid.matches(sensorName, minLine, maxLine)) {
+                // put it on the front as it becomes the most recently used
+                correctionGrids.add(0, correctionGrids.remove(i));
+                this.bifPixel = grid.bifPixel;
+                this.bifLine  = grid.bifLine;
+                atmosphericParams.restoreCorrectionGrid(grid.sensorName, grid.minLine, grid.maxLine,
+                                                        grid.pixelGrid, grid.lineGrid);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Enable interpolation grid for direct location.
+     * <p>
+     * By default, the atmospheric refraction correction is computed exactly for each
+     * located pixel, which is several times slower than the direct location itself.
+     * When the grid is enabled, the correction is computed exactly only at sparse grid
+     * nodes, and interpolated for the pixels located by sensor lines direct location
+     * (see {@link org.orekit.rugged.api.Rugged#directLocation(String, double)} and
+     * its batch variant). Direct location of a single line-of-sight, which does not know its
+     * pixel and line numbers, always uses the exact correction.
+     * </p>
+     * <p>
+     * Interpolation is checked at the center of each grid cell: in cells where the
+     * distance between the interpolated and the exact ground points exceeds the
+     * tolerance, the exact correction is used.
+     * </p>
+     * @param pixelStep pixel step between grid nodes
+     * @param lineStep line step between grid nodes
+     * @param tolerance tolerance on the interpolated ground points (m)
+     * @see #disableDirectLocationGrid()
+     * @see DirectLocationGrid
+     * @since 4.1
+     */
+    public void setDirectLocationGrid(final int pixelStep, final int lineStep, final double tolerance) {
+        if (pixelStep <= 0) {
+            throw new RuggedException(RuggedMessages.INVALID_STEP, pixelStep, " pixelStep <= 0");
+        }
+        if (lineStep <= 0) {
+            throw new RuggedException(RuggedMessages.INVALID_STEP, lineStep, " lineStep <= 0");
+        }
+        if (!(tolerance > 0)) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL_BOUND_EXCLUDED, tolerance, 0.0);
+        }
+        synchronized (directLocationGrids) {
+            this.directLocationPixelStep = pixelStep;
+            this.directLocationLineStep  = lineStep;
+            this.directLocationTolerance = tolerance;
+            directLocationGrids.clear();
+        }
+    }
+
+    /** Disable interpolation grid for direct location.
+     * @see #setDirectLocationGrid(int, int, double)
+     * @since 4.1
+     */
+    public void disableDirectLocationGrid() {
+        synchronized (directLocationGrids) {
+            this.directLocationPixelStep = 0;
+            this.directLocationLineStep  = 0;
+            this.directLocationTolerance = Double.NaN;
+            directLocationGrids.clear();
+        }
+    }
+
+    /** Get the interpolation grid for direct location.
+     * <p>
+     * The grid is cached per sensor name. It is rebuilt when another sensor instance
+     * with the same name is used, or when the values of the sensor parameters drivers
+     * have changed (for example during refining). The trajectory is not part of the
+     * cache key, so an atmospheric refraction model with direct location grid enabled
+     * should not be shared between {@link org.orekit.rugged.api.Rugged Rugged} instances
+     * using the same sensor with different trajectories, or {@link
+     * #setDirectLocationGrid(int, int, double)} should be called again to reset the grids.
+     * </p>
+     * @param sensor line sensor
+     * @return interpolation grid for direct location, or null if direct location grid is disabled
+     * @see #setDirectLocationGrid(int, int, double)
+     * @since 4.1
+     */
+    public DirectLocationGrid getDirectLocationGrid(final LineSensor sensor) {
+        synchronized (directLocationGrids) {
+            if (directLocationPixelStep == 0) {
+                return null;
+            }
+            final double[] parameters = sensor.getParametersDrivers().mapToDouble(ParameterDriver::getValue).toArray();
+            SensorGrid sensorGrid = directLocationGrids.get(sensor.getName());
+            if (sensorGrid == null || !sensorGrid.matches(sensor, parameters)) {
+                // the grid depends on the lines-of-sight, it must be rebuilt if they have changed
+                sensorGrid = new SensorGrid(sensor, parameters,
+                                            new DirectLocationGrid(sensor.getNbPixels(),
+                                                                   directLocationPixelStep, directLocationLineStep,
+                                                                   directLocationTolerance));
+                directLocationGrids.put(sensor.getName(), sensorGrid);
+            }
+            return sensorGrid.grid;
+        }
     }
 
     /**
@@ -159,7 +355,8 @@ public abstract class AtmosphericRefraction {
      * The corrections are based on the difference on grid nodes (where direct loc is known with atmosphere refraction)
      * and the sensor pixel found by inverse loc without atmosphere refraction.
      * The bilinear interpolating functions are then computed for pixel and for line.
-     * Need to be computed only once for a given sensor with the same minLine and maxLine.
+     * Need to be computed only once for a given sensor with the same minLine and maxLine,
+     * the computed grid is kept in cache (see {@link #selectCorrectionGrid(String, int, int)}).
      * @param sensorPixelGridInverseWithout inverse location grid WITHOUT atmospheric refraction
      * @since 2.1
      */
@@ -194,6 +391,18 @@ public abstract class AtmosphericRefraction {
         // Definition of the interpolating function for pixel and for line
         this.bifPixel = new BilinearInterpolatingFunction(pixelGrid, lineGrid, gridDiffPixel);
         this.bifLine = new BilinearInterpolatingFunction(pixelGrid, lineGrid, gridDiffLine);
+
+        // store the new grid as the most recently used one, evicting the least recently used one if needed
+        final String sensorName = atmosphericParams.getSensorName();
+        final int    minLine    = (int) atmosphericParams.getMinLineSensor();
+        final int    maxLine    = (int) atmosphericParams.getMaxLineSensor();
+        correctionGrids.removeIf(grid -> grid.matches(sensorName, minLine, maxLine));
+        if (correctionGrids.size() >= maxCorrectionGrids) {
+            correctionGrids.remove(correctionGrids.size() - 1);
+        }
+        correctionGrids.add(0, new CorrectionGrid(sensorName, minLine, maxLine,
+                                                  pixelGrid, lineGrid, bifPixel, bifLine));
+
     }
 
     /**
@@ -209,4 +418,101 @@ public abstract class AtmosphericRefraction {
     public BilinearInterpolatingFunction getBifLine() {
         return bifLine;
     }
+
+    /** Container for a cached correction grid.
+     * @since 4.1
+     */
+    private static class CorrectionGrid {
+
+        /** Sensor name. */
+        private final String sensorName;
+
+        /** Min line. */
+        private final int minLine;
+
+        /** Max line. */
+        private final int maxLine;
+
+        /** Linear grid in pixel. */
+        private final double[] pixelGrid;
+
+        /** Linear grid in line. */
+        private final double[] lineGrid;
+
+        /** Bilinear interpolating function for pixel. */
+        private final BilinearInterpolatingFunction bifPixel;
+
+        /** Bilinear interpolating function for line. */
+        private final BilinearInterpolatingFunction bifLine;
+
+        /** Simple constructor.
+         * @param sensorName sensor name
+         * @param minLine min line
+         * @param maxLine max line
+         * @param pixelGrid linear grid in pixel
+         * @param lineGrid linear grid in line
+         * @param bifPixel bilinear interpolating function for pixel
+         * @param bifLine bilinear interpolating function for line
+         */
+        CorrectionGrid(final String sensorName, final int minLine, final int maxLine,
+                       final double[] pixelGrid, final double[] lineGrid,
+                       final BilinearInterpolatingFunction bifPixel,
+                       final BilinearInterpolatingFunction bifLine) {
+            this.sensorName = sensorName;
+            this.minLine    = minLine;
+            this.maxLine    = maxLine;
+            this.pixelGrid  = pixelGrid;
+            this.lineGrid   = lineGrid;
+            this.bifPixel   = bifPixel;
+            this.bifLine    = bifLine;
+        }
+
+        /** Check if the grid corresponds to a context.
+         * @param name the asked sensor name
+         * @param min the asked min line
+         * @param max the asked max line
+         * @return true if the grid corresponds to the context
+         */
+        boolean matches(final String name, final int min, final int max) {
+            return minLine == min && maxLine == max && sensorName.equals(name);
+        }
+
+    }
+
+    /** Direct location grid for a sensor, with the context it was built for.
+     * @since 4.1
+     */
+    private static class SensorGrid {
+
+        /** Line sensor. */
+        private final LineSensor sensor;
+
+        /** Values of the sensor parameters drivers. */
+        private final double[] parameters;
+
+        /** Direct location grid. */
+        private final DirectLocationGrid grid;
+
+        /** Simple constructor.
+         * @param sensor line sensor
+         * @param parameters values of the sensor parameters drivers
+         * @param grid direct location grid
+         */
+        SensorGrid(final LineSensor sensor, final double[] parameters, final DirectLocationGrid grid) {
+            this.sensor     = sensor;
+            this.parameters = parameters;
+            this.grid       = grid;
+        }
+
+        /** Check if the grid can be used for a sensor.
+         * @param otherSensor line sensor
+         * @param otherParameters current values of the sensor parameters drivers
+         * @return true if the grid was built for the same sensor and parameters
+         */
+        boolean matches(final LineSensor otherSensor, final double[] otherParameters) {
+            return sensor == otherSensor && Arrays.equals(parameters, otherParameters);
+        }
+
+    }
+
 }
@@ -0,0 +1,371 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.refraction;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathUtils;
+import org.orekit.rugged.intersection.IntersectionAlgorithm;
+import org.orekit.rugged.utils.ExtendedEllipsoid;
+import org.orekit.rugged.utils.NormalizedGeodeticPoint;
+
+/**
+ * Interpolation grid for direct location with atmospheric refraction.
+ * <p>
+ * The atmospheric refraction correction is computed exactly only at the nodes of
+ * a sparse grid at sensor level, with nodes every {@code pixelStep} pixels (plus
+ * the last pixel) and every {@code lineStep} lines. For other pixels, the latitude
+ * and longitude offsets between the corrected and the uncorrected ground points are
+ * bilinearly interpolated between the four surrounding nodes, and the elevation is
+ * taken from the Digital Elevation Model at the corrected location.
+ * </p>
+ * <p>
+ * The accuracy is checked at the center of each grid cell, by comparing the
+ * interpolated point with the exact one. Cells where the distance between them
+ * exceeds the tolerance are flagged, and the exact correction is used for all
+ * pixels in these cells.
+ * </p>
+ * <p>
+ * Grid cells are computed lazily, one band of cells between two node lines at a
+ * time, and the most recently created bands are kept in cache. Instances of this class
+ * are thread-safe: threads needing the same band wait for the one computing it,
+ * whereas threads needing different bands compute them concurrently.
+ * </p>
+ * <p>
+ * The grid depends on the sensor, its line-of-sight parameters and the trajectory
+ * used for computing the nodes. Grids are managed by {@link AtmosphericRefraction},
+ * which rebuilds them when the sensor or its parameters change, but not when the
+ * same sensor is used with another trajectory.
+ * </p>
+ * @see AtmosphericRefraction#setDirectLocationGrid(int, int, double)
+ * @since 4.1
+ */
+public class DirectLocationGrid {
+
+    /** Maximum number of bands kept in cache. */
+    private static final int MAX_BANDS = 64;
+
+    /** Pixel step between grid nodes. */
+    private final int pixelStep;
+
+    /** Line step between grid nodes. */
+    private final int lineStep;
+
+    /** Tolerance on the interpolated ground points (m). */
+    private final double tolerance;
+
+    /** Pixels of the grid nodes. */
+    private final double[] pixelNodes;
+
+    /** Cached bands. */
+    private final ConcurrentHashMap<Long, BandEntry> bands;
+
+    /** Indices of the cached bands, in creation order. */
+    private final Deque<Long> bandsOrder;
+
+    /** Simple constructor.
+     * @param nbPixels number of pixels of the sensor
+     * @param pixelStep pixel step between grid nodes
+     * @param lineStep line step between grid nodes
+     * @param tolerance tolerance on the interpolated ground points (m)
+     */
+    public DirectLocationGrid(final int nbPixels, final int pixelStep, final int lineStep,
+                              final double tolerance) {
+
+        this.pixelStep = pixelStep;
+        this.lineStep  = lineStep;
+        this.tolerance = tolerance;
+
+        // nodes every pixelStep pixels, the last pixel being always a node
+        final int nbCells = FastMath.max(1, (nbPixels - 2 + pixelStep) / pixelStep);
+        this.pixelNodes = new double[nbCells + 1];
+        for (int i = 0; i < nbCells; ++i) {
+            pixelNodes[i] = i * pixelStep;
+        }
+        pixelNodes[nbCells] = FastMath.max(1, nbPixels - 1);
+
+        this.bands      = new ConcurrentHashMap<>();
+        this.bandsOrder = new ArrayDeque<>();
+
+    }
+
+    /** Get the pixel step between grid nodes.
+     * @return pixel step between grid nodes
+     */
+    public int getPixelStep() {
+        return pixelStep;
+    }
+
+    /** Get the line step between grid nodes.
+     * @return line step between grid nodes
+     */
+    public int getLineStep() {
+        return lineStep;
+    }
+
+    /** Get the tolerance on the interpolated ground points.
+     * @return tolerance on the interpolated ground points (m)
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /** Apply the interpolated atmospheric refraction correction to a ground point.
+     * @param pixel pixel number
+     * @param line line number
+     * @param rawIntersection intersection point before refraction correction
+     * @param ellipsoid reference ellipsoid
+     * @param algorithm intersection algorithm
+     * @param locator locator for the exact grid nodes, only called when some grid cells
+     * must be computed
+     * @return corrected point with the effect of atmospheric refraction, or null if
+     * the point is in a grid cell where interpolation is not accurate enough, in which
+     * case the exact correction must be used
+     */
+    public NormalizedGeodeticPoint applyCorrection(final double pixel, final double line,
+                                                   final NormalizedGeodeticPoint rawIntersection,
+                                                   final ExtendedEllipsoid ellipsoid,
+                                                   final IntersectionAlgorithm algorithm,
+                                                   final NodeLocator locator) {
+
+        // select the grid cell
+        final long   lineIndex = (long) FastMath.floor(line / lineStep);
+        final int    cellIndex = FastMath.max(0, FastMath.min(pixelNodes.length - 2,
+                                                              (int) FastMath.floor(pixel / pixelStep)));
+        final Band   band      = getBand(lineIndex, ellipsoid, algorithm, locator);
+        if (!band.accurate[cellIndex]) {
+            return null;
+        }
+
+        // bilinear interpolation of the offsets
+        final double wp = (pixel - pixelNodes[cellIndex]) / (pixelNodes[cellIndex + 1] - pixelNodes[cellIndex]);
+        final double wl = line / lineStep - lineIndex;
+        return band.interpolate(cellIndex, wp, wl, rawIntersection, algorithm);
+
+    }
+
+    /** Get a band of grid cells, computing it if needed.
+     * @param lineIndex index of the band (i.e. index of its first node line)
+     * @param ellipsoid reference ellipsoid
+     * @param algorithm intersection algorithm
+     * @param locator locator for the exact grid nodes
+     * @return band of grid cells
+     */
+    private Band getBand(final long lineIndex, final ExtendedEllipsoid ellipsoid,
+                         final IntersectionAlgorithm algorithm, final NodeLocator locator) {
+
+        BandEntry entry = bands.get(lineIndex);
+        if (entry == null) {
+            final BandEntry created = new BandEntry(lineIndex);
+            entry = bands.putIfAbsent(lineIndex, created);
+            if (entry == null) {
+                entry = created;
+                synchronized (bandsOrder) {
+                    bandsOrder.addLast(lineIndex);
+                    while (bandsOrder.size() > MAX_BANDS) {
+                        bands.remove(bandsOrder.removeFirst());
+                    }
+                }
+            }
+        }
+
+        return entry.getBand(ellipsoid, algorithm, locator);
+
+    }
+
+    /** Get a node line already computed by a cached band.
+     * @param lineIndex index of the band
+     * @param first if true, get the first node line of the band, otherwise get its last node line
+     * @return node line, or null if the band is not available
+     */
+    private NodeLine getComputedNodeLine(final long lineIndex, final boolean first) {
+        final BandEntry entry = bands.get(lineIndex);
+        final Band      band  = entry == null ? null : entry.band;
+        return band == null ? null : (first ? band.first : band.last);
+    }
+
+    /** Locator for the exact grid nodes.
+     */
+    public interface NodeLocator {
+
+        /** Locate a sensor pixel, with and without atmospheric refraction correction.
+         * @param pixel pixel number
+         * @param line line number
+         * @return an array containing the ground point without atmospheric refraction
+         * correction at index 0 and the ground point with atmospheric refraction
+         * correction at index 1
+         */
+        NormalizedGeodeticPoint[] locate(double pixel, double line);
+
+    }
+
+    /** Cache entry for one band of grid cells.
+     * <p>
+     * Each entry has its own lock, so bands are computed outside of any global lock.
+     * </p>
+     */
+    private class BandEntry {
+
+        /** Index of the band. */
+        private final long lineIndex;
+
+        /** Band of grid cells (null until computed). */
+        private volatile Band band;
+
+        /** Simple constructor.
+         * @param lineIndex index of the band
+         */
+        BandEntry(final long lineIndex) {
+            this.lineIndex = lineIndex;
+        }
+
+        /** Get the band, computing it if needed.
+         * @param ellipsoid reference ellipsoid
+         * @param algorithm intersection algorithm
+         * @param locator locator for the exact grid nodes
+         * @return band of grid cells
+         */
+        Band getBand(final ExtendedEllipsoid ellipsoid, final IntersectionAlgorithm algorithm,
+                     final NodeLocator locator) {
+
+            // fast path, the band has already been computed
+            final Band computed = band;
+            if (computed != null) {
+                return computed;
+            }
+
+            synchronized (this) {
+                if (band == null) {
+
+                    // reuse the node lines shared with neighboring bands
+                    final NodeLine previous = getComputedNodeLine(lineIndex - 1, false);
+                    final NodeLine next     = getComputedNodeLine(lineIndex + 1, true);
+                    final NodeLine first    = previous != null ?
+                                              previous : new NodeLine(lineIndex * lineStep, locator);
+                    final NodeLine second   = next != null ?
+                                              next : new NodeLine((lineIndex + 1) * lineStep, locator);
+
+                    band = new Band(lineIndex, first, second, ellipsoid, algorithm, locator);
+
+                }
+                return band;
+            }
+
+        }
+
+    }
+
+    /** Offsets at the nodes of one grid line. */
+    private class NodeLine {
+
+        /** Latitude offsets at nodes (rad). */
+        private final double[] dLat;
+
+        /** Longitude offsets at nodes (rad). */
+        private final double[] dLon;
+
+        /** Simple constructor.
+         * @param line line number
+         * @param locator locator for the exact grid nodes
+         */
+        NodeLine(final double line, final NodeLocator locator) {
+            dLat = new double[pixelNodes.length];
+            dLon = new double[pixelNodes.length];
+            for (int i = 0; i < pixelNodes.length; ++i) {
+                final NormalizedGeodeticPoint[] points = locator.locate(pixelNodes[i], line);
+                dLat[i] = points[1].getLatitude() - points[0].getLatitude();
+                dLon[i] = MathUtils.normalizeAngle(points[1].getLongitude(), points[0].getLongitude()) -
+                          points[0].getLongitude();
+            }
+        }
+
+    }
+
+    /** Band of grid cells between two node lines. */
+    private class Band {
+
+        /** Index of the band. */
+        private final long lineIndex;
+
+        /** First node line. */
+        private final NodeLine first;
+
+        /** Last node line. */
+        private final NodeLine last;
+
+        /** Flags for cells where interpolation is accurate enough. */
+        private final boolean[] accurate;
+
+        /** Simple constructor.
+         * @param lineIndex index of the band
+         * @param first first node line
+         * @param last last node line
+         * @param ellipsoid reference ellipsoid
+         * @param algorithm intersection algorithm
+         * @param locator locator for the exact grid nodes
+         */
+        Band(final long lineIndex, final NodeLine first, final NodeLine last,
+             final ExtendedEllipsoid ellipsoid, final IntersectionAlgorithm algorithm,
+             final NodeLocator locator) {
+
+            this.lineIndex = lineIndex;
+            this.first     = first;
+            this.last      = last;
+            this.accurate  = new boolean[pixelNodes.length - 1];
+
+            // check interpolation at the center of each cell, where it is expected to be worst
+            final double line = (lineIndex + 0.5) * lineStep;
+            for (int i = 0; i < accurate.length; ++i) {
+                final NormalizedGeodeticPoint[] points = locator.locate(0.5 * (pixelNodes[i] + pixelNodes[i + 1]), line);
+                final NormalizedGeodeticPoint interpolated = interpolate(i, 0.5, 0.5, points[0], algorithm);
+                accurate[i] = ellipsoid.transform(interpolated).distance(ellipsoid.transform(points[1])) <= tolerance;
+            }
+
+        }
+
+        /** Interpolate the correction in a cell.
+         * @param cellIndex index of the cell
+         * @param wp weight of the last pixel node
+         * @param wl weight of the last line node
+         * @param rawIntersection intersection point before refraction correction
+         * @param algorithm intersection algorithm
+         * @return corrected point
+         */
+        NormalizedGeodeticPoint interpolate(final int cellIndex, final double wp, final double wl,
+                                            final NormalizedGeodeticPoint rawIntersection,
+                                            final IntersectionAlgorithm algorithm) {
+            final double w00 = (1 - wp) * (1 - wl);
+            final double w10 = wp * (1 - wl);
+            final double w01 = (1 - wp) * wl;
+            final double w11 = wp * wl;
+            final double latitude  = rawIntersection.getLatitude() +
+                                     w00 * first.dLat[cellIndex] + w10 * first.dLat[cellIndex + 1] +
+                                     w01 * last.dLat[cellIndex]  + w11 * last.dLat[cellIndex + 1];
+            final double longitude = rawIntersection.getLongitude() +
+                                     w00 * first.dLon[cellIndex] + w10 * first.dLon[cellIndex + 1] +
+                                     w01 * last.dLon[cellIndex]  + w11 * last.dLon[cellIndex + 1];
+            return new NormalizedGeodeticPoint(latitude, longitude,
+                                               algorithm.getElevation(latitude, longitude),
+                                               rawIntersection.getLongitude());
+        }
+
+    }
+
+}
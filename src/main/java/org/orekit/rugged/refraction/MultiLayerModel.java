@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
 import org.orekit.bodies.GeodeticPoint;
@@ -47,6 +48,16 @@ public class MultiLayerModel extends AtmosphericRefraction {
     /** Atmosphere lowest altitude (m). */
     private final double atmosphereLowestAltitude;
 
+    /** Lookup table (null if exact ray trace is used).
+     * @since 4.1
+     */
+    private volatile RefractionLookupTable lookupTable;
+
+    /** Tolerance for lookup table validation (m), NaN if validation is disabled.
+     * @since 4.1
+     */
+    private volatile double validationTolerance;
+
     /** Simple constructor.
      * <p>
      * This model uses a built-in set of layers.
@@ -78,6 +89,8 @@ public class MultiLayerModel extends AtmosphericRefraction {
 
         // get the lowest altitude of the atmospheric model
         this.atmosphereLowestAltitude = refractionLayers.get(refractionLayers.size() - 1).getLowestAltitude();
+        this.lookupTable              = null;
+        this.validationTolerance      = Double.NaN;
     }
 
     /** Simple constructor.
@@ -98,6 +111,83 @@ public class MultiLayerModel extends AtmosphericRefraction {
 
         // get the lowest altitude of the model
         atmosphereLowestAltitude = this.refractionLayers.get(this.refractionLayers.size() - 1).getLowestAltitude();
+        lookupTable              = null;
+        validationTolerance      = Double.NaN;
+    }
+
+    /** Enable the lookup table.
+     * <p>
+     * By default, each ray is traced exactly through all the layers, which implies
+     * several ellipsoid intersections and coordinates conversions per ray. When the
+     * lookup table is enabled, the differences between the refracted ray and the
+     * straight ray are precomputed for regularly sampled zenith angles, at each layer
+     * interface. Applying the correction then only requires one intersection of the
+     * straight ray with an interface, one table interpolation and the final Digital
+     * Elevation Model intersection.
+     * </p>
+     * <p>
+     * The table only covers rays coming from above the highest layer interface, with
+     * zenith angles up to {@code maxZenithAngle}. Other rays are traced exactly.
+     * </p>
+     * @param maxZenithAngle maximum zenith angle covered by the table (rad),
+     * must be between 0 (excluded) and π/2 (excluded)
+     * @param nbSamples number of zenith angle samples (at least 2)
+     * @see #disableLookupTable()
+     * @see #setLookupTableValidation(double)
+     * @since 4.1
+     */
+    public void setLookupTable(final double maxZenithAngle, final int nbSamples) {
+        if (!(maxZenithAngle > 0 && maxZenithAngle < 0.5 * FastMath.PI)) {
+            throw new RuggedException(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE,
+                                      maxZenithAngle, 0.0, 0.5 * FastMath.PI);
+        }
+        if (nbSamples < 2) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL, nbSamples, 2);
+        }
+        lookupTable = new RefractionLookupTable(refractionLayers, ellipsoid.getEquatorialRadius(),
+                                                maxZenithAngle, nbSamples);
+    }
+
+    /** Disable the lookup table, tracing all rays exactly.
+     * @see #setLookupTable(double, int)
+     * @since 4.1
+     */
+    public void disableLookupTable() {
+        lookupTable = null;
+    }
+
+    /** Check if the lookup table is enabled.
+     * @return true if the lookup table is enabled
+     * @since 4.1
+     */
+    public boolean isLookupTableEnabled() {
+        return lookupTable != null;
+    }
+
+    /** Enable validation of the lookup table.
+     * <p>
+     * When validation is enabled, each ray corrected using the lookup table is also
+     * traced exactly, and an exception is thrown if the distance between the two
+     * corrected ground points exceeds the tolerance. This mode is intended for
+     * checking the table settings, as it is slower than exact ray tracing alone.
+     * </p>
+     * @param tolerance tolerance on the corrected ground points (m)
+     * @see #disableLookupTableValidation()
+     * @since 4.1
+     */
+    public void setLookupTableValidation(final double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL_BOUND_EXCLUDED, tolerance, 0.0);
+        }
+        validationTolerance = tolerance;
+    }
+
+    /** Disable validation of the lookup table.
+     * @see #setLookupTableValidation(double)
+     * @since 4.1
+     */
+    public void disableLookupTableValidation() {
+        validationTolerance = Double.NaN;
     }
 
     /** Compute the (position, LOS) of the intersection with the lowest atmospheric layer.
@@ -236,6 +326,32 @@ public class MultiLayerModel extends AtmosphericRefraction {
                                                    final NormalizedGeodeticPoint rawIntersection,
                                                    final IntersectionAlgorithm algorithm) {
 
+        final RefractionLookupTable table = lookupTable;
+        final IntersectionLOS tabulatedLOS = table == null ?
+                                             null : computeTabulatedLOS(table, satPos, satLos, rawIntersection);
+        if (tabulatedLOS != null) {
+
+            final NormalizedGeodeticPoint tabulated =
+                    algorithm.refineIntersection(ellipsoid, tabulatedLOS.getIntersectionPos(),
+                                                 tabulatedLOS.getIntersectionLos(), rawIntersection);
+
+            final double tolerance = validationTolerance;
+            if (!Double.isNaN(tolerance)) {
+                // compare with exact ray trace
+                final IntersectionLOS exactLOS = computeToLowestAtmosphereLayer(satPos, satLos, rawIntersection);
+                final NormalizedGeodeticPoint exact =
+                        algorithm.refineIntersection(ellipsoid, exactLOS.getIntersectionPos(),
+                                                     exactLOS.getIntersectionLos(), rawIntersection);
+                final double error = ellipsoid.transform(tabulated).distance(ellipsoid.transform(exact));
+                if (error > tolerance) {
+                    throw new RuggedException(RuggedMessages.REFRACTION_LOOKUP_TABLE_INACCURATE, error, tolerance);
+                }
+            }
+
+            return tabulated;
+
+        }
+
         final IntersectionLOS intersectionLOS = computeToLowestAtmosphereLayer(satPos, satLos, rawIntersection);
         final Vector3D pos = intersectionLOS.getIntersectionPos();
         final Vector3D los = intersectionLOS.getIntersectionLos();
@@ -246,6 +362,70 @@ public class MultiLayerModel extends AtmosphericRefraction {
         return algorithm.refineIntersection(ellipsoid, pos, los, rawIntersection);
     }
 
+    /** Compute the (position, LOS) of the intersection with the lowest atmospheric layer, using lookup table.
+     * @param table lookup table
+     * @param satPos satellite position, in body frame
+     * @param satLos satellite line of sight, in body frame
+     * @param rawIntersection intersection point without refraction correction
+     * @return the intersection position and LOS with the lowest atmospheric layer,
+     * or null if the ray is not covered by the lookup table and must be traced exactly
+     * @since 4.1
+     */
+    private IntersectionLOS computeTabulatedLOS(final RefractionLookupTable table,
+                                                final Vector3D satPos, final Vector3D satLos,
+                                                final NormalizedGeodeticPoint rawIntersection) {
+
+        if (rawIntersection.getAltitude() < atmosphereLowestAltitude) {
+            throw new RuggedException(RuggedMessages.NO_LAYER_DATA, rawIntersection.getAltitude(),
+                                      atmosphereLowestAltitude);
+        }
+
+        // the table only covers rays coming from above the highest interface
+        // (conservative check, the geodetic altitude is at least the norm minus the equatorial radius)
+        final double radius = ellipsoid.getEquatorialRadius();
+        if (satPos.getNorm() - radius < refractionLayers.get(0).getLowestAltitude()) {
+            return null;
+        }
+
+        // find the layer where the exact ray trace would stop
+        int stopLayer = 0;
+        while (stopLayer < refractionLayers.size() &&
+               rawIntersection.getAltitude() <= refractionLayers.get(stopLayer).getLowestAltitude()) {
+            ++stopLayer;
+        }
+        if (stopLayer == 0 || stopLayer == refractionLayers.size()) {
+            // no refraction at all, or ray trace down to the lowest altitude, not covered by the table
+            return null;
+        }
+
+        // straight ray at stop interface
+        final double   stopAltitude = refractionLayers.get(stopLayer - 1).getLowestAltitude();
+        final Vector3D los          = satLos.normalize();
+        final Vector3D straightPos  = ellipsoid.pointAtAltitude(satPos, los, stopAltitude);
+        final Vector3D zenith       = ellipsoid.transform(straightPos, ellipsoid.getBodyFrame(), null).getZenith();
+        final double   cosZenith    = -Vector3D.dotProduct(los, zenith);
+        final Vector3D horizontal   = new Vector3D(1, los, cosZenith, zenith);
+        final double   sinZenith    = horizontal.getNorm();
+        if (sinZenith == 0) {
+            // vertical ray, it is not refracted
+            return new IntersectionLOS(straightPos, los);
+        }
+
+        // apply the tabulated differences between refracted and straight rays
+        final double   zenithAngle = FastMath.atan2(sinZenith, cosZenith);
+        final double[] differences = new double[2];
+        if (!table.interpolate(stopLayer, zenithAngle, differences)) {
+            return null;
+        }
+        final double   refractedZenith = zenithAngle + differences[1];
+        final Vector3D azimuth         = horizontal.scalarMultiply(1.0 / sinZenith);
+        final Vector3D pos             = new Vector3D(1, straightPos, differences[0] * (radius + stopAltitude), azimuth);
+        final Vector3D refractedLos    = new Vector3D(FastMath.sin(refractedZenith), azimuth,
+                                                      -FastMath.cos(refractedZenith), zenith);
+        return new IntersectionLOS(pos, refractedLos);
+
+    }
+
 } // end of class MultiLayerModel
 
 /** Container for the (position, LOS) of the intersection with the lowest atmospheric layer.
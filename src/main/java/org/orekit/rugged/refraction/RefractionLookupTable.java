@@ -0,0 +1,144 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.refraction;
+
+import java.util.List;
+
+import org.hipparchus.util.FastMath;
+
+/** Lookup table for the multi layers atmospheric refraction model.
+ * <p>
+ * For a fixed stack of layers and a ray entering the atmosphere from above its
+ * highest interface, the bending of the ray down to a given interface depends only
+ * on the incidence angle. This table stores, for each interface where a ray trace
+ * may stop and for regularly sampled zenith angles, the differences between the
+ * refracted ray and the straight (non refracted) ray at this interface: the
+ * displacement of the crossing point along the ray azimuth and the change of
+ * the ray direction.
+ * </p>
+ * <p>
+ * The zenith angles used as abscissae are the ones of the straight ray at the
+ * interface where the ray trace stops, so applying the table only requires
+ * intersecting the straight ray with this interface. The table is computed
+ * using a spherical body with the equatorial radius of the ellipsoid, which
+ * is sufficient as only the small differences between the refracted and
+ * the straight rays are tabulated.
+ * </p>
+ * <p>
+ * Instances of this class are immutable.
+ * </p>
+ * @see MultiLayerModel#setLookupTable(double, int)
+ * @since 4.1
+ */
+class RefractionLookupTable {
+
+    /** Step between zenith angle samples (rad). */
+    private final double step;
+
+    /** Displacements of the crossing point, as central angles along ray azimuth (rad),
+     * indexed by stop layer and zenith angle sample. */
+    private final double[][] displacement;
+
+    /** Changes of ray direction (rad), indexed by stop layer and zenith angle sample. */
+    private final double[][] deflection;
+
+    /** Simple constructor.
+     * @param layers refraction layers, sorted from the highest to the lowest
+     * @param radius body radius (m)
+     * @param maxZenithAngle maximum zenith angle covered by the table (rad)
+     * @param nbSamples number of zenith angle samples
+     */
+    RefractionLookupTable(final List<ConstantRefractionLayer> layers, final double radius,
+                          final double maxZenithAngle, final int nbSamples) {
+
+        this.step         = maxZenithAngle / (nbSamples - 1);
+        this.displacement = new double[layers.size()][];
+        this.deflection   = new double[layers.size()][];
+
+        final double r0 = radius + layers.get(0).getLowestAltitude();
+        for (int j = 1; j < layers.size(); ++j) {
+
+            // the ray trace stops at the interface between layers j-1 and j, with a ray in layer j
+            displacement[j] = new double[nbSamples];
+            deflection[j]   = new double[nbSamples];
+            final double rExit = radius + layers.get(j - 1).getLowestAltitude();
+
+            for (int s = 0; s < nbSamples; ++s) {
+
+                // straight ray from the highest interface, with impact parameter r sin(θ) constant
+                final double thetaS = s * step;
+                final double p      = rExit * FastMath.sin(thetaS);
+                final double theta0 = FastMath.asin(p / r0);
+
+                // refracted ray, from the highest interface down to the stop interface
+                // along a straight segment, θ - φ is constant
+                double r     = r0;
+                double theta = theta0;
+                double phi   = 0;
+                for (int i = 1; i <= j; ++i) {
+
+                    // Snell's law at interface
+                    final double ratio = layers.get(i - 1).getRefractiveIndex() / layers.get(i).getRefractiveIndex();
+                    theta = FastMath.asin(ratio * FastMath.sin(theta));
+
+                    if (i < j) {
+                        // straight segment down to the next interface
+                        final double rNext     = radius + layers.get(i).getLowestAltitude();
+                        final double thetaNext = FastMath.asin(r * FastMath.sin(theta) / rNext);
+                        phi  += thetaNext - theta;
+                        theta = thetaNext;
+                        r     = rNext;
+                    }
+
+                }
+
+                // differences with respect to the straight ray, at the stop interface,
+                // the direction change being expressed in the straight ray local frame
+                // (NaN if the ray does not reach the stop interface)
+                displacement[j][s] = phi - (thetaS - theta0);
+                deflection[j][s]   = theta - displacement[j][s] - thetaS;
+
+            }
+        }
+
+    }
+
+    /** Interpolate the differences between refracted and straight rays.
+     * @param stopLayer index of the layer where the ray trace stops (must be at least 1)
+     * @param zenithAngle zenith angle of the straight ray at the stop interface (rad)
+     * @param differences placeholder for the displacement of the crossing point (central
+     * angle along ray azimuth, rad) at index 0 and the change of ray direction (rad) at index 1
+     * @return true if the zenith angle is covered by the table, false otherwise
+     */
+    boolean interpolate(final int stopLayer, final double zenithAngle, final double[] differences) {
+
+        final double x = zenithAngle / step;
+        final int    k = (int) FastMath.floor(x);
+        if (k < 0 || k + 1 >= displacement[stopLayer].length) {
+            return false;
+        }
+
+        final double w = x - k;
+        differences[0] = (1 - w) * displacement[stopLayer][k] + w * displacement[stopLayer][k + 1];
+        differences[1] = (1 - w) * deflection[stopLayer][k]   + w * deflection[stopLayer][k + 1];
+
+        // samples are NaN for rays that do not reach the stop interface
+        return !(Double.isNaN(differences[0]) || Double.isNaN(differences[1]));
+
+    }
+
+}
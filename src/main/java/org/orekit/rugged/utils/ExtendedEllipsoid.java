@@ -20,6 +20,7 @@ import org.hipparchus.geometry.euclidean.threed.Line;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
 import org.hipparchus.util.MathArrays;
+import org.hipparchus.util.MathUtils;
 import org.orekit.bodies.GeodeticPoint;
 import org.orekit.bodies.OneAxisEllipsoid;
 import org.orekit.frames.Frame;
@@ -86,73 +87,12 @@ public class ExtendedEllipsoid extends OneAxisEllipsoid {
 
         DumpManager.dumpEllipsoid(this);
 
-        // find apex of iso-latitude cone, somewhere along polar axis
-        final double sinPhi  = FastMath.sin(latitude);
-        final double sinPhi2 = sinPhi * sinPhi;
-        final double e2      = getFlattening() * (2 - getFlattening());
-        final double apexZ   = -getA() * e2 * sinPhi / FastMath.sqrt(1 - e2 * sinPhi2);
-
-        // quadratic equation representing line intersection with iso-latitude cone
-        // a k² + 2 b k + c = 0
-        // when line of sight is almost along an iso-latitude generatrix, the quadratic
-        // equation above may become unsolvable due to numerical noise (we get catastrophic
-        // cancellation when computing b * b - a * c). So we set up the model in two steps,
-        // first searching k₀ such that position + k₀ los is close to closeReference, and
-        // then using position + k₀ los as the new initial position, which should be in
-        // the neighborhood of the solution
-        final double cosPhi  = FastMath.cos(latitude);
-        final double cosPhi2 = cosPhi * cosPhi;
-        final double k0 = Vector3D.dotProduct(closeReference.subtract(position), los) / los.getNormSq();
-
-        final Vector3D delta  = new Vector3D(MathArrays.linearCombination(1, position.getX(), k0, los.getX()),
-                                             MathArrays.linearCombination(1, position.getY(), k0, los.getY()),
-                                             MathArrays.linearCombination(1, position.getZ(), k0, los.getZ(), -1.0, apexZ));
-        final double   a     = MathArrays.linearCombination(+sinPhi2, los.getX() * los.getX() + los.getY() * los.getY(),
-                                                            -cosPhi2, los.getZ() * los.getZ());
-        final double   b      = MathArrays.linearCombination(+sinPhi2, MathArrays.linearCombination(delta.getX(), los.getX(),
-                                                                                                    delta.getY(), los.getY()),
-                                                             -cosPhi2, delta.getZ() * los.getZ());
-        final double   c      = MathArrays.linearCombination(+sinPhi2, delta.getX() * delta.getX() + delta.getY() * delta.getY(),
-                                                             -cosPhi2, delta.getZ() * delta.getZ());
-
-        // find the two intersections along the line
-        if (b * b < a * c) {
-            throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_NEVER_CROSSES_LATITUDE,
-                                      FastMath.toDegrees(latitude));
-        }
-        final double s  = FastMath.sqrt(MathArrays.linearCombination(b, b, -a, c));
-        final double k1 = (b > 0) ? -(s + b) / a : c / (s - b);
-        final double k2 = c / (a * k1);
-
-        // the quadratic equation has two solutions
-        final boolean  k1IsOK = (delta.getZ() + k1 * los.getZ()) * latitude >= 0;
-        final boolean  k2IsOK = (delta.getZ() + k2 * los.getZ()) * latitude >= 0;
-        final double selectedK;
-        if (k1IsOK) {
-            if (k2IsOK) {
-                // both solutions are in the good nappe,
-                // select the one closest to the specified reference
-                final double kRef = Vector3D.dotProduct(los, closeReference.subtract(position)) /
-                                    los.getNormSq() - k0;
-                selectedK = FastMath.abs(k1 - kRef) <= FastMath.abs(k2 - kRef) ? k1 : k2;
-            } else {
-                // only k1 is in the good nappe
-                selectedK = k1;
-            }
-        } else {
-            if (k2IsOK) {
-                // only k2 is in the good nappe
-                selectedK = k2;
-            } else {
-                // both solutions are in the wrong nappe,
-                // there are no solutions
-                throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_NEVER_CROSSES_LATITUDE,
-                                          FastMath.toDegrees(latitude));
-            }
-        }
+        final double k = latitudeCrossing(position.getX(), position.getY(), position.getZ(),
+                                          los.getX(), los.getY(), los.getZ(), latitude,
+                                          closeReference.getX(), closeReference.getY(), closeReference.getZ());
 
         // compute point
-        return new Vector3D(1, position, k0 + selectedK, los);
+        return new Vector3D(1, position, k, los);
 
     }
 
@@ -200,6 +140,46 @@ public class ExtendedEllipsoid extends OneAxisEllipsoid {
                 centralLongitude);
     }
 
+    /** Get the distance along a pixel line of sight to the ellipsoid.
+     * <p>
+     * This method is equivalent to computing the distance between {@code position}
+     * and {@link #pointOnGround(Vector3D, Vector3D, double) pointOnGround(position, los,
+     * centralLongitude)}, but it works directly in Cartesian coordinates and does
+     * not allocate any object, so it is suited to per-pixel computation.
+     * </p>
+     * @param position cell position (in body frame) (m)
+     * @param los pixel line-of-sight, not necessarily normalized (in body frame)
+     * @return distance between position and the closest intersection of the line with the ellipsoid (m)
+     * @since 4.1
+     */
+    public double distanceToGround(final Vector3D position, final Vector3D los) {
+
+        DumpManager.dumpEllipsoid(this);
+
+        final double px = position.getX();
+        final double py = position.getY();
+        final double pz = position.getZ();
+        final double lx = los.getX();
+        final double ly = los.getY();
+        final double lz = los.getZ();
+
+        // solve a k² + 2 b k + c = 0 for the point position + k los on the ellipsoid
+        final double a = (lx * lx + ly * ly) / a2 + lz * lz / b2;
+        final double b = (px * lx + py * ly) / a2 + pz * lz / b2;
+        final double c = (px * px + py * py) / a2 + pz * pz / b2 - 1.0;
+        final double delta = b * b - a * c;
+        if (delta < 0) {
+            throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_DOES_NOT_REACH_GROUND);
+        }
+
+        // select the root closest to position, using a numerically stable expression
+        final double q = -(b + FastMath.copySign(FastMath.sqrt(delta), b));
+        final double k = (q == 0) ? 0.0 : c / q;
+
+        return FastMath.abs(k) * los.getNorm();
+
+    }
+
     /** Get point at some altitude along a pixel line of sight.
      * @param position cell position (in body frame) (m)
      * @param los pixel line-of-sight, not necessarily normalized (in body frame)
@@ -294,6 +274,312 @@ public class ExtendedEllipsoid extends OneAxisEllipsoid {
         return convertLos(point, los);
     }
 
+    /** Get points on ground along several pixels lines of sight.
+     * <p>
+     * This method is a batch version of {@link #pointOnGround(Vector3D, Vector3D, double)},
+     * working on structure-of-arrays coordinates in body frame. It uses simple loops over
+     * primitive arrays and does not allocate any object. The Cartesian to geodetic
+     * conversion is performed as in {@link #transform(double[], double[], double[], double,
+     * double[], double[], double[])}, so results may differ from the single point version
+     * by a few 10⁻¹⁵ radians in latitude and a few 10⁻⁹ meters in altitude.
+     * </p>
+     * <p>
+     * The number of points is the length of the {@code px} array, all other arrays must be
+     * at least as long. Output arrays may be the same as input arrays, in which case the
+     * input coordinates are overwritten.
+     * </p>
+     * @param px abscissa of cells positions (in body frame) (m)
+     * @param py ordinate of cells positions (in body frame) (m)
+     * @param pz height of cells positions (in body frame) (m)
+     * @param lx abscissa of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param ly ordinate of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param lz height of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param centralLongitude reference longitude lc such that the points longitudes will
+     * be normalized between lc-π and lc+π (rad)
+     * @param latitudes placeholder for the latitudes of the points on ground (rad)
+     * @param longitudes placeholder for the longitudes of the points on ground (rad)
+     * @param altitudes placeholder for the altitudes of the points on ground (m)
+     * @since 4.1
+     */
+    public void pointOnGround(final double[] px, final double[] py, final double[] pz,
+                              final double[] lx, final double[] ly, final double[] lz,
+                              final double centralLongitude,
+                              final double[] latitudes, final double[] longitudes, final double[] altitudes) {
+
+        DumpManager.dumpEllipsoid(this);
+
+        // Cartesian intersection points, stored temporarily in the output arrays
+        for (int i = 0; i < px.length; ++i) {
+            final double pxI = px[i];
+            final double pyI = py[i];
+            final double pzI = pz[i];
+            final double lxI = lx[i];
+            final double lyI = ly[i];
+            final double lzI = lz[i];
+
+            // solve a k² + 2 b k + c = 0 for the point position + k los on the ellipsoid
+            final double a = (lxI * lxI + lyI * lyI) / a2 + lzI * lzI / b2;
+            final double b = (pxI * lxI + pyI * lyI) / a2 + pzI * lzI / b2;
+            final double c = (pxI * pxI + pyI * pyI) / a2 + pzI * pzI / b2 - 1.0;
+            final double delta = b * b - a * c;
+            if (delta < 0) {
+                throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_DOES_NOT_REACH_GROUND);
+            }
+
+            // select the root closest to position, using a numerically stable expression
+            final double q = -(b + FastMath.copySign(FastMath.sqrt(delta), b));
+            final double k = (q == 0) ? 0.0 : c / q;
+
+            latitudes[i]  = pxI + k * lxI;
+            longitudes[i] = pyI + k * lyI;
+            altitudes[i]  = pzI + k * lzI;
+
+        }
+
+        // in place conversion to geodetic coordinates
+        transform(latitudes, longitudes, altitudes, centralLongitude, latitudes, longitudes, altitudes);
+
+    }
+
+    /** Get points at some altitude along several pixels lines of sight.
+     * <p>
+     * This method is a batch version of {@link #pointAtAltitude(Vector3D, Vector3D, double)},
+     * working on structure-of-arrays coordinates in body frame. It uses simple loops over
+     * primitive arrays and does not allocate any object.
+     * </p>
+     * <p>
+     * The number of points is the length of the {@code px} array, all other arrays must be
+     * at least as long. Output arrays may be the same as input arrays, in which case the
+     * input coordinates are overwritten.
+     * </p>
+     * @param px abscissa of cells positions (in body frame) (m)
+     * @param py ordinate of cells positions (in body frame) (m)
+     * @param pz height of cells positions (in body frame) (m)
+     * @param lx abscissa of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param ly ordinate of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param lz height of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param altitude altitude with respect to ellipsoid (m)
+     * @param x placeholder for the abscissa of the points at altitude (m)
+     * @param y placeholder for the ordinate of the points at altitude (m)
+     * @param z placeholder for the height of the points at altitude (m)
+     * @since 4.1
+     */
+    public void pointAtAltitude(final double[] px, final double[] py, final double[] pz,
+                                final double[] lx, final double[] ly, final double[] lz,
+                                final double altitude,
+                                final double[] x, final double[] y, final double[] z) {
+
+        DumpManager.dumpEllipsoid(this);
+
+        final GeodeticConverter converter = new GeodeticConverter();
+        final double r = getEquatorialRadius() + altitude;
+        for (int i = 0; i < px.length; ++i) {
+            final double pxI = px[i];
+            final double pyI = py[i];
+            final double pzI = pz[i];
+            final double lxI = lx[i];
+            final double lyI = ly[i];
+            final double lzI = lz[i];
+
+            // point on line closest to origin
+            final double los2 = lxI * lxI + lyI * lyI + lzI * lzI;
+            final double k0   = -(pxI * lxI + pyI * lyI + pzI * lzI) / los2;
+            final double c0x  = pxI + k0 * lxI;
+            final double c0y  = pyI + k0 * lyI;
+            final double c0z  = pzI + k0 * lzI;
+
+            // very rough guess: if body is spherical, the desired point on line
+            // is at distance ae + altitude from origin
+            final double delta2 = r * r - (c0x * c0x + c0y * c0y + c0z * c0z);
+            if (delta2 < 0) {
+                throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_NEVER_CROSSES_ALTITUDE, altitude);
+            }
+            final double deltaK = FastMath.sqrt(delta2 / los2);
+            final double k1     = k0 + deltaK;
+            final double k2     = k0 - deltaK;
+            double k            = (FastMath.abs(k1) <= FastMath.abs(k2)) ? k1 : k2;
+
+            // this loop generally converges in 3 iterations
+            boolean converged = false;
+            for (int j = 0; j < 100 && !converged; ++j) {
+
+                final double xK = pxI + k * lxI;
+                final double yK = pyI + k * lyI;
+                final double zK = pzI + k * lzI;
+                converter.convert(xK, yK, zK);
+                final double deltaH = altitude - converter.altitude;
+                if (FastMath.abs(deltaH) <= ALTITUDE_CONVERGENCE) {
+                    x[i] = xK;
+                    y[i] = yK;
+                    z[i] = zK;
+                    converged = true;
+                } else {
+                    // improve the offset using linear ratio between
+                    // altitude variation and displacement along line-of-sight
+                    final double cosPhi = FastMath.cos(converter.latitude);
+                    final double zenithDotLos = cosPhi * FastMath.cos(converter.longitude) * lxI +
+                                                cosPhi * FastMath.sin(converter.longitude) * lyI +
+                                                FastMath.sin(converter.latitude) * lzI;
+                    k += deltaH / zenithDotLos;
+                }
+
+            }
+
+            if (!converged) {
+                // this should never happen
+                throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_NEVER_CROSSES_ALTITUDE, altitude);
+            }
+
+        }
+
+    }
+
+    /** Get points at some longitude along several pixels lines of sight.
+     * <p>
+     * This method is a batch version of {@link #pointAtLongitude(Vector3D, Vector3D, double)},
+     * working on structure-of-arrays coordinates in body frame. It uses simple loops over
+     * primitive arrays and does not allocate any object. The results are identical to the
+     * ones of the single point version.
+     * </p>
+     * <p>
+     * The number of points is the length of the {@code px} array, all other arrays must be
+     * at least as long. Output arrays may be the same as input arrays, in which case the
+     * input coordinates are overwritten.
+     * </p>
+     * @param px abscissa of cells positions (in body frame) (m)
+     * @param py ordinate of cells positions (in body frame) (m)
+     * @param pz height of cells positions (in body frame) (m)
+     * @param lx abscissa of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param ly ordinate of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param lz height of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param longitude longitude with respect to ellipsoid (rad)
+     * @param x placeholder for the abscissa of the points at longitude (m)
+     * @param y placeholder for the ordinate of the points at longitude (m)
+     * @param z placeholder for the height of the points at longitude (m)
+     * @since 4.1
+     */
+    public void pointAtLongitude(final double[] px, final double[] py, final double[] pz,
+                                 final double[] lx, final double[] ly, final double[] lz,
+                                 final double longitude,
+                                 final double[] x, final double[] y, final double[] z) {
+
+        DumpManager.dumpEllipsoid(this);
+
+        // normal to meridian
+        final double nx = -FastMath.sin(longitude);
+        final double ny = FastMath.cos(longitude);
+
+        for (int i = 0; i < px.length; ++i) {
+            final double pxI = px[i];
+            final double pyI = py[i];
+            final double pzI = pz[i];
+            final double lxI = lx[i];
+            final double lyI = ly[i];
+            final double lzI = lz[i];
+            final double d   = MathArrays.linearCombination(lxI, nx, lyI, ny, lzI, 0.0);
+            if (FastMath.abs(d) < 1.0e-12) {
+                throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_NEVER_CROSSES_LONGITUDE,
+                                          FastMath.toDegrees(longitude));
+            }
+            final double k = -MathArrays.linearCombination(pxI, nx, pyI, ny, pzI, 0.0) / d;
+            x[i] = MathArrays.linearCombination(1, pxI, k, lxI);
+            y[i] = MathArrays.linearCombination(1, pyI, k, lyI);
+            z[i] = MathArrays.linearCombination(1, pzI, k, lzI);
+        }
+
+    }
+
+    /** Get points at some latitude along several pixels lines of sight.
+     * <p>
+     * This method is a batch version of {@link #pointAtLatitude(Vector3D, Vector3D, double, Vector3D)},
+     * working on structure-of-arrays coordinates in body frame. It uses simple loops over
+     * primitive arrays and does not allocate any object. The results are identical to the
+     * ones of the single point version.
+     * </p>
+     * <p>
+     * The number of points is the length of the {@code px} array, all other arrays must be
+     * at least as long. Output arrays may be the same as input arrays, in which case the
+     * input coordinates are overwritten.
+     * </p>
+     * @param px abscissa of cells positions (in body frame) (m)
+     * @param py ordinate of cells positions (in body frame) (m)
+     * @param pz height of cells positions (in body frame) (m)
+     * @param lx abscissa of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param ly ordinate of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param lz height of pixels lines-of-sight, not necessarily normalized (in body frame)
+     * @param latitude latitude with respect to ellipsoid (rad)
+     * @param rx abscissa of reference points used to select the closest solutions (m)
+     * @param ry ordinate of reference points used to select the closest solutions (m)
+     * @param rz height of reference points used to select the closest solutions (m)
+     * @param x placeholder for the abscissa of the points at latitude (m)
+     * @param y placeholder for the ordinate of the points at latitude (m)
+     * @param z placeholder for the height of the points at latitude (m)
+     * @since 4.1
+     */
+    public void pointAtLatitude(final double[] px, final double[] py, final double[] pz,
+                                final double[] lx, final double[] ly, final double[] lz,
+                                final double latitude,
+                                final double[] rx, final double[] ry, final double[] rz,
+                                final double[] x, final double[] y, final double[] z) {
+
+        DumpManager.dumpEllipsoid(this);
+
+        for (int i = 0; i < px.length; ++i) {
+            final double pxI = px[i];
+            final double pyI = py[i];
+            final double pzI = pz[i];
+            final double lxI = lx[i];
+            final double lyI = ly[i];
+            final double lzI = lz[i];
+            final double k   = latitudeCrossing(pxI, pyI, pzI, lxI, lyI, lzI, latitude, rx[i], ry[i], rz[i]);
+            x[i] = MathArrays.linearCombination(1, pxI, k, lxI);
+            y[i] = MathArrays.linearCombination(1, pyI, k, lyI);
+            z[i] = MathArrays.linearCombination(1, pzI, k, lzI);
+        }
+
+    }
+
+    /** Transform several Cartesian points to surface-relative points.
+     * <p>
+     * This method is a batch version of {@link #transform(Vector3D, Frame, AbsoluteDate, double)},
+     * working on structure-of-arrays coordinates in body frame. It uses simple loops over
+     * primitive arrays and does not allocate any object. It relies on Heikkinen closed-form
+     * conversion, whose accuracy with respect to the iterative single point version is a few
+     * 10⁻¹⁵ radians in latitude and a few 10⁻⁹ meters in altitude for points between the
+     * Earth surface and satellites altitudes. It must not be used for points close to the
+     * body center.
+     * </p>
+     * <p>
+     * The number of points is the length of the {@code x} array, all other arrays must be
+     * at least as long. Output arrays may be the same as input arrays, in which case the
+     * input coordinates are overwritten.
+     * </p>
+     * @param x abscissa of the Cartesian points (in body frame) (m)
+     * @param y ordinate of the Cartesian points (in body frame) (m)
+     * @param z height of the Cartesian points (in body frame) (m)
+     * @param centralLongitude reference longitude lc such that the points longitudes will
+     * be normalized between lc-π and lc+π (rad)
+     * @param latitudes placeholder for the latitudes of the points (rad)
+     * @param longitudes placeholder for the longitudes of the points (rad)
+     * @param altitudes placeholder for the altitudes of the points (m)
+     * @since 4.1
+     */
+    public void transform(final double[] x, final double[] y, final double[] z,
+                          final double centralLongitude,
+                          final double[] latitudes, final double[] longitudes, final double[] altitudes) {
+
+        DumpManager.dumpEllipsoid(this);
+
+        final GeodeticConverter converter = new GeodeticConverter();
+        for (int i = 0; i < x.length; ++i) {
+            converter.convert(x[i], y[i], z[i]);
+            latitudes[i]  = converter.latitude;
+            longitudes[i] = MathUtils.normalizeAngle(converter.longitude, centralLongitude);
+            altitudes[i]  = converter.altitude;
+        }
+
+    }
+
     /** Transform a cartesian point to a surface-relative point.
      * @param point cartesian point (m)
      * @param frame frame in which cartesian point is expressed
@@ -309,4 +595,164 @@ public class ExtendedEllipsoid extends OneAxisEllipsoid {
                                            centralLongitude);
     }
 
+    /** Compute the offset along a line-of-sight to reach some latitude.
+     * @param px abscissa of cell position (in body frame) (m)
+     * @param py ordinate of cell position (in body frame) (m)
+     * @param pz height of cell position (in body frame) (m)
+     * @param lx abscissa of pixel line-of-sight, not necessarily normalized (in body frame)
+     * @param ly ordinate of pixel line-of-sight, not necessarily normalized (in body frame)
+     * @param lz height of pixel line-of-sight, not necessarily normalized (in body frame)
+     * @param latitude latitude with respect to ellipsoid (rad)
+     * @param rx abscissa of reference point used to select the closest solution (m)
+     * @param ry ordinate of reference point used to select the closest solution (m)
+     * @param rz height of reference point used to select the closest solution (m)
+     * @return offset k such that position + k los is at latitude
+     * @since 4.1
+     */
+    private double latitudeCrossing(final double px, final double py, final double pz,
+                                    final double lx, final double ly, final double lz,
+                                    final double latitude,
+                                    final double rx, final double ry, final double rz) {
+
+        // find apex of iso-latitude cone, somewhere along polar axis
+        final double sinPhi  = FastMath.sin(latitude);
+        final double sinPhi2 = sinPhi * sinPhi;
+        final double e2      = getFlattening() * (2 - getFlattening());
+        final double apexZ   = -getA() * e2 * sinPhi / FastMath.sqrt(1 - e2 * sinPhi2);
+
+        // quadratic equation representing line intersection with iso-latitude cone
+        // a k² + 2 b k + c = 0
+        // when line of sight is almost along an iso-latitude generatrix, the quadratic
+        // equation above may become unsolvable due to numerical noise (we get catastrophic
+        // cancellation when computing b * b - a * c). So we set up the model in two steps,
+        // first searching k₀ such that position + k₀ los is close to closeReference, and
+        // then using position + k₀ los as the new initial position, which should be in
+        // the neighborhood of the solution
+        final double cosPhi  = FastMath.cos(latitude);
+        final double cosPhi2 = cosPhi * cosPhi;
+        final double los2    = lx * lx + ly * ly + lz * lz;
+        final double dx      = rx - px;
+        final double dy      = ry - py;
+        final double dz      = rz - pz;
+        final double k0      = MathArrays.linearCombination(dx, lx, dy, ly, dz, lz) / los2;
+
+        final double deltaX = MathArrays.linearCombination(1, px, k0, lx);
+        final double deltaY = MathArrays.linearCombination(1, py, k0, ly);
+        final double deltaZ = MathArrays.linearCombination(1, pz, k0, lz, -1.0, apexZ);
+        final double a      = MathArrays.linearCombination(+sinPhi2, lx * lx + ly * ly,
+                                                           -cosPhi2, lz * lz);
+        final double b      = MathArrays.linearCombination(+sinPhi2, MathArrays.linearCombination(deltaX, lx,
+                                                                                                  deltaY, ly),
+                                                           -cosPhi2, deltaZ * lz);
+        final double c      = MathArrays.linearCombination(+sinPhi2, deltaX * deltaX + deltaY * deltaY,
+                                                           -cosPhi2, deltaZ * deltaZ);
+
+        // find the two intersections along the line
+        if (b * b < a * c) {
+            throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_NEVER_CROSSES_LATITUDE,
+                                      FastMath.toDegrees(latitude));
+        }
+        final double s  = FastMath.sqrt(MathArrays.linearCombination(b, b, -a, c));
+        final double k1 = (b > 0) ? -(s + b) / a : c / (s - b);
+        final double k2 = c / (a * k1);
+
+        // the quadratic equation has two solutions
+        final boolean  k1IsOK = (deltaZ + k1 * lz) * latitude >= 0;
+        final boolean  k2IsOK = (deltaZ + k2 * lz) * latitude >= 0;
+        final double selectedK;
+        if (k1IsOK) {
+            if (k2IsOK) {
+                // both solutions are in the good nappe,
+                // select the one closest to the specified reference
+                final double kRef = MathArrays.linearCombination(lx, dx, ly, dy, lz, dz) / los2 - k0;
+                selectedK = FastMath.abs(k1 - kRef) <= FastMath.abs(k2 - kRef) ? k1 : k2;
+            } else {
+                // only k1 is in the good nappe
+                selectedK = k1;
+            }
+        } else {
+            if (k2IsOK) {
+                // only k2 is in the good nappe
+                selectedK = k2;
+            } else {
+                // both solutions are in the wrong nappe,
+                // there are no solutions
+                throw new RuggedException(RuggedMessages.LINE_OF_SIGHT_NEVER_CROSSES_LATITUDE,
+                                          FastMath.toDegrees(latitude));
+            }
+        }
+
+        return k0 + selectedK;
+
+    }
+
+    /** Converter from Cartesian to geodetic coordinates, without allocation.
+     * <p>
+     * The conversion uses Heikkinen closed-form formulas (see J. Zhu, "Conversion of
+     * Earth-centered Earth-fixed coordinates to geodetic coordinates", IEEE Transactions
+     * on Aerospace and Electronic Systems, vol. 30, 1994).
+     * </p>
+     * @since 4.1
+     */
+    private class GeodeticConverter {
+
+        /** Square of first eccentricity. */
+        private final double e2;
+
+        /** Square of second eccentricity. */
+        private final double ep2;
+
+        /** Difference of squared radii. */
+        private final double a2MinusB2;
+
+        /** Latitude of the last converted point (rad). */
+        private double latitude;
+
+        /** Longitude of the last converted point (rad). */
+        private double longitude;
+
+        /** Altitude of the last converted point (m). */
+        private double altitude;
+
+        /** Simple constructor.
+         */
+        GeodeticConverter() {
+            this.e2        = getFlattening() * (2 - getFlattening());
+            this.ep2       = a2 / b2 - 1;
+            this.a2MinusB2 = a2 - b2;
+        }
+
+        /** Convert a point.
+         * @param x abscissa of the point (in body frame) (m)
+         * @param y ordinate of the point (in body frame) (m)
+         * @param z height of the point (in body frame) (m)
+         */
+        void convert(final double x, final double y, final double z) {
+            final double ae = getEquatorialRadius();
+            final double p2 = x * x + y * y;
+            final double p  = FastMath.sqrt(p2);
+            final double z2 = z * z;
+            final double f  = 54 * b2 * z2;
+            final double g  = p2 + (1 - e2) * z2 - e2 * a2MinusB2;
+            final double c  = e2 * e2 * f * p2 / (g * g * g);
+            final double s  = FastMath.cbrt(1 + c + FastMath.sqrt(c * c + 2 * c));
+            final double k  = s + 1 + 1 / s;
+            final double pp = f / (3 * k * k * g * g);
+            final double q  = FastMath.sqrt(1 + 2 * e2 * e2 * pp);
+            final double r0 = -pp * e2 * p / (1 + q) +
+                              FastMath.sqrt(FastMath.max(0.0,
+                                                         0.5 * a2 * (1 + 1 / q) -
+                                                         pp * (1 - e2) * z2 / (q * (1 + q)) -
+                                                         0.5 * pp * p2));
+            final double dp = p - e2 * r0;
+            final double u  = FastMath.sqrt(dp * dp + z2);
+            final double v  = FastMath.sqrt(dp * dp + (1 - e2) * z2);
+            final double z0 = b2 * z / (ae * v);
+            latitude  = FastMath.atan2(z + ep2 * z0, p);
+            longitude = FastMath.atan2(y, x);
+            altitude  = u * (1 - b2 / (ae * v));
+        }
+
+    }
+
 }
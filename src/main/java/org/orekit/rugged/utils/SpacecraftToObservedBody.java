@@ -19,8 +19,11 @@ package org.orekit.rugged.utils;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Rotation;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
@@ -55,6 +58,11 @@ public class SpacecraftToObservedBody implements Serializable {
     /** Serializable UID. */
     private static final long serialVersionUID = 20250427L;
 
+    /** Maximum number of samples computed by one task in parallel construction.
+     * @since 4.1
+     */
+    private static final int MAX_SAMPLES_PER_TASK = 256;
+
     /** Inertial frame. */
     private final Frame inertialFrame;
 
@@ -73,14 +81,31 @@ public class SpacecraftToObservedBody implements Serializable {
     /** Tolerance in seconds allowed for {@code minDate} and {@code maxDate} overshooting. */
     private final double overshootTolerance;
 
-    /** Transforms sample from observed body frame to inertial frame. */
-    private final List<Transform> bodyToInertial;
-
-    /** Transforms sample from inertial frame to observed body frame. */
-    private final List<Transform> inertialToBody;
+    /** Transforms sample from observed body frame to inertial frame.
+     * <p>
+     * Transforms from inertial frame to observed body frame are not stored,
+     * they are built by inverting these transforms.
+     * </p>
+     */
+    private final PackedTransforms bodyToInertial;
 
     /** Transforms sample from spacecraft frame to inertial frame. */
-    private final List<Transform> scToInertial;
+    private final PackedTransforms scToInertial;
+
+    /** Number of samples used for transforms interpolation.
+     * @since 4.1
+     */
+    private final int interpolationNumber;
+
+    /** Interpolator for transforms translations (null if only the closest sample is used).
+     * @since 4.1
+     */
+    private final TimeInterpolator<TimeStampedPVCoordinates> cartesianInterpolator;
+
+    /** Interpolator for transforms rotations (null if only the closest sample is used).
+     * @since 4.1
+     */
+    private final TimeInterpolator<TimeStampedAngularCoordinates> angularInterpolator;
 
     /** Simple constructor.
      * @param inertialFrame inertial frame
@@ -104,6 +129,41 @@ public class SpacecraftToObservedBody implements Serializable {
                                     final CartesianDerivativesFilter pvFilter,
                                     final List<TimeStampedAngularCoordinates> quaternions, final int aInterpolationNumber,
                                     final AngularDerivativesFilter aFilter) {
+        this(inertialFrame, bodyFrame, minDate, maxDate, tStep, overshootTolerance,
+             positionsVelocities, pvInterpolationNumber, pvFilter,
+             quaternions, aInterpolationNumber, aFilter, null);
+    }
+
+    /** Simple constructor, with parallel computation of the transforms sample.
+     * <p>
+     * The time span is split in chunks of consecutive samples, which are computed
+     * in parallel using the threads of the pool. The transforms computed are exactly
+     * the same as with sequential computation.
+     * </p>
+     * @param inertialFrame inertial frame
+     * @param bodyFrame observed body frame
+     * @param minDate start of search time span
+     * @param maxDate end of search time span
+     * @param tStep step to use for inertial frame to body frame transforms cache computations
+     * @param overshootTolerance tolerance in seconds allowed for {@code minDate} and {@code maxDate} overshooting
+     * slightly the position, velocity and quaternions ephemerides
+     * @param positionsVelocities satellite position and velocity
+     * @param pvInterpolationNumber number of points to use for position/velocity interpolation
+     * @param pvFilter filter for derivatives from the sample to use in position/velocity interpolation
+     * @param quaternions satellite quaternions
+     * @param aInterpolationNumber number of points to use for attitude interpolation
+     * @param aFilter filter for derivatives from the sample to use in attitude interpolation
+     * @param pool pool of threads to use for computing the transforms sample
+     * (null for sequential computation)
+     * @since 4.1
+     */
+    public SpacecraftToObservedBody(final Frame inertialFrame, final Frame bodyFrame,
+                                    final AbsoluteDate minDate, final AbsoluteDate maxDate, final double tStep,
+                                    final double overshootTolerance,
+                                    final List<TimeStampedPVCoordinates> positionsVelocities, final int pvInterpolationNumber,
+                                    final CartesianDerivativesFilter pvFilter,
+                                    final List<TimeStampedAngularCoordinates> quaternions, final int aInterpolationNumber,
+                                    final AngularDerivativesFilter aFilter, final ForkJoinPool pool) {
 
         this.inertialFrame      = inertialFrame;
         this.bodyFrame          = bodyFrame;
@@ -134,64 +194,37 @@ public class SpacecraftToObservedBody implements Serializable {
         final TimeStampedCache<TimeStampedPVCoordinates> pvCache =
                 new ImmutableTimeStampedCache<>(pvInterpolationNumber, positionsVelocities);
 
-        // set up the TimeStampedPVCoordinates interpolator
-        final TimeInterpolator<TimeStampedPVCoordinates> pvInterpolator =
-                new TimeStampedPVCoordinatesHermiteInterpolator(pvInterpolationNumber, pvFilter);
-
         // set up the cache for attitudes
         final TimeStampedCache<TimeStampedAngularCoordinates> aCache =
                 new ImmutableTimeStampedCache<>(aInterpolationNumber, quaternions);
 
-        // set up the TimeStampedAngularCoordinates Hermite interpolator
-        final TimeInterpolator<TimeStampedAngularCoordinates> angularInterpolator =
-                new TimeStampedAngularCoordinatesHermiteInterpolator(aInterpolationNumber, aFilter);
-
+        // the sample dates are computed beforehand, so they are the same regardless of parallelism
         final int n = (int) FastMath.ceil(maxDate.durationFrom(minDate) / tStep);
-        this.tStep          = tStep;
-        this.bodyToInertial = new ArrayList<>(n);
-        this.inertialToBody = new ArrayList<>(n);
-        this.scToInertial   = new ArrayList<>(n);
-        for (AbsoluteDate date = minDate; bodyToInertial.size() < n; date = date.shiftedBy(tStep)) {
-
-            // interpolate position-velocity, allowing slight extrapolation near the boundaries
-            final AbsoluteDate pvInterpolationDate;
-            if (date.compareTo(pvCache.getEarliest().getDate()) < 0) {
-                pvInterpolationDate = pvCache.getEarliest().getDate();
-            } else if (date.compareTo(pvCache.getLatest().getDate()) > 0) {
-                pvInterpolationDate = pvCache.getLatest().getDate();
-            } else {
-                pvInterpolationDate = date;
-            }
-            final TimeStampedPVCoordinates interpolatedPV =
-                    pvInterpolator.interpolate(pvInterpolationDate,
-                            pvCache.getNeighbors(pvInterpolationDate));
-            final TimeStampedPVCoordinates pv = interpolatedPV.shiftedBy(date.durationFrom(pvInterpolationDate));
-
-            // interpolate attitude, allowing slight extrapolation near the boundaries
-            final AbsoluteDate aInterpolationDate;
-            if (date.compareTo(aCache.getEarliest().getDate()) < 0) {
-                aInterpolationDate = aCache.getEarliest().getDate();
-            } else if (date.compareTo(aCache.getLatest().getDate()) > 0) {
-                aInterpolationDate = aCache.getLatest().getDate();
-            } else {
-                aInterpolationDate = date;
-            }
-            final TimeStampedAngularCoordinates interpolatedQuaternion =
-                    angularInterpolator.interpolate(aInterpolationDate,
-                            aCache.getNeighbors(aInterpolationDate).collect(Collectors.toList()));
-            final TimeStampedAngularCoordinates quaternion = interpolatedQuaternion.shiftedBy(date.durationFrom(aInterpolationDate));
-
-            // store transform from spacecraft frame to inertial frame
-            scToInertial.add(new Transform(date,
-                    new Transform(date, quaternion.revert()),
-                    new Transform(date, pv)));
-
-            // store transform from body frame to inertial frame
-            final Transform b2i = bodyFrame.getTransformTo(inertialFrame, date);
-            bodyToInertial.add(b2i);
-            inertialToBody.add(b2i.getInverse());
+        final AbsoluteDate[] dates = new AbsoluteDate[n];
+        AbsoluteDate date = minDate;
+        for (int i = 0; i < n; ++i) {
+            dates[i] = date;
+            date     = date.shiftedBy(tStep);
+        }
 
+        this.tStep                 = tStep;
+        this.bodyToInertial        = new PackedTransforms(n);
+        this.scToInertial          = new PackedTransforms(n);
+        this.interpolationNumber   = 1;
+        this.cartesianInterpolator = null;
+        this.angularInterpolator   = null;
+
+        final SamplesGenerator generator =
+                new SamplesGenerator(inertialFrame, bodyFrame,
+                                     pvCache, pvInterpolationNumber, pvFilter,
+                                     aCache, aInterpolationNumber, aFilter,
+                                     dates, bodyToInertial, scToInertial);
+        if (pool == null) {
+            generator.generate(0, n);
+        } else {
+            pool.invoke(new SamplesTask(generator, 0, n));
         }
+
     }
 
     /** Simple constructor.
@@ -216,14 +249,92 @@ public class SpacecraftToObservedBody implements Serializable {
         this.maxDate            = maxDate;
         this.tStep              = tStep;
         this.overshootTolerance = overshootTolerance;
-        this.bodyToInertial     = bodyToInertial;
-        this.scToInertial       = scToInertial;
+        this.bodyToInertial     = new PackedTransforms(bodyToInertial);
+        this.scToInertial       = new PackedTransforms(scToInertial);
+
+        this.interpolationNumber   = 1;
+        this.cartesianInterpolator = null;
+        this.angularInterpolator   = null;
 
-        this.inertialToBody = new ArrayList<>(bodyToInertial.size());
-        for (final Transform b2i : bodyToInertial) {
-            inertialToBody.add(b2i.getInverse());
+    }
+
+    /** Constructor from packed transforms.
+     * @param inertialFrame inertial frame
+     * @param bodyFrame observed body frame
+     * @param minDate start of search time span
+     * @param maxDate end of search time span
+     * @param tStep step to use for inertial frame to body frame transforms cache computations
+     * @param overshootTolerance tolerance in seconds allowed for {@code minDate} and {@code maxDate} overshooting
+     * slightly the position, velocity and quaternions ephemerides
+     * @param bodyToInertial transforms sample from observed body frame to inertial frame
+     * @param scToInertial transforms sample from spacecraft frame to inertial frame
+     * @param interpolationNumber number of samples used for transforms interpolation
+     * (1 if only the closest sample is used)
+     * @since 4.1
+     */
+    private SpacecraftToObservedBody(final Frame inertialFrame, final Frame bodyFrame,
+                                     final AbsoluteDate minDate, final AbsoluteDate maxDate, final double tStep,
+                                     final double overshootTolerance,
+                                     final PackedTransforms bodyToInertial, final PackedTransforms scToInertial,
+                                     final int interpolationNumber) {
+        this.inertialFrame       = inertialFrame;
+        this.bodyFrame           = bodyFrame;
+        this.minDate             = minDate;
+        this.maxDate             = maxDate;
+        this.tStep               = tStep;
+        this.overshootTolerance  = overshootTolerance;
+        this.bodyToInertial      = bodyToInertial;
+        this.scToInertial        = scToInertial;
+        this.interpolationNumber = FastMath.max(1, FastMath.min(interpolationNumber, bodyToInertial.size()));
+        if (this.interpolationNumber > 1) {
+            this.cartesianInterpolator =
+                    new TimeStampedPVCoordinatesHermiteInterpolator(this.interpolationNumber,
+                                                                   CartesianDerivativesFilter.USE_PV);
+            this.angularInterpolator   =
+                    new TimeStampedAngularCoordinatesHermiteInterpolator(this.interpolationNumber,
+                                                                         AngularDerivativesFilter.USE_RR);
+        } else {
+            this.cartesianInterpolator = null;
+            this.angularInterpolator   = null;
+        }
+    }
+
+    /** Get a provider sharing the same transforms sample but using several samples for interpolation.
+     * <p>
+     * By default, transforms are computed by shifting the sample closest to the
+     * date, using a Taylor expansion. This is accurate only if the sampling step
+     * is small, which implies a large number of samples, long construction time and
+     * high memory consumption. When more than one sample is used, transforms
+     * are computed by Hermite interpolation of translations and of rotations
+     * (using position/velocity and rotation/rotation rate of the neighboring samples),
+     * which allows a much larger sampling step for the same accuracy, at the expense
+     * of a higher cost per call. Dates that are outside of the sample (but still within
+     * the overshoot tolerance) are always handled by shifting the closest sample.
+     * </p>
+     * <p>
+     * The samples themselves are shared between the instances, they are not copied.
+     * </p>
+     * @param newInterpolationNumber number of samples to use for transforms interpolation
+     * (1 if only the closest sample is used)
+     * @return a provider using the specified number of samples for interpolation
+     * @see #getInterpolationNumber()
+     * @since 4.1
+     */
+    public SpacecraftToObservedBody withInterpolationNumber(final int newInterpolationNumber) {
+        if (newInterpolationNumber < 1) {
+            throw new RuggedException(LocalizedCoreFormats.NUMBER_TOO_SMALL, newInterpolationNumber, 1);
         }
+        return new SpacecraftToObservedBody(inertialFrame, bodyFrame, minDate, maxDate, tStep, overshootTolerance,
+                                            bodyToInertial, scToInertial, newInterpolationNumber);
+    }
 
+    /** Get the number of samples used for transforms interpolation.
+     * @return number of samples used for transforms interpolation (1 if only the closest sample is used)
+     * @see #withInterpolationNumber(int)
+     * @since 4.1
+     */
+    public int getInterpolationNumber() {
+        return interpolationNumber;
     }
 
     /** Get the inertial frame.
@@ -273,7 +384,11 @@ public class SpacecraftToObservedBody implements Serializable {
      * @return transform from spacecraft to inertial frame
      */
     public Transform getScToInertial(final AbsoluteDate date) {
-        return interpolate(date, scToInertial);
+        if (interpolationNumber > 1) {
+            return interpolate(scToInertial, date);
+        }
+        final Transform close = scToInertial.get(getIndex(date));
+        return close.shiftedBy(date.durationFrom(close.getDate()));
     }
 
     /** Get transform from inertial frame to observed body frame.
@@ -281,7 +396,11 @@ public class SpacecraftToObservedBody implements Serializable {
      * @return transform from inertial frame to observed body frame
      */
     public Transform getInertialToBody(final AbsoluteDate date) {
-        return interpolate(date, inertialToBody);
+        if (interpolationNumber > 1) {
+            return interpolate(bodyToInertial, date).getInverse();
+        }
+        final Transform close = bodyToInertial.get(getIndex(date)).getInverse();
+        return close.shiftedBy(date.durationFrom(close.getDate()));
     }
 
     /** Get transform from observed body frame to inertial frame.
@@ -289,28 +408,80 @@ public class SpacecraftToObservedBody implements Serializable {
      * @return transform from observed body frame to inertial frame
      */
     public Transform getBodyToInertial(final AbsoluteDate date) {
-        return interpolate(date, bodyToInertial);
+        if (interpolationNumber > 1) {
+            return interpolate(bodyToInertial, date);
+        }
+        final Transform close = bodyToInertial.get(getIndex(date));
+        return close.shiftedBy(date.durationFrom(close.getDate()));
     }
 
-    /** Interpolate transform.
+    /** Get the index of the sample closest to a date.
+     * @param date date of the transform
+     * @return index of the closest sample
+     * @since 4.1
+     */
+    private int getIndex(final AbsoluteDate date) {
+
+        // check date range
+        if (!isInRange(date)) {
+            throw new RuggedException(RuggedMessages.OUT_OF_TIME_RANGE, date, minDate, maxDate);
+        }
+
+        final double    s     = date.durationFrom(bodyToInertial.getFirstDate()) / tStep;
+        final int       index = FastMath.max(0, FastMath.min(bodyToInertial.size() - 1, (int) FastMath.rint(s)));
+
+        if (DumpManager.isActive()) {
+            // don't build the transforms if they are not dumped
+            DumpManager.dumpTransform(this, index, bodyToInertial.get(index), scToInertial.get(index));
+        }
+
+        return index;
+
+    }
+
+    /** Interpolate a transform using several samples.
+     * @param transforms transforms sample
      * @param date date of the transform
-     * @param list transforms list to interpolate from
      * @return interpolated transform
+     * @since 4.1
      */
-    private Transform interpolate(final AbsoluteDate date, final List<Transform> list) {
+    private Transform interpolate(final PackedTransforms transforms, final AbsoluteDate date) {
 
         // check date range
         if (!isInRange(date)) {
             throw new RuggedException(RuggedMessages.OUT_OF_TIME_RANGE, date, minDate, maxDate);
         }
 
-        final double    s     = date.durationFrom(list.get(0).getDate()) / tStep;
-        final int       index = FastMath.max(0, FastMath.min(list.size() - 1, (int) FastMath.rint(s)));
+        final int    size = bodyToInertial.size();
+        final double s    = date.durationFrom(bodyToInertial.getFirstDate()) / tStep;
+        if (s <= 0 || s >= size - 1) {
+            // the date is outside of the sample, we shift the closest sample
+            final int       index = (s <= 0) ? 0 : size - 1;
+            final Transform close = transforms.get(index);
+            if (DumpManager.isActive()) {
+                DumpManager.dumpTransform(this, index, bodyToInertial.get(index), scToInertial.get(index));
+            }
+            return close.shiftedBy(date.durationFrom(close.getDate()));
+        }
 
-        DumpManager.dumpTransform(this, index, bodyToInertial.get(index), scToInertial.get(index));
+        // select the samples surrounding the date
+        final int start = FastMath.max(0, FastMath.min(size - interpolationNumber,
+                                                       (int) FastMath.floor(s) - (interpolationNumber - 1) / 2));
+        final List<TimeStampedPVCoordinates>      cartesianSample = new ArrayList<>(interpolationNumber);
+        final List<TimeStampedAngularCoordinates> angularSample   = new ArrayList<>(interpolationNumber);
+        for (int i = start; i < start + interpolationNumber; ++i) {
+            final AbsoluteDate sampleDate = transforms.getDate(i);
+            cartesianSample.add(transforms.getCartesian(i, sampleDate));
+            angularSample.add(transforms.getAngular(i, sampleDate));
+            if (DumpManager.isActive()) {
+                // don't build the transforms if they are not dumped
+                DumpManager.dumpTransform(this, i, bodyToInertial.get(i), scToInertial.get(i));
+            }
+        }
 
-        final Transform close = list.get(index);
-        return close.shiftedBy(date.durationFrom(close.getDate()));
+        return new Transform(date,
+                             cartesianInterpolator.interpolate(date, cartesianSample),
+                             angularInterpolator.interpolate(date, angularSample));
 
     }
 
@@ -330,73 +501,355 @@ public class SpacecraftToObservedBody implements Serializable {
         return new DataTransferObject(((FactoryManagedFrame) inertialFrame).getFactoryKey(),
                                       ((FactoryManagedFrame) bodyFrame).getFactoryKey(),
                                       minDate, maxDate, tStep, overshootTolerance,
-                                      extractTimeOffsets(bodyToInertial),
-                                      extractCoordinates(bodyToInertial),
-                                      extractTimeOffsets(scToInertial),
-                                      extractCoordinates(scToInertial));
+                                      bodyToInertial.timeOffsets, bodyToInertial.coordinates,
+                                      scToInertial.timeOffsets, scToInertial.coordinates,
+                                      interpolationNumber);
     }
 
-    /** Extract time offsets from a transforms list.
-     * @param transforms transforms to convert
-     * @return time offsets
-     * @since 4.0
+    /** Generator for transforms samples.
+     * @since 4.1
      */
-    private long[] extractTimeOffsets(final List<Transform> transforms) {
+    private static class SamplesGenerator {
+
+        /** Inertial frame. */
+        private final Frame inertialFrame;
+
+        /** Body frame. */
+        private final Frame bodyFrame;
+
+        /** Cache for position-velocities. */
+        private final TimeStampedCache<TimeStampedPVCoordinates> pvCache;
+
+        /** Number of points to use for position/velocity interpolation. */
+        private final int pvInterpolationNumber;
+
+        /** Filter for derivatives from the sample to use in position/velocity interpolation. */
+        private final CartesianDerivativesFilter pvFilter;
+
+        /** Cache for attitudes. */
+        private final TimeStampedCache<TimeStampedAngularCoordinates> aCache;
+
+        /** Number of points to use for attitude interpolation. */
+        private final int aInterpolationNumber;
 
-        final long[] offsets = new long[2 * transforms.size()];
+        /** Filter for derivatives from the sample to use in attitude interpolation. */
+        private final AngularDerivativesFilter aFilter;
 
-        for (int i = 0; i < transforms.size(); ++i) {
-            final Transform ti = transforms.get(i);
-            offsets[2 * i]     = ti.getDate().getSeconds();
-            offsets[2 * i + 1] = ti.getDate().getAttoSeconds();
+        /** Sample dates. */
+        private final AbsoluteDate[] dates;
+
+        /** Transforms sample from observed body frame to inertial frame. */
+        private final PackedTransforms bodyToInertial;
+
+        /** Transforms sample from spacecraft frame to inertial frame. */
+        private final PackedTransforms scToInertial;
+
+        /** Simple constructor.
+         * @param inertialFrame inertial frame
+         * @param bodyFrame observed body frame
+         * @param pvCache cache for position-velocities
+         * @param pvInterpolationNumber number of points to use for position/velocity interpolation
+         * @param pvFilter filter for derivatives from the sample to use in position/velocity interpolation
+         * @param aCache cache for attitudes
+         * @param aInterpolationNumber number of points to use for attitude interpolation
+         * @param aFilter filter for derivatives from the sample to use in attitude interpolation
+         * @param dates sample dates
+         * @param bodyToInertial placeholder for transforms sample from observed body frame to inertial frame
+         * @param scToInertial placeholder for transforms sample from spacecraft frame to inertial frame
+         */
+        SamplesGenerator(final Frame inertialFrame, final Frame bodyFrame,
+                         final TimeStampedCache<TimeStampedPVCoordinates> pvCache,
+                         final int pvInterpolationNumber, final CartesianDerivativesFilter pvFilter,
+                         final TimeStampedCache<TimeStampedAngularCoordinates> aCache,
+                         final int aInterpolationNumber, final AngularDerivativesFilter aFilter,
+                         final AbsoluteDate[] dates,
+                         final PackedTransforms bodyToInertial, final PackedTransforms scToInertial) {
+            this.inertialFrame         = inertialFrame;
+            this.bodyFrame             = bodyFrame;
+            this.pvCache               = pvCache;
+            this.pvInterpolationNumber = pvInterpolationNumber;
+            this.pvFilter              = pvFilter;
+            this.aCache                = aCache;
+            this.aInterpolationNumber  = aInterpolationNumber;
+            this.aFilter               = aFilter;
+            this.dates                 = dates;
+            this.bodyToInertial        = bodyToInertial;
+            this.scToInertial          = scToInertial;
         }
 
-        return offsets;
+        /** Generate a range of samples.
+         * @param start index of the first sample to generate (included)
+         * @param end index of the last sample to generate (excluded)
+         */
+        void generate(final int start, final int end) {
+
+            // set up the TimeStampedPVCoordinates interpolator
+            final TimeInterpolator<TimeStampedPVCoordinates> pvInterpolator =
+                    new TimeStampedPVCoordinatesHermiteInterpolator(pvInterpolationNumber, pvFilter);
+
+            // set up the TimeStampedAngularCoordinates Hermite interpolator
+            final TimeInterpolator<TimeStampedAngularCoordinates> angularInterpolator =
+                    new TimeStampedAngularCoordinatesHermiteInterpolator(aInterpolationNumber, aFilter);
+
+            for (int i = start; i < end; ++i) {
+
+                final AbsoluteDate date = dates[i];
+
+                // interpolate position-velocity, allowing slight extrapolation near the boundaries
+                final AbsoluteDate pvInterpolationDate;
+                if (date.compareTo(pvCache.getEarliest().getDate()) < 0) {
+                    pvInterpolationDate = pvCache.getEarliest().getDate();
+                } else if (date.compareTo(pvCache.getLatest().getDate()) > 0) {
+                    pvInterpolationDate = pvCache.getLatest().getDate();
+                } else {
+                    pvInterpolationDate = date;
+                }
+                final TimeStampedPVCoordinates interpolatedPV =
+                        pvInterpolator.interpolate(pvInterpolationDate,
+                                pvCache.getNeighbors(pvInterpolationDate));
+                final TimeStampedPVCoordinates pv = interpolatedPV.shiftedBy(date.durationFrom(pvInterpolationDate));
+
+                // interpolate attitude, allowing slight extrapolation near the boundaries
+                final AbsoluteDate aInterpolationDate;
+                if (date.compareTo(aCache.getEarliest().getDate()) < 0) {
+                    aInterpolationDate = aCache.getEarliest().getDate();
+                } else if (date.compareTo(aCache.getLatest().getDate()) > 0) {
+                    aInterpolationDate = aCache.getLatest().getDate();
+                } else {
+                    aInterpolationDate = date;
+                }
+                final TimeStampedAngularCoordinates interpolatedQuaternion =
+                        angularInterpolator.interpolate(aInterpolationDate,
+                                aCache.getNeighbors(aInterpolationDate).collect(Collectors.toList()));
+                final TimeStampedAngularCoordinates quaternion = interpolatedQuaternion.shiftedBy(date.durationFrom(aInterpolationDate));
+
+                // store transform from spacecraft frame to inertial frame
+                scToInertial.set(i, new Transform(date,
+                        new Transform(date, quaternion.revert()),
+                        new Transform(date, pv)));
+
+                // store transform from body frame to inertial frame
+                bodyToInertial.set(i, bodyFrame.getTransformTo(inertialFrame, date));
+
+            }
+
+        }
 
     }
 
-    /** Extract coordinates from a transforms list.
-     * @param transforms transforms to convert
-     * @return time offsets
-     * @since 4.0
+    /** Task for parallel generation of transforms samples.
+     * <p>
+     * The task splits its range of samples in halves until each half
+     * contains at most {@link #MAX_SAMPLES_PER_TASK} samples.
+     * </p>
+     * @since 4.1
      */
-    private double[] extractCoordinates(final List<Transform> transforms) {
+    private static class SamplesTask extends RecursiveAction {
 
-        final double[] coordinates = new double[19 * transforms.size()];
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20261016L;
 
-        for (int i = 0; i < transforms.size(); ++i) {
+        /** Samples generator. */
+        private final SamplesGenerator generator;
 
-            final PVCoordinates      pv = transforms.get(i).getCartesian();
-            final AngularCoordinates ag = transforms.get(i).getAngular();
+        /** Index of the first sample to generate (included). */
+        private final int start;
 
-            coordinates[19 * i]      = pv.getPosition().getX();
-            coordinates[19 * i +  1] = pv.getPosition().getY();
-            coordinates[19 * i +  2] = pv.getPosition().getZ();
+        /** Index of the last sample to generate (excluded). */
+        private final int end;
 
-            coordinates[19 * i +  3] = pv.getVelocity().getX();
-            coordinates[19 * i +  4] = pv.getVelocity().getY();
-            coordinates[19 * i +  5] = pv.getVelocity().getZ();
+        /** Simple constructor.
+         * @param generator samples generator
+         * @param start index of the first sample to generate (included)
+         * @param end index of the last sample to generate (excluded)
+         */
+        SamplesTask(final SamplesGenerator generator, final int start, final int end) {
+            this.generator = generator;
+            this.start     = start;
+            this.end       = end;
+        }
 
-            coordinates[19 * i +  6] = pv.getAcceleration().getX();
-            coordinates[19 * i +  7] = pv.getAcceleration().getY();
-            coordinates[19 * i +  8] = pv.getAcceleration().getZ();
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            if (end - start <= MAX_SAMPLES_PER_TASK) {
+                generator.generate(start, end);
+            } else {
+                final int middle = (start + end) / 2;
+                invokeAll(new SamplesTask(generator, start, middle),
+                          new SamplesTask(generator, middle, end));
+            }
+        }
 
-            coordinates[19 * i +  9] = ag.getRotation().getQ0();
-            coordinates[19 * i + 10] = ag.getRotation().getQ1();
-            coordinates[19 * i + 11] = ag.getRotation().getQ2();
-            coordinates[19 * i + 12] = ag.getRotation().getQ3();
+    }
+
+    /** Transforms sample packed in primitive arrays.
+     * <p>
+     * Storing the samples as {@link Transform} instances would imply about a dozen objects
+     * per sample, this class uses only two arrays for all samples. Transforms are
+     * rebuilt on demand.
+     * </p>
+     * @since 4.1
+     */
+    private static class PackedTransforms {
+
+        /** Number of coordinates per transform. */
+        private static final int STRIDE = 19;
+
+        /** Time offsets (seconds and attoseconds) of all samples. */
+        private final long[] timeOffsets;
 
-            coordinates[19 * i + 13] = ag.getRotationRate().getX();
-            coordinates[19 * i + 14] = ag.getRotationRate().getY();
-            coordinates[19 * i + 15] = ag.getRotationRate().getZ();
+        /** Coordinates (translation, velocity, acceleration, quaternion,
+         * rotation rate and rotation acceleration) of all samples. */
+        private final double[] coordinates;
 
-            coordinates[19 * i + 16] = ag.getRotationAcceleration().getX();
-            coordinates[19 * i + 17] = ag.getRotationAcceleration().getY();
-            coordinates[19 * i + 18] = ag.getRotationAcceleration().getZ();
+        /** Date of the first sample. */
+        private AbsoluteDate firstDate;
 
+        /** Simple constructor for an empty sample.
+         * @param n number of transforms in the sample
+         */
+        PackedTransforms(final int n) {
+            this.timeOffsets = new long[2 * n];
+            this.coordinates = new double[STRIDE * n];
+            this.firstDate   = null;
         }
 
-        return coordinates;
+        /** Constructor from transforms list.
+         * @param transforms transforms sample
+         */
+        PackedTransforms(final List<Transform> transforms) {
+            this(transforms.size());
+            for (int i = 0; i < transforms.size(); ++i) {
+                set(i, transforms.get(i));
+            }
+        }
+
+        /** Constructor from packed arrays.
+         * @param timeOffsets time offsets (seconds and attoseconds) of all samples
+         * @param coordinates coordinates of all samples
+         */
+        PackedTransforms(final long[] timeOffsets, final double[] coordinates) {
+            this.timeOffsets = timeOffsets;
+            this.coordinates = coordinates;
+            this.firstDate   = timeOffsets.length == 0 ? null : getDate(0);
+        }
+
+        /** Get the number of transforms.
+         * @return number of transforms
+         */
+        int size() {
+            return timeOffsets.length / 2;
+        }
+
+        /** Get the date of the first sample.
+         * @return date of the first sample
+         */
+        AbsoluteDate getFirstDate() {
+            return firstDate;
+        }
+
+        /** Store one transform.
+         * @param i index of the transform
+         * @param transform transform to store
+         */
+        void set(final int i, final Transform transform) {
+
+            timeOffsets[2 * i]     = transform.getDate().getSeconds();
+            timeOffsets[2 * i + 1] = transform.getDate().getAttoSeconds();
+            if (i == 0) {
+                firstDate = transform.getDate();
+            }
+
+            final PVCoordinates      pv = transform.getCartesian();
+            final AngularCoordinates ag = transform.getAngular();
+            final int                k  = STRIDE * i;
+
+            coordinates[k]      = pv.getPosition().getX();
+            coordinates[k +  1] = pv.getPosition().getY();
+            coordinates[k +  2] = pv.getPosition().getZ();
+
+            coordinates[k +  3] = pv.getVelocity().getX();
+            coordinates[k +  4] = pv.getVelocity().getY();
+            coordinates[k +  5] = pv.getVelocity().getZ();
+
+            coordinates[k +  6] = pv.getAcceleration().getX();
+            coordinates[k +  7] = pv.getAcceleration().getY();
+            coordinates[k +  8] = pv.getAcceleration().getZ();
+
+            coordinates[k +  9] = ag.getRotation().getQ0();
+            coordinates[k + 10] = ag.getRotation().getQ1();
+            coordinates[k + 11] = ag.getRotation().getQ2();
+            coordinates[k + 12] = ag.getRotation().getQ3();
+
+            coordinates[k + 13] = ag.getRotationRate().getX();
+            coordinates[k + 14] = ag.getRotationRate().getY();
+            coordinates[k + 15] = ag.getRotationRate().getZ();
+
+            coordinates[k + 16] = ag.getRotationAcceleration().getX();
+            coordinates[k + 17] = ag.getRotationAcceleration().getY();
+            coordinates[k + 18] = ag.getRotationAcceleration().getZ();
+
+        }
+
+        /** Get the date of one transform.
+         * @param i index of the transform
+         * @return date of the transform
+         */
+        AbsoluteDate getDate(final int i) {
+            return new AbsoluteDate(new TimeOffset(timeOffsets[2 * i], timeOffsets[2 * i + 1]));
+        }
+
+        /** Rebuild one transform.
+         * @param i index of the transform
+         * @return transform
+         */
+        Transform get(final int i) {
+            final AbsoluteDate date = getDate(i);
+            return new Transform(date, getCartesian(i, date), getAngular(i, date));
+        }
+
+        /** Rebuild the translation part of one transform.
+         * @param i index of the transform
+         * @param date date of the transform
+         * @return translation part of the transform
+         * @since 4.1
+         */
+        TimeStampedPVCoordinates getCartesian(final int i, final AbsoluteDate date) {
+            final int k = STRIDE * i;
+            return new TimeStampedPVCoordinates(date,
+                                                new Vector3D(coordinates[k],
+                                                             coordinates[k +  1],
+                                                             coordinates[k +  2]),
+                                                new Vector3D(coordinates[k +  3],
+                                                             coordinates[k +  4],
+                                                             coordinates[k +  5]),
+                                                new Vector3D(coordinates[k +  6],
+                                                             coordinates[k +  7],
+                                                             coordinates[k +  8]));
+        }
+
+        /** Rebuild the rotation part of one transform.
+         * @param i index of the transform
+         * @param date date of the transform
+         * @return rotation part of the transform
+         * @since 4.1
+         */
+        TimeStampedAngularCoordinates getAngular(final int i, final AbsoluteDate date) {
+            final int k = STRIDE * i;
+            return new TimeStampedAngularCoordinates(date,
+                                                     new Rotation(coordinates[k +  9],
+                                                                  coordinates[k + 10],
+                                                                  coordinates[k + 11],
+                                                                  coordinates[k + 12],
+                                                                  false),
+                                                     new Vector3D(coordinates[k + 13],
+                                                                  coordinates[k + 14],
+                                                                  coordinates[k + 15]),
+                                                     new Vector3D(coordinates[k + 16],
+                                                                  coordinates[k + 17],
+                                                                  coordinates[k + 18]));
+        }
 
     }
 
@@ -438,6 +891,15 @@ public class SpacecraftToObservedBody implements Serializable {
         /** Transforms sample from spacecraft frame to inertial frame. */
         private final double[] scToInertialCoordinates;
 
+        /** Number of samples used for transforms interpolation.
+         * <p>
+         * This field is 0 when deserializing data written before it was introduced,
+         * which is handled as 1 (i.e. closest sample only).
+         * </p>
+         * @since 4.1
+         */
+        private final int interpolationNumber;
+
         /** Simple constructor.
          * @param inertialFrame inertial frame
          * @param bodyFrame observed body frame
@@ -450,12 +912,14 @@ public class SpacecraftToObservedBody implements Serializable {
          * @param bodyToInertialCoordinates coordinates of transforms sample from observed body frame to inertial frame
          * @param scToInertialTimOffset time offsets transforms sample from spacecraft frame to inertial frame
          * @param scToInertialCoordinates coordinates transforms sample from spacecraft frame to inertial frame
+         * @param interpolationNumber number of samples used for transforms interpolation
          */
         DataTransferObject(final Predefined inertialFrame, final Predefined bodyFrame,
                            final AbsoluteDate minDate, final AbsoluteDate maxDate, final double tStep,
                            final double overshootTolerance,
                            final long[] bodyToInertialTimeOffset, final double[] bodyToInertialCoordinates,
-                           final long[] scToInertialTimOffset, final double[] scToInertialCoordinates) {
+                           final long[] scToInertialTimOffset, final double[] scToInertialCoordinates,
+                           final int interpolationNumber) {
             this.inertialFrame             = inertialFrame;
             this.bodyFrame                 = bodyFrame;
             this.minDate                   = minDate;
@@ -466,54 +930,7 @@ public class SpacecraftToObservedBody implements Serializable {
             this.bodyToInertialCoordinates = bodyToInertialCoordinates;
             this.scToInertialTimOffset     = scToInertialTimOffset;
             this.scToInertialCoordinates   = scToInertialCoordinates;
-        }
-
-        /** Create a transform.
-         * @param i index of the transfor
-         * @param timeOffsets time offsets array
-         * @param coordinates coordinates array
-         * @return transform
-         */
-        private Transform createTransform(final int i,
-                                          final long[] timeOffsets,
-                                          final double[] coordinates) {
-            final AbsoluteDate date = new AbsoluteDate(new TimeOffset(timeOffsets[2 * i],
-                                                                      timeOffsets[2 * i + 1]));
-            final PVCoordinates pv = new PVCoordinates(new Vector3D(coordinates[19 * i],
-                                                                    coordinates[19 * i +  1],
-                                                                    coordinates[19 * i +  2]),
-                                                       new Vector3D(coordinates[19 * i +  3],
-                                                                    coordinates[19 * i +  4],
-                                                                    coordinates[19 * i +  5]),
-                                                       new Vector3D(coordinates[19 * i +  6],
-                                                                    coordinates[19 * i +  7],
-                                                                    coordinates[19 * i +  8]));
-            final AngularCoordinates ag = new AngularCoordinates(new Rotation(coordinates[19 * i +  9],
-                                                                              coordinates[19 * i + 10],
-                                                                              coordinates[19 * i + 11],
-                                                                              coordinates[19 * i + 12],
-                                                                              false),
-                                                                 new Vector3D(coordinates[19 * i + 13],
-                                                                              coordinates[19 * i + 14],
-                                                                              coordinates[19 * i + 15]),
-                                                                 new Vector3D(coordinates[19 * i + 16],
-                                                                              coordinates[19 * i + 17],
-                                                                              coordinates[19 * i + 18]));
-            return new Transform(date, pv, ag);
-        }
-
-        /** Create all transforms.
-         * @param timeOffsets time offsets array
-         * @param coordinates coordinates array
-         * @return all transforms
-         */
-        private List<Transform> createAllTransforms(final long[] timeOffsets,
-                                                    final double[] coordinates) {
-            final List<Transform> transforms = new ArrayList<>(timeOffsets.length / 2);
-            for (int i = 0; i < timeOffsets.length / 2; ++i) {
-                transforms.add(createTransform(i, timeOffsets, coordinates));
-            }
-            return transforms;
+            this.interpolationNumber       = interpolationNumber;
         }
 
         /** Replace the deserialized data transfer object with a
@@ -524,10 +941,11 @@ public class SpacecraftToObservedBody implements Serializable {
             return new SpacecraftToObservedBody(FramesFactory.getFrame(inertialFrame),
                                                 FramesFactory.getFrame(bodyFrame),
                                                 minDate, maxDate, tStep, overshootTolerance,
-                                                createAllTransforms(bodyToInertialTimeOffset,
-                                                                    bodyToInertialCoordinates),
-                                                createAllTransforms(scToInertialTimOffset,
-                                                                    scToInertialCoordinates));
+                                                new PackedTransforms(bodyToInertialTimeOffset,
+                                                                     bodyToInertialCoordinates),
+                                                new PackedTransforms(scToInertialTimOffset,
+                                                                     scToInertialCoordinates),
+                                                interpolationNumber);
         }
 
     }
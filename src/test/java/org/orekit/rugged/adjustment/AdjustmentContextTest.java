@@ -108,7 +108,8 @@ public class AdjustmentContextTest {
             optimizerId.setAccessible(true);
             OptimizerId usedOptimizerId = (OptimizerId) optimizerId.get(adjustmentContext);
 
-            if (usedOptimizerId == OptimizerId.GAUSS_NEWTON_QR || usedOptimizerId == OptimizerId.GAUSS_NEWTON_LU) {
+            if (usedOptimizerId == OptimizerId.GAUSS_NEWTON_QR || usedOptimizerId == OptimizerId.GAUSS_NEWTON_LU ||
+                usedOptimizerId == OptimizerId.GAUSS_NEWTON_SPARSE) {
                 // For Gauss Newton, the number of evaluations is equal to the number of iterations
                 Assert.assertTrue(optimum.getEvaluations() == optimum.getIterations());
             } else if (usedOptimizerId == OptimizerId.LEVENBERG_MARQUADT) {
@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hipparchus.optim.nonlinear.vector.leastsquares.LeastSquaresOptimizer.Optimum;
 import org.junit.After;
@@ -83,6 +84,64 @@ public class GroundOptimizationProblemBuilderTest {
         Assert.assertTrue(sensorToGroundMappingSize*2 == optimum.getResiduals().getDimension());
     }
 
+    @Test
+    public void testParallelEstimateFreeParameters() {
+
+        AdjustmentContext adjustmentContext = new AdjustmentContext(Collections.singletonList(rugged), measurements);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        adjustmentContext.setPool(pool);
+        final int maxIterations = 50;
+        final double convergenceThreshold = 1.e-11;
+        Optimum optimum = adjustmentContext.estimateFreeParameters(Collections.singletonList(rugged.getName()), maxIterations, convergenceThreshold);
+        pool.shutdown();
+
+        // parallel evaluation gives the same results as sequential evaluation
+        Assert.assertTrue(optimum.getIterations() < maxIterations);
+        Assert.assertEquals(39200.0,            optimum.getResiduals().getMaxValue(), 1.0e-6);
+        Assert.assertEquals(5067.112098,        optimum.getRMS(),                     1.0e-6);
+        Assert.assertEquals(286639.1460351976,  optimum.getCost(),                    1.0e-6);
+        Assert.assertEquals(1600 * 2, optimum.getResiduals().getDimension());
+
+    }
+
+    @Test
+    public void testParallelEstimateWithPolynomialRotation() {
+
+        // roll and pitch are FixedRotation drivers, yaw coefficients are PolynomialRotation drivers,
+        // all of them having their derivatives cached lazily while measurements are evaluated in parallel
+        final Optimum sequential = estimateWithYawPolynomial(null);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final Optimum parallel = estimateWithYawPolynomial(pool);
+        pool.shutdown();
+
+        // parallel evaluation gives the same results as sequential evaluation
+        Assert.assertEquals(4, parallel.getPoint().getDimension());
+        Assert.assertEquals(sequential.getIterations(), parallel.getIterations());
+        Assert.assertEquals(sequential.getRMS(),        parallel.getRMS(),  1.0e-10);
+        Assert.assertEquals(sequential.getCost(),       parallel.getCost(), 1.0e-10);
+        for (int i = 0; i < sequential.getPoint().getDimension(); ++i) {
+            Assert.assertEquals(sequential.getPoint().getEntry(i), parallel.getPoint().getEntry(i), 1.0e-10);
+        }
+
+    }
+
+    /** Estimate free parameters of a fresh model with a yaw polynomial rotation.
+     * @param pool pool of threads for measurements evaluation (null for sequential evaluation)
+     * @return optimum
+     */
+    private Optimum estimateWithYawPolynomial(final ForkJoinPool pool) {
+
+        final InitGroundRefiningTest yawRefiningTest = new InitGroundRefiningTest();
+        yawRefiningTest.initGroundRefiningTestWithYawPolynomial();
+        final Rugged yawRugged = yawRefiningTest.getRugged();
+        final Observables yawMeasurements = yawRefiningTest.generateNoisyPoints(lineSampling, pixelSampling, false);
+
+        final AdjustmentContext adjustmentContext = new AdjustmentContext(Collections.singletonList(yawRugged), yawMeasurements);
+        adjustmentContext.setPool(pool);
+        return adjustmentContext.estimateFreeParameters(Collections.singletonList(yawRugged.getName()), 50, 1.e-11);
+
+    }
+
     @Test
     public void testNoParametersSelected() {
         try {
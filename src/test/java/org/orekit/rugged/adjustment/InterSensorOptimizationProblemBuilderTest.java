@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hipparchus.optim.nonlinear.vector.leastsquares.LeastSquaresOptimizer.Optimum;
 import org.hipparchus.optim.nonlinear.vector.leastsquares.LeastSquaresProblem;
@@ -104,6 +105,57 @@ public class InterSensorOptimizationProblemBuilderTest {
 
     }
     
+    @Test
+    public void testParallelEstimateFreeParameters() {
+
+        AdjustmentContext adjustmentContext = new AdjustmentContext(ruggedList, measurements);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        adjustmentContext.setPool(pool);
+
+        List<String> ruggedNameList = new ArrayList<>();
+        for(Rugged rugged : ruggedList) {
+            ruggedNameList.add(rugged.getName());
+        }
+        final int maxIterations = 100;
+        final double convergenceThreshold = 1.e-7;
+
+        Optimum optimum = adjustmentContext.estimateFreeParameters(ruggedNameList, maxIterations, convergenceThreshold);
+        pool.shutdown();
+
+        // parallel evaluation gives the same results as sequential evaluation
+        Assert.assertTrue(optimum.getIterations() < maxIterations);
+        Assert.assertEquals(1.924769e-03, optimum.getResiduals().getMaxValue(), 1.0e-6);
+        Assert.assertEquals(0.069302,     optimum.getRMS(),                     1.0e-6);
+        Assert.assertEquals(3.597014,     optimum.getCost(),                    2.5e-6);
+        Assert.assertEquals(1347 * 2, optimum.getResiduals().getDimension());
+
+    }
+
+    @Test
+    public void testSparseEstimateFreeParameters() {
+
+        AdjustmentContext adjustmentContext = new AdjustmentContext(ruggedList, measurements);
+        adjustmentContext.setOptimizer(OptimizerId.GAUSS_NEWTON_SPARSE);
+
+        List<String> ruggedNameList = new ArrayList<>();
+        for(Rugged rugged : ruggedList) {
+            ruggedNameList.add(rugged.getName());
+        }
+        final int maxIterations = 100;
+        final double convergenceThreshold = 1.e-7;
+
+        Optimum optimum = adjustmentContext.estimateFreeParameters(ruggedNameList, maxIterations, convergenceThreshold);
+
+        // sparse normal equations give the same results as dense QR decomposition
+        Assert.assertTrue(optimum.getIterations() < maxIterations);
+        Assert.assertEquals(optimum.getIterations(), optimum.getEvaluations());
+        Assert.assertEquals(1.924769e-03, optimum.getResiduals().getMaxValue(), 1.0e-6);
+        Assert.assertEquals(0.069302,     optimum.getRMS(),                     1.0e-6);
+        Assert.assertEquals(3.597014,     optimum.getCost(),                    2.5e-6);
+        Assert.assertEquals(1347 * 2, optimum.getResiduals().getDimension());
+
+    }
+
     @Test
     public void testEarthConstraintPostponed() {
 
@@ -0,0 +1,104 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.adjustment;
+
+import org.hipparchus.linear.Array2DRowRealMatrix;
+import org.hipparchus.linear.RealMatrix;
+import org.junit.Assert;
+import org.junit.Test;
+import org.orekit.rugged.errors.RuggedException;
+import org.orekit.rugged.errors.RuggedMessages;
+
+public class SparseJacobianTest {
+
+    @Test
+    public void testEntries() {
+        final SparseJacobian jacobian = createJacobian();
+        Assert.assertEquals(4, jacobian.getRowDimension());
+        Assert.assertEquals(5, jacobian.getColumnDimension());
+        Assert.assertEquals(10, jacobian.getStructuralEntries());
+        Assert.assertEquals(1.0, jacobian.getEntry(0, 0), 0.0);
+        Assert.assertEquals(0.0, jacobian.getEntry(0, 2), 0.0);
+        Assert.assertEquals(7.0, jacobian.getEntry(2, 3), 0.0);
+        Assert.assertEquals(0.0, jacobian.getEntry(3, 0), 0.0);
+        Assert.assertEquals(0.0, createDense().subtract(jacobian).getNorm1(), 0.0);
+    }
+
+    @Test
+    public void testOutOfStructure() {
+        final SparseJacobian jacobian = createJacobian();
+
+        // setting a zero outside of the structure is allowed
+        jacobian.setEntry(0, 3, 0.0);
+        Assert.assertEquals(0.0, jacobian.getEntry(0, 3), 0.0);
+
+        try {
+            jacobian.setEntry(0, 3, 1.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(RuggedMessages.OUT_OF_SPARSE_STRUCTURE, re.getSpecifier());
+            Assert.assertEquals(0, re.getParts()[0]);
+            Assert.assertEquals(3, re.getParts()[1]);
+        }
+    }
+
+    @Test
+    public void testCopy() {
+        final SparseJacobian jacobian = createJacobian();
+        final SparseJacobian copy     = jacobian.copy();
+        copy.setEntry(1, 1, -1.0);
+        Assert.assertEquals(4.0,  jacobian.getEntry(1, 1), 0.0);
+        Assert.assertEquals(-1.0, copy.getEntry(1, 1),     0.0);
+    }
+
+    @Test
+    public void testOperations() {
+        final SparseJacobian jacobian = createJacobian();
+        final RealMatrix     dense    = createDense();
+        final double[]       v5       = { 1.0, -2.0, 0.5, 3.0, -1.5 };
+        final double[]       v4       = { 2.0, 0.25, -1.0, 4.0 };
+        Assert.assertArrayEquals(dense.operate(v5),     jacobian.operate(v5),     1.0e-15);
+        Assert.assertArrayEquals(dense.preMultiply(v4), jacobian.preMultiply(v4), 1.0e-15);
+        Assert.assertEquals(0.0, dense.transpose().subtract(jacobian.transpose()).getNorm1(), 0.0);
+        Assert.assertEquals(0.0,
+                            dense.transposeMultiply(dense).subtract(jacobian.transposeMultiply(jacobian)).getNorm1(),
+                            1.0e-15);
+    }
+
+    private SparseJacobian createJacobian() {
+        final int[] first  = { 0, 1, 4 };
+        final int[] second = { 2, 3 };
+        final SparseJacobian jacobian = new SparseJacobian(5, new int[][] { first, first, second, second });
+        final double[][] data = createDense().getData();
+        for (int i = 0; i < data.length; ++i) {
+            for (int j = 0; j < data[i].length; ++j) {
+                jacobian.setEntry(i, j, data[i][j]);
+            }
+        }
+        return jacobian;
+    }
+
+    private RealMatrix createDense() {
+        return new Array2DRowRealMatrix(new double[][] {
+            { 1.0, 2.0, 0.0, 0.0, 3.0 },
+            { 0.0, 4.0, 0.0, 0.0, 5.0 },
+            { 0.0, 0.0, 6.0, 7.0, 0.0 },
+            { 0.0, 0.0, 8.0, 9.0, 0.0 }
+        }, false);
+    }
+
+}
@@ -76,6 +76,26 @@ public class InitGroundRefiningTest {
      * @param factorDisruption disruption to apply to homothety factor for sensor
      */
     public void initGroundRefiningTest(double rollDisruption, double pitchDisruption, double factorDisruption) {
+        initGroundRefiningTest(rollDisruption, pitchDisruption, factorDisruption, false);
+    }
+
+    /**
+     * Initialize ground refining tests with default values for disruptions on sensors characteristics,
+     * adding a linear yaw polynomial rotation whose coefficients are also adjusted
+     */
+    public void initGroundRefiningTestWithYawPolynomial() {
+
+        initGroundRefiningTest(defaultRollDisruption, defaultPitchDisruption, defaultFactorDisruption, true);
+    }
+
+    /** Initialize ground refining tests with disruption on sensors characteristics
+     * @param rollDisruption disruption to apply to roll angle for sensor (deg)
+     * @param pitchDisruption disruption to apply to pitch angle for sensor (deg)
+     * @param factorDisruption disruption to apply to homothety factor for sensor
+     * @param yawPolynomial if true, a linear yaw polynomial rotation is added to the sensor and adjusted
+     */
+    private void initGroundRefiningTest(double rollDisruption, double pitchDisruption, double factorDisruption,
+                                        boolean yawPolynomial) {
         try {
             
             String path = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
@@ -86,7 +106,7 @@ public class InitGroundRefiningTest {
             final String sensorName = "line";
             final double rollAngle = -5.0;
             final String date = "2016-01-01T11:59:50.0";
-            this.pleiadesViewingModel = new PleiadesViewingModel(sensorName, rollAngle, date);
+            this.pleiadesViewingModel = new PleiadesViewingModel(sensorName, rollAngle, date, yawPolynomial);
 
 
             PleiadesOrbitModel orbitmodel =  new PleiadesOrbitModel();
@@ -143,6 +163,10 @@ public class InitGroundRefiningTest {
             RefiningParametersDriver.setSelectedPitch(rugged, sensorName);
 
             this.parameterToAdjust = 2;
+            if (yawPolynomial) {
+                RefiningParametersDriver.setSelectedYaw(rugged, sensorName);
+                this.parameterToAdjust += 2;
+            }
 
             // Initialize disruptions:
             // -----------------------
@@ -13,6 +13,7 @@ import org.orekit.rugged.linesensor.LinearLineDatation;
 import org.orekit.rugged.los.FixedRotation;
 import org.orekit.rugged.los.FixedZHomothety;
 import org.orekit.rugged.los.LOSBuilder;
+import org.orekit.rugged.los.PolynomialRotation;
 import org.orekit.rugged.los.TimeDependentLOS;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScale;
@@ -32,6 +33,7 @@ public class PleiadesViewingModel {
     private LineSensor lineSensor;
     private String referenceDate;
     private String sensorName;
+    private boolean yawPolynomial;
 
     /** PleiadesViewingModel constructor.
      * @param sensorName sensor name
@@ -39,10 +41,22 @@ public class PleiadesViewingModel {
      * @param referenceDate reference date
      */
     public PleiadesViewingModel(final String sensorName, final double rollAngle, final String referenceDate) {
+        this(sensorName, rollAngle, referenceDate, false);
+    }
+
+    /** PleiadesViewingModel constructor.
+     * @param sensorName sensor name
+     * @param rollAngle roll angle
+     * @param referenceDate reference date
+     * @param yawPolynomial if true, a linear yaw polynomial rotation is added to the LOS
+     */
+    public PleiadesViewingModel(final String sensorName, final double rollAngle, final String referenceDate,
+                                final boolean yawPolynomial) {
 
         this.sensorName = sensorName;
         this.referenceDate = referenceDate;
         this.rollAngle = rollAngle;
+        this.yawPolynomial = yawPolynomial;
         this.createLineSensor();
     }
 
@@ -72,6 +86,10 @@ public class PleiadesViewingModel {
 
         losBuilder.addTransform(new FixedRotation(sensorName + InitInterRefiningTest.rollSuffix,  Vector3D.MINUS_I, 0.00));
         losBuilder.addTransform(new FixedRotation(sensorName + InitInterRefiningTest.pitchSuffix, Vector3D.MINUS_J, 0.00));
+        if (yawPolynomial) {
+            losBuilder.addTransform(new PolynomialRotation(sensorName + RefiningParametersDriver.yawSuffix, Vector3D.PLUS_K,
+                                                           getDatationReference(), 0.00, 0.00));
+        }
 
         // factor is a common parameters shared between all Pleiades models
         losBuilder.addTransform(new FixedZHomothety(InitInterRefiningTest.factorName, 1.0));
@@ -12,6 +12,7 @@ public class RefiningParametersDriver {
     // Part of the name of parameter drivers
     static final String rollSuffix = "_roll";
     static final String pitchSuffix = "_pitch";
+    static final String yawSuffix = "_yaw";
     static final String factorName = "factor";
 
     /** Apply disruptions on acquisition for roll angle
@@ -92,6 +93,17 @@ public class RefiningParametersDriver {
         factorDriver.setSelected(true);
     }  
     
+    /** Select yaw polynomial coefficients to adjust
+     * @param rugged Rugged instance
+     * @param sensorName line sensor name
+     */
+    public static void setSelectedYaw(final Rugged rugged, final String sensorName) {
+
+        rugged.getLineSensor(sensorName).getParametersDrivers().
+        filter(driver -> driver.getName().startsWith(sensorName + yawSuffix)).
+        forEach(driver -> driver.setSelected(true));
+    }
+
     /** Unselect roll angle to adjust (for test coverage purpose)
      * @param rugged Rugged instance
      * @param sensorName line sensor name
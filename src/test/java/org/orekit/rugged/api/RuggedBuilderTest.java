@@ -29,7 +29,9 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Rotation;
 import org.hipparchus.geometry.euclidean.threed.RotationConvention;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
@@ -67,11 +69,16 @@ import org.orekit.propagation.analytical.KeplerianPropagator;
 import org.orekit.propagation.numerical.NumericalPropagator;
 import org.orekit.rugged.errors.RuggedException;
 import org.orekit.rugged.errors.RuggedMessages;
+import org.orekit.rugged.intersection.duvenhage.MinMaxTreeCache;
 import org.orekit.rugged.linesensor.LineDatation;
 import org.orekit.rugged.linesensor.LineSensor;
 import org.orekit.rugged.linesensor.LinearLineDatation;
 import org.orekit.rugged.los.LOSBuilder;
 import org.orekit.rugged.los.TimeDependentLOS;
+import org.orekit.rugged.raster.BufferElevationStorageFactory;
+import org.orekit.rugged.raster.ElevationEncoding;
+import org.orekit.rugged.raster.ElevationStorageFactory;
+import org.orekit.rugged.raster.OverviewTileUpdater;
 import org.orekit.rugged.raster.RandomLandscapeUpdater;
 import org.orekit.rugged.raster.TileUpdater;
 import org.orekit.rugged.raster.VolcanicConeElevationUpdater;
@@ -171,6 +178,41 @@ public class RuggedBuilderTest {
         Assert.assertTrue(builder.isOverlappingTiles());
         builder.setOverlappingTiles(false);
         Assert.assertTrue(!builder.isOverlappingTiles());
+
+        Assert.assertFalse(builder.isConcurrentTilesCache());
+        builder.setConcurrentTilesCache(true);
+        Assert.assertTrue(builder.isConcurrentTilesCache());
+        Assert.assertNull(builder.getElevationStorageFactory());
+        final ElevationStorageFactory storageFactory = new BufferElevationStorageFactory(ElevationEncoding.FLOAT, 1.0, 0.0);
+        builder.setElevationStorageFactory(storageFactory);
+        Assert.assertSame(storageFactory, builder.getElevationStorageFactory());
+        Assert.assertNull(builder.getMinMaxTreeCache());
+        final MinMaxTreeCache treeCache = new MinMaxTreeCache(tempFolder.getRoot());
+        builder.setMinMaxTreeCache(treeCache);
+        Assert.assertSame(treeCache, builder.getMinMaxTreeCache());
+        Assert.assertNull(builder.getMinMaxTreePool());
+        final ForkJoinPool treePool = new ForkJoinPool(2);
+        builder.setMinMaxTreePool(treePool);
+        Assert.assertSame(treePool, builder.getMinMaxTreePool());
+        Assert.assertNull(builder.getInterpolatorPool());
+        final ForkJoinPool interpolatorPool = new ForkJoinPool(2);
+        builder.setInterpolatorPool(interpolatorPool);
+        Assert.assertSame(interpolatorPool, builder.getInterpolatorPool());
+        Assert.assertEquals(1, builder.getTransformsInterpolationNumber());
+        builder.setTransformsInterpolationNumber(4);
+        Assert.assertEquals(4, builder.getTransformsInterpolationNumber());
+        try {
+            builder.setTransformsInterpolationNumber(0);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, re.getSpecifier());
+        }
+        Assert.assertEquals(4, builder.getTransformsInterpolationNumber());
+        Assert.assertNull(builder.getOverviewUpdater());
+        final TileUpdater overviewUpdater = new OverviewTileUpdater(updater, 4);
+        builder.setDigitalElevationModelOverview(overviewUpdater, 5);
+        Assert.assertSame(overviewUpdater, builder.getOverviewUpdater());
+        Assert.assertEquals(5, builder.getMaxCachedOverviewTiles());
         
         builder.setEllipsoid(EllipsoidId.GRS80, BodyRotatingFrameId.ITRF);
         try {
@@ -532,6 +574,82 @@ public class RuggedBuilderTest {
 
     }
 
+    @Test
+    public void testTransformsInterpolationNumber()
+        throws URISyntaxException {
+
+        int dimension = 200;
+
+        String path = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
+        DataContext.getDefault().getDataProvidersManager().addProvider(new DirectoryCrawler(new File(path)));
+        final BodyShape  earth = createEarth();
+        final Orbit      orbit = createOrbit(Constants.EIGEN5C_EARTH_MU);
+
+        AbsoluteDate crossing = new AbsoluteDate("2012-01-01T12:30:00.000", TimeScalesFactory.getUTC());
+
+        Vector3D position = new Vector3D(1.5, 0, -0.2);
+        TimeDependentLOS los = createLOSPerfectLine(new Rotation(Vector3D.PLUS_I,
+                                                                 FastMath.toRadians(50.0),
+                                                                 RotationConvention.VECTOR_OPERATOR).applyTo(Vector3D.PLUS_K),
+                                                    Vector3D.PLUS_I, FastMath.toRadians(1.0), dimension);
+        LineDatation lineDatation = new LinearLineDatation(crossing, dimension / 2, 1.0 / 1.5e-3);
+        LineSensor lineSensor = new LineSensor("line", lineDatation, position, los);
+        AbsoluteDate minDate = lineSensor.getDate(0);
+        AbsoluteDate maxDate = lineSensor.getDate(dimension);
+        List<TimeStampedPVCoordinates> pv =
+                        orbitToPV(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25);
+        List<TimeStampedAngularCoordinates> q =
+                        orbitToQ(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25);
+
+        // reference uses a fine time step
+        RuggedBuilder reference = new RuggedBuilder().
+                                  setAlgorithm(AlgorithmId.IGNORE_DEM_USE_ELLIPSOID).
+                                  setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                                  setTimeSpan(minDate, maxDate, 0.001, 5.0).
+                                  setTrajectory(InertialFrameId.EME2000,
+                                                pv, 8, CartesianDerivativesFilter.USE_PV,
+                                                q, 8, AngularDerivativesFilter.USE_R).
+                                  addLineSensor(lineSensor);
+
+        // interpolation allows a 100 times larger time step
+        RuggedBuilder interpolated = new RuggedBuilder().
+                                     setAlgorithm(AlgorithmId.IGNORE_DEM_USE_ELLIPSOID).
+                                     setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                                     setTimeSpan(minDate, maxDate, 0.1, 5.0).
+                                     setTrajectory(InertialFrameId.EME2000,
+                                                   pv, 8, CartesianDerivativesFilter.USE_PV,
+                                                   q, 8, AngularDerivativesFilter.USE_R).
+                                     setTransformsInterpolationNumber(4).
+                                     addLineSensor(lineSensor);
+
+        // the interpolation number is stored together with the transforms
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        interpolated.storeInterpolator(bos);
+        RuggedBuilder recovered = new RuggedBuilder().
+                                  setAlgorithm(AlgorithmId.IGNORE_DEM_USE_ELLIPSOID).
+                                  setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                                  setTrajectoryAndTimeSpan(new ByteArrayInputStream(bos.toByteArray())).
+                                  addLineSensor(lineSensor);
+        Assert.assertEquals(4, recovered.getTransformsInterpolationNumber());
+
+        Rugged ruggedReference    = reference.build();
+        Rugged ruggedInterpolated = interpolated.build();
+        Rugged ruggedRecovered    = recovered.build();
+        for (double line = 0; line < dimension; line += 7.25) {
+            GeodeticPoint[] gpReference    = ruggedReference.directLocation("line", line);
+            GeodeticPoint[] gpInterpolated = ruggedInterpolated.directLocation("line", line);
+            GeodeticPoint[] gpRecovered    = ruggedRecovered.directLocation("line", line);
+            for (int i = 0; i < gpReference.length; ++i) {
+                Vector3D pReference    = earth.transform(gpReference[i]);
+                Vector3D pInterpolated = earth.transform(gpInterpolated[i]);
+                Vector3D pRecovered    = earth.transform(gpRecovered[i]);
+                Assert.assertEquals(0.0, Vector3D.distance(pReference, pInterpolated), 1.0e-3);
+                Assert.assertEquals(0.0, Vector3D.distance(pInterpolated, pRecovered), 1.0e-15);
+            }
+        }
+
+    }
+
     @Test
     public void testInterpolatorCannotDump()
         throws URISyntaxException, IOException {
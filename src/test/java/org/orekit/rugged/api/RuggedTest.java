@@ -33,11 +33,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hipparchus.analysis.differentiation.DSFactory;
 import org.hipparchus.analysis.differentiation.FiniteDifferencesDifferentiator;
 import org.hipparchus.analysis.differentiation.Gradient;
 import org.hipparchus.analysis.differentiation.UnivariateDifferentiableFunction;
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Rotation;
 import org.hipparchus.geometry.euclidean.threed.RotationConvention;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
@@ -80,6 +87,7 @@ import org.orekit.rugged.raster.RandomLandscapeUpdater;
 import org.orekit.rugged.raster.TileUpdater;
 import org.orekit.rugged.raster.VolcanicConeElevationUpdater;
 import org.orekit.rugged.refraction.AtmosphericRefraction;
+import org.orekit.rugged.refraction.MultiLayerModel;
 import org.orekit.rugged.utils.DerivativeGenerator;
 import org.orekit.rugged.utils.NormalizedGeodeticPoint;
 import org.orekit.time.AbsoluteDate;
@@ -390,6 +398,201 @@ public class RuggedTest {
 
     }
 
+    @Test
+    public void testParallelDirectLocation()
+        throws URISyntaxException {
+
+        int dimension = 200;
+
+        String path = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
+        DataContext.getDefault().getDataProvidersManager().addProvider(new DirectoryCrawler(new File(path)));
+        final BodyShape  earth = TestUtils.createEarth();
+        final Orbit      orbit = TestUtils.createOrbit(Constants.EIGEN5C_EARTH_MU);
+
+        AbsoluteDate crossing = new AbsoluteDate("2012-01-01T12:30:00.000", TimeScalesFactory.getUTC());
+
+        // one line sensor
+        // position: 1.5m in front (+X) and 20 cm above (-Z) of the S/C center of mass
+        // los: swath in the (YZ) plane, looking at 50° roll, ±1° aperture
+        Vector3D position = new Vector3D(1.5, 0, -0.2);
+        TimeDependentLOS los = TestUtils.createLOSPerfectLine(new Rotation(Vector3D.PLUS_I,
+                                                                           FastMath.toRadians(50.0),
+                                                                           RotationConvention.VECTOR_OPERATOR).applyTo(Vector3D.PLUS_K),
+                                                              Vector3D.PLUS_I, FastMath.toRadians(1.0), dimension).build();
+
+        // linear datation model: at reference time we get line 100, and the rate is one line every 1.5ms
+        LineDatation lineDatation = new LinearLineDatation(crossing, dimension / 2, 1.0 / 1.5e-3);
+        LineSensor lineSensor = new LineSensor("line", lineDatation, position, los);
+        AbsoluteDate minDate = lineSensor.getDate(0);
+        AbsoluteDate maxDate = lineSensor.getDate(dimension);
+
+        TileUpdater updater =
+                new RandomLandscapeUpdater(0.0, 9000.0, 0.5, 0xf0a401650191f9f6L,
+                                           FastMath.toRadians(1.0), 257);
+
+        Rugged rugged = new RuggedBuilder().
+                setDigitalElevationModel(updater, 8).
+                setConcurrentTilesCache(true).
+                setAlgorithm(AlgorithmId.DUVENHAGE).
+                setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                setTimeSpan(minDate, maxDate, 0.001, 5.0).
+                setTrajectory(InertialFrameId.EME2000,
+                              TestUtils.orbitToPV(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              8, CartesianDerivativesFilter.USE_PV,
+                              TestUtils.orbitToQ(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              2, AngularDerivativesFilter.USE_R).
+                addLineSensor(lineSensor).
+                build();
+
+        // locate a sparse grid: one line every 10 lines, one pixel every 3 pixels
+        final int nbLines  = dimension / 10;
+        final int nbPixels = dimension / 3;
+        final double[] latitudes  = new double[nbLines * nbPixels];
+        final double[] longitudes = new double[nbLines * nbPixels];
+        final double[] altitudes  = new double[nbLines * nbPixels];
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        rugged.directLocation("line", 0.5, 10.0, nbLines, 1, 3, nbPixels, latitudes, longitudes, altitudes, pool);
+        pool.shutdown();
+
+        for (int l = 0; l < nbLines; ++l) {
+            final GeodeticPoint[] reference = rugged.directLocation("line", 0.5 + 10.0 * l);
+            for (int p = 0; p < nbPixels; ++p) {
+                final GeodeticPoint gp = reference[1 + 3 * p];
+                Assert.assertEquals(gp.getLatitude(),  latitudes[l * nbPixels + p],  1.0e-15);
+                Assert.assertEquals(gp.getLongitude(), longitudes[l * nbPixels + p], 1.0e-15);
+                Assert.assertEquals(gp.getAltitude(),  altitudes[l * nbPixels + p],  1.0e-9);
+            }
+        }
+
+        try {
+            rugged.directLocation("line", 0.5, 10.0, nbLines, 1, 3, nbPixels,
+                                  latitudes, longitudes, new double[nbPixels], ForkJoinPool.commonPool());
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, re.getSpecifier());
+            Assert.assertEquals(nbPixels, ((Integer) re.getParts()[0]).intValue());
+            Assert.assertEquals(nbLines * nbPixels, ((Integer) re.getParts()[1]).intValue());
+        }
+
+        // pixels outside of the sensor are rejected before any computation
+        try {
+            rugged.directLocation("line", 0.5, 10.0, nbLines, 5, 3, nbPixels,
+                                  latitudes, longitudes, altitudes, ForkJoinPool.commonPool());
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, re.getSpecifier());
+            Assert.assertEquals(5 + 3L * (nbPixels - 1), ((Long) re.getParts()[0]).longValue());
+        }
+        try {
+            rugged.directLocation("line", 0.5, 10.0, nbLines, -1, 3, nbPixels,
+                                  latitudes, longitudes, altitudes, ForkJoinPool.commonPool());
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, re.getSpecifier());
+            Assert.assertEquals(-1L, ((Long) re.getParts()[0]).longValue());
+        }
+
+        // huge grids are rejected without overflowing
+        try {
+            rugged.directLocation("line", 0.5, 0.0, 1 << 20, 0, 0, 1 << 12,
+                                  latitudes, longitudes, altitudes, ForkJoinPool.commonPool());
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_LARGE, re.getSpecifier());
+            Assert.assertEquals(1L << 32, ((Long) re.getParts()[0]).longValue());
+            Assert.assertEquals(Integer.MAX_VALUE, ((Integer) re.getParts()[1]).intValue());
+        }
+
+    }
+
+    @Test
+    public void testPrefetchTiles()
+        throws URISyntaxException, InterruptedException, ExecutionException {
+
+        int dimension = 200;
+
+        String path = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
+        DataContext.getDefault().getDataProvidersManager().addProvider(new DirectoryCrawler(new File(path)));
+        final BodyShape  earth = TestUtils.createEarth();
+        final Orbit      orbit = TestUtils.createOrbit(Constants.EIGEN5C_EARTH_MU);
+
+        AbsoluteDate crossing = new AbsoluteDate("2012-01-01T12:30:00.000", TimeScalesFactory.getUTC());
+
+        // one line sensor, looking at 20° roll, ±1° aperture
+        Vector3D position = new Vector3D(1.5, 0, -0.2);
+        TimeDependentLOS los = TestUtils.createLOSPerfectLine(new Rotation(Vector3D.PLUS_I,
+                                                                           FastMath.toRadians(20.0),
+                                                                           RotationConvention.VECTOR_OPERATOR).applyTo(Vector3D.PLUS_K),
+                                                              Vector3D.PLUS_I, FastMath.toRadians(1.0), dimension).build();
+
+        // linear datation model: at reference time we get line 100, and the rate is one line every 1.5ms
+        LineDatation lineDatation = new LinearLineDatation(crossing, dimension / 2, 1.0 / 1.5e-3);
+        LineSensor lineSensor = new LineSensor("line", lineDatation, position, los);
+        AbsoluteDate minDate = lineSensor.getDate(0);
+        AbsoluteDate maxDate = lineSensor.getDate(dimension);
+
+        // small tiles with low relief, counting tiles loading
+        final TileUpdater landscape =
+                new RandomLandscapeUpdater(0.0, 50.0, 0.5, 0xf0a401650191f9f6L,
+                                           FastMath.toRadians(0.02), 33);
+        final AtomicInteger loaded = new AtomicInteger();
+        final TileUpdater updater = (latitude, longitude, tile) -> {
+            loaded.incrementAndGet();
+            landscape.updateTile(latitude, longitude, tile);
+        };
+
+        Rugged rugged = new RuggedBuilder().
+                setDigitalElevationModel(updater, 100).
+                setConcurrentTilesCache(true).
+                setAlgorithm(AlgorithmId.DUVENHAGE).
+                setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                setTimeSpan(minDate, maxDate, 0.001, 5.0).
+                setTrajectory(InertialFrameId.EME2000,
+                              TestUtils.orbitToPV(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              8, CartesianDerivativesFilter.USE_PV,
+                              TestUtils.orbitToQ(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              2, AngularDerivativesFilter.USE_R).
+                addLineSensor(lineSensor).
+                build();
+
+        // load tiles in background
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Future<?> prefetched = rugged.prefetchTiles("line", 0.0, dimension, 20.0, 10, executor);
+        prefetched.get();
+        executor.shutdown();
+        final int count = loaded.get();
+        Assert.assertTrue(count > 5);
+
+        // all tiles needed for direct location are already available
+        for (int line = 0; line < dimension; line += 5) {
+            rugged.directLocation("line", line);
+        }
+        Assert.assertEquals(count, loaded.get());
+
+        // invalid steps are rejected before any computation
+        for (final double lineStep : new double[] { 0.0, -20.0, Double.NaN }) {
+            try {
+                rugged.prefetchTiles("line", 0.0, dimension, lineStep, 10);
+                Assert.fail("an exception should have been thrown");
+            } catch (RuggedException re) {
+                Assert.assertEquals(RuggedMessages.INVALID_STEP, re.getSpecifier());
+                Assert.assertEquals(lineStep, ((Double) re.getParts()[0]).doubleValue(), 0.0);
+            }
+        }
+        for (final int pixelStep : new int[] { 0, -10 }) {
+            try {
+                // the executor has been shut down, the steps must be checked before submission
+                rugged.prefetchTiles("line", 0.0, dimension, 20.0, pixelStep, executor);
+                Assert.fail("an exception should have been thrown");
+            } catch (RuggedException re) {
+                Assert.assertEquals(RuggedMessages.INVALID_STEP, re.getSpecifier());
+                Assert.assertEquals(pixelStep, ((Integer) re.getParts()[0]).intValue());
+            }
+        }
+        Assert.assertEquals(count, loaded.get());
+
+    }
+
     @Test
     public void testLocationSinglePoint()
         throws URISyntaxException {
@@ -691,6 +894,208 @@ public class RuggedTest {
         checkInverseLocation(2000, true,  true,  2.0e-5, 3.0e-7);
     }
 
+    @Test
+    public void testBatchedInverseLocation()
+        throws URISyntaxException {
+
+        int dimension = 2000;
+
+        String path = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
+        DataContext.getDefault().getDataProvidersManager().addProvider(new DirectoryCrawler(new File(path)));
+        final BodyShape  earth = TestUtils.createEarth();
+        final Orbit      orbit = TestUtils.createOrbit(Constants.EIGEN5C_EARTH_MU);
+
+        AbsoluteDate crossing = new AbsoluteDate("2012-01-01T12:30:00.000", TimeScalesFactory.getUTC());
+
+        // one line sensor
+        // position: 1.5m in front (+X) and 20 cm above (-Z) of the S/C center of mass
+        // los: swath in the (YZ) plane, looking at 5° roll, 5.2" per pixel
+        Vector3D position = new Vector3D(1.5, 0, -0.2);
+        TimeDependentLOS los = TestUtils.createLOSPerfectLine(new Rotation(Vector3D.PLUS_I,
+                                                                           FastMath.toRadians(5.0),
+                                                                           RotationConvention.VECTOR_OPERATOR).applyTo(Vector3D.PLUS_K),
+                                                              Vector3D.PLUS_I,
+                                                              FastMath.toRadians((dimension/2.) * 5.2 / 3600.0), dimension).build();
+
+        // linear datation model: at reference time we get the middle line, and the rate is one line every 1.5ms
+        LineDatation lineDatation = new LinearLineDatation(crossing, dimension / 2, 1.0 / 1.5e-3);
+        LineSensor lineSensor = new LineSensor("line", lineDatation, position, los);
+        AbsoluteDate minDate = lineSensor.getDate(0).shiftedBy(-1.0);
+        AbsoluteDate maxDate = lineSensor.getDate(dimension).shiftedBy(+1.0);
+
+        TileUpdater updater =
+                new RandomLandscapeUpdater(0.0, 9000.0, 0.3, 0xf0a401650191f9f6L,
+                                           FastMath.toRadians(1.0), 257);
+
+        Rugged rugged = new RuggedBuilder().
+                setDigitalElevationModel(updater, 8).
+                setConcurrentTilesCache(true).
+                setAlgorithm(AlgorithmId.DUVENHAGE).
+                setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                setTimeSpan(minDate, maxDate, 0.001, 5.0).
+                setTrajectory(InertialFrameId.EME2000,
+                              TestUtils.orbitToPV(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              8, CartesianDerivativesFilter.USE_PV,
+                              TestUtils.orbitToQ(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              2, AngularDerivativesFilter.USE_R).
+                addLineSensor(lineSensor).
+                build();
+
+        // ground points seen by a sparse grid of pixels, plus two points that cannot be located
+        final int nbLines  = 10;
+        final int nbPixels = dimension / 7;
+        final int size     = nbLines * nbPixels + 2;
+        final double[] latitudes  = new double[size];
+        final double[] longitudes = new double[size];
+        final double[] altitudes  = new double[size];
+        for (int l = 0; l < nbLines; ++l) {
+            final GeodeticPoint[] gp = rugged.directLocation("line", 100.0 + 200.0 * l);
+            for (int p = 0; p < nbPixels; ++p) {
+                latitudes[l * nbPixels + p]  = gp[7 * p].getLatitude();
+                longitudes[l * nbPixels + p] = gp[7 * p].getLongitude();
+                altitudes[l * nbPixels + p]  = gp[7 * p].getAltitude();
+            }
+        }
+        final GeodeticPoint[] first = rugged.directLocation("line", 0.0);
+        latitudes[size - 2]  = 21 * first[0].getLatitude()  - 20 * first[1].getLatitude();
+        longitudes[size - 2] = 21 * first[0].getLongitude() - 20 * first[1].getLongitude();
+        latitudes[size - 1]  = Double.NaN;
+        longitudes[size - 1] = Double.NaN;
+
+        final double[] lines  = new double[size];
+        final double[] pixels = new double[size];
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        rugged.inverseLocation("line", latitudes, longitudes, altitudes, 0, dimension, lines, pixels, pool);
+        pool.shutdown();
+
+        // batched and single point inverse locations use the same accuracy
+        for (int l = 0; l < nbLines; ++l) {
+            for (int p = 0; p < nbPixels; ++p) {
+                final int i = l * nbPixels + p;
+                final SensorPixel sp = rugged.inverseLocation("line",
+                                                              new GeodeticPoint(latitudes[i], longitudes[i], altitudes[i]),
+                                                              0, dimension);
+                Assert.assertEquals(100.0 + 200.0 * l,   lines[i],  5.0e-6);
+                Assert.assertEquals(7.0 * p,             pixels[i], 5.0e-6);
+                Assert.assertEquals(sp.getLineNumber(),  lines[i],  5.0e-6);
+                Assert.assertEquals(sp.getPixelNumber(), pixels[i], 5.0e-6);
+            }
+        }
+        Assert.assertTrue(Double.isNaN(lines[size - 2]));
+        Assert.assertTrue(Double.isNaN(pixels[size - 2]));
+        Assert.assertTrue(Double.isNaN(lines[size - 1]));
+        Assert.assertTrue(Double.isNaN(pixels[size - 1]));
+
+        try {
+            rugged.inverseLocation("line", latitudes, longitudes, altitudes, 0, dimension,
+                                   lines, new double[nbPixels], ForkJoinPool.commonPool());
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, re.getSpecifier());
+            Assert.assertEquals(nbPixels, ((Integer) re.getParts()[0]).intValue());
+            Assert.assertEquals(size,     ((Integer) re.getParts()[1]).intValue());
+        }
+
+    }
+
+    @Test
+    public void testBatchedInverseLocationWithRefraction()
+        throws URISyntaxException {
+
+        int dimension = 4000;
+
+        String path = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
+        DataContext.getDefault().getDataProvidersManager().addProvider(new DirectoryCrawler(new File(path)));
+        final BodyShape  earth = TestUtils.createEarth();
+        final Orbit      orbit = TestUtils.createOrbit(Constants.EIGEN5C_EARTH_MU);
+
+        AbsoluteDate crossing = new AbsoluteDate("2012-01-01T12:30:00.000", TimeScalesFactory.getUTC());
+
+        // one line sensor
+        // position: 1.5m in front (+X) and 20 cm above (-Z) of the S/C center of mass
+        // los: swath in the (YZ) plane, looking at 5° roll, 2.6" per pixel
+        Vector3D position = new Vector3D(1.5, 0, -0.2);
+        TimeDependentLOS los = TestUtils.createLOSPerfectLine(new Rotation(Vector3D.PLUS_I,
+                                                                           FastMath.toRadians(5.0),
+                                                                           RotationConvention.VECTOR_OPERATOR).applyTo(Vector3D.PLUS_K),
+                                                              Vector3D.PLUS_I,
+                                                              FastMath.toRadians((dimension/2.) * 2.6 / 3600.0), dimension).build();
+
+        // linear datation model: at reference time we get the middle line, and the rate is one line every 1.5ms
+        LineDatation lineDatation = new LinearLineDatation(crossing, dimension / 2, 1.0 / 1.5e-3);
+        LineSensor lineSensor = new LineSensor("line", lineDatation, position, los);
+        AbsoluteDate minDate = lineSensor.getDate(0).shiftedBy(-1.0);
+        AbsoluteDate maxDate = lineSensor.getDate(dimension).shiftedBy(+1.0);
+
+        TileUpdater updater =
+                new RandomLandscapeUpdater(800.0, 9000.0, 0.1, 0xf0a401650191f9f6L,
+                                           FastMath.toRadians(2.0), 257);
+
+        RuggedBuilder builder = new RuggedBuilder().
+                setDigitalElevationModel(updater, 8).
+                setConcurrentTilesCache(true).
+                setAlgorithm(AlgorithmId.DUVENHAGE).
+                setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                setTimeSpan(minDate, maxDate, 0.001, 5.0).
+                setTrajectory(InertialFrameId.EME2000,
+                              TestUtils.orbitToPV(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              8, CartesianDerivativesFilter.USE_PV,
+                              TestUtils.orbitToQ(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(+1.0), 0.25),
+                              2, AngularDerivativesFilter.USE_R).
+                setLightTimeCorrection(false).
+                setAberrationOfLightCorrection(false).
+                addLineSensor(lineSensor);
+        Rugged rugged = builder.setRefractionCorrection(new MultiLayerModel(builder.getEllipsoid())).build();
+
+        // ground points seen by a sparse grid of pixels, plus two points that cannot be located
+        final int nbLines  = 4;
+        final int nbPixels = dimension / 100;
+        final int size     = nbLines * nbPixels + 2;
+        final double[] latitudes  = new double[size];
+        final double[] longitudes = new double[size];
+        final double[] altitudes  = new double[size];
+        for (int l = 0; l < nbLines; ++l) {
+            final GeodeticPoint[] gp = rugged.directLocation("line", 200.0 + 400.0 * l);
+            for (int p = 0; p < nbPixels; ++p) {
+                latitudes[l * nbPixels + p]  = gp[100 * p].getLatitude();
+                longitudes[l * nbPixels + p] = gp[100 * p].getLongitude();
+                altitudes[l * nbPixels + p]  = gp[100 * p].getAltitude();
+            }
+        }
+        final GeodeticPoint[] first = rugged.directLocation("line", 0.0);
+        latitudes[size - 2]  = 21 * first[0].getLatitude()  - 20 * first[1].getLatitude();
+        longitudes[size - 2] = 21 * first[0].getLongitude() - 20 * first[1].getLongitude();
+        latitudes[size - 1]  = Double.NaN;
+        longitudes[size - 1] = Double.NaN;
+
+        // points that cannot be located are marked with NaN instead of aborting the whole batch
+        final double[] lines  = new double[size];
+        final double[] pixels = new double[size];
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        rugged.inverseLocation("line", latitudes, longitudes, altitudes, 0, 2000, lines, pixels, pool);
+        pool.shutdown();
+
+        for (int l = 0; l < nbLines; ++l) {
+            for (int p = 0; p < nbPixels; ++p) {
+                final int i = l * nbPixels + p;
+                final SensorPixel sp = rugged.inverseLocation("line",
+                                                              new GeodeticPoint(latitudes[i], longitudes[i], altitudes[i]),
+                                                              0, 2000);
+                // line numbers depend on the state of the mean plane crossing finder,
+                // at the coarse inverse location accuracy level
+                Assert.assertEquals(200.0 + 400.0 * l, lines[i], 1.0e-2);
+                Assert.assertEquals(sp.getLineNumber(),  lines[i],  1.0e-2);
+                Assert.assertEquals(sp.getPixelNumber(), pixels[i], 1.0e-6);
+                Assert.assertEquals(100.0 * p,           pixels[i], 1.0e-3);
+            }
+        }
+        Assert.assertTrue(Double.isNaN(lines[size - 2]));
+        Assert.assertTrue(Double.isNaN(pixels[size - 2]));
+        Assert.assertTrue(Double.isNaN(lines[size - 1]));
+        Assert.assertTrue(Double.isNaN(pixels[size - 1]));
+
+    }
+
     @Test
     public void testDateLocation()
         throws URISyntaxException {
@@ -43,19 +43,33 @@ import org.hipparchus.analysis.differentiation.DSFactory;
 import org.hipparchus.analysis.differentiation.DerivativeStructure;
 import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.orekit.bodies.BodyShape;
 import org.orekit.bodies.GeodeticPoint;
 import org.orekit.data.DataContext;
 import org.orekit.data.DirectoryCrawler;
+import org.orekit.orbits.Orbit;
+import org.orekit.rugged.TestUtils;
+import org.orekit.rugged.api.AlgorithmId;
+import org.orekit.rugged.api.BodyRotatingFrameId;
+import org.orekit.rugged.api.EllipsoidId;
+import org.orekit.rugged.api.InertialFrameId;
 import org.orekit.rugged.api.Rugged;
+import org.orekit.rugged.api.RuggedBuilder;
+import org.orekit.rugged.linesensor.LineSensor;
+import org.orekit.rugged.linesensor.LinearLineDatation;
 import org.orekit.rugged.linesensor.SensorPixel;
 import org.orekit.rugged.refraction.MultiLayerModel;
 import org.orekit.rugged.utils.DerivativeGenerator;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.AngularDerivativesFilter;
+import org.orekit.utils.CartesianDerivativesFilter;
+import org.orekit.utils.Constants;
 import org.orekit.utils.ParameterDriver;
 
 public class DumpReplayerTest {
@@ -163,6 +177,60 @@ public class DumpReplayerTest {
 
     }
 
+    @Test
+    public void testDirectLocInterpolatedTransforms() throws URISyntaxException, IOException {
+
+        String orekitPath = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
+        DataContext.getDefault().getDataProvidersManager().addProvider(new DirectoryCrawler(new File(orekitPath)));
+        final BodyShape earth = TestUtils.createEarth();
+        final Orbit     orbit = TestUtils.createOrbit(Constants.EIGEN5C_EARTH_MU);
+
+        AbsoluteDate crossing = new AbsoluteDate("2012-01-01T12:30:00.000", TimeScalesFactory.getUTC());
+        LineSensor lineSensor =
+                        new LineSensor("line", new LinearLineDatation(crossing, 100, 1.0 / 1.5e-3),
+                                       new Vector3D(1.5, 0, -0.2),
+                                       TestUtils.createLOSPerfectLine(Vector3D.PLUS_K, Vector3D.PLUS_I,
+                                                                      FastMath.toRadians(1.0), 200).build());
+        AbsoluteDate minDate = lineSensor.getDate(0);
+        AbsoluteDate maxDate = lineSensor.getDate(200);
+        Rugged original = new RuggedBuilder().
+                          setAlgorithm(AlgorithmId.IGNORE_DEM_USE_ELLIPSOID).
+                          setEllipsoid(EllipsoidId.WGS84, BodyRotatingFrameId.ITRF).
+                          setTimeSpan(minDate.shiftedBy(-1.0), maxDate.shiftedBy(1.0), 0.07, 5.0).
+                          setTrajectory(InertialFrameId.EME2000,
+                                        TestUtils.orbitToPV(orbit, earth, minDate.shiftedBy(-2.0), maxDate.shiftedBy(+2.0), 0.25),
+                                        8, CartesianDerivativesFilter.USE_PV,
+                                        TestUtils.orbitToQ(orbit, earth, minDate.shiftedBy(-2.0), maxDate.shiftedBy(+2.0), 0.25),
+                                        8, AngularDerivativesFilter.USE_R).
+                          setTransformsInterpolationNumber(4).
+                          addLineSensor(lineSensor).
+                          build();
+
+        File dump = tempFolder.newFile();
+        DumpManager.activate(dump);
+        original.directLocation("line", 100.5);
+        DumpManager.deactivate();
+        try (FileReader fr = new FileReader(dump);
+             BufferedReader br = new BufferedReader(fr)) {
+            Assert.assertTrue(br.lines().anyMatch(l -> l.startsWith("span:") && l.endsWith("interpolation 4")));
+        }
+
+        DumpReplayer replayer = new DumpReplayer();
+        replayer.parse(dump);
+        Rugged rugged = replayer.createRugged();
+        DumpReplayer.Result[] results = replayer.execute(rugged);
+
+        Assert.assertEquals(200, results.length);
+        for (final DumpReplayer.Result result : results) {
+            GeodeticPoint expectedGP = (GeodeticPoint) result.getExpected();
+            GeodeticPoint replayedGP = (GeodeticPoint) result.getReplayed();
+            double distance = Vector3D.distance(rugged.getEllipsoid().transform(expectedGP),
+                                                rugged.getEllipsoid().transform(replayedGP));
+            Assert.assertEquals(0.0, distance, 1.0e-8);
+        }
+
+    }
+
     @Test
     public void testDirectLocNull() throws URISyntaxException, IOException {
 
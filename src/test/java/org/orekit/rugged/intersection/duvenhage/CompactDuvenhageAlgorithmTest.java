@@ -0,0 +1,116 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.intersection.duvenhage;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.data.DataContext;
+import org.orekit.data.DirectoryCrawler;
+import org.orekit.frames.FramesFactory;
+import org.orekit.rugged.raster.BufferElevationStorageFactory;
+import org.orekit.rugged.raster.ElevationEncoding;
+import org.orekit.rugged.raster.TileUpdater;
+import org.orekit.rugged.raster.TilesCache;
+import org.orekit.rugged.raster.VolcanicConeElevationUpdater;
+import org.orekit.rugged.utils.ExtendedEllipsoid;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+public class CompactDuvenhageAlgorithmTest {
+
+    @Test
+    public void testFloatEncoding() {
+        checkEncoding(ElevationEncoding.FLOAT, 1.0, 0.0, 1.0e-3);
+    }
+
+    @Test
+    public void testShortEncoding() {
+        checkEncoding(ElevationEncoding.SHORT, 0.25, 0.0, 1.0);
+    }
+
+    private void checkEncoding(final ElevationEncoding encoding, final double scale, final double offset,
+                               final double tolerance) {
+
+        final DuvenhageAlgorithm reference = createAlgorithm(new MinMaxTreeTileFactory());
+        final DuvenhageAlgorithm compact   =
+                createAlgorithm(new MinMaxTreeTileFactory(new BufferElevationStorageFactory(encoding, scale, offset)));
+
+        // spacecraft 800km above Mayon volcano, looking at points all around the summit
+        final Vector3D position = earth.transform(new GeodeticPoint(summit.getLatitude(), summit.getLongitude(), 800000.0));
+        double maxError = 0.0;
+        for (int i = -10; i <= 10; ++i) {
+            for (int j = -10; j <= 10; ++j) {
+                final GeodeticPoint ground = new GeodeticPoint(summit.getLatitude()  + i * 1.0e-4,
+                                                               summit.getLongitude() + j * 1.0e-4,
+                                                               0.0);
+                final Vector3D los = earth.transform(ground).subtract(position);
+
+                final GeodeticPoint expected =
+                        reference.refineIntersection(earth, position, los, reference.intersection(earth, position, los));
+                final GeodeticPoint result =
+                        compact.refineIntersection(earth, position, los, compact.intersection(earth, position, los));
+
+                // the point is on the compact Digital Elevation Model
+                Assert.assertEquals(compact.getElevation(result.getLatitude(), result.getLongitude()),
+                                    result.getAltitude(), 1.0e-6);
+
+                // the point is close to the one found with full accuracy elevations
+                maxError = FastMath.max(maxError, earth.transform(expected).distance(earth.transform(result)));
+
+            }
+        }
+        Assert.assertEquals(0.0, maxError, tolerance);
+
+    }
+
+    private DuvenhageAlgorithm createAlgorithm(final MinMaxTreeTileFactory factory) {
+        return new DuvenhageAlgorithm(new TilesCache<MinMaxTreeTile>(factory, updater, 8, true), false);
+    }
+
+    @Before
+    public void setUp() throws URISyntaxException {
+        String path = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
+        DataContext.getDefault().getDataProvidersManager().addProvider(new DirectoryCrawler(new File(path)));
+        earth = new ExtendedEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                                      Constants.WGS84_EARTH_FLATTENING,
+                                      FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        summit = new GeodeticPoint(FastMath.toRadians(13.25667), FastMath.toRadians(123.685), 2463.0);
+        updater = new VolcanicConeElevationUpdater(summit,
+                                                   FastMath.toRadians(30.0), 16.0,
+                                                   FastMath.toRadians(1.0), 1201);
+    }
+
+    @After
+    public void tearDown() {
+        earth   = null;
+        summit  = null;
+        updater = null;
+    }
+
+    private ExtendedEllipsoid earth;
+    private GeodeticPoint     summit;
+    private TileUpdater       updater;
+
+}
@@ -0,0 +1,175 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.intersection.duvenhage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.orekit.rugged.raster.BufferElevationStorageFactory;
+import org.orekit.rugged.raster.ElevationEncoding;
+import org.orekit.rugged.raster.ElevationStorageFactory;
+
+public class MinMaxTreeCacheTest {
+
+    @Test
+    public void testWarmStartDouble() throws IOException {
+        doTestWarmStart(null);
+    }
+
+    @Test
+    public void testWarmStartFloat() throws IOException {
+        doTestWarmStart(new BufferElevationStorageFactory(ElevationEncoding.FLOAT, 1.0, 0.0));
+    }
+
+    @Test
+    public void testWarmStartShort() throws IOException {
+        doTestWarmStart(new BufferElevationStorageFactory(ElevationEncoding.SHORT, 0.5, 100.0));
+    }
+
+    private void doTestWarmStart(final ElevationStorageFactory storageFactory) throws IOException {
+        final File directory = new File(tempFolder.getRoot(), "trees");
+        final MinMaxTreeTileFactory referenceFactory = new MinMaxTreeTileFactory(storageFactory);
+        for (int nbRows = 1; nbRows < 40; nbRows += 7) {
+            for (int nbColumns = 1; nbColumns < 40; nbColumns += 9) {
+
+                final MinMaxTreeTile reference = createTile(referenceFactory, nbRows, nbColumns, 0x4a1c38e7d25b90f6l);
+
+                // cold start: trees are built and stored
+                final MinMaxTreeTile cold = createTile(new MinMaxTreeTileFactory(storageFactory, new MinMaxTreeCache(directory)),
+                                                       nbRows, nbColumns, 0x4a1c38e7d25b90f6l);
+                checkSameTrees(reference, cold);
+                final File[] files = directory.listFiles();
+                Assert.assertEquals(1, files.length);
+                final long modified = files[0].lastModified();
+
+                // warm start: trees are read back from the stored file
+                final MinMaxTreeTile warm = createTile(new MinMaxTreeTileFactory(storageFactory, new MinMaxTreeCache(directory)),
+                                                       nbRows, nbColumns, 0x4a1c38e7d25b90f6l);
+                checkSameTrees(reference, warm);
+                Assert.assertEquals(1, directory.listFiles().length);
+                Assert.assertEquals(modified, directory.listFiles()[0].lastModified());
+
+                Assert.assertTrue(files[0].delete());
+
+            }
+        }
+    }
+
+    @Test
+    public void testContentChange() throws IOException {
+        final File directory = tempFolder.newFolder();
+        final MinMaxTreeTileFactory factory = new MinMaxTreeTileFactory(null, new MinMaxTreeCache(directory));
+        createTile(factory, 20, 30, 0x13c0b9e4a75f2d68l);
+        Assert.assertEquals(1, directory.listFiles().length);
+
+        // same geometry but different elevations
+        final MinMaxTreeTile changed = createTile(factory, 20, 30, 0x6f24d1a8b30e95c7l);
+        Assert.assertEquals(2, directory.listFiles().length);
+        checkSameTrees(createTile(new MinMaxTreeTileFactory(), 20, 30, 0x6f24d1a8b30e95c7l), changed);
+
+    }
+
+    @Test
+    public void testCorruptedFile() throws IOException {
+        final File directory = tempFolder.newFolder();
+        final MinMaxTreeTileFactory factory = new MinMaxTreeTileFactory(null, new MinMaxTreeCache(directory));
+        createTile(factory, 20, 30, 0x2e8b5a07c4f1d396l);
+        final File file = directory.listFiles()[0];
+        final long length = file.length();
+
+        // truncate the file
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length - 8);
+        }
+
+        // the file is ignored and replaced
+        final MinMaxTreeTile tile = createTile(factory, 20, 30, 0x2e8b5a07c4f1d396l);
+        checkSameTrees(createTile(new MinMaxTreeTileFactory(), 20, 30, 0x2e8b5a07c4f1d396l), tile);
+        Assert.assertEquals(1, directory.listFiles().length);
+        Assert.assertEquals(length, directory.listFiles()[0].length());
+
+    }
+
+    @Test
+    public void testUnwritableDirectory() throws IOException {
+        final File notADirectory = tempFolder.newFile();
+        final MinMaxTreeCache cache = new MinMaxTreeCache(notADirectory);
+        Assert.assertSame(notADirectory, cache.getDirectory());
+
+        // the tile is loaded without caching its trees
+        final MinMaxTreeTile tile = createTile(new MinMaxTreeTileFactory(null, cache), 20, 30, 0x58d0e3f97a2c164bl);
+        checkSameTrees(createTile(new MinMaxTreeTileFactory(), 20, 30, 0x58d0e3f97a2c164bl), tile);
+        Assert.assertTrue(notADirectory.isFile());
+        Assert.assertEquals(0L, notADirectory.length());
+    }
+
+    @Test
+    public void testReadOnlyDirectory() throws IOException {
+        final File directory = tempFolder.newFolder();
+        Assert.assertTrue(directory.setWritable(false));
+        try {
+            // permissions are not enforced for privileged users
+            Assume.assumeFalse(directory.canWrite());
+
+            // the tile is loaded without caching its trees, and no temporary file remains
+            final MinMaxTreeTileFactory factory = new MinMaxTreeTileFactory(null, new MinMaxTreeCache(directory));
+            final MinMaxTreeTile tile = createTile(factory, 20, 30, 0x3b97e0c4d61a5f28l);
+            checkSameTrees(createTile(new MinMaxTreeTileFactory(), 20, 30, 0x3b97e0c4d61a5f28l), tile);
+            Assert.assertEquals(0, directory.listFiles().length);
+        } finally {
+            Assert.assertTrue(directory.setWritable(true));
+        }
+    }
+
+    private MinMaxTreeTile createTile(final MinMaxTreeTileFactory factory,
+                                      final int nbRows, final int nbColumns, final long seed) {
+        final RandomGenerator random = new Well1024a(seed);
+        final MinMaxTreeTile tile = factory.createTile();
+        tile.setGeometry(1.0, 2.0, 0.1, 0.2, nbRows, nbColumns);
+        for (int i = 0; i < nbRows; ++i) {
+            for (int j = 0; j < nbColumns; ++j) {
+                tile.setElevation(i, j, 1000.0 * random.nextDouble());
+            }
+        }
+        tile.tileUpdateCompleted();
+        return tile;
+    }
+
+    private void checkSameTrees(final MinMaxTreeTile reference, final MinMaxTreeTile tile) {
+        Assert.assertEquals(reference.getLevels(), tile.getLevels());
+        for (int i = 0; i < reference.getLatitudeRows(); ++i) {
+            for (int j = 0; j < reference.getLongitudeColumns(); ++j) {
+                for (int l = 0; l < reference.getLevels(); ++l) {
+                    Assert.assertEquals(reference.getMinElevation(i, j, l), tile.getMinElevation(i, j, l), 0.0);
+                    Assert.assertEquals(reference.getMaxElevation(i, j, l), tile.getMaxElevation(i, j, l), 0.0);
+                }
+            }
+        }
+    }
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+}
@@ -22,11 +22,14 @@ import org.hipparchus.util.FastMath;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.orekit.rugged.raster.BufferElevationStorageFactory;
+import org.orekit.rugged.raster.ElevationEncoding;
 
 public class MinMaxTreeTileTest {
 
@@ -62,10 +65,10 @@ public class MinMaxTreeTileTest {
 
         Field minTreeField = MinMaxTreeTile.class.getDeclaredField("minTree");
         minTreeField.setAccessible(true);
-        Assert.assertEquals(2187, ((double[]) minTreeField.get(tile)).length);
+        Assert.assertEquals(2187, ((MinMaxTreeValues) minTreeField.get(tile)).size());
         Field maxTreeField = MinMaxTreeTile.class.getDeclaredField("maxTree");
         maxTreeField.setAccessible(true);
-        Assert.assertEquals(2187, ((double[]) maxTreeField.get(tile)).length);
+        Assert.assertEquals(2187, ((MinMaxTreeValues) maxTreeField.get(tile)).size());
 
     }
 
@@ -91,10 +94,10 @@ public class MinMaxTreeTileTest {
 
         Field minTreeField = MinMaxTreeTile.class.getDeclaredField("minTree");
         minTreeField.setAccessible(true);
-        Assert.assertEquals(30, ((double[]) minTreeField.get(tile)).length);
+        Assert.assertEquals(30, ((MinMaxTreeValues) minTreeField.get(tile)).size());
         Field maxTreeField = MinMaxTreeTile.class.getDeclaredField("maxTree");
         maxTreeField.setAccessible(true);
-        Assert.assertEquals(30, ((double[]) maxTreeField.get(tile)).length);
+        Assert.assertEquals(30, ((MinMaxTreeValues) maxTreeField.get(tile)).size());
 
     }
 
@@ -169,6 +172,44 @@ public class MinMaxTreeTileTest {
         }
     }
 
+    @Test
+    public void testLocateMinMaxMappedStorage() {
+        RandomGenerator random = new Well1024a(0x1d3b0c07a5f27e43l);
+        MinMaxTreeTileFactory factory =
+                new MinMaxTreeTileFactory(new BufferElevationStorageFactory(ElevationEncoding.SHORT, 0.5, 0.0,
+                                                                            tempFolder.getRoot()));
+        for (int nbRows = 1; nbRows < 25; nbRows += 3) {
+            for (int nbColumns = 1; nbColumns < 25; nbColumns += 5) {
+
+                MinMaxTreeTile tile = factory.createTile();
+                tile.setGeometry(1.0, 2.0, 0.1, 0.2, nbRows, nbColumns);
+                for (int i = 0; i < nbRows; ++i) {
+                    for (int j = 0; j < nbColumns; ++j) {
+                        tile.setElevation(i, j, 1000.0 * random.nextDouble());
+                    }
+                }
+                tile.tileUpdateCompleted();
+
+                for (int i = 0; i < tile.getLatitudeRows(); ++i) {
+                    for (int j = 0; j < tile.getLongitudeColumns(); ++j) {
+                        // elevations are rounded to the storage resolution
+                        Assert.assertEquals(0.0, FastMath.IEEEremainder(tile.getElevationAtIndices(i, j), 0.5), 1.0e-15);
+                        for (int l = 0; l < tile.getLevels(); ++l) {
+                            int[] min = tile.locateMin(i, j, l);
+                            Assert.assertEquals(tile.getMinElevation(i, j, l),
+                                                tile.getElevationAtIndices(min[0], min[1]),
+                                                1.0e-10);
+                            int[] max = tile.locateMax(i, j, l);
+                            Assert.assertEquals(tile.getMaxElevation(i, j, l),
+                                                tile.getElevationAtIndices(max[0], max[1]),
+                                                1.0e-10);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     public void testIssue189() {
         MinMaxTreeTile tile = new MinMaxTreeTileFactory().createTile();
@@ -268,6 +309,44 @@ public class MinMaxTreeTileTest {
         }
     }
 
+    @Test
+    public void testParallelConstruction()
+        throws SecurityException, NoSuchFieldException,
+               IllegalArgumentException, IllegalAccessException {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final RandomGenerator random = new Well1024a(0x3b9e07d4c1a25f68l);
+        for (final int[] dimensions : new int[][] { { 601, 457 }, { 1201, 1201 }, { 3, 40001 }, { 40001, 3 } }) {
+            final MinMaxTreeTile sequential = new MinMaxTreeTileFactory().createTile();
+            final MinMaxTreeTile parallel   = new MinMaxTreeTileFactory(null, null, pool).createTile();
+            sequential.setGeometry(1.0, 2.0, 0.1, 0.2, dimensions[0], dimensions[1]);
+            parallel.setGeometry(1.0, 2.0, 0.1, 0.2, dimensions[0], dimensions[1]);
+            for (int i = 0; i < dimensions[0]; ++i) {
+                for (int j = 0; j < dimensions[1]; ++j) {
+                    final double elevation = 1000.0 * random.nextDouble();
+                    sequential.setElevation(i, j, elevation);
+                    parallel.setElevation(i, j, elevation);
+                }
+            }
+            sequential.tileUpdateCompleted();
+            parallel.tileUpdateCompleted();
+
+            // the trees must be exactly the same
+            Assert.assertEquals(sequential.getLevels(), parallel.getLevels());
+            for (final String name : new String[] { "minTree", "maxTree" }) {
+                final Field treeField = MinMaxTreeTile.class.getDeclaredField(name);
+                treeField.setAccessible(true);
+                final MinMaxTreeValues sequentialTree = (MinMaxTreeValues) treeField.get(sequential);
+                final MinMaxTreeValues parallelTree   = (MinMaxTreeValues) treeField.get(parallel);
+                Assert.assertEquals(sequentialTree.size(), parallelTree.size());
+                for (int k = 0; k < sequentialTree.size(); ++k) {
+                    Assert.assertEquals(sequentialTree.get(k), parallelTree.get(k), 0.0);
+                }
+            }
+
+        }
+        pool.shutdown();
+    }
+
     @Test
     public void testForCoverage() throws IOException {
         
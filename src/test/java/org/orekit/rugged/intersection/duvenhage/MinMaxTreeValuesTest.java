@@ -0,0 +1,89 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.intersection.duvenhage;
+
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+import org.orekit.rugged.raster.ElevationEncoding;
+
+public class MinMaxTreeValuesTest {
+
+    @Test
+    public void testDouble() {
+        final double[] exact = createValues();
+        final MinMaxTreeValues values = MinMaxTreeValues.create(exact, true, ElevationEncoding.DOUBLE, 1.0, 0.0);
+        for (int i = 0; i < exact.length; ++i) {
+            Assert.assertEquals(exact[i], values.get(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testFloat() {
+        checkConservative(ElevationEncoding.FLOAT, 1.0, 0.0, 1.0e-3);
+    }
+
+    @Test
+    public void testShort() {
+        checkConservative(ElevationEncoding.SHORT, 0.5, -1000.0, 0.5);
+    }
+
+    @Test
+    public void testNaN() {
+        final double[] exact = new double[] { 1.25, Double.NaN, 2.75 };
+        for (final ElevationEncoding encoding : ElevationEncoding.values()) {
+            final MinMaxTreeValues values = MinMaxTreeValues.create(exact, false, encoding, 1.0, 0.0);
+            Assert.assertTrue(Double.isNaN(values.get(1)));
+        }
+    }
+
+    private void checkConservative(final ElevationEncoding encoding, final double scale, final double offset,
+                                   final double tolerance) {
+        final double[] exact = createValues();
+        final MinMaxTreeValues lower = MinMaxTreeValues.create(exact, true,  encoding, scale, offset);
+        final MinMaxTreeValues upper = MinMaxTreeValues.create(exact, false, encoding, scale, offset);
+        int roundedDown = 0;
+        int roundedUp   = 0;
+        for (int i = 0; i < exact.length; ++i) {
+            Assert.assertTrue(lower.get(i) <= exact[i]);
+            Assert.assertTrue(upper.get(i) >= exact[i]);
+            Assert.assertEquals(exact[i], lower.get(i), tolerance);
+            Assert.assertEquals(exact[i], upper.get(i), tolerance);
+            if (lower.get(i) < exact[i]) {
+                ++roundedDown;
+            }
+            if (upper.get(i) > exact[i]) {
+                ++roundedUp;
+            }
+        }
+        // almost all values need rounding
+        Assert.assertTrue(roundedDown > exact.length - 10);
+        Assert.assertTrue(roundedUp   > exact.length - 10);
+    }
+
+    private double[] createValues() {
+        final RandomGenerator random = new Well1024a(0x3f6a9c52e1d4870bl);
+        final double[] values = new double[1000];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = FastMath.scalb(random.nextDouble() - 0.5, 14);
+        }
+        return values;
+    }
+
+}
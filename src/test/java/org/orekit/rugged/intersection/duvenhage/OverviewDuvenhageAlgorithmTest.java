@@ -0,0 +1,97 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.intersection.duvenhage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+import org.orekit.bodies.GeodeticPoint;
+import org.orekit.rugged.intersection.AbstractAlgorithmTest;
+import org.orekit.rugged.intersection.IntersectionAlgorithm;
+import org.orekit.rugged.raster.OverviewTileUpdater;
+import org.orekit.rugged.raster.RandomLandscapeUpdater;
+import org.orekit.rugged.raster.TileUpdater;
+import org.orekit.rugged.raster.TilesCache;
+
+public class OverviewDuvenhageAlgorithmTest extends AbstractAlgorithmTest {
+
+    protected IntersectionAlgorithm createAlgorithm(final TileUpdater updater, final int maxCachedTiles, final boolean isOverlappingTiles) {
+        return createAlgorithm(updater, new OverviewTileUpdater(updater, 8), maxCachedTiles);
+    }
+
+    private DuvenhageAlgorithm createAlgorithm(final TileUpdater updater, final TileUpdater overviewUpdater,
+                                               final int maxCachedTiles) {
+        return new DuvenhageAlgorithm(new TilesCache<MinMaxTreeTile>(new MinMaxTreeTileFactory(), updater,
+                                                                     maxCachedTiles, true),
+                                      new TilesCache<MinMaxTreeTile>(new MinMaxTreeTileFactory(), overviewUpdater,
+                                                                     maxCachedTiles, true),
+                                      false);
+    }
+
+    @Test
+    public void testFewerFullResolutionTiles() {
+
+        // small tiles (about 1.1km) on a rough terrain, so slanted lines-of-sight cross several tiles
+        final TileUpdater landscape = new RandomLandscapeUpdater(1500.0, 3000.0, 0.5, 0x7e3d19a0c5b264f8L,
+                                                                 FastMath.toRadians(0.01), 33);
+        final AtomicInteger referenceLoads = new AtomicInteger();
+        final AtomicInteger overviewLoads  = new AtomicInteger();
+        final DuvenhageAlgorithm reference =
+                new DuvenhageAlgorithm(new TilesCache<MinMaxTreeTile>(new MinMaxTreeTileFactory(),
+                                                                      counting(landscape, referenceLoads), 1000, true),
+                                       false);
+        final DuvenhageAlgorithm withOverview = createAlgorithm(counting(landscape, overviewLoads),
+                                                                new OverviewTileUpdater(landscape, 8),
+                                                                1000);
+
+        // spacecraft 800km above ground, with lines-of-sight up to 40 degrees off-nadir
+        final GeodeticPoint nadir = new GeodeticPoint(FastMath.toRadians(37.3), FastMath.toRadians(-12.8), 0.0);
+        final Vector3D position   = earth.transform(new GeodeticPoint(nadir.getLatitude(), nadir.getLongitude(), 800000.0));
+        double maxError = 0.0;
+        for (int i = -20; i <= 20; ++i) {
+            final double offNadir = FastMath.toRadians(2.0 * i);
+            for (int j = 0; j < 4; ++j) {
+                final GeodeticPoint ground =
+                        new GeodeticPoint(nadir.getLatitude()  + 0.1 * j * FastMath.sin(offNadir),
+                                          nadir.getLongitude() + 800000.0 * FastMath.tan(offNadir) /
+                                                                 (earth.getEquatorialRadius() * FastMath.cos(nadir.getLatitude())),
+                                          0.0);
+                final Vector3D los = earth.transform(ground).subtract(position).normalize();
+                final GeodeticPoint expected =
+                        reference.refineIntersection(earth, position, los, reference.intersection(earth, position, los));
+                final GeodeticPoint result =
+                        withOverview.refineIntersection(earth, position, los, withOverview.intersection(earth, position, los));
+                maxError = FastMath.max(maxError, earth.transform(expected).distance(earth.transform(result)));
+            }
+        }
+
+        Assert.assertEquals(0.0, maxError, 1.0e-8);
+        Assert.assertTrue(overviewLoads.get() < referenceLoads.get());
+
+    }
+
+    private TileUpdater counting(final TileUpdater fullResolution, final AtomicInteger counter) {
+        return (latitude, longitude, tile) -> {
+            counter.incrementAndGet();
+            fullResolution.updateTile(latitude, longitude, tile);
+        };
+    }
+
+}
@@ -224,6 +224,43 @@ public class FixedRotationTest {
 
     }
 
+    @Test
+    public void testLOSCoordinates() {
+        UniformRandomGenerator            rng = new UniformRandomGenerator(new Well19937a(0x94c2d07be15a3f68l));
+        UncorrelatedRandomVectorGenerator rvg = new UncorrelatedRandomVectorGenerator(3, rng);
+        LOSBuilder builder = new LOSBuilder(raw);
+        ParameterDriver driver = null;
+        for (int k = 0; k < 3; ++k) {
+            final FixedRotation rotation = new FixedRotation("r" + k, new Vector3D(rvg.nextVector()),
+                                                             0.01 * rng.nextNormalizedDouble());
+            builder.addTransform(rotation);
+            driver = rotation.getParametersDrivers().findFirst().get();
+        }
+        TimeDependentLOS tdl = builder.build();
+
+        final double[] coordinates = new double[3 * raw.size()];
+        for (int k = 0; k < 2; ++k) {
+
+            // bulk evaluation gives exactly the same results as pixel by pixel evaluation
+            tdl.getLOSCoordinates(AbsoluteDate.J2000_EPOCH, coordinates);
+            for (int i = 0; i < raw.size(); ++i) {
+                final Vector3D los = tdl.getLOS(i, AbsoluteDate.J2000_EPOCH);
+                Assert.assertEquals(los.getX(), coordinates[3 * i],     0.0);
+                Assert.assertEquals(los.getY(), coordinates[3 * i + 1], 0.0);
+                Assert.assertEquals(los.getZ(), coordinates[3 * i + 2], 0.0);
+            }
+
+            // changing a parameter resets the table
+            final double[] previous = coordinates.clone();
+            driver.setValue(driver.getValue() + 0.001);
+            tdl.getLOSCoordinates(AbsoluteDate.J2000_EPOCH, coordinates);
+            Assert.assertTrue(FastMath.abs(previous[0] - coordinates[0]) > 1.0e-10 ||
+                              FastMath.abs(previous[1] - coordinates[1]) > 1.0e-10 ||
+                              FastMath.abs(previous[2] - coordinates[2]) > 1.0e-10);
+
+        }
+    }
+
     @Before
     public void setUp() throws URISyntaxException {
 
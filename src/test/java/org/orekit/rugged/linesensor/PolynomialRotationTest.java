@@ -41,6 +41,8 @@ import org.hipparchus.util.FastMath;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.orekit.rugged.los.FixedRotation;
+import org.orekit.rugged.los.FixedZHomothety;
 import org.orekit.rugged.los.LOSBuilder;
 import org.orekit.rugged.los.PolynomialRotation;
 import org.orekit.rugged.los.TimeDependentLOS;
@@ -249,6 +251,61 @@ public class PolynomialRotationTest {
 
     }
 
+    @Test
+    public void testLOSCoordinates() {
+        UniformRandomGenerator            rng = new UniformRandomGenerator(new Well19937a(0x3e7a1bd5c60f28d4l));
+        UncorrelatedRandomVectorGenerator rvg = new UncorrelatedRandomVectorGenerator(3, rng);
+        for (int k = 0; k < 20; ++k) {
+
+            LOSBuilder builder = new LOSBuilder(raw);
+            builder.addTransform(new FixedRotation("f", new Vector3D(rvg.nextVector()), 0.01 * rng.nextNormalizedDouble()));
+            builder.addTransform(new PolynomialRotation("p", new Vector3D(rvg.nextVector()), AbsoluteDate.J2000_EPOCH,
+                                                        0.01 * rng.nextNormalizedDouble(),
+                                                        1.0e-4 * rng.nextNormalizedDouble(),
+                                                        1.0e-6 * rng.nextNormalizedDouble()));
+            builder.addTransform(new FixedZHomothety("h", 1.0 + 0.01 * rng.nextNormalizedDouble()));
+            TimeDependentLOS tdl = builder.build();
+
+            // bulk evaluation gives exactly the same results as pixel by pixel evaluation
+            final double[] coordinates = new double[3 * raw.size()];
+            for (double dt = 0; dt < 100.0; dt += 12.5) {
+                final AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(dt);
+                tdl.getLOSCoordinates(date, coordinates);
+                for (int i = 0; i < raw.size(); ++i) {
+                    final Vector3D los = tdl.getLOS(i, date);
+                    Assert.assertEquals(los.getX(), coordinates[3 * i],     0.0);
+                    Assert.assertEquals(los.getY(), coordinates[3 * i + 1], 0.0);
+                    Assert.assertEquals(los.getZ(), coordinates[3 * i + 2], 0.0);
+                }
+            }
+
+        }
+    }
+
+    @Test
+    public void testLineSensorLOSCoordinates() {
+        UniformRandomGenerator            rng = new UniformRandomGenerator(new Well19937a(0x71b5d8e02c93fa46l));
+        UncorrelatedRandomVectorGenerator rvg = new UncorrelatedRandomVectorGenerator(3, rng);
+        LOSBuilder builder = new LOSBuilder(raw);
+        builder.addTransform(new PolynomialRotation("p", new Vector3D(rvg.nextVector()), AbsoluteDate.J2000_EPOCH,
+                                                    0.01, 1.0e-4, 1.0e-6));
+        LineSensor sensor = new LineSensor("line", new LinearLineDatation(AbsoluteDate.J2000_EPOCH, 0.0, 100.0),
+                                           Vector3D.ZERO, builder.build());
+
+        final double[] coordinates = new double[3 * sensor.getNbPixels()];
+        for (double line = 0; line < 1000.0; line += 125.0) {
+            final AbsoluteDate date = sensor.getDate(line);
+            sensor.getLOSCoordinates(date, coordinates);
+            for (int i = 0; i < sensor.getNbPixels(); ++i) {
+                final Vector3D los = sensor.getLOS(date, i);
+                Assert.assertEquals(los.getX(), coordinates[3 * i],     0.0);
+                Assert.assertEquals(los.getY(), coordinates[3 * i + 1], 0.0);
+                Assert.assertEquals(los.getZ(), coordinates[3 * i + 2], 0.0);
+            }
+        }
+
+    }
+
     @Before
     public void setUp() throws URISyntaxException {
 
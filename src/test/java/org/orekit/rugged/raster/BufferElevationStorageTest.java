@@ -0,0 +1,207 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.orekit.rugged.errors.RuggedException;
+import org.orekit.rugged.errors.RuggedMessages;
+
+public class BufferElevationStorageTest {
+
+    @Test
+    public void testDouble() {
+        checkEncoding(new BufferElevationStorageFactory(ElevationEncoding.DOUBLE, 1.0, 0.0), 8, 0.0);
+    }
+
+    @Test
+    public void testFloat() {
+        checkEncoding(new BufferElevationStorageFactory(ElevationEncoding.FLOAT, 1.0, 0.0), 4, 3.0e-4);
+    }
+
+    @Test
+    public void testShort() {
+        checkEncoding(new BufferElevationStorageFactory(ElevationEncoding.SHORT, 0.5, -500.0), 2, 0.25);
+    }
+
+    @Test
+    public void testMapped() throws IOException {
+        final File directory = tempFolder.newFolder("mapped");
+        checkEncoding(new BufferElevationStorageFactory(ElevationEncoding.FLOAT, 1.0, 0.0, directory), 4, 3.0e-4);
+        // temporary files are removed as soon as they have been mapped
+        Assert.assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testShortOutOfRange() {
+        final ElevationStorage storage =
+                new BufferElevationStorageFactory(ElevationEncoding.SHORT, 0.1, 0.0).createStorage(10);
+        storage.setElevation(0, 3276.7);
+        Assert.assertEquals(3276.7, storage.getElevation(0), 1.0e-10);
+        try {
+            storage.setElevation(1, 3276.8);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, re.getSpecifier());
+            Assert.assertEquals(3276.8,  ((Double) re.getParts()[0]).doubleValue(), 1.0e-10);
+            Assert.assertEquals(-3276.7, ((Double) re.getParts()[1]).doubleValue(), 1.0e-10);
+            Assert.assertEquals(3276.7,  ((Double) re.getParts()[2]).doubleValue(), 1.0e-10);
+        }
+    }
+
+    @Test
+    public void testTooLarge() {
+        try {
+            new BufferElevationStorageFactory(ElevationEncoding.DOUBLE, 1.0, 0.0).createStorage(1 << 28);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_LARGE, re.getSpecifier());
+            Assert.assertEquals(1l << 31, ((Long) re.getParts()[0]).longValue());
+        }
+    }
+
+    @Test
+    public void testBufferTooSmall() {
+        try {
+            new BufferElevationStorage(ByteBuffer.allocate(15), ElevationEncoding.FLOAT, 1.0, 0.0, 4);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, re.getSpecifier());
+            Assert.assertEquals(15, ((Integer) re.getParts()[0]).intValue());
+            Assert.assertEquals(16l, ((Long) re.getParts()[1]).longValue());
+        }
+    }
+
+    @Test
+    public void testMissingDirectory() {
+        final File missing = new File(tempFolder.getRoot(), "missing");
+        try {
+            new BufferElevationStorageFactory(ElevationEncoding.FLOAT, 1.0, 0.0, missing).createStorage(10);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(RuggedMessages.ELEVATION_STORAGE_ERROR, re.getSpecifier());
+            Assert.assertEquals(missing.getAbsolutePath(), re.getParts()[0]);
+        }
+    }
+
+    @Test
+    public void testTile() {
+
+        final SimpleTile heapTile   = new SimpleTileFactory().createTile();
+        final SimpleTile bufferTile =
+                new SimpleTileFactory(new BufferElevationStorageFactory(ElevationEncoding.DOUBLE, 1.0, 0.0)).createTile();
+        for (final SimpleTile tile : new SimpleTile[] { heapTile, bufferTile }) {
+            tile.setGeometry(1.0, 2.0, 0.1, 0.2, 100, 200);
+            for (int i = 0; i < tile.getLatitudeRows(); ++i) {
+                for (int j = 0; j < tile.getLongitudeColumns(); ++j) {
+                    tile.setElevation(i, j, 1000 * i + FastMath.sin(j));
+                }
+            }
+            tile.tileUpdateCompleted();
+        }
+
+        Assert.assertEquals(heapTile.getMinElevation(), bufferTile.getMinElevation(), 0.0);
+        Assert.assertEquals(heapTile.getMaxElevation(), bufferTile.getMaxElevation(), 0.0);
+        for (double lat = 1.0; lat < 10.8; lat += 0.37) {
+            for (double lon = 2.0; lon < 41.6; lon += 0.71) {
+                Assert.assertEquals(heapTile.interpolateElevation(lat, lon),
+                                    bufferTile.interpolateElevation(lat, lon),
+                                    0.0);
+            }
+        }
+
+    }
+
+    @Test
+    public void testShortTileExtrema() {
+
+        // with a 1m scale, the largest elevation (x.6) is rounded up and the smallest (x.4) is rounded down
+        final BufferElevationStorageFactory factory = new BufferElevationStorageFactory(ElevationEncoding.SHORT, 1.0, 0.0);
+        final int rows    = 20;
+        final int columns = 30;
+        final double[] block = new double[rows * columns];
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                block[i * columns + j] = 100.0 + 10.0 * FastMath.sin(0.3 * i + 0.7 * j);
+            }
+        }
+        block[7 * columns + 11]  = 200.6;
+        block[13 * columns + 23] = -50.4;
+
+        final SimpleTile cellTile  = new SimpleTileFactory(factory).createTile();
+        final SimpleTile blockTile = new SimpleTileFactory(factory).createTile();
+        cellTile.setGeometry(1.0, 2.0, 0.1, 0.2, rows, columns);
+        blockTile.setGeometry(1.0, 2.0, 0.1, 0.2, rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                cellTile.setElevation(i, j, block[i * columns + j]);
+            }
+        }
+        blockTile.setElevations(0, 0, rows, columns, block, 0);
+
+        for (final SimpleTile tile : new SimpleTile[] { cellTile, blockTile }) {
+            tile.tileUpdateCompleted();
+
+            // extrema are the stored (rounded) values, so they bound the stored surface
+            Assert.assertEquals(201.0, tile.getMaxElevation(), 0.0);
+            Assert.assertEquals(7,     tile.getMaxElevationLatitudeIndex());
+            Assert.assertEquals(11,    tile.getMaxElevationLongitudeIndex());
+            Assert.assertEquals(-50.0, tile.getMinElevation(), 0.0);
+            Assert.assertEquals(13,    tile.getMinElevationLatitudeIndex());
+            Assert.assertEquals(23,    tile.getMinElevationLongitudeIndex());
+            for (int i = 0; i < rows; ++i) {
+                for (int j = 0; j < columns; ++j) {
+                    Assert.assertTrue(tile.getMaxElevation() >= tile.getElevationAtIndices(i, j));
+                    Assert.assertTrue(tile.getMinElevation() <= tile.getElevationAtIndices(i, j));
+                }
+            }
+        }
+
+    }
+
+    private void checkEncoding(final ElevationStorageFactory factory, final int bytes, final double tolerance) {
+        final ElevationStorage storage = factory.createStorage(1000);
+        Assert.assertEquals(1000, storage.getSize());
+        Assert.assertEquals(bytes, ((BufferElevationStorage) storage).getEncoding().getBytes());
+        for (int i = 0; i < storage.getSize(); ++i) {
+            Assert.assertTrue(Double.isNaN(storage.getElevation(i)));
+        }
+        for (int i = 0; i < storage.getSize(); ++i) {
+            storage.setElevation(i, -431.7 + 9.3125 * i);
+        }
+        storage.setElevation(17, Double.NaN);
+        for (int i = 0; i < storage.getSize(); ++i) {
+            if (i == 17) {
+                Assert.assertTrue(Double.isNaN(storage.getElevation(i)));
+            } else {
+                Assert.assertEquals(-431.7 + 9.3125 * i, storage.getElevation(i), tolerance);
+            }
+        }
+    }
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+}
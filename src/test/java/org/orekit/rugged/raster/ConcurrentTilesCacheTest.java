@@ -0,0 +1,218 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentTilesCacheTest {
+
+    @Test
+    public void testSingleTile() {
+        CountingFactory factory = new CountingFactory();
+        ConcurrentTilesCache<SimpleTile> cache =
+                new ConcurrentTilesCache<SimpleTile>(factory,
+                                                     new CheckedPatternElevationUpdater(FastMath.toRadians(3.0), 11, 10.0, 20.0),
+                                                     1000, true);
+        SimpleTile tile = cache.getTile(FastMath.toRadians(-23.2), FastMath.toRadians(137.5));
+        Assert.assertEquals(1, factory.getCount());
+        Assert.assertEquals(-24.0, FastMath.toDegrees(tile.getMinimumLatitude()),  1.0e-10);
+        Assert.assertEquals(135.0, FastMath.toDegrees(tile.getMinimumLongitude()), 1.0e-10);
+        Assert.assertSame(tile, cache.getTile(FastMath.toRadians(-22.9), FastMath.toRadians(136.1)));
+        Assert.assertEquals(1, factory.getCount());
+    }
+
+    @Test
+    public void testSharedBetweenThreads() throws InterruptedException, ExecutionException {
+        final CountingFactory factory = new CountingFactory();
+        final ConcurrentTilesCache<SimpleTile> cache =
+                new ConcurrentTilesCache<SimpleTile>(factory,
+                                                     new CheckedPatternElevationUpdater(FastMath.toRadians(1.0), 11, 10.0, 20.0),
+                                                     12, true);
+
+        // all threads use the same 12 tiles, they must be loaded only once
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<Integer>> results = new ArrayList<>();
+        for (int k = 0; k < 8; ++k) {
+            final long seed = 0x7c3f5a18e42d6b09l + k;
+            results.add(executor.submit(() -> {
+                final RandomGenerator generator = new Well19937a(seed);
+                int errors = 0;
+                for (int i = 0; i < 20000; ++i) {
+                    final double lat = FastMath.toRadians(3.0 * generator.nextDouble());
+                    final double lon = FastMath.toRadians(4.0 * generator.nextDouble());
+                    final SimpleTile tile = cache.getTile(lat, lon);
+                    if (tile.getLocation(lat, lon) != Tile.Location.HAS_INTERPOLATION_NEIGHBORS) {
+                        ++errors;
+                    }
+                }
+                return errors;
+            }));
+        }
+        for (final Future<Integer> result : results) {
+            Assert.assertEquals(0, result.get().intValue());
+        }
+        executor.shutdown();
+        Assert.assertEquals(12, factory.getCount());
+
+    }
+
+    @Test
+    public void testEviction() {
+        CountingFactory factory = new CountingFactory();
+        ConcurrentTilesCache<SimpleTile> cache =
+                new ConcurrentTilesCache<SimpleTile>(factory,
+                                                     new CheckedPatternElevationUpdater(FastMath.toRadians(1.0), 11, 10.0, 20.0),
+                                                     12, true);
+
+        // fill up the 12 tiles we can keep in cache
+        for (int i = 0; i < 4; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                cache.getTile(FastMath.toRadians(0.5 + j), FastMath.toRadians(0.5 + i));
+            }
+        }
+        Assert.assertEquals(12, factory.getCount());
+
+        // a new tile evicts one of the existing tiles
+        cache.getTile(FastMath.toRadians(20.5), FastMath.toRadians(30.5));
+        Assert.assertEquals(13, factory.getCount());
+
+        // the new tile is still there
+        cache.getTile(FastMath.toRadians(20.5), FastMath.toRadians(30.5));
+        Assert.assertEquals(13, factory.getCount());
+
+        // evict all the tiles, going to a completely different zone
+        for (int i = 0; i < 4; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                cache.getTile(FastMath.toRadians(40.5 + i), FastMath.toRadians(90.5 + j));
+            }
+        }
+        Assert.assertEquals(25, factory.getCount());
+
+        // these tiles are all still there
+        for (int i = 0; i < 4; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                cache.getTile(FastMath.toRadians(40.5 + i), FastMath.toRadians(90.5 + j));
+            }
+        }
+        Assert.assertEquals(25, factory.getCount());
+
+    }
+
+    @Test
+    public void testEvictionSparesReferencedTiles() {
+        CountingFactory factory = new CountingFactory();
+        ConcurrentTilesCache<SimpleTile> cache =
+                new ConcurrentTilesCache<SimpleTile>(factory,
+                                                     new CheckedPatternElevationUpdater(FastMath.toRadians(1.0), 11, 10.0, 20.0),
+                                                     3, true);
+
+        cache.getTile(FastMath.toRadians(0.5), FastMath.toRadians(0.5));
+        cache.getTile(FastMath.toRadians(0.5), FastMath.toRadians(1.5));
+        cache.getTile(FastMath.toRadians(0.5), FastMath.toRadians(2.5));
+        Assert.assertEquals(3, factory.getCount());
+
+        // first sweep clears all reference flags and evicts the first tile
+        cache.getTile(FastMath.toRadians(0.5), FastMath.toRadians(3.5));
+        Assert.assertEquals(4, factory.getCount());
+
+        // use the third tile, so it gets a second chance
+        cache.getTile(FastMath.toRadians(0.5), FastMath.toRadians(2.5));
+        Assert.assertEquals(4, factory.getCount());
+
+        // the second tile is evicted, not the third one
+        cache.getTile(FastMath.toRadians(0.5), FastMath.toRadians(4.5));
+        Assert.assertEquals(5, factory.getCount());
+        cache.getTile(FastMath.toRadians(0.5), FastMath.toRadians(2.5));
+        Assert.assertEquals(5, factory.getCount());
+        cache.getTile(FastMath.toRadians(0.5), FastMath.toRadians(1.5));
+        Assert.assertEquals(6, factory.getCount());
+
+    }
+
+    @Test
+    public void testZipperTilesSharedBetweenThreads() throws InterruptedException, ExecutionException {
+        final TileUpdater srtmUpdater = new DummySRTMsimpleElevationUpdater(100, 10.0, 20.0, 3);
+        final AtomicInteger loaded = new AtomicInteger();
+        final TileUpdater countingUpdater = (latitude, longitude, tile) -> {
+            loaded.incrementAndGet();
+            srtmUpdater.updateTile(latitude, longitude, tile);
+        };
+        final ConcurrentTilesCache<SimpleTile> cache =
+                new ConcurrentTilesCache<SimpleTile>(new SimpleTileFactory(), countingUpdater, 4, 8, false);
+
+        // all threads use points around the same corner, tiles must be loaded only once
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<Integer>> results = new ArrayList<>();
+        for (int k = 0; k < 4; ++k) {
+            final long seed = 0x5d2e7a91c3b48f60l + k;
+            results.add(executor.submit(() -> {
+                final RandomGenerator generator = new Well19937a(seed);
+                int errors = 0;
+                for (int i = 0; i < 5000; ++i) {
+                    final double lat = FastMath.toRadians(45.0 + 0.2 * (generator.nextDouble() - 0.5));
+                    final double lon = FastMath.toRadians(10.0 + 0.2 * (generator.nextDouble() - 0.5));
+                    final SimpleTile tile = cache.getTile(lat, lon);
+                    if (tile.getLocation(lat, lon) != Tile.Location.HAS_INTERPOLATION_NEIGHBORS) {
+                        ++errors;
+                    }
+                }
+                return errors;
+            }));
+        }
+        for (final Future<Integer> result : results) {
+            Assert.assertEquals(0, result.get().intValue());
+        }
+        executor.shutdown();
+        Assert.assertEquals(4, loaded.get());
+
+    }
+
+    @Test
+    public void testSeamlessZipper() {
+
+        DummySRTMsimpleElevationUpdater srtmUpdater = new DummySRTMsimpleElevationUpdater(100, 10.0, 20.0, 3);
+        ConcurrentTilesCache<SimpleTile> cache =
+                new ConcurrentTilesCache<SimpleTile>(new SimpleTileFactory(), srtmUpdater, 8, false);
+
+        SimpleTile tile = cache.getTile(FastMath.toRadians(47.0), FastMath.toRadians(12.3));
+        final double northernEdge = tile.getMaximumLatitude() + 0.5 * tile.getLatitudeStep();
+        final double lon          = FastMath.toRadians(12.3);
+
+        // a point on the tile edge cannot be interpolated in the regular tile, it needs a zipper
+        SimpleTile zipper = cache.getTile(northernEdge, lon);
+        Assert.assertNotSame(tile, zipper);
+        Assert.assertEquals(4, zipper.getLatitudeRows());
+        Assert.assertEquals(Tile.Location.HAS_INTERPOLATION_NEIGHBORS, zipper.getLocation(northernEdge, lon));
+
+        // the zipper tile is found again in the cache
+        Assert.assertSame(zipper, cache.getTile(northernEdge, lon));
+
+    }
+
+}
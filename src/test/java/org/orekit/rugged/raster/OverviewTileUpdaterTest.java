@@ -0,0 +1,88 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+import org.orekit.rugged.errors.RuggedException;
+
+public class OverviewTileUpdaterTest {
+
+    @Test
+    public void testWrongFactor() {
+        try {
+            new OverviewTileUpdater(new CheckedPatternElevationUpdater(FastMath.toRadians(1.0), 11, 10.0, 20.0), 1);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, re.getSpecifier());
+            Assert.assertEquals(1, ((Integer) re.getParts()[0]).intValue());
+        }
+    }
+
+    @Test
+    public void testGeometry() {
+        final TileUpdater fullResolution = new RandomLandscapeUpdater(0.0, 9000.0, 0.5, 0x5f1e8c3a92d04b67L,
+                                                                      FastMath.toRadians(1.0), 257);
+        for (int factor = 2; factor < 20; ++factor) {
+            final OverviewTileUpdater overviewUpdater = new OverviewTileUpdater(fullResolution, factor);
+            Assert.assertEquals(factor, overviewUpdater.getFactor());
+            final SimpleTile tile     = createTile(fullResolution,  0.3, 0.4);
+            final SimpleTile overview = createTile(overviewUpdater, 0.3, 0.4);
+            Assert.assertEquals((256 + factor - 1) / factor + 1, overview.getLatitudeRows());
+            Assert.assertEquals((256 + factor - 1) / factor + 1, overview.getLongitudeColumns());
+            Assert.assertEquals(tile.getMinimumLatitude(),  overview.getMinimumLatitude(),  1.0e-15);
+            Assert.assertEquals(tile.getMinimumLongitude(), overview.getMinimumLongitude(), 1.0e-15);
+            Assert.assertEquals(tile.getMaximumLatitude(),  overview.getMaximumLatitude(),  1.0e-15);
+            Assert.assertEquals(tile.getMaximumLongitude(), overview.getMaximumLongitude(), 1.0e-15);
+            Assert.assertEquals(tile.getMaxElevation(),     overview.getMaxElevation(),     1.0e-15);
+        }
+    }
+
+    @Test
+    public void testAboveFullResolution() {
+        final TileUpdater fullResolution = new RandomLandscapeUpdater(0.0, 9000.0, 0.5, 0x2c74e1b09af3d856L,
+                                                                      FastMath.toRadians(1.0), 257);
+        final RandomGenerator random = new Well19937a(0x4d9a27e61f0c53b8L);
+        for (final int factor : new int[] { 2, 3, 7, 8, 16, 100 }) {
+            final SimpleTile tile     = createTile(fullResolution, 0.3, 0.4);
+            final SimpleTile overview = createTile(new OverviewTileUpdater(fullResolution, factor), 0.3, 0.4);
+            double minMargin = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < 10000; ++k) {
+                final double latitude  = tile.getMinimumLatitude() +
+                                         random.nextDouble() * (tile.getMaximumLatitude() - tile.getMinimumLatitude());
+                final double longitude = tile.getMinimumLongitude() +
+                                         random.nextDouble() * (tile.getMaximumLongitude() - tile.getMinimumLongitude());
+                minMargin = FastMath.min(minMargin,
+                                         overview.interpolateElevation(latitude, longitude) -
+                                         tile.interpolateElevation(latitude, longitude));
+            }
+            Assert.assertTrue(minMargin >= 0.0);
+        }
+    }
+
+    private SimpleTile createTile(final TileUpdater updater, final double latitude, final double longitude) {
+        final SimpleTile tile = new SimpleTileFactory().createTile();
+        updater.updateTile(latitude, longitude, tile);
+        tile.tileUpdateCompleted();
+        return tile;
+    }
+
+}
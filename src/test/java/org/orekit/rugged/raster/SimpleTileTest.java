@@ -16,6 +16,11 @@
  */
 package org.orekit.rugged.raster;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
 import org.hipparchus.util.MathUtils;
@@ -124,6 +129,141 @@ public class SimpleTileTest {
         Assert.assertEquals(Location.NORTH_EAST, tile0.getLocation(12.0, 43.0));
     }
 
+    @Test
+    public void testBulkUpdate() {
+
+        // reference tile, filled one cell at a time
+        final int rows    = 60;
+        final int columns = 70;
+        final short[] raw = new short[rows * columns];
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                raw[i * columns + j] = (short) (((i - 20) * (j - 30)) % 1000);
+            }
+        }
+        SimpleTile reference = new SimpleTileFactory().createTile();
+        reference.setGeometry(1.0, 2.0, 0.1, 0.2, rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                reference.setElevation(i, j, raw[i * columns + j]);
+            }
+        }
+        reference.tileUpdateCompleted();
+
+        final double[] doubles = new double[raw.length + 3];
+        final float[]  floats  = new float[raw.length + 3];
+        for (int k = 0; k < raw.length; ++k) {
+            doubles[k + 3] = raw[k];
+            floats[k + 3]  = raw[k];
+        }
+
+        // whole raster at once
+        SimpleTile tile = new SimpleTileFactory().createTile();
+        tile.setGeometry(1.0, 2.0, 0.1, 0.2, rows, columns);
+        tile.setElevations(0, 0, rows, columns, doubles, 3);
+        tile.tileUpdateCompleted();
+        checkSameTiles(reference, tile);
+
+        // row by row
+        tile = new SimpleTileFactory().createTile();
+        tile.setGeometry(1.0, 2.0, 0.1, 0.2, rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            tile.setElevations(i, 0, 1, columns, floats, 3 + i * columns);
+        }
+        tile.tileUpdateCompleted();
+        checkSameTiles(reference, tile);
+
+        // four blocks, using the various buffer types
+        final short[] block = new short[(rows / 2) * (columns / 2)];
+        tile = new SimpleTileFactory(new BufferElevationStorageFactory(ElevationEncoding.FLOAT, 1.0, 0.0)).createTile();
+        tile.setGeometry(1.0, 2.0, 0.1, 0.2, rows, columns);
+        for (int bi = 0; bi < 2; ++bi) {
+            for (int bj = 0; bj < 2; ++bj) {
+                for (int i = 0; i < rows / 2; ++i) {
+                    for (int j = 0; j < columns / 2; ++j) {
+                        block[i * (columns / 2) + j] = raw[(bi * rows / 2 + i) * columns + bj * columns / 2 + j];
+                    }
+                }
+                final int latitudeIndex  = bi * rows / 2;
+                final int longitudeIndex = bj * columns / 2;
+                switch (2 * bi + bj) {
+                    case 0 :
+                        tile.setElevations(latitudeIndex, longitudeIndex, rows / 2, columns / 2, block, 0);
+                        break;
+                    case 1 : {
+                        final ShortBuffer buffer = ShortBuffer.wrap(block);
+                        tile.setElevations(latitudeIndex, longitudeIndex, rows / 2, columns / 2, buffer);
+                        Assert.assertEquals(0, buffer.remaining());
+                        break;
+                    }
+                    case 2 : {
+                        final FloatBuffer buffer = FloatBuffer.allocate(block.length);
+                        for (final short s : block) {
+                            buffer.put(s);
+                        }
+                        buffer.flip();
+                        tile.setElevations(latitudeIndex, longitudeIndex, rows / 2, columns / 2, buffer);
+                        Assert.assertEquals(0, buffer.remaining());
+                        break;
+                    }
+                    default : {
+                        final DoubleBuffer buffer = DoubleBuffer.allocate(block.length);
+                        for (final short s : block) {
+                            buffer.put(s);
+                        }
+                        buffer.flip();
+                        tile.setElevations(latitudeIndex, longitudeIndex, rows / 2, columns / 2, buffer);
+                        Assert.assertEquals(0, buffer.remaining());
+                        break;
+                    }
+                }
+            }
+        }
+        tile.tileUpdateCompleted();
+        checkSameTiles(reference, tile);
+
+    }
+
+    @Test
+    public void testBulkUpdateErrors() {
+
+        SimpleTile tile = new SimpleTileFactory().createTile();
+        tile.setGeometry(1.0, 2.0, 0.1, 0.2, 100, 200);
+
+        try {
+            tile.setElevations(90, 150, 11, 50, new double[550], 0);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(RuggedMessages.OUT_OF_TILE_INDICES, re.getSpecifier());
+            Assert.assertEquals(100, ((Integer) re.getParts()[0]).intValue());
+            Assert.assertEquals(199, ((Integer) re.getParts()[1]).intValue());
+        }
+
+        try {
+            tile.setElevations(10, 20, 3, 4, new float[12], 1);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, re.getSpecifier());
+            Assert.assertEquals(11, ((Integer) re.getParts()[0]).intValue());
+            Assert.assertEquals(12, ((Integer) re.getParts()[1]).intValue());
+        }
+
+    }
+
+    private void checkSameTiles(final SimpleTile expected, final SimpleTile tile) {
+        Assert.assertEquals(expected.getMinElevation(),               tile.getMinElevation(),               1.0e-10);
+        Assert.assertEquals(expected.getMinElevationLatitudeIndex(),  tile.getMinElevationLatitudeIndex());
+        Assert.assertEquals(expected.getMinElevationLongitudeIndex(), tile.getMinElevationLongitudeIndex());
+        Assert.assertEquals(expected.getMaxElevation(),               tile.getMaxElevation(),               1.0e-10);
+        Assert.assertEquals(expected.getMaxElevationLatitudeIndex(),  tile.getMaxElevationLatitudeIndex());
+        Assert.assertEquals(expected.getMaxElevationLongitudeIndex(), tile.getMaxElevationLongitudeIndex());
+        for (int i = 0; i < expected.getLatitudeRows(); ++i) {
+            for (int j = 0; j < expected.getLongitudeColumns(); ++j) {
+                Assert.assertEquals(expected.getElevationAtIndices(i, j), tile.getElevationAtIndices(i, j), 1.0e-10);
+            }
+        }
+    }
+
     @Test
     public void testOutOfBoundsIndices() {
 
@@ -0,0 +1,131 @@
+/* Copyright 2013-2025 CS GROUP
+ * Licensed to CS GROUP (CS) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * CS licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.orekit.rugged.raster;
+
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TileGridIndexTest {
+
+    @Test
+    public void testEmpty() {
+        TileGridIndex index = new TileGridIndex(10);
+        Assert.assertEquals(0, index.getCandidates(0.1, 0.2).length);
+        Assert.assertEquals(0, index.getOversized().length);
+    }
+
+    @Test
+    public void testRegularTiles() {
+        TileGridIndex index = new TileGridIndex(4);
+        for (int slot = 0; slot < 100; ++slot) {
+            index.add(slot, tile(slot / 10, slot % 10, 1.0));
+        }
+        Assert.assertEquals(0, index.getOversized().length);
+        for (int slot = 0; slot < 100; ++slot) {
+            // the tile containing the point is a candidate, among a few neighbors
+            final int[] candidates = index.getCandidates(FastMath.toRadians(slot / 10 + 0.3),
+                                                         FastMath.toRadians(slot % 10 + 0.6));
+            Assert.assertTrue(candidates.length <= 9);
+            Assert.assertTrue(contains(candidates, slot));
+        }
+        Assert.assertEquals(0, index.getCandidates(FastMath.toRadians(30.5), FastMath.toRadians(40.5)).length);
+
+        index.clear();
+        Assert.assertEquals(0, index.getCandidates(FastMath.toRadians(0.3), FastMath.toRadians(0.6)).length);
+        index.add(7, tile(0, 0, 1.0));
+        Assert.assertArrayEquals(new int[] { 7 }, index.getCandidates(FastMath.toRadians(0.3), FastMath.toRadians(0.6)));
+    }
+
+    @Test
+    public void testMixedSizes() {
+        TileGridIndex index = new TileGridIndex(4);
+        index.add(0, tile(0, 0, 1.0));
+        index.add(1, tile(2, 0, 0.25));
+        index.add(2, tile(0, 10, 10.0));
+        Assert.assertArrayEquals(new int[] { 2 }, index.getOversized());
+        Assert.assertTrue(contains(index.getCandidates(FastMath.toRadians(2.1), FastMath.toRadians(0.1)), 1));
+        Assert.assertFalse(contains(index.getCandidates(FastMath.toRadians(6.1), FastMath.toRadians(0.1)), 1));
+    }
+
+    @Test
+    public void testIrregularFirstTile() {
+        // a truncated edge tile, then a tile much larger than the regular ones
+        final double[] firstSizes = new double[] { 0.1, 5.0 };
+        final int[][]  oversized  = new int[][] { {}, { 100 } };
+        for (int k = 0; k < firstSizes.length; ++k) {
+            TileGridIndex index = new TileGridIndex(4);
+            index.add(100, tile(-10, -10, firstSizes[k]));
+            for (int slot = 0; slot < 100; ++slot) {
+                index.add(slot, tile(slot / 10, slot % 10, 1.0));
+            }
+            // the grid follows the regular tiles, not the first one
+            Assert.assertArrayEquals(oversized[k], index.getOversized());
+            for (int slot = 0; slot < 100; ++slot) {
+                final int[] candidates = index.getCandidates(FastMath.toRadians(slot / 10 + 0.3),
+                                                             FastMath.toRadians(slot % 10 + 0.6));
+                Assert.assertTrue(candidates.length <= 9);
+                Assert.assertTrue(contains(candidates, slot));
+            }
+            Assert.assertTrue(contains(index.getCandidates(FastMath.toRadians(-9.99), FastMath.toRadians(-9.99)), 100) ||
+                              contains(index.getOversized(), 100));
+        }
+    }
+
+    @Test
+    public void testAddAll() {
+        TileGridIndex index = new TileGridIndex(4);
+        index.add(7, tile(30, 30, 1.0));
+
+        // a truncated edge tile first, an empty slot and regular tiles
+        final Tile[] all = new Tile[102];
+        all[0] = tile(-10, -10, 0.1);
+        for (int slot = 2; slot < all.length; ++slot) {
+            all[slot] = tile((slot - 2) / 10, (slot - 2) % 10, 1.0);
+        }
+        index.addAll(all);
+
+        // the previous tiles have been removed and the grid follows the regular tiles
+        Assert.assertEquals(0, index.getOversized().length);
+        Assert.assertEquals(0, index.getCandidates(FastMath.toRadians(30.5), FastMath.toRadians(30.5)).length);
+        Assert.assertTrue(contains(index.getCandidates(FastMath.toRadians(-9.99), FastMath.toRadians(-9.99)), 0));
+        for (int slot = 2; slot < all.length; ++slot) {
+            final int[] candidates = index.getCandidates(FastMath.toRadians((slot - 2) / 10 + 0.3),
+                                                         FastMath.toRadians((slot - 2) % 10 + 0.6));
+            Assert.assertTrue(candidates.length <= 9);
+            Assert.assertTrue(contains(candidates, slot));
+            Assert.assertFalse(contains(candidates, 1));
+        }
+    }
+
+    private boolean contains(final int[] candidates, final int slot) {
+        for (final int candidate : candidates) {
+            if (candidate == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Tile tile(final int latitude, final int longitude, final double size) {
+        final SimpleTile tile = new SimpleTileFactory().createTile();
+        final double step = FastMath.toRadians(size / 10);
+        tile.setGeometry(FastMath.toRadians(latitude), FastMath.toRadians(longitude), step, step, 11, 11);
+        return tile;
+    }
+
+}
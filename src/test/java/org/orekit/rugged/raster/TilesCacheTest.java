@@ -25,6 +25,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.URISyntaxException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hipparchus.random.RandomGenerator;
 import org.hipparchus.random.Well19937a;
@@ -54,6 +55,66 @@ public class TilesCacheTest {
         Assert.assertEquals(20.0, tile.getMaxElevation(), 1.0e-10);
     }
 
+    @Test
+    public void testPrefetchTiles() {
+        CountingFactory factory = new CountingFactory();
+        TilesCache<SimpleTile> cache = new TilesCache<SimpleTile>(factory,
+                new DummySRTMsimpleElevationUpdater(100, 10.0, 20.0, 3), 1000, false);
+
+        // invalid segments are ignored
+        cache.prefetchTiles(Double.NaN, 0.0, 0.1, 0.1);
+        Assert.assertEquals(0, factory.getCount());
+
+        // diagonal segment crossing several 5° tiles boundaries
+        final double lat0 = FastMath.toRadians(41.3);
+        final double lon0 = FastMath.toRadians(2.2);
+        final double lat1 = FastMath.toRadians(53.1);
+        final double lon1 = FastMath.toRadians(13.7);
+        cache.prefetchTiles(lat0, lon0, lat1, lon1);
+
+        // all regular tiles have been loaded, and also zipper tiles at boundaries crossings
+        final int count = factory.getCount();
+        Assert.assertTrue(count > 6);
+
+        // walking along the segment does not load anything anymore
+        for (int i = 0; i <= 100000; ++i) {
+            final double t = i / 100000.0;
+            cache.getTile(lat0 + t * (lat1 - lat0), lon0 + t * (lon1 - lon0));
+        }
+        Assert.assertEquals(count, factory.getCount());
+
+        // prefetching again does not load anything either
+        cache.prefetchTiles(lat1, lon1, lat0, lon0);
+        Assert.assertEquals(count, factory.getCount());
+
+    }
+
+    @Test
+    public void testZipperTilesAroundCorner() {
+        final TileUpdater srtmUpdater = new DummySRTMsimpleElevationUpdater(100, 10.0, 20.0, 3);
+        final AtomicInteger loaded = new AtomicInteger();
+        final TileUpdater countingUpdater = (latitude, longitude, tile) -> {
+            loaded.incrementAndGet();
+            srtmUpdater.updateTile(latitude, longitude, tile);
+        };
+
+        // the cache can hold exactly the 4 tiles around the corner
+        TilesCache<SimpleTile> cache = new TilesCache<SimpleTile>(new SimpleTileFactory(), countingUpdater, 4, 8, false);
+
+        // points all around the corner between tiles at 45°N, 10°E
+        final RandomGenerator generator = new Well19937a(0x3a1f8e9d4c7b2605l);
+        for (int i = 0; i < 10000; ++i) {
+            final double lat = FastMath.toRadians(45.0 + 0.2 * (generator.nextDouble() - 0.5));
+            final double lon = FastMath.toRadians(10.0 + 0.2 * (generator.nextDouble() - 0.5));
+            final SimpleTile tile = cache.getTile(lat, lon);
+            Assert.assertEquals(Tile.Location.HAS_INTERPOLATION_NEIGHBORS, tile.getLocation(lat, lon));
+        }
+
+        // zipper tiles did not evict regular tiles, and neighbors were not reloaded
+        Assert.assertEquals(4, loaded.get());
+
+    }
+
     @Test
     public void testEviction() {
         CountingFactory factory = new CountingFactory();
@@ -106,6 +167,40 @@ public class TilesCacheTest {
 
     }
 
+    @Test
+    public void testLargeCache() {
+        CountingFactory factory = new CountingFactory();
+        TilesCache<SimpleTile> cache = new TilesCache<SimpleTile>(factory,
+                new CheckedPatternElevationUpdater(FastMath.toRadians(1.0), 11, 10.0, 20.0), 600, true);
+
+        // random points over a 20x30 degrees area, covered by 600 tiles that all fit in the cache
+        RandomGenerator generator = new Well19937a(0x3a9c1e5b7d2f4860l);
+        for (int i = 0; i < 50000; ++i) {
+            double lat = FastMath.toRadians(-10.0 + 20.0 * generator.nextDouble());
+            double lon = FastMath.toRadians(100.0 + 30.0 * generator.nextDouble());
+            SimpleTile tile = cache.getTile(lat, lon);
+            Assert.assertEquals(Tile.Location.HAS_INTERPOLATION_NEIGHBORS, tile.getLocation(lat, lon));
+        }
+        Assert.assertEquals(600, factory.getCount());
+
+        // ensure the south-western tile is the least recently used one
+        for (int i = 0; i < 600; ++i) {
+            cache.getTile(FastMath.toRadians(-9.5 + i / 30), FastMath.toRadians(100.5 + i % 30));
+        }
+        Assert.assertEquals(600, factory.getCount());
+
+        // a new tile evicts the least recently used one, and only this one
+        cache.getTile(FastMath.toRadians(45.5), FastMath.toRadians(-12.5));
+        Assert.assertEquals(601, factory.getCount());
+        for (int i = 599; i > 0; --i) {
+            cache.getTile(FastMath.toRadians(-9.5 + i / 30), FastMath.toRadians(100.5 + i % 30));
+        }
+        Assert.assertEquals(601, factory.getCount());
+        cache.getTile(FastMath.toRadians(-9.5), FastMath.toRadians(100.5));
+        Assert.assertEquals(602, factory.getCount());
+
+    }
+
     @Test
     public void testExactEnd() {
         CountingFactory factory = new CountingFactory();
@@ -10,9 +10,11 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 import org.hipparchus.analysis.differentiation.Derivative;
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.FieldVector3D;
 import org.hipparchus.geometry.euclidean.threed.Rotation;
 import org.hipparchus.geometry.euclidean.threed.RotationConvention;
@@ -159,6 +161,211 @@ public class AtmosphericRefractionTest {
 
     }
 
+    private void checkContext(final AtmosphericRefraction atmosphericRefraction, final String sensorName,
+                              final int minLine, final int maxLine) {
+        Assert.assertTrue(atmosphericRefraction.isSameContext(sensorName, minLine, maxLine));
+        final AtmosphericComputationParameters parameters = atmosphericRefraction.getComputationParameters();
+        Assert.assertEquals(sensorName, parameters.getSensorName());
+        Assert.assertEquals(minLine, parameters.getMinLineSensor(), 0.0);
+        Assert.assertEquals(maxLine, parameters.getMaxLineSensor(), 0.0);
+        final double[] vGrid = parameters.getVgrid();
+        Assert.assertEquals(parameters.getNbLineGrid(), vGrid.length);
+        Assert.assertEquals(minLine + 10, vGrid[0], 1.0e-10);
+        Assert.assertEquals(maxLine - 10, vGrid[vGrid.length - 1], 1.0e-10);
+        Assert.assertEquals(parameters.getNbPixelGrid(), parameters.getUgrid().length);
+    }
+
+    @Test
+    public void testCorrectionGridsCache() throws URISyntaxException  {
+
+        String sensorName = "line";
+        RuggedBuilder builder = initRuggedForAtmosphericTests(4000, sensorName);
+        AtmosphericRefraction atmosphericRefraction = new MultiLayerModel(builder.getEllipsoid());
+        Assert.assertEquals(8, atmosphericRefraction.getMaxCorrectionGrids());
+        builder.setRefractionCorrection(atmosphericRefraction);
+        Rugged rugged = builder.build();
+
+        // two line windows, inverse locations alternate between them
+        GeodeticPoint gpA = rugged.directLocation(sensorName, 500.0)[1200];
+        GeodeticPoint gpB = rugged.directLocation(sensorName, 2500.0)[2800];
+        Assert.assertFalse(atmosphericRefraction.selectCorrectionGrid(sensorName, 0, 1500));
+        SensorPixel spA = rugged.inverseLocation(sensorName, gpA, 0, 1500);
+        Object bifPixelA = atmosphericRefraction.getBifPixel();
+        SensorPixel spB = rugged.inverseLocation(sensorName, gpB, 2000, 4000);
+        Assert.assertNotSame(bifPixelA, atmosphericRefraction.getBifPixel());
+        SensorPixel spA2 = rugged.inverseLocation(sensorName, gpA, 0, 1500);
+
+        // the first grid has not been recomputed
+        Assert.assertSame(bifPixelA, atmosphericRefraction.getBifPixel());
+        Assert.assertEquals(spA.getLineNumber(),  spA2.getLineNumber(),  1.0e-3);
+        Assert.assertEquals(spA.getPixelNumber(), spA2.getPixelNumber(), 1.0e-3);
+        Assert.assertEquals(500.0,  spA.getLineNumber(),  1.0e-2);
+        Assert.assertEquals(1200.0, spA.getPixelNumber(), 1.0e-3);
+        Assert.assertEquals(2500.0, spB.getLineNumber(),  1.0e-2);
+        Assert.assertEquals(2800.0, spB.getPixelNumber(), 1.0e-3);
+
+        // the computation parameters follow the selected grid
+        checkContext(atmosphericRefraction, sensorName, 0, 1500);
+        Assert.assertTrue(atmosphericRefraction.selectCorrectionGrid(sensorName, 2000, 4000));
+        checkContext(atmosphericRefraction, sensorName, 2000, 4000);
+        Assert.assertTrue(atmosphericRefraction.selectCorrectionGrid(sensorName, 0, 1500));
+        checkContext(atmosphericRefraction, sensorName, 0, 1500);
+
+        // with a single grid, switching windows evicts the previous grid
+        atmosphericRefraction.setMaxCorrectionGrids(1);
+        Assert.assertFalse(atmosphericRefraction.selectCorrectionGrid(sensorName, 2000, 4000));
+        Assert.assertTrue(atmosphericRefraction.selectCorrectionGrid(sensorName, 0, 1500));
+        rugged.inverseLocation(sensorName, gpB, 2000, 4000);
+        Assert.assertFalse(atmosphericRefraction.selectCorrectionGrid(sensorName, 0, 1500));
+
+        // changing grid steps invalidates the cached grids
+        atmosphericRefraction.setGridSteps(50, 50);
+        Assert.assertFalse(atmosphericRefraction.selectCorrectionGrid(sensorName, 2000, 4000));
+
+        try {
+            atmosphericRefraction.setMaxCorrectionGrids(0);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(0, ((Integer) re.getParts()[0]).intValue());
+        }
+
+    }
+
+    @Test
+    public void testParallelCorrectionGrid() throws URISyntaxException  {
+
+        String sensorName = "line";
+        RuggedBuilder builder = initRuggedForAtmosphericTests(4000, sensorName);
+        builder.setConcurrentTilesCache(true);
+        AtmosphericRefraction sequentialRefraction = new MultiLayerModel(builder.getEllipsoid());
+        Rugged sequential = builder.setRefractionCorrection(sequentialRefraction).build();
+        AtmosphericRefraction parallelRefraction = new MultiLayerModel(builder.getEllipsoid());
+        Rugged parallel = builder.setRefractionCorrection(parallelRefraction).build();
+
+        GeodeticPoint[] gp = sequential.directLocation(sensorName, 800.0);
+        double[] latitudes  = new double[gp.length / 50];
+        double[] longitudes = new double[latitudes.length];
+        double[] altitudes  = new double[latitudes.length];
+        for (int i = 0; i < latitudes.length; ++i) {
+            latitudes[i]  = gp[50 * i].getLatitude();
+            longitudes[i] = gp[50 * i].getLongitude();
+            altitudes[i]  = gp[50 * i].getAltitude();
+        }
+        double[] lines  = new double[latitudes.length];
+        double[] pixels = new double[latitudes.length];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        parallel.inverseLocation(sensorName, latitudes, longitudes, altitudes, 0, 2000, lines, pixels, pool);
+        pool.shutdown();
+
+        for (int i = 0; i < latitudes.length; ++i) {
+
+            SensorPixel sp = sequential.inverseLocation(sensorName, gp[50 * i], 0, 2000);
+
+            // the correction grids are the same
+            Assert.assertEquals(sequentialRefraction.getBifPixel().value(50 * i, 800.0),
+                                parallelRefraction.getBifPixel().value(50 * i, 800.0),
+                                1.0e-8);
+            Assert.assertEquals(sequentialRefraction.getBifLine().value(50 * i, 800.0),
+                                parallelRefraction.getBifLine().value(50 * i, 800.0),
+                                1.0e-8);
+
+            // line numbers depend on the state of the mean plane crossing finder,
+            // at the coarse inverse location accuracy level
+            Assert.assertEquals(800.0,  sp.getLineNumber(), 1.0e-2);
+            Assert.assertEquals(800.0,  lines[i],  1.0e-2);
+            Assert.assertEquals(sp.getPixelNumber(), pixels[i], 1.0e-6);
+            Assert.assertEquals(50 * i, pixels[i], 1.0e-3);
+
+        }
+
+    }
+
+    @Test
+    public void testDirectLocationGrid() throws URISyntaxException  {
+
+        String sensorName = "line";
+        RuggedBuilder builder = initRuggedForAtmosphericTests(4000, sensorName);
+        builder.setConcurrentTilesCache(true);
+        AtmosphericRefraction exactRefraction = new MultiLayerModel(builder.getEllipsoid());
+        Rugged exact = builder.setRefractionCorrection(exactRefraction).build();
+        AtmosphericRefraction gridRefraction = new MultiLayerModel(builder.getEllipsoid());
+        Rugged interpolated = builder.setRefractionCorrection(gridRefraction).build();
+        LineSensor sensor = exact.getLineSensor(sensorName);
+        Assert.assertNull(gridRefraction.getDirectLocationGrid(sensor));
+
+        gridRefraction.setDirectLocationGrid(200, 100, 0.05);
+        DirectLocationGrid grid = gridRefraction.getDirectLocationGrid(sensor);
+        Assert.assertEquals(200,  grid.getPixelStep());
+        Assert.assertEquals(100,  grid.getLineStep());
+        Assert.assertEquals(0.05, grid.getTolerance(), 1.0e-15);
+        Assert.assertSame(grid, gridRefraction.getDirectLocationGrid(sensor));
+
+        // interpolated correction remains close to the exact one
+        double maxError = 0.0;
+        for (double line = 250.0; line < 3000.0; line += 437.0) {
+            GeodeticPoint[] gpExact        = exact.directLocation(sensorName, line);
+            GeodeticPoint[] gpInterpolated = interpolated.directLocation(sensorName, line);
+            for (int i = 0; i < gpExact.length; ++i) {
+                double distance = exact.getEllipsoid().transform(gpExact[i]).
+                                  distance(exact.getEllipsoid().transform(gpInterpolated[i]));
+                maxError = FastMath.max(maxError, distance);
+            }
+        }
+        Assert.assertTrue(maxError > 0.0);
+        Assert.assertTrue(maxError < 1.0e-2);
+
+        // batch direct location uses the same grid
+        int nbPixels = sensor.getNbPixels();
+        double[] latitudes  = new double[3 * nbPixels];
+        double[] longitudes = new double[3 * nbPixels];
+        double[] altitudes  = new double[3 * nbPixels];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        interpolated.directLocation(sensorName, 1000.0, 25.0, 3, 0, 1, nbPixels,
+                                    latitudes, longitudes, altitudes, pool);
+        pool.shutdown();
+        for (int l = 0; l < 3; ++l) {
+            GeodeticPoint[] gp = interpolated.directLocation(sensorName, 1000.0 + 25.0 * l);
+            for (int i = 0; i < nbPixels; ++i) {
+                Assert.assertEquals(gp[i].getLatitude(),  latitudes[l * nbPixels + i],  1.0e-15);
+                Assert.assertEquals(gp[i].getLongitude(), longitudes[l * nbPixels + i], 1.0e-15);
+                Assert.assertEquals(gp[i].getAltitude(),  altitudes[l * nbPixels + i],  1.0e-9);
+            }
+        }
+
+        // with a tolerance too small, all cells fall back to exact correction
+        gridRefraction.setDirectLocationGrid(200, 100, 1.0e-9);
+        GeodeticPoint[] gpExact        = exact.directLocation(sensorName, 1234.5);
+        GeodeticPoint[] gpInterpolated = interpolated.directLocation(sensorName, 1234.5);
+        for (int i = 0; i < gpExact.length; ++i) {
+            Assert.assertEquals(gpExact[i].getLatitude(),  gpInterpolated[i].getLatitude(),  1.0e-15);
+            Assert.assertEquals(gpExact[i].getLongitude(), gpInterpolated[i].getLongitude(), 1.0e-15);
+            Assert.assertEquals(gpExact[i].getAltitude(),  gpInterpolated[i].getAltitude(),  1.0e-9);
+        }
+
+        gridRefraction.disableDirectLocationGrid();
+        Assert.assertNull(gridRefraction.getDirectLocationGrid(sensor));
+
+        try {
+            gridRefraction.setDirectLocationGrid(0, 100, 0.05);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(RuggedMessages.INVALID_STEP, re.getSpecifier());
+        }
+        try {
+            gridRefraction.setDirectLocationGrid(100, -1, 0.05);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(RuggedMessages.INVALID_STEP, re.getSpecifier());
+        }
+        try {
+            gridRefraction.setDirectLocationGrid(100, 100, 0.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL_BOUND_EXCLUDED, re.getSpecifier());
+        }
+
+    }
+
     private RuggedBuilder initRuggedForAtmosphericTests(final int dimension, final String sensorName) throws URISyntaxException {
         
         String path = getClass().getClassLoader().getResource("orekit-data").toURI().getPath();
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.hipparchus.analysis.UnivariateFunction;
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.geometry.euclidean.threed.Rotation;
 import org.hipparchus.geometry.euclidean.threed.RotationConvention;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
@@ -248,6 +249,76 @@ public class MultiLayerModelTest extends AbstractAlgorithmTest {
 
     }
 
+    @Test
+    public void testLookupTable() {
+
+        setUpMayonVolcanoContext();
+        final IntersectionAlgorithm algorithm = createAlgorithm(updater, 8, true);
+        final Vector3D position = new Vector3D(-3787079.6453602533, 5856784.405679551, 1655869.0582939098);
+        MultiLayerModel exactModel = new MultiLayerModel(earth);
+        MultiLayerModel tabulatedModel = new MultiLayerModel(earth);
+        Assert.assertFalse(tabulatedModel.isLookupTableEnabled());
+        tabulatedModel.setLookupTable(FastMath.toRadians(70.0), 701);
+        Assert.assertTrue(tabulatedModel.isLookupTableEnabled());
+
+        double maxError = 0.0;
+        for (double alpha = 0; alpha < FastMath.toRadians(55.0); alpha += 0.01) {
+            final Vector3D rotatingLos = los(position, alpha);
+            final NormalizedGeodeticPoint rawIntersection = algorithm.refineIntersection(earth, position, rotatingLos,
+                                                                                         algorithm.intersection(earth, position, rotatingLos));
+            final NormalizedGeodeticPoint exact     = exactModel.applyCorrection(position, rotatingLos, rawIntersection, algorithm);
+            final NormalizedGeodeticPoint tabulated = tabulatedModel.applyCorrection(position, rotatingLos, rawIntersection, algorithm);
+            maxError = FastMath.max(maxError, Vector3D.distance(earth.transform(exact), earth.transform(tabulated)));
+        }
+        Assert.assertTrue(maxError < 1.0e-3);
+
+        // in validation mode, the tabulated correction is compared with the exact one
+        final Vector3D los = los(position, FastMath.toRadians(40.0));
+        final NormalizedGeodeticPoint rawIntersection = algorithm.refineIntersection(earth, position, los,
+                                                                                     algorithm.intersection(earth, position, los));
+        final NormalizedGeodeticPoint exact = exactModel.applyCorrection(position, los, rawIntersection, algorithm);
+        tabulatedModel.setLookupTable(FastMath.toRadians(70.0), 8);
+        tabulatedModel.setLookupTableValidation(1.0e-6);
+        try {
+            tabulatedModel.applyCorrection(position, los, rawIntersection, algorithm);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(RuggedMessages.REFRACTION_LOOKUP_TABLE_INACCURATE, re.getSpecifier());
+            Assert.assertTrue(((Double) re.getParts()[0]).doubleValue() > 1.0e-6);
+        }
+        tabulatedModel.disableLookupTableValidation();
+        final NormalizedGeodeticPoint coarse = tabulatedModel.applyCorrection(position, los, rawIntersection, algorithm);
+        Assert.assertTrue(Vector3D.distance(earth.transform(exact), earth.transform(coarse)) > 1.0e-6);
+
+        // rays beyond the table are traced exactly
+        tabulatedModel.setLookupTable(FastMath.toRadians(10.0), 101);
+        final NormalizedGeodeticPoint beyond = tabulatedModel.applyCorrection(position, los, rawIntersection, algorithm);
+        Assert.assertEquals(0.0, Vector3D.distance(earth.transform(exact), earth.transform(beyond)), 1.0e-10);
+
+        tabulatedModel.disableLookupTable();
+        Assert.assertFalse(tabulatedModel.isLookupTableEnabled());
+
+        try {
+            tabulatedModel.setLookupTable(0.5 * FastMath.PI, 101);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, re.getSpecifier());
+        }
+        try {
+            tabulatedModel.setLookupTable(1.0, 1);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, re.getSpecifier());
+        }
+        try {
+            tabulatedModel.setLookupTableValidation(0.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL_BOUND_EXCLUDED, re.getSpecifier());
+        }
+
+    }
+
     private Vector3D los(final Vector3D position, final double angleFromNadir) {
         
         final Vector3D nadir       = earth.transform(position, earth.getBodyFrame(), null).getNadir();
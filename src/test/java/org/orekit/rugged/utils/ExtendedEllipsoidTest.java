@@ -200,6 +200,164 @@ public class ExtendedEllipsoidTest {
 
     }
 
+    @Test
+    public void testDistanceToGround() {
+
+        Vector3D p = new Vector3D(3220103.0, 69623.0, -6449822.0);
+        for (double alpha = -0.3; alpha < 0.3; alpha += 0.01) {
+            Vector3D d = new Vector3D(-1.0 + alpha, -0.1 - alpha, 2.0);
+            Vector3D ground = ellipsoid.transform(ellipsoid.pointOnGround(p, d, 0.0));
+            Assert.assertEquals(ground.distance(p), ellipsoid.distanceToGround(p, d), 1.0e-6);
+            Assert.assertEquals(ground.distance(p), ellipsoid.distanceToGround(p, d.normalize()), 1.0e-6);
+        }
+
+        try {
+            ellipsoid.distanceToGround(p, new Vector3D(1.0, 0.0, 0.0));
+            Assert.fail("an error should have been triggered");
+        } catch (RuggedException re) {
+            Assert.assertEquals(RuggedMessages.LINE_OF_SIGHT_DOES_NOT_REACH_GROUND, re.getSpecifier());
+        }
+
+    }
+
+    @Test
+    public void testBatchTransform() {
+
+        final int n = 1000;
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        final double[] z = new double[n];
+        final GeodeticPoint[] reference = new GeodeticPoint[n];
+        for (int i = 0; i < n; ++i) {
+            final double latitude  = FastMath.toRadians(-90.0 + 180.0 * i / (n - 1));
+            final double longitude = FastMath.toRadians(-180.0 + 0.7 * i);
+            final double altitude  = (i % 2 == 0) ? -400.0 + 9.0 * i : 800000.0 - 20.0 * i;
+            final Vector3D p = ellipsoid.transform(new GeodeticPoint(latitude, longitude, altitude));
+            x[i] = p.getX();
+            y[i] = p.getY();
+            z[i] = p.getZ();
+            reference[i] = ellipsoid.transform(p, ellipsoid.getBodyFrame(), null, FastMath.PI);
+        }
+
+        final double[] latitudes  = new double[n];
+        final double[] longitudes = new double[n];
+        final double[] altitudes  = new double[n];
+        ellipsoid.transform(x, y, z, FastMath.PI, latitudes, longitudes, altitudes);
+        for (int i = 0; i < n; ++i) {
+            Assert.assertEquals(reference[i].getLatitude(),  latitudes[i],  1.0e-14);
+            Assert.assertEquals(reference[i].getLongitude(), longitudes[i], 1.0e-14);
+            Assert.assertEquals(reference[i].getAltitude(),  altitudes[i],  1.0e-8);
+        }
+
+        // in place conversion
+        ellipsoid.transform(x, y, z, FastMath.PI, x, y, z);
+        Assert.assertArrayEquals(latitudes,  x, 0.0);
+        Assert.assertArrayEquals(longitudes, y, 0.0);
+        Assert.assertArrayEquals(altitudes,  z, 0.0);
+
+    }
+
+    @Test
+    public void testBatchPointOnGroundAndAltitude() {
+
+        final Vector3D p = new Vector3D(3220103.0, 69623.0, -6449822.0);
+        final int n = 60;
+        final double[] px = new double[n];
+        final double[] py = new double[n];
+        final double[] pz = new double[n];
+        final double[] lx = new double[n];
+        final double[] ly = new double[n];
+        final double[] lz = new double[n];
+        for (int i = 0; i < n; ++i) {
+            final double alpha = -0.3 + 0.01 * i;
+            px[i] = p.getX();
+            py[i] = p.getY();
+            pz[i] = p.getZ();
+            lx[i] = -1.0 + alpha;
+            ly[i] = -0.1 - alpha;
+            lz[i] = 2.0;
+        }
+
+        final double[] latitudes  = new double[n];
+        final double[] longitudes = new double[n];
+        final double[] altitudes  = new double[n];
+        ellipsoid.pointOnGround(px, py, pz, lx, ly, lz, 0.0, latitudes, longitudes, altitudes);
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        final double[] z = new double[n];
+        ellipsoid.pointAtAltitude(px, py, pz, lx, ly, lz, 1200.0, x, y, z);
+        for (int i = 0; i < n; ++i) {
+            final Vector3D d = new Vector3D(lx[i], ly[i], lz[i]);
+            final GeodeticPoint gp = ellipsoid.pointOnGround(p, d, 0.0);
+            Assert.assertEquals(gp.getLatitude(),  latitudes[i],  1.0e-14);
+            Assert.assertEquals(gp.getLongitude(), longitudes[i], 1.0e-14);
+            Assert.assertEquals(0.0,               altitudes[i],  1.0e-8);
+            final Vector3D pA = ellipsoid.pointAtAltitude(p, d, 1200.0);
+            Assert.assertEquals(0.0, Vector3D.distance(pA, new Vector3D(x[i], y[i], z[i])), 1.0e-2);
+            Assert.assertEquals(1200.0,
+                                ellipsoid.transform(new Vector3D(x[i], y[i], z[i]), ellipsoid.getBodyFrame(), null).getAltitude(),
+                                1.0e-3);
+        }
+
+        try {
+            lx[n / 2] = 1.0;
+            ly[n / 2] = 0.0;
+            lz[n / 2] = 0.0;
+            ellipsoid.pointOnGround(px, py, pz, lx, ly, lz, 0.0, latitudes, longitudes, altitudes);
+            Assert.fail("an error should have been triggered");
+        } catch (RuggedException re) {
+            Assert.assertEquals(RuggedMessages.LINE_OF_SIGHT_DOES_NOT_REACH_GROUND, re.getSpecifier());
+        }
+
+    }
+
+    @Test
+    public void testBatchPointAtLatitudeAndLongitude() {
+
+        final Vector3D p = new Vector3D(3220103.0, 69623.0, -6449822.0);
+        final int n = 60;
+        final double[] px = new double[n];
+        final double[] py = new double[n];
+        final double[] pz = new double[n];
+        final double[] lx = new double[n];
+        final double[] ly = new double[n];
+        final double[] lz = new double[n];
+        for (int i = 0; i < n; ++i) {
+            px[i] = p.getX();
+            py[i] = p.getY();
+            pz[i] = p.getZ();
+            lx[i] = 1.0;
+            ly[i] = 2.0 + 0.01 * i;
+            lz[i] = 3.0;
+        }
+
+        final double latitude  = 0.3;
+        final double longitude = 0.5;
+        final double[] xLat = new double[n];
+        final double[] yLat = new double[n];
+        final double[] zLat = new double[n];
+        ellipsoid.pointAtLatitude(px, py, pz, lx, ly, lz, latitude, px, py, pz, xLat, yLat, zLat);
+        final double[] xLon = new double[n];
+        final double[] yLon = new double[n];
+        final double[] zLon = new double[n];
+        ellipsoid.pointAtLongitude(px, py, pz, lx, ly, lz, longitude, xLon, yLon, zLon);
+        for (int i = 0; i < n; ++i) {
+            final Vector3D d = new Vector3D(lx[i], ly[i], lz[i]);
+
+            // the batch versions give exactly the same results as the single point versions
+            final Vector3D pLat = ellipsoid.pointAtLatitude(p, d, latitude, p);
+            Assert.assertEquals(pLat.getX(), xLat[i], 0.0);
+            Assert.assertEquals(pLat.getY(), yLat[i], 0.0);
+            Assert.assertEquals(pLat.getZ(), zLat[i], 0.0);
+            final Vector3D pLon = ellipsoid.pointAtLongitude(p, d, longitude);
+            Assert.assertEquals(pLon.getX(), xLon[i], 0.0);
+            Assert.assertEquals(pLon.getY(), yLon[i], 0.0);
+            Assert.assertEquals(pLon.getZ(), zLon[i], 0.0);
+
+        }
+
+    }
+
     @Test
     public void testPointAtAltitudeStartInside() {
 
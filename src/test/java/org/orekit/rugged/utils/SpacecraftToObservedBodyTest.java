@@ -16,13 +16,22 @@
  */
 package org.orekit.rugged.utils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.geometry.euclidean.threed.RotationConvention;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.hipparchus.util.FastMath;
 import org.junit.After;
@@ -36,7 +45,9 @@ import org.orekit.bodies.BodyShape;
 import org.orekit.data.DataContext;
 import org.orekit.data.DirectoryCrawler;
 import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
 import org.orekit.frames.FramesFactory;
+import org.orekit.frames.Transform;
 import org.orekit.orbits.Orbit;
 import org.orekit.rugged.TestUtils;
 import org.orekit.rugged.errors.RuggedException;
@@ -45,9 +56,11 @@ import org.orekit.rugged.linesensor.LineSensor;
 import org.orekit.rugged.linesensor.LinearLineDatation;
 import org.orekit.rugged.los.LOSBuilder;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.AngularCoordinates;
 import org.orekit.utils.AngularDerivativesFilter;
 import org.orekit.utils.CartesianDerivativesFilter;
 import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinates;
 import org.orekit.utils.TimeStampedAngularCoordinates;
 import org.orekit.utils.TimeStampedPVCoordinates;
 
@@ -100,7 +113,182 @@ public class SpacecraftToObservedBodyTest {
         }        	
     }
 
-    
+    @Test
+    public void testPackedTransforms() throws IOException, ClassNotFoundException {
+
+        final Frame        inertial = FramesFactory.getEME2000();
+        final AbsoluteDate minDate  = sensor.getDate(0);
+        final AbsoluteDate maxDate  = sensor.getDate(2000);
+        final double       tStep    = 0.25;
+        final List<Transform> b2iList = new ArrayList<>();
+        final List<Transform> s2iList = new ArrayList<>();
+        for (AbsoluteDate date = minDate; date.compareTo(maxDate) < 0; date = date.shiftedBy(tStep)) {
+            b2iList.add(earth.getBodyFrame().getTransformTo(inertial, date));
+            s2iList.add(new Transform(date, orbit.getPVCoordinates(date, inertial)));
+        }
+        final SpacecraftToObservedBody scToBody =
+                        new SpacecraftToObservedBody(inertial, earth.getBodyFrame(), minDate, maxDate, tStep, 5.0,
+                                                     b2iList, s2iList);
+
+        // serialization round trip uses the packed arrays directly
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new ObjectOutputStream(bos).writeObject(scToBody);
+        final SpacecraftToObservedBody deserialized =
+                        (SpacecraftToObservedBody) new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())).readObject();
+
+        for (double dt = 0; dt < maxDate.durationFrom(minDate); dt += 0.37) {
+            final AbsoluteDate date  = minDate.shiftedBy(dt);
+            final int          index = FastMath.min(b2iList.size() - 1, (int) FastMath.rint(dt / tStep));
+            final Transform    b2i   = b2iList.get(index).shiftedBy(date.durationFrom(b2iList.get(index).getDate()));
+            final Transform    i2b   = b2iList.get(index).getInverse().shiftedBy(date.durationFrom(b2iList.get(index).getDate()));
+            final Transform    s2i   = s2iList.get(index).shiftedBy(date.durationFrom(s2iList.get(index).getDate()));
+            for (final SpacecraftToObservedBody provider : Arrays.asList(scToBody, deserialized)) {
+                checkSame(b2i, provider.getBodyToInertial(date));
+                checkSame(i2b, provider.getInertialToBody(date));
+                checkSame(s2i, provider.getScToInertial(date));
+            }
+        }
+
+    }
+
+    @Test
+    public void testParallelConstruction() {
+
+        final Frame        inertial = FramesFactory.getEME2000();
+        final AbsoluteDate minDate  = sensor.getDate(0);
+        final AbsoluteDate maxDate  = sensor.getDate(2000);
+        final List<TimeStampedPVCoordinates> pvList =
+                        TestUtils.orbitToPV(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(1.0), 0.25);
+        final List<TimeStampedAngularCoordinates> qList =
+                        TestUtils.orbitToQ(orbit, earth, minDate.shiftedBy(-1.0), maxDate.shiftedBy(1.0), 0.25);
+
+        final SpacecraftToObservedBody sequential =
+                        new SpacecraftToObservedBody(inertial, earth.getBodyFrame(), minDate, maxDate, 0.01, 5.0,
+                                                     pvList, 8, CartesianDerivativesFilter.USE_PV,
+                                                     qList, 2, AngularDerivativesFilter.USE_R);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final SpacecraftToObservedBody parallel =
+                        new SpacecraftToObservedBody(inertial, earth.getBodyFrame(), minDate, maxDate, 0.01, 5.0,
+                                                     pvList, 8, CartesianDerivativesFilter.USE_PV,
+                                                     qList, 2, AngularDerivativesFilter.USE_R,
+                                                     pool);
+        pool.shutdown();
+
+        // parallel construction must give exactly the same transforms as sequential construction
+        for (double dt = 0; dt < maxDate.durationFrom(minDate); dt += 0.0137) {
+            final AbsoluteDate date = minDate.shiftedBy(dt);
+            checkSame(sequential.getBodyToInertial(date), parallel.getBodyToInertial(date));
+            checkSame(sequential.getScToInertial(date),   parallel.getScToInertial(date));
+        }
+
+    }
+
+    @Test
+    public void testInterpolationNumber() throws IOException, ClassNotFoundException {
+
+        final Frame        inertial = FramesFactory.getEME2000();
+        final AbsoluteDate minDate  = sensor.getDate(0);
+        final AbsoluteDate maxDate  = sensor.getDate(2000);
+
+        // coarse sampling step for a smooth trajectory and attitude
+        final double tStep = 0.5;
+        final List<Transform> b2iList = new ArrayList<>();
+        final List<Transform> s2iList = new ArrayList<>();
+        for (AbsoluteDate date = minDate; date.compareTo(maxDate) < 0; date = date.shiftedBy(tStep)) {
+            b2iList.add(earth.getBodyFrame().getTransformTo(inertial, date));
+            s2iList.add(scToInertial(minDate, date));
+        }
+        final SpacecraftToObservedBody closest =
+                        new SpacecraftToObservedBody(inertial, earth.getBodyFrame(), minDate, maxDate, tStep, 5.0,
+                                                     b2iList, s2iList);
+        final SpacecraftToObservedBody interpolated = closest.withInterpolationNumber(4);
+        Assert.assertEquals(1, closest.getInterpolationNumber());
+        Assert.assertEquals(4, interpolated.getInterpolationNumber());
+
+        // interpolation number is preserved by serialization
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new ObjectOutputStream(bos).writeObject(interpolated);
+        final SpacecraftToObservedBody deserialized =
+                        (SpacecraftToObservedBody) new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())).readObject();
+        Assert.assertEquals(4, deserialized.getInterpolationNumber());
+
+        double maxClosestError      = 0;
+        double maxInterpolatedError = 0;
+        for (double dt = 0; dt < maxDate.durationFrom(minDate) - tStep; dt += 0.0137) {
+            final AbsoluteDate date = minDate.shiftedBy(dt);
+            final Transform    ref  = scToInertial(minDate, date);
+            maxClosestError      = FastMath.max(maxClosestError,      error(ref, closest.getScToInertial(date)));
+            maxInterpolatedError = FastMath.max(maxInterpolatedError, error(ref, interpolated.getScToInertial(date)));
+            checkSame(interpolated.getScToInertial(date),   deserialized.getScToInertial(date));
+            checkSame(interpolated.getBodyToInertial(date), deserialized.getBodyToInertial(date));
+            Assert.assertEquals(0.0,
+                                error(interpolated.getBodyToInertial(date).getInverse(), interpolated.getInertialToBody(date)),
+                                1.0e-15);
+        }
+        Assert.assertEquals(0.022,  maxClosestError,      1.0e-3);
+        Assert.assertEquals(2.3e-8, maxInterpolatedError, 1.0e-9);
+
+        // dates slightly outside of the sample are handled by shifting the closest sample
+        final AbsoluteDate before = minDate.shiftedBy(-1.0);
+        checkSame(closest.getScToInertial(before), interpolated.getScToInertial(before));
+        final AbsoluteDate after  = maxDate.shiftedBy(1.0);
+        checkSame(closest.getScToInertial(after), interpolated.getScToInertial(after));
+
+        try {
+            closest.withInterpolationNumber(0);
+            Assert.fail("an exception should have been thrown");
+        } catch (RuggedException re) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, re.getSpecifier());
+        }
+
+    }
+
+    /** Compute a reference transform from spacecraft frame to inertial frame.
+     * <p>
+     * The spacecraft is on a circular trajectory and its attitude has a sinusoidal jitter.
+     * </p>
+     * @param t0 reference date
+     * @param date date of the transform
+     * @return transform from spacecraft frame to inertial frame
+     */
+    private Transform scToInertial(final AbsoluteDate t0, final AbsoluteDate date) {
+        final double r     = 7.1e6;
+        final double omega = 1.06e-3;
+        final double a     = 1.0e-5;
+        final double nu    = 0.5;
+        final double t     = date.durationFrom(t0);
+        final Vector3D position = new Vector3D(r * FastMath.cos(omega * t), r * FastMath.sin(omega * t), 0.0);
+        final PVCoordinates pv  = new PVCoordinates(position,
+                                                    new Vector3D(omega, Vector3D.crossProduct(Vector3D.PLUS_K, position)),
+                                                    new Vector3D(-omega * omega, position));
+        final AngularCoordinates ac =
+                        new AngularCoordinates(new Rotation(Vector3D.PLUS_K, omega * t + a * FastMath.sin(nu * t),
+                                                            RotationConvention.FRAME_TRANSFORM),
+                                               new Vector3D(omega + a * nu * FastMath.cos(nu * t), Vector3D.PLUS_K),
+                                               new Vector3D(-a * nu * nu * FastMath.sin(nu * t), Vector3D.PLUS_K));
+        return new Transform(date, new Transform(date, pv), new Transform(date, ac));
+    }
+
+    /** Compute the error between two transforms.
+     * @param expected expected transform
+     * @param actual actual transform
+     * @return position error (m) of a point at 1000 km along spacecraft Z axis
+     */
+    private double error(final Transform expected, final Transform actual) {
+        final Vector3D p = new Vector3D(0, 0, 1.0e6);
+        return Vector3D.distance(expected.transformPosition(p), actual.transformPosition(p));
+    }
+
+    private void checkSame(final Transform expected, final Transform actual) {
+        Assert.assertEquals(0.0, expected.getDate().durationFrom(actual.getDate()), 0.0);
+        Assert.assertEquals(0.0, Vector3D.distance(expected.getTranslation(), actual.getTranslation()), 0.0);
+        Assert.assertEquals(0.0, Vector3D.distance(expected.getVelocity(), actual.getVelocity()), 0.0);
+        Assert.assertEquals(0.0, Vector3D.distance(expected.getAcceleration(), actual.getAcceleration()), 0.0);
+        Assert.assertEquals(0.0, Rotation.distance(expected.getRotation(), actual.getRotation()), 0.0);
+        Assert.assertEquals(0.0, Vector3D.distance(expected.getRotationRate(), actual.getRotationRate()), 0.0);
+        Assert.assertEquals(0.0, Vector3D.distance(expected.getRotationAcceleration(), actual.getRotationAcceleration()), 0.0);
+    }
+
 	public SpacecraftToObservedBodyTest(double shiftPVmin, double shiftPVmax, double shiftQmin, double shiftQmax) {
 		super();
 		this.shiftPVmin = shiftPVmin;